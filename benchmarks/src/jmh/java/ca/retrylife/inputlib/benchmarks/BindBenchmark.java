@@ -0,0 +1,99 @@
+package ca.retrylife.inputlib.benchmarks;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import ca.retrylife.inputlib.BindOrder;
+import ca.retrylife.inputlib.Parser;
+import ca.retrylife.inputlib.types.Token;
+
+/**
+ * Measures {@link Parser#bind} against the two ways callers filled objects
+ * before it: copying Token values by hand, and setting fields reflectively
+ * from Tokens
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BindBenchmark {
+
+    // Lines per invocation
+    private static final int BATCH = 1024;
+
+    /**
+     * Target class
+     */
+    @BindOrder({ "id", "quantity", "price", "urgent", "customer" })
+    public static class Order {
+        public int id;
+        public long quantity;
+        public double price;
+        public boolean urgent;
+        public String customer;
+    }
+
+    private String[] lines;
+    private Field[] fields;
+
+    @Setup
+    public void setup() throws NoSuchFieldException {
+        lines = new String[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            lines[i] = String.format("%d %d %d.%02d %s customer%d", i, i * 1_000_003L, i % 500, i % 100,
+                    (i % 3 == 0) ? "yes" : "no", i % 97);
+        }
+        fields = new Field[] { Order.class.getField("id"), Order.class.getField("quantity"),
+                Order.class.getField("price"), Order.class.getField("urgent"), Order.class.getField("customer") };
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void bind(Blackhole bh) {
+        for (String line : lines) {
+            bh.consume(Parser.bind(line, Order.class));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void byHand(Blackhole bh) {
+        for (String line : lines) {
+            Token[] tokens = Parser.parseLine(line);
+            Order order = new Order();
+            order.id = tokens[0].getInteger();
+            order.quantity = tokens[1].getLong();
+            order.price = tokens[2].getDouble();
+            order.urgent = tokens[3].getBoolean();
+            order.customer = tokens[4].getString();
+            bh.consume(order);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void reflective(Blackhole bh) throws ReflectiveOperationException {
+        for (String line : lines) {
+            Token[] tokens = Parser.parseLine(line);
+            Order order = Order.class.getDeclaredConstructor().newInstance();
+            for (int i = 0; i < fields.length; i++) {
+                Class<?> type = fields[i].getType();
+                Object value = (type == int.class) ? tokens[i].getInteger()
+                        : (type == long.class) ? tokens[i].getLong()
+                                : (type == double.class) ? tokens[i].getDouble()
+                                        : (type == boolean.class) ? tokens[i].getBoolean() : tokens[i].getString();
+                fields[i].set(order, value);
+            }
+            bh.consume(order);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package ca.retrylife.inputlib.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import ca.retrylife.inputlib.Parser;
+
+/**
+ * Measures {@link Parser#parseToToken} over single-type and mixed workloads
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ParserBenchmark {
+
+    // Inputs per invocation
+    private static final int BATCH = 1024;
+
+    @Param({ "mixed", "integer", "hex", "float", "boolean", "text" })
+    public String workload;
+
+    private String[] inputs;
+
+    @Setup
+    public void setup() {
+        inputs = Workloads.generate(workload, BATCH);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void parseToToken(Blackhole bh) {
+        for (String input : inputs) {
+            bh.consume(Parser.parseToToken(input));
+        }
+    }
+}
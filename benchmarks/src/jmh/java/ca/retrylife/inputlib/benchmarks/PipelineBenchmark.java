@@ -0,0 +1,105 @@
+package ca.retrylife.inputlib.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import ca.retrylife.inputlib.RecordTokenizer;
+import ca.retrylife.inputlib.pipeline.TokenPipeline;
+import ca.retrylife.inputlib.pipeline.WaitStrategy;
+import ca.retrylife.inputlib.types.Token;
+import ca.retrylife.inputlib.types.Types;
+
+/**
+ * Measures a {@link TokenPipeline} against parsing and converting inline on one
+ * thread. Each line is parsed, then converted to a number. The pipeline only
+ * pays off with a core per stage, so compare the wait strategies on the target
+ * machine
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PipelineBenchmark {
+
+    // Lines per invocation
+    private static final int BATCH = 1024;
+
+    private String[] lines;
+
+    /**
+     * A running pipeline, kept for the whole trial
+     */
+    @State(Scope.Thread)
+    public static class Pipeline {
+
+        @Param({ "1", "2" })
+        public int parsers;
+
+        @Param({ "BUSY_SPIN", "YIELD", "PARK" })
+        public WaitStrategy waitStrategy;
+
+        TokenPipeline pipeline;
+
+        // Written by the convert thread, so its work can not be eliminated
+        double sum;
+
+        @Setup
+        public void setup() {
+            pipeline = new TokenPipeline((token, sequence, endOfBatch) -> sum += convert(token), 4096, parsers,
+                    waitStrategy);
+        }
+
+        @TearDown
+        public void tearDown() {
+            pipeline.close();
+        }
+    }
+
+    @Setup
+    public void setup() {
+        lines = Workloads.generate("mixed", BATCH);
+    }
+
+    /**
+     * The convert stage: reduce a Token to a number
+     *
+     * @param token Token
+     * @return Value
+     */
+    private static double convert(Token token) {
+        if (token.hasType(Types.DOUBLE)) {
+            return token.getDouble();
+        }
+        String text = token.getString();
+        return (text == null) ? 0 : text.length();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public double singleThread() {
+        double sum = 0;
+        for (String line : lines) {
+            sum += convert(RecordTokenizer.parseField(line));
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public double pipeline(Pipeline state) {
+        for (String line : lines) {
+            state.pipeline.publish(line);
+        }
+        state.pipeline.flush();
+        return state.sum;
+    }
+}
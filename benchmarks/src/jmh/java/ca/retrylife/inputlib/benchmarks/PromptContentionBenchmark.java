@@ -0,0 +1,73 @@
+package ca.retrylife.inputlib.benchmarks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import ca.retrylife.inputlib.Prompt;
+
+/**
+ * Measures the cost of sharing one Prompt between threads. Compare "shared" at
+ * 1 and 4 threads to see the cost of contention, and against "isolated" to see
+ * the cost of the exchange lock itself
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PromptContentionBenchmark {
+
+    // Each exchange is a bad answer, then a good one
+    private static final String INPUT = "bad\n42\n";
+
+    /**
+     * One Prompt shared by every benchmark thread
+     */
+    @State(Scope.Benchmark)
+    public static class SharedPrompt {
+        Prompt prompt;
+
+        @Setup
+        public void setup() {
+            prompt = new Prompt(new RepeatingInputStream(INPUT), new PrintStream(OutputStream.nullOutputStream()));
+        }
+    }
+
+    /**
+     * One Prompt per benchmark thread
+     */
+    @State(Scope.Thread)
+    public static class IsolatedPrompt {
+        Prompt prompt;
+
+        @Setup
+        public void setup() {
+            prompt = new Prompt(new RepeatingInputStream(INPUT), new PrintStream(OutputStream.nullOutputStream()));
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int sharedSingleThread(SharedPrompt state) {
+        return state.prompt.promptInteger("int");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int sharedFourThreads(SharedPrompt state) {
+        return state.prompt.promptInteger("int");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int isolatedFourThreads(IsolatedPrompt state) {
+        return state.prompt.promptInteger("int");
+    }
+}
@@ -0,0 +1,117 @@
+package ca.retrylife.inputlib.benchmarks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import ca.retrylife.inputlib.Prompt;
+
+/**
+ * Measures how many answers per second a Prompt can process end to end, when
+ * driven through {@link Prompt#Prompt(java.io.InputStream, PrintStream)} by
+ * millions of in-memory lines, with output going to a null sink.
+ * 
+ * Each typed method has a "valid" benchmark (every answer is accepted) and a
+ * "retry" benchmark (every accepted answer follows a rejected one). The
+ * difference between the two is the cost of the retry path. Run with the gc
+ * profiler (the default for this subproject) to get allocation rates
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PromptThroughputBenchmark {
+
+    // Lines generated for each input block. The blocks repeat once consumed
+    @Param({ "1000000" })
+    public int lines;
+
+    // Prompts for every method, with and without invalid answers
+    private Prompt integerValid;
+    private Prompt integerRetry;
+    private Prompt doubleValid;
+    private Prompt doubleRetry;
+    private Prompt booleanValid;
+    private Prompt booleanRetry;
+    private Prompt listValid;
+    private Prompt listRetry;
+    private Prompt multiLine;
+
+    @Setup
+    public void setup() {
+        integerValid = promptFor("integer", false);
+        integerRetry = promptFor("integer", true);
+        doubleValid = promptFor("double", false);
+        doubleRetry = promptFor("double", true);
+        booleanValid = promptFor("boolean", false);
+        booleanRetry = promptFor("boolean", true);
+        listValid = promptFor("list", false);
+        listRetry = promptFor("list", true);
+        multiLine = promptFor("multiline", false);
+    }
+
+    /**
+     * Build a Prompt over a block of generated answers
+     * 
+     * @param method      Prompt method
+     * @param withRetries Should invalid answers be mixed in?
+     * @return Prompt
+     */
+    private Prompt promptFor(String method, boolean withRetries) {
+        return new Prompt(new RepeatingInputStream(Workloads.answers(method, withRetries, lines)),
+                new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @Benchmark
+    public int integerValid() {
+        return integerValid.promptInteger("int");
+    }
+
+    @Benchmark
+    public int integerRetry() {
+        return integerRetry.promptInteger("int");
+    }
+
+    @Benchmark
+    public double doubleValid() {
+        return doubleValid.promptDouble("double");
+    }
+
+    @Benchmark
+    public double doubleRetry() {
+        return doubleRetry.promptDouble("double");
+    }
+
+    @Benchmark
+    public boolean booleanValid() {
+        return booleanValid.promptBoolean("boolean");
+    }
+
+    @Benchmark
+    public boolean booleanRetry() {
+        return booleanRetry.promptBoolean("boolean");
+    }
+
+    @Benchmark
+    public String listValid() {
+        return listValid.promptList("list", Workloads.LIST_OPTIONS);
+    }
+
+    @Benchmark
+    public String listRetry() {
+        return listRetry.promptList("list", Workloads.LIST_OPTIONS);
+    }
+
+    @Benchmark
+    public String multiLine() {
+        return multiLine.promptMultiLineString("text");
+    }
+}
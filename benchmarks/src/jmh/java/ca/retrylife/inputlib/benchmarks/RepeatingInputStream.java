@@ -0,0 +1,54 @@
+package ca.retrylife.inputlib.benchmarks;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * An endless InputStream that repeats the same block of text forever. This lets
+ * a benchmark read as many lines as it wants without running out
+ */
+public class RepeatingInputStream extends InputStream {
+
+    // Data to repeat
+    private final byte[] data;
+    private int position = 0;
+
+    /**
+     * Create a RepeatingInputStream
+     * 
+     * @param text Text to repeat
+     */
+    public RepeatingInputStream(String text) {
+        this(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Create a RepeatingInputStream
+     * 
+     * @param data Bytes to repeat
+     */
+    public RepeatingInputStream(byte[] data) {
+        this.data = data;
+    }
+
+    @Override
+    public int read() {
+        int b = data[position];
+        position = (position + 1) % data.length;
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+
+        // Copy as much of the block as fits
+        int copied = 0;
+        while (copied < len) {
+            int count = Math.min(len - copied, data.length - position);
+            System.arraycopy(data, position, b, off + copied, count);
+            copied += count;
+            position = (position + count) % data.length;
+        }
+        return copied;
+    }
+}
@@ -0,0 +1,101 @@
+package ca.retrylife.inputlib.benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import ca.retrylife.inputlib.table.Table;
+import ca.retrylife.inputlib.table.TableReader;
+import ca.retrylife.inputlib.types.Types;
+
+/**
+ * Measures {@link TableReader} loading a synthetic multi-GB CSV, both in
+ * parallel chunks from a file and on one thread from a Reader. The file has a
+ * decimal int, a hex int, a double, an "f" float, a boolean, and a char column.
+ * 
+ * The file is generated once per run in the temp directory. Use
+ * {@code -p sizeMb=...} for a different size
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx12g" })
+public class TableReaderBenchmark {
+
+    // Columns of the generated file
+    private static final Types[] SCHEMA = { Types.INTEGER, Types.INTEGER, Types.DOUBLE, Types.FLOAT, Types.BOOLEAN,
+            Types.CHARACTER };
+
+    // Size of the generated file
+    @Param({ "2048" })
+    public int sizeMb;
+
+    private Path file;
+    private TableReader reader;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        file = Files.createTempFile("inputlib-table", ".csv");
+        long limit = sizeMb * 1024L * 1024L;
+        SplittableRandom random = new SplittableRandom(42);
+
+        // Write rows until the file is big enough
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("id,mask,ratio,weight,active,grade\n");
+            long written = 0;
+            StringBuilder row = new StringBuilder();
+            while (written < limit) {
+                row.setLength(0);
+                row.append(random.nextInt(1_000_000)).append(',');
+                row.append("0x").append(Integer.toHexString(random.nextInt(0x10000))).append(',');
+                row.append(random.nextInt(100_000) / 100.0).append(',');
+                row.append(random.nextInt(1000) / 10.0).append("f,");
+                row.append(random.nextBoolean() ? "yes" : "no").append(',');
+                row.append((char) ('a' + random.nextInt(5))).append('\n');
+                out.append(row);
+                written += row.length();
+            }
+        }
+
+        reader = TableReader.csv().withHeader(true).withSchema(SCHEMA);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public Table parallelFile() throws IOException {
+        return reader.read(file, StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Table singleThreadReader() throws IOException {
+        try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return reader.read(in);
+        }
+    }
+
+    @Benchmark
+    public Table parallelFileInferred() throws IOException {
+        return TableReader.csv().withHeader(true).read(file, StandardCharsets.UTF_8);
+    }
+}
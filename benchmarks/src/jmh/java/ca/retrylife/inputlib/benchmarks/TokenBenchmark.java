@@ -0,0 +1,61 @@
+package ca.retrylife.inputlib.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import ca.retrylife.inputlib.types.Token;
+
+/**
+ * Measures Token construction, which eagerly converts the value to every
+ * supported type
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TokenBenchmark {
+
+    // Values to build tokens from. These are fields so they are not constant
+    // folded
+    public String stringValue = "hello world";
+    public Character charValue = 'h';
+    public Integer intValue = 123_456;
+    public Double doubleValue = 100_000.001;
+    public Float floatValue = 100.5f;
+    public Boolean boolValue = true;
+
+    @Benchmark
+    public Token fromString() {
+        return new Token(stringValue);
+    }
+
+    @Benchmark
+    public Token fromCharacter() {
+        return new Token(charValue);
+    }
+
+    @Benchmark
+    public Token fromInteger() {
+        return new Token(intValue);
+    }
+
+    @Benchmark
+    public Token fromDouble() {
+        return new Token(doubleValue);
+    }
+
+    @Benchmark
+    public Token fromFloat() {
+        return new Token(floatValue);
+    }
+
+    @Benchmark
+    public Token fromBoolean() {
+        return new Token(boolValue);
+    }
+}
@@ -0,0 +1,58 @@
+package ca.retrylife.inputlib.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import ca.retrylife.inputlib.types.Types;
+
+/**
+ * Measures the Types.toXxx conversions, covering conversion to self, a direct
+ * converter, and a chained converter (Boolean to Double)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TypesBenchmark {
+
+    // Values to convert. These are fields so they are not constant folded
+    public Object intValue = 123_456;
+    public Object doubleValue = 100_000.001;
+    public Object boolValue = true;
+    public Object stringValue = "hello";
+
+    @Benchmark
+    public Integer integerToSelf() {
+        return Types.INTEGER.toInteger(intValue);
+    }
+
+    @Benchmark
+    public String integerToString() {
+        return Types.INTEGER.toString(intValue);
+    }
+
+    @Benchmark
+    public Integer doubleToInteger() {
+        return Types.DOUBLE.toInteger(doubleValue);
+    }
+
+    @Benchmark
+    public Double booleanToDouble() {
+        return Types.BOOLEAN.toDouble(boolValue);
+    }
+
+    @Benchmark
+    public Character stringToCharacter() {
+        return Types.STRING.toCharacter(stringValue);
+    }
+
+    @Benchmark
+    public boolean canConvertTo() {
+        return Types.STRING.canConvertTo(Types.INTEGER);
+    }
+}
@@ -0,0 +1,145 @@
+package ca.retrylife.inputlib.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Synthetic inputs for the benchmarks. Every workload is generated from a fixed
+ * seed, so runs can be compared between releases
+ */
+public class Workloads {
+
+    // Words used for boolean and free text inputs
+    private static final String[] BOOLEANS = { "yes", "no", "true", "false", "accept", "deny" };
+    private static final String[] WORDS = { "hello", "world", "inputlib", "prompt", "parser", "token", "value",
+            "name", "catalog", "entry" };
+
+    /**
+     * Options used by list prompts
+     */
+    public static final String[] LIST_OPTIONS = { "cats", "dogs", "nerf guns", "birds", "fish", "hamsters",
+            "lizards", "rabbits", "snakes", "turtles" };
+
+    /**
+     * Generate a batch of inputs
+     * 
+     * @param workload Workload name. One of: mixed, integer, hex, float, boolean,
+     *                 text
+     * @param count    Number of inputs
+     * @return Inputs
+     */
+    public static String[] generate(String workload, int count) {
+        Random random = new Random(5024);
+        String[] inputs = new String[count];
+        for (int i = 0; i < count; i++) {
+            inputs[i] = generateOne(workload, random);
+        }
+        return inputs;
+    }
+
+    /**
+     * Generate a single input
+     * 
+     * @param workload Workload name
+     * @param random   Random source
+     * @return Input
+     */
+    private static String generateOne(String workload, Random random) {
+        switch (workload) {
+            case "integer":
+                return Integer.toString(random.nextInt(1_000_000));
+            case "hex":
+                return "0x" + Integer.toHexString(random.nextInt(0xFFFFFF));
+            case "float":
+                return String.format("%d_%03d.%df", random.nextInt(1000), random.nextInt(1000), random.nextInt(100));
+            case "boolean":
+                return BOOLEANS[random.nextInt(BOOLEANS.length)];
+            case "text":
+                return WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+            case "mixed":
+
+                // Roughly what a user types into a form
+                int pick = random.nextInt(10);
+                if (pick < 3) {
+                    return generateOne("integer", random);
+                } else if (pick < 4) {
+                    return generateOne("hex", random);
+                } else if (pick < 6) {
+                    return generateOne("float", random);
+                } else if (pick < 8) {
+                    return generateOne("boolean", random);
+                } else {
+                    return generateOne("text", random);
+                }
+            default:
+                throw new IllegalArgumentException("Unknown workload: " + workload);
+        }
+    }
+
+    /**
+     * Generate a block of answers for a prompt method, one per line. With
+     * retries, every valid answer is preceded by an invalid one
+     * 
+     * @param method      Prompt method. One of: integer, double, boolean, list,
+     *                    multiline
+     * @param withRetries Should invalid answers be mixed in?
+     * @param lines       Approximate number of lines to generate
+     * @return UTF-8 encoded lines
+     */
+    public static byte[] answers(String method, boolean withRetries, int lines) {
+        Random random = new Random(5024);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(lines * 8);
+        int written = 0;
+        while (written < lines) {
+            StringBuilder exchange = new StringBuilder();
+            switch (method) {
+                case "integer":
+                    if (withRetries) {
+                        exchange.append(WORDS[random.nextInt(WORDS.length)]).append('\n');
+                    }
+                    exchange.append(generateOne((random.nextBoolean()) ? "integer" : "hex", random)).append('\n');
+                    break;
+                case "double":
+                    if (withRetries) {
+                        exchange.append(WORDS[random.nextInt(WORDS.length)]).append('\n');
+                    }
+                    exchange.append(random.nextInt(10_000)).append('.').append(random.nextInt(1000)).append('\n');
+                    break;
+                case "boolean":
+                    if (withRetries) {
+                        exchange.append(random.nextInt(100)).append('\n');
+                    }
+                    exchange.append(generateOne("boolean", random)).append('\n');
+                    break;
+                case "list":
+                    if (withRetries) {
+                        exchange.append(LIST_OPTIONS.length + random.nextInt(100)).append('\n');
+                    }
+                    exchange.append(random.nextInt(LIST_OPTIONS.length)).append('\n');
+                    break;
+                case "multiline":
+
+                    // A few lines of text, then the terminator
+                    int body = 1 + random.nextInt(5);
+                    for (int i = 0; i < body; i++) {
+                        exchange.append(generateOne("text", random)).append('\n');
+                    }
+                    exchange.append(".\n");
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown method: " + method);
+            }
+
+            // Count the lines in this exchange
+            for (int i = 0; i < exchange.length(); i++) {
+                if (exchange.charAt(i) == '\n') {
+                    written++;
+                }
+            }
+            byte[] bytes = exchange.toString().getBytes(StandardCharsets.UTF_8);
+            out.write(bytes, 0, bytes.length);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,25 @@
+package ca.retrylife.inputlib;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Gives the order in which {@link Parser#bind} and {@link Prompt#promptInto}
+ * fill the fields of a class that is not a record. Reflection does not promise
+ * to return fields in declaration order, so a class that needs a fixed order
+ * should list every bound field here. Records do not need this, since their
+ * components are always in order.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface BindOrder {
+
+    /**
+     * @return Names of every bound field, in the order values are read
+     */
+    String[] value();
+}
@@ -0,0 +1,333 @@
+package ca.retrylife.inputlib;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import ca.retrylife.inputlib.types.Types;
+
+/**
+ * A Binding fills instances of a class from a {@link FormResult}. It is built
+ * once per class, and cached, so binding a value only runs pre-built method
+ * handles.
+ *
+ * Records are built with their canonical constructor, in component order.
+ * Other classes need a no-argument constructor, and have their non-static,
+ * non-final, non-transient fields set in the order given by {@link BindOrder}.
+ * Without it, fields are set in the order reflection returns them, which the
+ * JVM does not promise to be declaration order. Records are found
+ * reflectively, since this library targets Java 11.
+ *
+ * Supported member types are the primitives (except byte and short), their
+ * boxes, String, BigInteger, BigDecimal, LocalDate, and Instant.
+ */
+final class Binding {
+
+    // Bindings, built on first use
+    private static final ClassValue<Binding> CACHE = new ClassValue<Binding>() {
+        @Override
+        protected Binding computeValue(Class<?> type) {
+            return new Binding(type);
+        }
+    };
+
+    // Record reflection. Null before Java 16
+    private static final Method IS_RECORD;
+    private static final Method GET_RECORD_COMPONENTS;
+    private static final Method COMPONENT_NAME;
+    private static final Method COMPONENT_TYPE;
+
+    static {
+        Method isRecord = null;
+        Method getComponents = null;
+        Method componentName = null;
+        Method componentType = null;
+        try {
+            isRecord = Class.class.getMethod("isRecord");
+            getComponents = Class.class.getMethod("getRecordComponents");
+            Class<?> component = Class.forName("java.lang.reflect.RecordComponent");
+            componentName = component.getMethod("getName");
+            componentType = component.getMethod("getType");
+        } catch (ReflectiveOperationException e) {
+            isRecord = null;
+        }
+        IS_RECORD = isRecord;
+        GET_RECORD_COMPONENTS = getComponents;
+        COMPONENT_NAME = componentName;
+        COMPONENT_TYPE = componentType;
+    }
+
+    // Form of every bound member, in order
+    final FormPlan plan;
+
+    // Builds a record from a FormResult: (FormResult)Object
+    private final MethodHandle constructor;
+
+    // Builds an empty object: ()Object. Each setter is (Object, FormResult)void
+    private final MethodHandle factory;
+    private final MethodHandle[] setters;
+
+    /**
+     * Get the Binding for a class
+     *
+     * @param type Class
+     * @return Binding
+     * @throws IllegalArgumentException if the class can not be bound
+     */
+    static Binding of(Class<?> type) {
+        return CACHE.get(type);
+    }
+
+    /**
+     * Build a Binding
+     *
+     * @param type Class
+     */
+    private Binding(Class<?> type) {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        Form form = new Form();
+        try {
+            if (isRecord(type)) {
+
+                // Components, and the canonical constructor taking them in order
+                Object[] components = (Object[]) GET_RECORD_COMPONENTS.invoke(type);
+                Class<?>[] parameters = new Class<?>[components.length];
+                for (int i = 0; i < components.length; i++) {
+                    parameters[i] = (Class<?>) COMPONENT_TYPE.invoke(components[i]);
+                    form.field((String) COMPONENT_NAME.invoke(components[i]), typeOf(type, parameters[i]));
+                }
+                Constructor<?> canonical = type.getDeclaredConstructor(parameters);
+                canonical.setAccessible(true);
+
+                // Feed each parameter from its getter, then merge the FormResult
+                // arguments into one
+                MethodHandle handle = lookup.unreflectConstructor(canonical);
+                MethodHandle[] getters = new MethodHandle[parameters.length];
+                for (int i = 0; i < parameters.length; i++) {
+                    getters[i] = getter(lookup, parameters[i], i);
+                }
+                handle = MethodHandles.filterArguments(handle, 0, getters);
+                handle = MethodHandles.permuteArguments(handle,
+                        MethodType.methodType(type, FormResult.class), new int[parameters.length]);
+                this.constructor = handle.asType(MethodType.methodType(Object.class, FormResult.class));
+                this.factory = null;
+                this.setters = null;
+            } else {
+
+                // A no-argument constructor
+                Constructor<?> empty = type.getDeclaredConstructor();
+                empty.setAccessible(true);
+                this.factory = lookup.unreflectConstructor(empty).asType(MethodType.methodType(Object.class));
+
+                // A setter fed by a getter for each field
+                List<MethodHandle> handles = new ArrayList<>();
+                for (Field field : fields(type)) {
+                    form.field(field.getName(), typeOf(type, field.getType()));
+                    field.setAccessible(true);
+                    MethodHandle setter = lookup.unreflectSetter(field);
+                    setter = MethodHandles.filterArguments(setter, 1, getter(lookup, field.getType(), handles.size()));
+                    handles.add(setter.asType(MethodType.methodType(void.class, Object.class, FormResult.class)));
+                }
+                this.setters = handles.toArray(new MethodHandle[0]);
+                this.constructor = null;
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new IllegalArgumentException(String.format("Can not bind %s: %s", type.getName(), e.getMessage()),
+                    e);
+        }
+        this.plan = form.compile();
+    }
+
+    /**
+     * Get the bound fields of a class that is not a record, in the order given
+     * by its {@link BindOrder}, or in reflection order without one
+     *
+     * @param type Class
+     * @return Bound fields
+     * @throws IllegalArgumentException if the BindOrder does not list every
+     *                                  bound field exactly once
+     */
+    private static List<Field> fields(Class<?> type) {
+
+        // Every non-static, non-final, non-transient field, by name
+        Map<String, Field> bound = new LinkedHashMap<>();
+        for (Field field : type.getDeclaredFields()) {
+            int modifiers = field.getModifiers();
+            if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers) || Modifier.isTransient(modifiers)
+                    || field.isSynthetic()) {
+                continue;
+            }
+            bound.put(field.getName(), field);
+        }
+        BindOrder order = type.getAnnotation(BindOrder.class);
+        if (order == null) {
+            return new ArrayList<>(bound.values());
+        }
+
+        // Take the fields in the listed order
+        List<Field> fields = new ArrayList<>(bound.size());
+        for (String name : order.value()) {
+            Field field = bound.remove(name);
+            if (field == null) {
+                throw new IllegalArgumentException(
+                        String.format("BindOrder names %s, which is not a bound field, or is listed twice", name));
+            }
+            fields.add(field);
+        }
+        if (!bound.isEmpty()) {
+            throw new IllegalArgumentException(
+                    String.format("BindOrder does not list %s", String.join(", ", bound.keySet())));
+        }
+        return fields;
+    }
+
+    /**
+     * Check if a class is a record
+     *
+     * @param type Class
+     * @return Is a record?
+     * @throws ReflectiveOperationException if the check fails
+     */
+    private static boolean isRecord(Class<?> type) throws ReflectiveOperationException {
+        return IS_RECORD != null && (Boolean) IS_RECORD.invoke(type);
+    }
+
+    /**
+     * Get the form type for a member type
+     *
+     * @param owner Class being bound
+     * @param type  Member type
+     * @return Form type
+     */
+    private static Types typeOf(Class<?> owner, Class<?> type) {
+        if (type == int.class || type == Integer.class) {
+            return Types.INTEGER;
+        } else if (type == long.class || type == Long.class) {
+            return Types.LONG;
+        } else if (type == double.class || type == Double.class) {
+            return Types.DOUBLE;
+        } else if (type == float.class || type == Float.class) {
+            return Types.FLOAT;
+        } else if (type == boolean.class || type == Boolean.class) {
+            return Types.BOOLEAN;
+        } else if (type == char.class || type == Character.class) {
+            return Types.CHARACTER;
+        } else if (type == String.class) {
+            return Types.STRING;
+        } else if (type == BigInteger.class) {
+            return Types.BIG_INTEGER;
+        } else if (type == BigDecimal.class) {
+            return Types.BIG_DECIMAL;
+        } else if (type == LocalDate.class) {
+            return Types.DATE;
+        } else if (type == Instant.class) {
+            return Types.TIMESTAMP;
+        }
+        throw new IllegalArgumentException(String.format("%s has a member of unsupported type %s", owner.getName(),
+                type.getName()));
+    }
+
+    /**
+     * Get a handle that reads one field of a FormResult, converted to a member
+     * type: (FormResult)T
+     *
+     * @param lookup Lookup
+     * @param type   Member type
+     * @param index  Field index
+     * @return Handle
+     * @throws ReflectiveOperationException if the getter can not be found
+     */
+    private static MethodHandle getter(MethodHandles.Lookup lookup, Class<?> type, int index)
+            throws ReflectiveOperationException {
+
+        // The getter matching the form type
+        String name;
+        Class<?> returns;
+        switch (typeOf(type, type)) {
+            case INTEGER:
+                name = "getInteger";
+                returns = int.class;
+                break;
+            case LONG:
+                name = "getLong";
+                returns = long.class;
+                break;
+            case DOUBLE:
+                name = "getDouble";
+                returns = double.class;
+                break;
+            case FLOAT:
+                name = "getFloat";
+                returns = float.class;
+                break;
+            case BOOLEAN:
+                name = "getBoolean";
+                returns = boolean.class;
+                break;
+            case CHARACTER:
+                name = "getCharacter";
+                returns = char.class;
+                break;
+            case STRING:
+                name = "getString";
+                returns = String.class;
+                break;
+            case BIG_INTEGER:
+                name = "getBigInteger";
+                returns = BigInteger.class;
+                break;
+            case BIG_DECIMAL:
+                name = "getBigDecimal";
+                returns = BigDecimal.class;
+                break;
+            case DATE:
+                name = "getLocalDate";
+                returns = LocalDate.class;
+                break;
+            default:
+                name = "getInstant";
+                returns = Instant.class;
+                break;
+        }
+
+        // Fix the index, and box if needed
+        MethodHandle handle = lookup.findVirtual(FormResult.class, name, MethodType.methodType(returns, int.class));
+        handle = MethodHandles.insertArguments(handle, 1, index);
+        return handle.asType(MethodType.methodType(type, FormResult.class));
+    }
+
+    /**
+     * Build an instance from a filled form
+     *
+     * @param result Filled form
+     * @return Instance
+     */
+    Object build(FormResult result) {
+        try {
+            if (constructor != null) {
+                return constructor.invokeExact(result);
+            }
+            Object instance = factory.invokeExact();
+            for (MethodHandle setter : setters) {
+                setter.invokeExact(instance, result);
+            }
+            return instance;
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Constructor threw a checked exception", e);
+        }
+    }
+}
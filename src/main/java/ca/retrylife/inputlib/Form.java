@@ -0,0 +1,223 @@
+package ca.retrylife.inputlib;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import ca.retrylife.inputlib.selection.ChoiceSet;
+import ca.retrylife.inputlib.types.Types;
+
+/**
+ * A Form declares a list of typed fields, and compiles them into a
+ * {@link FormPlan}. Constraints and defaults apply to the field declared just
+ * before them.
+ *
+ * <pre>
+ * FormPlan plan = new Form()
+ *         .field("host", Types.STRING, "Server host").defaultValue("localhost")
+ *         .field("port", Types.INTEGER, "Server port").range(1, 65535).defaultValue("8080")
+ *         .field("mode", Types.CHARACTER, "Mode").choices(ChoiceSet.ofCharacters('r', 'w'))
+ *         .compile();
+ * FormResult result = myPrompt.promptForm(plan);
+ * int port = result.getInteger("port");
+ * </pre>
+ *
+ * A Form is only a builder, and is not thread safe. The plan it compiles is
+ * immutable, and can be shared.
+ */
+public class Form {
+
+    // Declared fields
+    private final List<Spec> fields = new ArrayList<>();
+    private final HashSet<String> names = new HashSet<>();
+
+    // How batch lines are split
+    private RecordTokenizer tokenizer = RecordTokenizer.WHITESPACE;
+
+    /**
+     * A field, as declared
+     */
+    static class Spec {
+        final String name;
+        final Types type;
+        final String prompt;
+        boolean ranged;
+        boolean decimalRange;
+        long minLong;
+        long maxLong;
+        double minDouble;
+        double maxDouble;
+        ChoiceSet choices;
+        List<String> words;
+        String defaultText;
+
+        /**
+         * Create a Spec
+         *
+         * @param name   Field name
+         * @param type   Field type
+         * @param prompt Prompt message
+         */
+        Spec(String name, Types type, String prompt) {
+            this.name = name;
+            this.type = type;
+            this.prompt = prompt;
+        }
+    }
+
+    /**
+     * Declare a field
+     *
+     * @param name   Field name (unique in this form)
+     * @param type   Field type
+     * @param prompt Prompt message
+     * @return This Form
+     */
+    public Form field(String name, Types type, String prompt) {
+        if (!names.add(name)) {
+            throw new IllegalArgumentException(String.format("Field \"%s\" is already declared", name));
+        }
+        fields.add(new Spec(name, type, prompt));
+        return this;
+    }
+
+    /**
+     * Declare a field, using its name as the prompt message
+     *
+     * @param name Field name (unique in this form)
+     * @param type Field type
+     * @return This Form
+     */
+    public Form field(String name, Types type) {
+        return field(name, type, name);
+    }
+
+    /**
+     * Limit the last field to a range (inclusive). Works for Integer, Long,
+     * Float, and Double fields
+     *
+     * @param min Minimum value
+     * @param max Maximum value
+     * @return This Form
+     */
+    public Form range(long min, long max) {
+        Spec spec = last();
+        checkRange(min <= max);
+        spec.ranged = true;
+        spec.decimalRange = false;
+        spec.minLong = min;
+        spec.maxLong = max;
+        spec.minDouble = min;
+        spec.maxDouble = max;
+        return this;
+    }
+
+    /**
+     * Limit the last field to a range (inclusive). Works for Float and Double
+     * fields
+     *
+     * @param min Minimum value
+     * @param max Maximum value
+     * @return This Form
+     */
+    public Form range(double min, double max) {
+        Spec spec = last();
+        checkRange(min <= max);
+        spec.ranged = true;
+        spec.decimalRange = true;
+        spec.minDouble = min;
+        spec.maxDouble = max;
+        return this;
+    }
+
+    /**
+     * Limit the last field to a set of Integers or Characters
+     *
+     * @param choices Allowed values
+     * @return This Form
+     */
+    public Form choices(ChoiceSet choices) {
+        last().choices = choices;
+        return this;
+    }
+
+    /**
+     * Limit the last field to a set of words. Works for String fields
+     *
+     * @param words Allowed words
+     * @return This Form
+     */
+    public Form choices(String... words) {
+        last().words = Arrays.asList(words.clone());
+        return this;
+    }
+
+    /**
+     * Set the value the last field takes when its answer is empty. The default
+     * is written like an answer, and must pass the field's constraints
+     *
+     * @param text Default, as text
+     * @return This Form
+     */
+    public Form defaultValue(String text) {
+        last().defaultText = text;
+        return this;
+    }
+
+    /**
+     * Set how {@link FormPlan#fill} splits a line. Spaces and tabs are used by
+     * default
+     *
+     * @param tokenizer Tokenizer
+     * @return This Form
+     */
+    public Form delimitedBy(RecordTokenizer tokenizer) {
+        this.tokenizer = tokenizer;
+        return this;
+    }
+
+    /**
+     * Compile the form. The Form can be changed, and compiled again, without
+     * affecting the plan
+     *
+     * @return Immutable plan
+     * @throws IllegalArgumentException if a constraint does not fit its field,
+     *                                  or a default is not valid
+     */
+    public FormPlan compile() {
+        FormField[] compiled = new FormField[fields.size()];
+        for (int i = 0; i < compiled.length; i++) {
+            Spec spec = fields.get(i);
+            if (spec.decimalRange && (spec.type == Types.INTEGER || spec.type == Types.LONG)) {
+                throw new IllegalArgumentException(
+                        String.format("Field \"%s\": a %s needs a whole number range", spec.name, spec.type.getName()));
+            }
+            compiled[i] = new FormField(spec, i);
+        }
+        return new FormPlan(compiled, tokenizer);
+    }
+
+    /**
+     * Get the field declared last
+     *
+     * @return Field
+     */
+    private Spec last() {
+        if (fields.isEmpty()) {
+            throw new IllegalStateException("No field has been declared");
+        }
+        return fields.get(fields.size() - 1);
+    }
+
+    /**
+     * Make sure a range is not empty
+     *
+     * @param ordered Is min at most max?
+     */
+    private static void checkRange(boolean ordered) {
+        if (!ordered) {
+            throw new IllegalArgumentException("The minimum can not be more than the maximum");
+        }
+    }
+}
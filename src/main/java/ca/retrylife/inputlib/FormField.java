@@ -0,0 +1,301 @@
+package ca.retrylife.inputlib;
+
+import java.util.HashSet;
+
+import ca.retrylife.inputlib.selection.ChoiceSet;
+import ca.retrylife.inputlib.types.BigNumber;
+import ca.retrylife.inputlib.types.IsoTime;
+import ca.retrylife.inputlib.types.Types;
+
+/**
+ * One compiled field of a {@link FormPlan}. The prompt text, the warnings, and
+ * the constraints are all built when the plan is compiled. Answers are read
+ * straight into the field's type, like a
+ * {@link ca.retrylife.inputlib.table.Table} column, so no Token is built
+ */
+final class FormField {
+
+    // Identity
+    final String name;
+    final Types type;
+    final int index;
+
+    // Pre-rendered prompt text
+    final String text;
+
+    // Range constraint. Integral types use the longs, and Float and Double use
+    // the doubles
+    private final boolean ranged;
+    private final long minLong;
+    private final long maxLong;
+    private final double minDouble;
+    private final double maxDouble;
+
+    // Choice constraints. The ChoiceSet holds Integer or Character choices, and
+    // the words hold String choices
+    private final ChoiceSet choices;
+    private final HashSet<String> words;
+
+    // Pre-rendered warnings
+    private final String typeWarning;
+    private final String constraintWarning;
+
+    // Value used for an empty answer
+    final boolean hasDefault;
+    private final long defaultValue;
+    private final Object defaultObject;
+
+    /**
+     * Compile a field
+     *
+     * @param spec  Field, as declared on the Form
+     * @param index Field index
+     * @throws IllegalArgumentException if the constraints do not fit the type,
+     *                                  or the default is not valid
+     */
+    FormField(Form.Spec spec, int index) {
+        this.name = spec.name;
+        this.type = spec.type;
+        this.index = index;
+        this.typeWarning = typeWarning(spec.type);
+
+        // Range
+        this.ranged = spec.ranged;
+        this.minLong = spec.minLong;
+        this.maxLong = spec.maxLong;
+        this.minDouble = spec.minDouble;
+        this.maxDouble = spec.maxDouble;
+        if (ranged && !isIntegral(type) && type != Types.FLOAT && type != Types.DOUBLE) {
+            throw new IllegalArgumentException(
+                    String.format("Field \"%s\": a %s can not have a range", name, type.getName()));
+        }
+
+        // Choices
+        this.choices = spec.choices;
+        this.words = (spec.words == null) ? null : new HashSet<>(spec.words);
+        if (choices != null && type != ((choices.isCharacterSet()) ? Types.CHARACTER : Types.INTEGER)) {
+            throw new IllegalArgumentException(
+                    String.format("Field \"%s\": these choices do not fit a %s", name, type.getName()));
+        }
+        if (words != null && type != Types.STRING) {
+            throw new IllegalArgumentException(
+                    String.format("Field \"%s\": word choices need a String field", name));
+        }
+
+        // Build the constraint into a nice string
+        String hint = "";
+        if (ranged && isIntegral(type)) {
+            hint = String.format("[%d...%d] ", minLong, maxLong);
+        } else if (ranged) {
+            hint = String.format("[%s...%s] ", minDouble, maxDouble);
+        } else if (choices != null) {
+            hint = choices.getDescription();
+        } else if (words != null) {
+            hint = String.format("one of [%s] ", String.join(",", spec.words));
+        }
+        this.constraintWarning = (ranged) ? "! Must be in " + hint.trim() : "! Invalid selection";
+
+        // The default goes through the same checks as an answer
+        this.hasDefault = spec.defaultText != null;
+        if (hasDefault) {
+            long[] value = new long[index + 1];
+            Object[] object = new Object[index + 1];
+            String warning = read(spec.defaultText, value, object);
+            if (warning != null) {
+                throw new IllegalArgumentException(String.format("Field \"%s\": invalid default \"%s\" (%s)", name,
+                        spec.defaultText, warning));
+            }
+            this.defaultValue = value[index];
+            this.defaultObject = object[index];
+            hint += String.format("(default %s) ", spec.defaultText);
+        } else {
+            this.defaultValue = 0;
+            this.defaultObject = null;
+        }
+
+        this.text = String.format("%s%n%s> ", spec.prompt, hint);
+    }
+
+    /**
+     * Check if a type is stored as an object, instead of in a long
+     *
+     * @param type Type
+     * @return Is an object type?
+     */
+    static boolean isObject(Types type) {
+        return type == Types.STRING || type == Types.BIG_INTEGER || type == Types.BIG_DECIMAL;
+    }
+
+    /**
+     * Check if a type is a whole number that fits in a long
+     *
+     * @param type Type
+     * @return Is integral?
+     */
+    private static boolean isIntegral(Types type) {
+        return type == Types.INTEGER || type == Types.LONG;
+    }
+
+    /**
+     * Get the warning for an answer of the wrong type
+     *
+     * @param type Type
+     * @return Warning
+     */
+    private static String typeWarning(Types type) {
+        switch (type) {
+            case CHARACTER:
+                return "! Must be a single character";
+            case INTEGER:
+            case BIG_INTEGER:
+                return "! Must be an integer";
+            case LONG:
+                return "! Must be a long";
+            case FLOAT:
+            case DOUBLE:
+                return "! Must be a number";
+            case BIG_DECIMAL:
+                return "! Must be a decimal";
+            case BOOLEAN:
+                return "! Must be a boolean";
+            case DATE:
+                return "! Must be a date (yyyy-mm-dd)";
+            case TIMESTAMP:
+                return "! Must be a timestamp (yyyy-mm-ddThh:mm:ssZ)";
+            default:
+                return "! Invalid answer";
+        }
+    }
+
+    /**
+     * Read an answer into a result's storage. An empty answer takes the default,
+     * if there is one
+     *
+     * @param answer  Answer text
+     * @param values  Primitive storage
+     * @param objects Object storage
+     * @return Warning, or null if the answer was valid
+     */
+    String read(String answer, long[] values, Object[] objects) {
+
+        // Empty answers
+        if (answer.isEmpty() && hasDefault) {
+            values[index] = defaultValue;
+            if (objects != null) {
+                objects[index] = defaultObject;
+            }
+            return null;
+        }
+
+        try {
+            switch (type) {
+                case STRING:
+                    if (words != null && !words.contains(answer)) {
+                        return constraintWarning;
+                    }
+                    objects[index] = answer;
+                    return null;
+                case CHARACTER:
+                    if (answer.length() != 1) {
+                        return typeWarning;
+                    }
+                    if (choices != null && !choices.contains(answer.charAt(0))) {
+                        return constraintWarning;
+                    }
+                    values[index] = answer.charAt(0);
+                    return null;
+                case BOOLEAN:
+                    if (Parser.classify(answer) != Types.BOOLEAN) {
+                        return typeWarning;
+                    }
+                    values[index] = (Parser.parseBoolean(answer)) ? 1 : 0;
+                    return null;
+                case INTEGER:
+                case LONG:
+                    Types found = Parser.classify(answer);
+                    if (found != Types.INTEGER && (found != Types.LONG || type != Types.LONG)) {
+                        return typeWarning;
+                    }
+                    long whole = Parser.parseLong(answer);
+                    if ((ranged && (whole < minLong || whole > maxLong))
+                            || (choices != null && !choices.contains((int) whole))) {
+                        return constraintWarning;
+                    }
+                    values[index] = whole;
+                    return null;
+                case FLOAT:
+                case DOUBLE:
+                    double number;
+                    switch (Parser.classify(answer)) {
+                        case INTEGER:
+                        case LONG:
+                            number = Parser.parseLong(answer);
+                            break;
+                        case FLOAT:
+                            number = Parser.parseFloat(answer);
+                            break;
+                        case DOUBLE:
+                        case BIG_DECIMAL:
+                            number = Parser.parseDouble(answer);
+                            break;
+                        default:
+                            return typeWarning;
+                    }
+                    if (type == Types.FLOAT) {
+                        number = (float) number;
+                    }
+                    if (ranged && !(number >= minDouble && number <= maxDouble)) {
+                        return constraintWarning;
+                    }
+                    values[index] = Double.doubleToRawLongBits(number);
+                    return null;
+                case BIG_INTEGER:
+                case BIG_DECIMAL:
+                    BigNumber big;
+                    switch (Parser.classify(answer)) {
+                        case INTEGER:
+                        case LONG:
+                        case BIG_INTEGER:
+                            big = Parser.parseBigInteger(answer);
+                            break;
+                        case FLOAT:
+                        case DOUBLE:
+                        case BIG_DECIMAL:
+                            if (type == Types.BIG_INTEGER) {
+                                return typeWarning;
+                            }
+                            big = Parser.parseBigDecimal(answer);
+                            break;
+                        default:
+                            return typeWarning;
+                    }
+                    objects[index] = big;
+                    return null;
+                case DATE:
+                    long day = IsoTime.parseDate(answer);
+                    if (day == IsoTime.INVALID) {
+                        return typeWarning;
+                    }
+                    values[index] = day;
+                    return null;
+                case TIMESTAMP:
+
+                    // A date is midnight
+                    long nanos = IsoTime.parseTimestamp(answer);
+                    if (nanos == IsoTime.INVALID) {
+                        day = IsoTime.parseDate(answer);
+                        nanos = (day == IsoTime.INVALID) ? IsoTime.INVALID : IsoTime.dateToTimestamp(day);
+                    }
+                    if (nanos == IsoTime.INVALID) {
+                        return typeWarning;
+                    }
+                    values[index] = nanos;
+                    return null;
+                default:
+                    return typeWarning;
+            }
+        } catch (NumberFormatException e) {
+            return typeWarning;
+        }
+    }
+}
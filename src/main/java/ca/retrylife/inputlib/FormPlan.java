@@ -0,0 +1,157 @@
+package ca.retrylife.inputlib;
+
+import java.util.HashMap;
+
+import ca.retrylife.inputlib.exceptions.FormFormatException;
+import ca.retrylife.inputlib.types.Types;
+
+/**
+ * A FormPlan is a compiled {@link Form}. Every field's prompt text, warnings,
+ * and constraints are built once, and each answer is read straight into its
+ * field's type, skipping the type detection of {@link Parser#parseToToken}.
+ *
+ * A plan can be run against a Prompt with {@link Prompt#promptForm}, or fill a
+ * form from one delimited line with {@link #fill}. Plans are immutable, so one
+ * can be shared between threads.
+ */
+public final class FormPlan {
+
+    // Fields, in order
+    private final FormField[] fields;
+
+    // Field indexes, by name
+    private final HashMap<String, Integer> indexes = new HashMap<>();
+
+    // Does any field need object storage?
+    private final boolean hasObjects;
+
+    // How batch lines are split
+    private final RecordTokenizer tokenizer;
+
+    /**
+     * Create a FormPlan. Use {@link Form#compile}
+     *
+     * @param fields    Compiled fields
+     * @param tokenizer How batch lines are split
+     */
+    FormPlan(FormField[] fields, RecordTokenizer tokenizer) {
+        this.fields = fields;
+        this.tokenizer = tokenizer;
+        boolean objects = false;
+        for (FormField field : fields) {
+            indexes.put(field.name, field.index);
+            objects |= FormField.isObject(field.type);
+        }
+        this.hasObjects = objects;
+    }
+
+    /**
+     * Get the number of fields
+     *
+     * @return Field count
+     */
+    public int size() {
+        return fields.length;
+    }
+
+    /**
+     * Get a field's name
+     *
+     * @param index Field index
+     * @return Name
+     */
+    public String getName(int index) {
+        return fields[index].name;
+    }
+
+    /**
+     * Get a field's type
+     *
+     * @param index Field index
+     * @return Type
+     */
+    public Types getType(int index) {
+        return fields[index].type;
+    }
+
+    /**
+     * Get a field's index
+     *
+     * @param name Field name
+     * @return Field index
+     * @throws IllegalArgumentException if there is no such field
+     */
+    public int indexOf(String name) {
+        Integer index = indexes.get(name);
+        if (index == null) {
+            throw new IllegalArgumentException(String.format("No field named \"%s\"", name));
+        }
+        return index;
+    }
+
+    /**
+     * Get a compiled field
+     *
+     * @param index Field index
+     * @return Field
+     */
+    FormField getField(int index) {
+        return fields[index];
+    }
+
+    /**
+     * Create an empty result for this plan
+     *
+     * @return Result
+     */
+    FormResult newResult() {
+        return new FormResult(this, new long[fields.length], (hasObjects) ? new Object[fields.length] : null);
+    }
+
+    /**
+     * Fill the form from one delimited line, in field order. Missing and empty
+     * values take their field's default
+     *
+     * @param line Line
+     * @return Filled form
+     * @throws FormFormatException if a value is not valid, or a field without a
+     *                             default has no value
+     */
+    public FormResult fill(String line) {
+        FormResult result = newResult();
+
+        // Read each value as it is split off
+        int[] count = { 0 };
+        tokenizer.split(line, (text, quoted) -> {
+            if (count[0] >= fields.length) {
+                throw new FormFormatException(fields[fields.length - 1].name,
+                        String.format("Too many values (expected %d)", fields.length));
+            }
+            read(fields[count[0]++], text, result);
+        });
+
+        // Fill the rest with defaults
+        for (int i = count[0]; i < fields.length; i++) {
+            read(fields[i], "", result);
+        }
+        return result;
+    }
+
+    /**
+     * Read one value of a batch line
+     *
+     * @param field  Field
+     * @param text   Value text
+     * @param result Where to put the value
+     * @throws FormFormatException if the value is not valid
+     */
+    private static void read(FormField field, String text, FormResult result) {
+        String warning = field.read(text, result.values, result.objects);
+        if (warning != null) {
+            if (text.isEmpty() && !field.hasDefault && field.type != Types.STRING) {
+                warning = "! Missing value";
+            }
+            throw new FormFormatException(field.name, warning.substring(2));
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package ca.retrylife.inputlib;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import ca.retrylife.inputlib.types.BigNumber;
+import ca.retrylife.inputlib.types.IsoTime;
+import ca.retrylife.inputlib.types.Types;
+
+/**
+ * The values of a filled {@link FormPlan}. Every primitive value (including
+ * dates and timestamps) is held in one long[], and Strings and big numbers in
+ * an Object[] that is only created if the form has such fields. Values can be
+ * read by field name or index, with the getter matching the field's type.
+ */
+public final class FormResult {
+
+    // Plan this was filled from
+    private final FormPlan plan;
+
+    // Values, one slot per field. Doubles and Floats are stored as double bits,
+    // and Booleans as 0 or 1
+    final long[] values;
+    final Object[] objects;
+
+    /**
+     * Create a FormResult
+     *
+     * @param plan    Plan
+     * @param values  Primitive storage
+     * @param objects Object storage (null if not needed)
+     */
+    FormResult(FormPlan plan, long[] values, Object[] objects) {
+        this.plan = plan;
+        this.values = values;
+        this.objects = objects;
+    }
+
+    /**
+     * Get the plan this was filled from
+     *
+     * @return Plan
+     */
+    public FormPlan getPlan() {
+        return plan;
+    }
+
+    /**
+     * Get an Integer field's value
+     *
+     * @param index Field index
+     * @return Value
+     */
+    public int getInteger(int index) {
+        checkAccess(index, Types.INTEGER);
+        return (int) values[index];
+    }
+
+    /**
+     * Get an Integer field's value
+     *
+     * @param name Field name
+     * @return Value
+     */
+    public int getInteger(String name) {
+        return getInteger(plan.indexOf(name));
+    }
+
+    /**
+     * Get a Long field's value
+     *
+     * @param index Field index
+     * @return Value
+     */
+    public long getLong(int index) {
+        checkAccess(index, Types.LONG);
+        return values[index];
+    }
+
+    /**
+     * Get a Long field's value
+     *
+     * @param name Field name
+     * @return Value
+     */
+    public long getLong(String name) {
+        return getLong(plan.indexOf(name));
+    }
+
+    /**
+     * Get a Float field's value
+     *
+     * @param index Field index
+     * @return Value
+     */
+    public float getFloat(int index) {
+        checkAccess(index, Types.FLOAT);
+        return (float) Double.longBitsToDouble(values[index]);
+    }
+
+    /**
+     * Get a Float field's value
+     *
+     * @param name Field name
+     * @return Value
+     */
+    public float getFloat(String name) {
+        return getFloat(plan.indexOf(name));
+    }
+
+    /**
+     * Get a Double field's value
+     *
+     * @param index Field index
+     * @return Value
+     */
+    public double getDouble(int index) {
+        checkAccess(index, Types.DOUBLE);
+        return Double.longBitsToDouble(values[index]);
+    }
+
+    /**
+     * Get a Double field's value
+     *
+     * @param name Field name
+     * @return Value
+     */
+    public double getDouble(String name) {
+        return getDouble(plan.indexOf(name));
+    }
+
+    /**
+     * Get a Boolean field's value
+     *
+     * @param index Field index
+     * @return Value
+     */
+    public boolean getBoolean(int index) {
+        checkAccess(index, Types.BOOLEAN);
+        return values[index] != 0;
+    }
+
+    /**
+     * Get a Boolean field's value
+     *
+     * @param name Field name
+     * @return Value
+     */
+    public boolean getBoolean(String name) {
+        return getBoolean(plan.indexOf(name));
+    }
+
+    /**
+     * Get a Character field's value
+     *
+     * @param index Field index
+     * @return Value
+     */
+    public char getCharacter(int index) {
+        checkAccess(index, Types.CHARACTER);
+        return (char) values[index];
+    }
+
+    /**
+     * Get a Character field's value
+     *
+     * @param name Field name
+     * @return Value
+     */
+    public char getCharacter(String name) {
+        return getCharacter(plan.indexOf(name));
+    }
+
+    /**
+     * Get a String field's value
+     *
+     * @param index Field index
+     * @return Value
+     */
+    public String getString(int index) {
+        checkAccess(index, Types.STRING);
+        return (String) objects[index];
+    }
+
+    /**
+     * Get a String field's value
+     *
+     * @param name Field name
+     * @return Value
+     */
+    public String getString(String name) {
+        return getString(plan.indexOf(name));
+    }
+
+    /**
+     * Get a BigInteger field's value
+     *
+     * @param index Field index
+     * @return Value
+     */
+    public BigInteger getBigInteger(int index) {
+        checkAccess(index, Types.BIG_INTEGER);
+        return ((BigNumber) objects[index]).toBigInteger();
+    }
+
+    /**
+     * Get a BigInteger field's value
+     *
+     * @param name Field name
+     * @return Value
+     */
+    public BigInteger getBigInteger(String name) {
+        return getBigInteger(plan.indexOf(name));
+    }
+
+    /**
+     * Get a BigDecimal field's value
+     *
+     * @param index Field index
+     * @return Value
+     */
+    public BigDecimal getBigDecimal(int index) {
+        checkAccess(index, Types.BIG_DECIMAL);
+        return ((BigNumber) objects[index]).toBigDecimal();
+    }
+
+    /**
+     * Get a BigDecimal field's value
+     *
+     * @param name Field name
+     * @return Value
+     */
+    public BigDecimal getBigDecimal(String name) {
+        return getBigDecimal(plan.indexOf(name));
+    }
+
+    /**
+     * Get a Date field's value
+     *
+     * @param index Field index
+     * @return Value
+     */
+    public LocalDate getLocalDate(int index) {
+        checkAccess(index, Types.DATE);
+        return IsoTime.toLocalDate(values[index]);
+    }
+
+    /**
+     * Get a Date field's value
+     *
+     * @param name Field name
+     * @return Value
+     */
+    public LocalDate getLocalDate(String name) {
+        return getLocalDate(plan.indexOf(name));
+    }
+
+    /**
+     * Get a Timestamp field's value
+     *
+     * @param index Field index
+     * @return Value
+     */
+    public Instant getInstant(int index) {
+        checkAccess(index, Types.TIMESTAMP);
+        return IsoTime.toInstant(values[index]);
+    }
+
+    /**
+     * Get a Timestamp field's value
+     *
+     * @param name Field name
+     * @return Value
+     */
+    public Instant getInstant(String name) {
+        return getInstant(plan.indexOf(name));
+    }
+
+    /**
+     * Make sure a field has the requested type
+     *
+     * @param index Field index
+     * @param type  Requested type
+     */
+    private void checkAccess(int index, Types type) {
+        Types actual = plan.getType(index);
+        if (actual != type) {
+            throw new IllegalStateException(String.format("Field \"%s\" holds a %s, not a %s", plan.getName(index),
+                    actual.getName(), type.getName()));
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder("FormResult{");
+        for (int i = 0; i < plan.size(); i++) {
+            out.append((i == 0) ? "" : ", ").append(plan.getName(i)).append('=');
+            switch (plan.getType(i)) {
+                case STRING:
+                case BIG_INTEGER:
+                case BIG_DECIMAL:
+                    out.append(objects[i]);
+                    break;
+                case CHARACTER:
+                    out.append((char) values[i]);
+                    break;
+                case BOOLEAN:
+                    out.append(values[i] != 0);
+                    break;
+                case FLOAT:
+                    out.append((float) Double.longBitsToDouble(values[i]));
+                    break;
+                case DOUBLE:
+                    out.append(Double.longBitsToDouble(values[i]));
+                    break;
+                case DATE:
+                    out.append(IsoTime.formatDate(values[i]));
+                    break;
+                case TIMESTAMP:
+                    out.append(IsoTime.formatTimestamp(values[i]));
+                    break;
+                default:
+                    out.append(values[i]);
+                    break;
+            }
+        }
+        return out.append('}').toString();
+    }
+}
@@ -0,0 +1,229 @@
+package ca.retrylife.inputlib;
+
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.MatchResult;
+import java.util.regex.Pattern;
+
+import ca.retrylife.inputlib.exceptions.EndOfInputException;
+import ca.retrylife.inputlib.exceptions.InputTooLargeException;
+import ca.retrylife.inputlib.exceptions.PromptException;
+import ca.retrylife.inputlib.exceptions.PromptTimeoutException;
+
+/**
+ * Reads lines for a Prompt. Reads without a deadline happen on the calling
+ * thread. Reads with a deadline are handed to a single background thread, and
+ * the caller blocks on the result until the deadline passes, so no polling is
+ * done. A line that arrives after its deadline is kept, and returned by the
+ * next read.
+ *
+ * There is one LineReader per source stream, so Prompts built over the same
+ * stream (such as System.in) share its buffer, and at most one background
+ * thread ever reads from it. The thread exits after a few seconds without
+ * reads. A thread still waiting for a line that never comes is not leaked: the
+ * next read with a deadline picks up its pending read.
+ */
+class LineReader {
+
+    // A line and its terminator, matched the same way as Scanner.nextLine()
+    private static final Pattern LINE = Pattern.compile(".*(\r\n|[\n\r\u2028\u2029\u0085])|.+$");
+
+    // Chars of a line, without its terminator
+    private static final Pattern REST = Pattern.compile("[^\n\r\u2028\u2029\u0085]*");
+
+    // Chars of an over-long line skipped at a time
+    private static final int SKIP_CHARS = 8192;
+
+    // Time an idle background thread is kept
+    private static final long IDLE_SECONDS = 5;
+
+    // Reader of each source stream. Readers are only held weakly, so they go
+    // away with the last Prompt using them
+    private static final Map<InputStream, WeakReference<LineReader>> READERS = new WeakHashMap<>();
+
+    // Source
+    private final Scanner in;
+
+    // Background reader, only created once a deadline is used
+    private ThreadPoolExecutor worker;
+
+    // A read that outlived its deadline
+    private CompletableFuture<String> pending;
+
+    /**
+     * Create a LineReader. Use {@link #of}
+     *
+     * @param in Input
+     */
+    private LineReader(InputStream in) {
+        this.in = new Scanner(in);
+    }
+
+    /**
+     * Get the LineReader of a stream, creating it if needed
+     *
+     * @param in Input
+     * @return LineReader
+     */
+    static synchronized LineReader of(InputStream in) {
+        WeakReference<LineReader> ref = READERS.get(in);
+        LineReader reader = (ref != null) ? ref.get() : null;
+        if (reader == null) {
+            reader = new LineReader(in);
+            READERS.put(in, new WeakReference<>(reader));
+        }
+        return reader;
+    }
+
+    /**
+     * Read a single line
+     *
+     * @param timeoutMillis Maximum time to wait (0 to wait forever)
+     * @return Line, without its terminator
+     * @throws EndOfInputException    if the input has ended
+     * @throws PromptTimeoutException if the deadline passes first
+     */
+    public String readLine(long timeoutMillis) {
+        return readLine(timeoutMillis, 0);
+    }
+
+    /**
+     * Read a single line, without buffering more than a limited number of its
+     * chars. A read left pending by an earlier deadline keeps its own limit
+     *
+     * @param timeoutMillis Maximum time to wait (0 to wait forever)
+     * @param maxChars      Maximum line length, not counting its terminator (0
+     *                      for no limit)
+     * @return Line, without its terminator
+     * @throws EndOfInputException    if the input has ended
+     * @throws PromptTimeoutException if the deadline passes first
+     * @throws InputTooLargeException if the line is longer than maxChars. The
+     *                                rest of the line is skipped
+     */
+    public synchronized String readLine(long timeoutMillis, long maxChars) {
+
+        // Fast path. Nothing is in flight, and no deadline is needed
+        if (pending == null && timeoutMillis <= 0) {
+            try {
+                return nextLine(maxChars);
+            } catch (NoSuchElementException e) {
+                throw new EndOfInputException(e);
+            }
+        }
+
+        // Start a background read, unless one is already waiting for a line
+        if (pending == null) {
+            pending = CompletableFuture.supplyAsync(() -> nextLine(maxChars), getWorker());
+        }
+
+        try {
+
+            // Block until the line arrives, or the deadline passes
+            String line = (timeoutMillis > 0) ? pending.get(timeoutMillis, TimeUnit.MILLISECONDS) : pending.get();
+            pending = null;
+            return line;
+
+        } catch (TimeoutException e) {
+            // Leave the read pending for the next caller
+            throw new PromptTimeoutException(timeoutMillis);
+        } catch (ExecutionException e) {
+            pending = null;
+            if (e.getCause() instanceof NoSuchElementException) {
+                throw new EndOfInputException(e.getCause());
+            }
+            if (e.getCause() instanceof InputTooLargeException) {
+                throw (InputTooLargeException) e.getCause();
+            }
+            throw new PromptException("Failed to read input", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PromptException("Interrupted while waiting for input", e);
+        }
+    }
+
+    /**
+     * Read a line from the source. With a limit, the Scanner is only allowed to
+     * look (and so buffer) a little past it, so a line that never ends can not
+     * use up memory
+     *
+     * @param maxChars Maximum line length (0 for no limit)
+     * @return Line, without its terminator
+     * @throws NoSuchElementException if the input has ended
+     * @throws InputTooLargeException if the line is longer than maxChars
+     */
+    private String nextLine(long maxChars) {
+        if (maxChars <= 0) {
+            return in.nextLine();
+        }
+
+        // Leave room for a two char terminator
+        int horizon = (int) Math.min(Integer.MAX_VALUE, maxChars + 2);
+        String line = in.findWithinHorizon(LINE, horizon);
+        if (line == null) {
+
+            // Either the input has ended, or the line runs past the horizon
+            if (!skipLine()) {
+                throw new NoSuchElementException("No line found");
+            }
+            throw new InputTooLargeException(maxChars);
+        }
+
+        // Drop the terminator
+        MatchResult match = in.match();
+        if (match.group(1) != null) {
+            line = line.substring(0, match.start(1) - match.start());
+        }
+        if (line.length() > maxChars) {
+            throw new InputTooLargeException(maxChars);
+        }
+        return line;
+    }
+
+    /**
+     * Skip the rest of the current line, and its terminator, a bounded piece at
+     * a time, so the next read starts on the following line
+     *
+     * @return False if the input had already ended
+     */
+    private boolean skipLine() {
+        boolean skipped = false;
+        while (true) {
+            String rest = in.findWithinHorizon(REST, SKIP_CHARS);
+            if (rest == null || rest.isEmpty()) {
+                break;
+            }
+            skipped = true;
+            if (rest.length() < SKIP_CHARS) {
+                break;
+            }
+        }
+        return in.findWithinHorizon(LINE, 2) != null || skipped;
+    }
+
+    /**
+     * Get the background reader, creating it if needed
+     *
+     * @return Reader thread
+     */
+    private ThreadPoolExecutor getWorker() {
+        if (worker == null) {
+            worker = new ThreadPoolExecutor(1, 1, IDLE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), (r) -> {
+                Thread t = new Thread(r, "inputlib-reader");
+                t.setDaemon(true);
+                return t;
+            });
+            worker.allowCoreThreadTimeOut(true);
+        }
+        return worker;
+    }
+}
@@ -2,6 +2,12 @@ package ca.retrylife.inputlib;
 
 import java.util.HashMap;
 
+import ca.retrylife.inputlib.expression.Expression;
+import ca.retrylife.inputlib.metrics.FlightEvents;
+import ca.retrylife.inputlib.metrics.Metrics;
+import ca.retrylife.inputlib.metrics.ParseEvent;
+import ca.retrylife.inputlib.types.BigNumber;
+import ca.retrylife.inputlib.types.IsoTime;
 import ca.retrylife.inputlib.types.Token;
 import ca.retrylife.inputlib.types.Types;
 
@@ -10,6 +16,14 @@ import ca.retrylife.inputlib.types.Types;
  */
 public class Parser {
 
+    // Most significant digits a double can always hold exactly. Decimals with
+    // more become BigDecimals
+    public static final int DOUBLE_DIGITS = 15;
+
+    // Are ISO-8601 dates and timestamps recognized? Off by default, so they stay
+    // Strings
+    private static volatile boolean parseTimes = false;
+
     // List of every valid boolean string
     public static HashMap<String, Boolean> VALID_BOOLEANS_MAP = new HashMap<>();
 
@@ -30,18 +44,275 @@ public class Parser {
      */
     public static Token parseToToken(String data) {
 
+        // Skip timing unless metrics or parse events are being collected
+        boolean metrics = Metrics.enabled();
+        boolean recording = FlightEvents.parseEnabled();
+        if (!metrics && !recording) {
+            return parse(data);
+        }
+
+        // Only create the event when it is being recorded
+        ParseEvent event = (recording) ? new ParseEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+
+        // Parse, and time it
+        long start = System.nanoTime();
+        Token token = parse(data);
+        long nanos = System.nanoTime() - start;
+
+        // Report the result
+        if (token != null) {
+            if (metrics) {
+                Metrics.sink().parsed(token.getPrimaryType(), nanos);
+            }
+            if (event != null && event.shouldCommit()) {
+                event.inputLength = data.length();
+                event.type = token.getPrimaryType().getName();
+                event.commit();
+            }
+        }
+        return token;
+    }
+
+    /**
+     * Turn recognition of ISO-8601 dates ("2024-01-31") and timestamps
+     * ("2024-01-31T12:00:00Z") on or off. When on, they classify as
+     * {@link Types#DATE} and {@link Types#TIMESTAMP} instead of Strings
+     * 
+     * @param enabled Should dates and timestamps be recognized?
+     */
+    public static void setParseTimes(boolean enabled) {
+        parseTimes = enabled;
+    }
+
+    /**
+     * Check if ISO-8601 dates and timestamps are recognized
+     * 
+     * @return Are they recognized?
+     */
+    public static boolean isParsingTimes() {
+        return parseTimes;
+    }
+
+    /**
+     * Parses an ISO-8601 date or timestamp into a Token, whether or not they are
+     * recognized by {@link #parseToToken}
+     * 
+     * @param data Data String
+     * @return DATE or TIMESTAMP Token, or null if the data is neither
+     */
+    public static Token parseTime(String data) {
+        long day = IsoTime.parseDate(data);
+        if (day != IsoTime.INVALID) {
+            return new Token(Types.DATE, day);
+        }
+        long nanos = IsoTime.parseTimestamp(data);
+        if (nanos != IsoTime.INVALID) {
+            return new Token(Types.TIMESTAMP, nanos);
+        }
+        return null;
+    }
+
+    /**
+     * Evaluates an arithmetic expression, like "4*1024", "1.5e3/60" or
+     * "0x10+2". Numbers can be in any format this Parser accepts. See
+     * {@link Expression} for the operators and functions. Compiled expressions
+     * are cached, so evaluating the same text again skips parsing
+     * 
+     * @param expression Expression text
+     * @return Value
+     * @throws NumberFormatException if the text is not a valid expression
+     */
+    public static double evaluate(String expression) {
+        return Expression.compile(expression).evaluate();
+    }
+
+    /**
+     * Parses a line of space or tab separated values straight into an object.
+     * Records get one value per component, in order. Other classes need a
+     * no-argument constructor, and get one value per non-final field, in the
+     * order given by {@link BindOrder}. Without one, the order is whatever
+     * reflection returns, which depends on the JVM. The mapping is worked out
+     * once per class, and cached
+     * 
+     * @param <R>  Class to build
+     * @param line Line
+     * @param type Class to build
+     * @return New instance
+     * @throws IllegalArgumentException if the class can not be bound, or a
+     *                                  value does not fit its member (a
+     *                                  FormFormatException)
+     */
+    public static <R> R bind(CharSequence line, Class<R> type) {
+        Binding binding = Binding.of(type);
+        return type.cast(binding.build(binding.plan.fill(line.toString())));
+    }
+
+    /**
+     * Parses a line of space or tab separated values into Tokens. Values can be
+     * quoted to include spaces. Use a {@link RecordTokenizer} for other
+     * delimiters
+     * 
+     * @param line Data line
+     * @return Parsed Tokens, one per value
+     */
+    public static Token[] parseLine(String line) {
+        return RecordTokenizer.WHITESPACE.tokenize(line);
+    }
+
+    /**
+     * Parses a line of space or tab separated values into a re-usable record
+     * 
+     * @param line Data line
+     * @param out  Where to put the parsed Tokens
+     * @return Number of values
+     */
+    public static int parseLine(String line, TokenRecord out) {
+        return RecordTokenizer.WHITESPACE.tokenize(line, out);
+    }
+
+    /**
+     * Parses a String into a Token, without reporting metrics
+     * 
+     * @param data Data String
+     * @return Parsed Token
+     */
+    private static Token parse(String data) {
+
+        // Clean up the data according to its type
+        switch (classifyShape(data)) {
+            case STRING:
+                return new Token(data);
+            case CHARACTER:
+                return new Token(data.charAt(0));
+            case INTEGER:
+            case LONG:
+            case BIG_INTEGER:
+
+                // One overflow-checked pass, promoting to a Long if needed
+                long value;
+                try {
+                    value = parseLong(data);
+                } catch (NumberFormatException e) {
+                    return new Token(Types.BIG_INTEGER, parseBigInteger(data));
+                }
+                if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+                    return new Token((int) value);
+                }
+                return new Token(value);
+            case DOUBLE:
+            case BIG_DECIMAL:
+
+                // Keep the digits a double would lose
+                if (isWideDecimal(data)) {
+                    return new Token(Types.BIG_DECIMAL, parseBigDecimal(data));
+                }
+                return new Token(parseDouble(data));
+            case FLOAT:
+                return new Token(parseFloat(data));
+            case BOOLEAN:
+                return new Token(parseBoolean(data));
+            case DATE:
+            case TIMESTAMP:
+                return parseTime(data);
+        }
+
+        return null;
+    }
+
+    /**
+     * Finds the type a String would be parsed as, without building a Token. This
+     * is useful for bulk loading, where a Token per value is too costly
+     * 
+     * @param data Data String
+     * @return Type of the data
+     */
+    public static Types classify(String data) {
+        Types type = classifyShape(data);
+        switch (type) {
+            case INTEGER:
+                return integralType(data);
+            case DOUBLE:
+                return (isWideDecimal(data)) ? Types.BIG_DECIMAL : Types.DOUBLE;
+            default:
+                return type;
+        }
+    }
+
+    /**
+     * Decide if an integer-shaped String is an Integer, a Long, or a BigInteger.
+     * Short values can not overflow an int, so only long ones are parsed
+     * 
+     * @param data Data String
+     * @return INTEGER, LONG, or BIG_INTEGER
+     */
+    private static Types integralType(String data) {
+        int base = baseOf(data);
+        int digits = (base == 10) ? data.length() : data.length() - 2;
+        int safeDigits = (base == 16) ? 7 : ((base == 2) ? 31 : 9);
+        if (digits <= safeDigits) {
+            return Types.INTEGER;
+        }
+
+        // Values that do not fit a long are BigIntegers if their digits are
+        // valid. Anything else is still a Long, and fails to parse
+        try {
+            long value = parseLong(data);
+            return (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) ? Types.INTEGER : Types.LONG;
+        } catch (NumberFormatException e) {
+            try {
+                parseBigInteger(data);
+                return Types.BIG_INTEGER;
+            } catch (NumberFormatException notBig) {
+                return Types.LONG;
+            }
+        }
+    }
+
+    /**
+     * Check if a double-shaped String has more significant digits than a double
+     * can hold. Short values are skipped without counting
+     * 
+     * @param data Data String
+     * @return Is wider than a double?
+     */
+    private static boolean isWideDecimal(String data) {
+        if (data.length() <= DOUBLE_DIGITS + 1) {
+            return false;
+        }
+
+        // Leading zeros are not significant
+        int significant = 0;
+        for (int i = 0; i < data.length(); i++) {
+            char c = data.charAt(i);
+            if (Character.isDigit(c) && (significant > 0 || c != '0')) {
+                significant++;
+            }
+        }
+        return significant > DOUBLE_DIGITS;
+    }
+
+    /**
+     * Finds the type a String looks like. Every integer-looking String is an
+     * INTEGER here, whatever its size
+     * 
+     * @param data Data String
+     * @return Type of the data
+     */
+    private static Types classifyShape(String data) {
+
         // Try to determine the type of data being passed in
         // The next few steps will try to eliminate various options based on some simple
         // rules
         Types type = null;
 
-        // Number types
-        boolean isHex = false;
-        boolean isBinary = false;
-
         // New scope
         typeFinder: {
             boolean isNumber = true;
+            boolean isHex = false;
+            boolean isBinary = false;
             boolean isFloat = false;
             boolean isDouble = false;
 
@@ -52,16 +323,12 @@ public class Parser {
             }
 
             // Check if the data fits in the valid boolean list
-            boolean mightBeBoolean = false;
-            for (String validBooleanString : VALID_BOOLEANS_MAP.keySet()) {
-                if (data.equals(validBooleanString)) {
-                    mightBeBoolean = true;
-                    break;
-                }
-            }
+            boolean mightBeBoolean = VALID_BOOLEANS_MAP.containsKey(data);
 
             // Search through the data
-            for (char c : data.toCharArray()) {
+            for (int i = 0; i < data.length(); i++) {
+                char c = data.charAt(i);
+                char lower = Character.toLowerCase(c);
 
                 // If a space or a newline is found, this must be a string
                 if (c == ' ' || c == '\n') {
@@ -71,29 +338,28 @@ public class Parser {
 
                 // If a character that is not valid in a number is found, remove possibility of
                 // number
-                if (!isHex && !Character.isDigit(c) && Character.toLowerCase(c) != '_'
-                        && Character.toLowerCase(c) != 'f' && Character.toLowerCase(c) != 'x'
-                        && Character.toLowerCase(c) != 'b' && Character.toLowerCase(c) != '.') {
+                if (!isHex && !Character.isDigit(c) && lower != '_' && lower != 'f' && lower != 'x' && lower != 'b'
+                        && lower != '.') {
                     isNumber = false;
                 }
 
                 // Check for a character that might make this a float
-                if (Character.toLowerCase(c) == 'f') {
+                if (lower == 'f') {
                     isFloat = true;
                 }
 
                 // Check for a character that might make this a double
-                if (Character.toLowerCase(c) == '.') {
+                if (lower == '.') {
                     isDouble = true;
                 }
 
                 // Check for a character that would make this a hex number
-                if (Character.toLowerCase(c) == 'x') {
+                if (lower == 'x') {
                     isHex = true;
                 }
 
                 // Check for a character that would make this a binary number
-                if (Character.toLowerCase(c) == 'b') {
+                if (lower == 'b') {
                     isBinary = true;
                 }
 
@@ -139,40 +405,149 @@ public class Parser {
                             type = Types.INTEGER;
                         }
                     } else {
-                        type = Types.STRING;
+                        type = (parseTimes) ? timeType(data) : Types.STRING;
                     }
                 }
             }
 
         }
 
-        // Clean up the data according to its type
-        switch (type) {
-            case STRING:
-                return new Token(data);
-            case CHARACTER:
-                return new Token(data.charAt(0));
-            case INTEGER:
-                // Determine the base
-                int base = ((isBinary) ? 2 : ((isHex) ? 16 : 10));
+        return type;
+    }
 
-                // Handle base 10
-                if (base == 10) {
-                    return new Token(Integer.parseInt(data, base));
-                } else {
-                    // Base 2 and 16 require a stripped prefix
-                    return new Token(Integer.parseInt(data.substring(2), base));
-                }
-            case DOUBLE:
-                // Handles a java parser bug
-                return new Token(Double.parseDouble(data.replaceAll("_", "")));
-            case FLOAT:
-                // Handles a java parser bug
-                return new Token(Float.parseFloat(data.replaceAll("_", "").replaceAll("f", "")));
-            case BOOLEAN:
-                return new Token(VALID_BOOLEANS_MAP.get(data.toLowerCase()));
+    /**
+     * Check if a String is an ISO-8601 date or timestamp. Only text that starts
+     * like a date is parsed
+     * 
+     * @param data Data String
+     * @return DATE, TIMESTAMP, or STRING
+     */
+    private static Types timeType(String data) {
+        if (data.length() < IsoTime.DATE_LENGTH || data.charAt(4) != '-') {
+            return Types.STRING;
+        }
+        if (IsoTime.parseDate(data) != IsoTime.INVALID) {
+            return Types.DATE;
         }
+        return (IsoTime.parseTimestamp(data) != IsoTime.INVALID) ? Types.TIMESTAMP : Types.STRING;
+    }
 
-        return null;
+    /**
+     * Parses the value of a String that {@link #classify} found to be an
+     * Integer (they can be decimal, binary, or hexadecimal)
+     * 
+     * @param data Data String
+     * @return Integer value
+     * @throws NumberFormatException if the value does not fit in an int
+     */
+    public static int parseInteger(String data) {
+        int base = baseOf(data);
+        return Integer.parseInt(digitsOf(data, base), base);
+    }
+
+    /**
+     * Parses the value of a String that {@link #classify} found to be an
+     * Integer or a Long, in a single overflow-checked pass
+     * 
+     * @param data Data String
+     * @return Long value
+     * @throws NumberFormatException if the value does not fit in a long
+     */
+    public static long parseLong(String data) {
+        int base = baseOf(data);
+        return Long.parseLong(digitsOf(data, base), base);
+    }
+
+    /**
+     * Get the digits of an integer, without its base prefix or "_" separators
+     * 
+     * @param data Data String
+     * @param base Base
+     * @return Digits (and sign)
+     */
+    private static String digitsOf(String data, int base) {
+        String digits = (base == 10) ? data : data.substring(2);
+        return (digits.indexOf('_') >= 0) ? digits.replace("_", "") : digits;
+    }
+
+    /**
+     * Parses the value of a String that {@link #classify} found to be an
+     * Integer, Long, or BigInteger. Only the digits are validated, the
+     * BigInteger is built when it is asked for
+     * 
+     * @param data Data String
+     * @return BigNumber value
+     * @throws NumberFormatException if the value is not a valid number
+     */
+    public static BigNumber parseBigInteger(String data) {
+        int base = baseOf(data);
+        return BigNumber.parse(data, (base == 10) ? 0 : 2, data.length(), base, false);
+    }
+
+    /**
+     * Parses the value of a String that {@link #classify} found to be a
+     * BigDecimal. This also accepts anything {@link #parseDouble} and
+     * {@link #parseFloat} do. Only the digits are validated, the BigDecimal is
+     * built when it is asked for
+     * 
+     * @param data Data String
+     * @return BigNumber value
+     * @throws NumberFormatException if the value is not a valid number
+     */
+    public static BigNumber parseBigDecimal(String data) {
+        int end = data.length();
+        if (end > 0 && Character.toLowerCase(data.charAt(end - 1)) == 'f') {
+            end--;
+        }
+        return BigNumber.parse(data, 0, end, 10, true);
+    }
+
+    /**
+     * Determine the base of an integer-looking String. Base 2 and 16 values have
+     * a two-char prefix
+     * 
+     * @param data Data String
+     * @return Base
+     */
+    private static int baseOf(String data) {
+
+        // Hex digits can include a "b"
+        boolean isHex = data.indexOf('x') >= 0 || data.indexOf('X') >= 0;
+        boolean isBinary = data.indexOf('b') >= 0 || data.indexOf('B') >= 0;
+        return ((isHex) ? 16 : ((isBinary) ? 2 : 10));
+    }
+
+    /**
+     * Parses the value of a String that {@link #classify} found to be a Double
+     * 
+     * @param data Data String
+     * @return Double value
+     * @throws NumberFormatException if the value is not a valid number
+     */
+    public static double parseDouble(String data) {
+        // Handles a java parser bug
+        return Double.parseDouble(data.replace("_", ""));
+    }
+
+    /**
+     * Parses the value of a String that {@link #classify} found to be a Float
+     * 
+     * @param data Data String
+     * @return Float value
+     * @throws NumberFormatException if the value is not a valid number
+     */
+    public static float parseFloat(String data) {
+        // Handles a java parser bug
+        return Float.parseFloat(data.replace("_", "").replace("f", ""));
+    }
+
+    /**
+     * Parses the value of a String that {@link #classify} found to be a Boolean
+     * 
+     * @param data Data String
+     * @return Boolean value
+     */
+    public static boolean parseBoolean(String data) {
+        return VALID_BOOLEANS_MAP.get(data.toLowerCase());
     }
-}
\ No newline at end of file
+}
@@ -1,21 +1,84 @@
 package ca.retrylife.inputlib;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintStream;
-import java.util.Scanner;
-
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.concurrent.locks.ReentrantLock;
+
+import ca.retrylife.inputlib.exceptions.EndOfInputException;
+import ca.retrylife.inputlib.exceptions.InputTooLargeException;
+import ca.retrylife.inputlib.exceptions.PromptTimeoutException;
+import ca.retrylife.inputlib.exceptions.RetriesExhaustedException;
+import ca.retrylife.inputlib.journal.SessionJournal;
+import ca.retrylife.inputlib.metrics.FlightEvents;
+import ca.retrylife.inputlib.metrics.Metrics;
+import ca.retrylife.inputlib.metrics.PromptEvent;
+import ca.retrylife.inputlib.selection.ChoiceSet;
+import ca.retrylife.inputlib.selection.EnumIndex;
+import ca.retrylife.inputlib.selection.OptionIndex;
 import ca.retrylife.inputlib.types.Token;
 import ca.retrylife.inputlib.types.Types;
 
 /**
  * Prompt is the primary class of InputLib. All general functions are provided
  * here, and it wraps many annoying type-safety checks in simple functions.
+ * 
+ * By default, a Prompt will re-ask forever until it gets a valid answer. A
+ * {@link PromptPolicy} can be used to limit attempts and set a read deadline.
+ * When a limit is hit, or the input ends, a
+ * {@link ca.retrylife.inputlib.exceptions.PromptException} is thrown.
+ * 
+ * A Prompt can be shared between threads. Each complete prompt and answer
+ * exchange holds a lock, so output from different threads is never mixed, and
+ * every answer goes to the thread that asked for it. Prompts made with
+ * {@link #withPolicy}, {@link #withExpressions}, and {@link #withJournal} share
+ * this lock.
  */
 public class Prompt {
 
+    /**
+     * Line that ends a multi-line input by default
+     */
+    public static final String DEFAULT_TERMINATOR = ".";
+
     // IO
-    private Scanner in;
-    private PrintStream out;
+    private final LineReader in;
+    private final PrintStream out;
+
+    // Limits
+    private final PromptPolicy policy;
+
+    // Do numeric prompts accept arithmetic?
+    private final boolean expressions;
+
+    // Where answers are recorded (or null)
+    private final SessionJournal journal;
+
+    // Held for a whole exchange. Shared by every Prompt over the same streams
+    private final ReentrantLock exchangeLock;
+
+    // Exchange state (guarded by exchangeLock). Nested prompt calls share one
+    // attempt budget
+    private int exchangeDepth = 0;
+    private int failedAttempts = 0;
+
+    // Exchange timing (only tracked while metrics or a recording are enabled)
+    private String exchangeMethod;
+    private long exchangeStart;
+    private long exchangeWaitNanos;
+    private PromptEvent exchangeEvent;
 
     /**
      * Create a Prompt using stdin/stdout for I/O
@@ -31,8 +94,203 @@ public class Prompt {
      * @param out Output
      */
     public Prompt(InputStream in, PrintStream out) {
-        this.in = new Scanner(in);
+        this(in, out, PromptPolicy.UNLIMITED);
+    }
+
+    /**
+     * Create a Prompt from two streams, with limits on every prompt
+     * 
+     * @param in     Input
+     * @param out    Output
+     * @param policy Limits
+     */
+    public Prompt(InputStream in, PrintStream out, PromptPolicy policy) {
+        this(LineReader.of(in), out, policy, new ReentrantLock(), false, null);
+    }
+
+    /**
+     * Create a Prompt over an existing reader
+     * 
+     * @param in     Line reader
+     * @param out    Output
+     * @param policy      Limits
+     * @param lock        Exchange lock
+     * @param expressions Do numeric prompts accept arithmetic?
+     * @param journal     Where answers are recorded (or null)
+     */
+    private Prompt(LineReader in, PrintStream out, PromptPolicy policy, ReentrantLock lock, boolean expressions,
+            SessionJournal journal) {
+        this.in = in;
         this.out = out;
+        this.policy = policy;
+        this.exchangeLock = lock;
+        this.expressions = expressions;
+        this.journal = journal;
+    }
+
+    /**
+     * Get a Prompt that shares this Prompt's streams, but uses a different
+     * policy. This can be used to set limits for a single call:
+     * 
+     * <pre>
+     * int i = prompt.withPolicy(new PromptPolicy(3)).promptInteger("message");
+     * </pre>
+     * 
+     * @param policy Limits
+     * @return Prompt using the new policy
+     */
+    public Prompt withPolicy(PromptPolicy policy) {
+        return new Prompt(in, out, policy, exchangeLock, expressions, journal);
+    }
+
+    /**
+     * Get a Prompt that shares this Prompt's streams, but lets the user type
+     * arithmetic (like "4*1024" or "1.5e3/60") into numeric prompts. See
+     * {@link Parser#evaluate} for what is allowed
+     * 
+     * @param enabled Should numeric prompts accept arithmetic?
+     * @return Prompt using the new setting
+     */
+    public Prompt withExpressions(boolean enabled) {
+        return new Prompt(in, out, policy, exchangeLock, enabled, journal);
+    }
+
+    /**
+     * Get a Prompt that shares this Prompt's streams, but records every answer it
+     * reads (with its time, type, and prompt method) in a journal. The journal
+     * is not closed by the Prompt
+     * 
+     * @param journal Journal (or null to stop recording)
+     * @return Prompt using the journal
+     */
+    public Prompt withJournal(SessionJournal journal) {
+        return new Prompt(in, out, policy, exchangeLock, expressions, journal);
+    }
+
+    /**
+     * Get the limits used by this Prompt
+     * 
+     * @return Policy
+     */
+    public PromptPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Mark the start of a prompt call. This blocks until no other thread is in an
+     * exchange. The attempt budget is reset when the outermost call starts
+     * 
+     * @param method Name of the prompt method
+     */
+    private void beginExchange(String method) {
+        exchangeLock.lock();
+        if (exchangeDepth++ == 0) {
+            failedAttempts = 0;
+
+            // Start timing. The event is only created when it is being recorded
+            boolean recording = FlightEvents.promptEnabled();
+            if (Metrics.enabled() || recording || journal != null) {
+                exchangeMethod = method;
+                exchangeWaitNanos = 0;
+                exchangeEvent = (recording) ? new PromptEvent() : null;
+                if (exchangeEvent != null) {
+                    exchangeEvent.begin();
+                }
+                exchangeStart = System.nanoTime();
+            }
+        }
+    }
+
+    /**
+     * Mark the end of a prompt call
+     */
+    private void endExchange() {
+
+        // Report the outermost call
+        if (--exchangeDepth == 0 && exchangeMethod != null) {
+            long totalNanos = System.nanoTime() - exchangeStart;
+
+            // Metrics
+            if (Metrics.enabled()) {
+                Metrics.sink().promptCompleted(exchangeMethod, failedAttempts, exchangeWaitNanos, totalNanos);
+            }
+
+            // Flight recorder
+            if (exchangeEvent != null && exchangeEvent.shouldCommit()) {
+                exchangeEvent.method = exchangeMethod;
+                exchangeEvent.attempts = failedAttempts + 1;
+                exchangeEvent.readWait = exchangeWaitNanos;
+                exchangeEvent.processing = totalNanos - exchangeWaitNanos;
+                exchangeEvent.commit();
+            }
+
+            exchangeMethod = null;
+            exchangeEvent = null;
+        }
+        exchangeLock.unlock();
+    }
+
+    /**
+     * Read a line of input, following the policy's deadline
+     * 
+     * @return Line
+     */
+    private String readLine() {
+        return readLine(0);
+    }
+
+    /**
+     * Read a line of input, following the policy's deadline, without buffering
+     * more than a limited number of its chars
+     * 
+     * @param maxChars Maximum line length (0 for no limit)
+     * @return Line
+     * @throws InputTooLargeException if the line is longer than maxChars
+     */
+    private String readLine(long maxChars) {
+
+        // Skip timing unless this exchange is being tracked
+        if (exchangeMethod == null) {
+            return in.readLine(policy.getReadTimeoutMillis(), maxChars);
+        }
+
+        // Count the time spent waiting for the user
+        long start = System.nanoTime();
+        String line = null;
+        try {
+            line = in.readLine(policy.getReadTimeoutMillis(), maxChars);
+            return line;
+        } finally {
+            long waited = System.nanoTime() - start;
+            exchangeWaitNanos += waited;
+            if (journal != null && line != null) {
+                journal.record(exchangeMethod, line, waited);
+            }
+        }
+    }
+
+    /**
+     * Handle an invalid answer. This warns the user, and gives up if the policy's
+     * attempt limit has been hit
+     * 
+     * @param warning Message to show the user (or null for none)
+     * @throws RetriesExhaustedException if there are no attempts left
+     */
+    private void rejectAttempt(String warning) {
+
+        // Warn the user
+        if (warning != null) {
+            out.println(warning);
+        }
+
+        // Check the budget
+        failedAttempts++;
+        if (Metrics.enabled() && exchangeMethod != null) {
+            Metrics.sink().attemptRejected(exchangeMethod);
+        }
+        if (policy.hasAttemptLimit() && failedAttempts >= policy.getMaxAttempts()) {
+            throw new RetriesExhaustedException(failedAttempts);
+        }
     }
 
     /**
@@ -43,15 +301,177 @@ public class Prompt {
      */
     public Token promptToken(String prompt) {
 
-        // Print prompt
+        beginExchange("promptToken");
+        try {
+            // Print prompt
+            out.print(prompt);
+            out.print("> ");
+
+            // Get a line
+            String line = readLine();
+
+            // Parse the data into a token
+            return Parser.parseToToken(line);
+        } finally {
+            endExchange();
+        }
+    }
+
+    /**
+     * Prompt a number. In expression mode, an answer that is not already a
+     * number is evaluated as arithmetic
+     * 
+     * @param prompt Prompt message
+     * @return Parsed Token
+     */
+    private Token promptNumber(String prompt) {
+        if (!expressions) {
+            return promptToken(prompt);
+        }
+
+        // Print prompt, and get a line
         out.print(prompt);
         out.print("> ");
+        String line = readLine();
 
-        // Get a line
-        String line = in.nextLine();
+        // Numbers that are too large become Strings, instead of throwing
+        Token input = RecordTokenizer.parseField(line);
+        if (input.getPrimaryType() != Types.STRING) {
+            return input;
+        }
 
-        // Parse the data into a token
-        return Parser.parseToToken(line);
+        // Whole results become Integers or Longs, so integer prompts take them
+        try {
+            double value = Parser.evaluate(line);
+            if (!Double.isFinite(value)) {
+                return input;
+            }
+            if (value == Math.rint(value) && Math.abs(value) < 0x1p63) {
+                long whole = (long) value;
+                return (whole == (int) whole) ? new Token((int) whole) : new Token(whole);
+            }
+            return new Token(value);
+        } catch (NumberFormatException e) {
+            return input;
+        }
+    }
+
+    /**
+     * Prompt several typed values from a single line. The values are separated
+     * by spaces or tabs, and can be quoted to include spaces
+     * 
+     * @param prompt Prompt message
+     * @param types  Type of each value, in order
+     * @return User-supplied values, one per type
+     */
+    public Token[] promptRecord(String prompt, Types... types) {
+        return promptRecord(prompt, RecordTokenizer.WHITESPACE, types);
+    }
+
+    /**
+     * Prompt several typed values from a single line
+     * 
+     * @param prompt    Prompt message
+     * @param tokenizer How to split the line into values
+     * @param types     Type of each value, in order
+     * @return User-supplied values, one per type
+     */
+    public Token[] promptRecord(String prompt, RecordTokenizer tokenizer, Types... types) {
+
+        // Build the expected types into a nice string
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < types.length; i++) {
+            expected.append((i == 0) ? "" : " ").append(types[i].getName());
+        }
+
+        beginExchange("promptRecord");
+        try {
+            TokenRecord record = new TokenRecord();
+
+            // Get a record until every field is valid
+            while (true) {
+
+                // Print prompt
+                out.printf("%s%n[%s] > ", prompt, expected);
+
+                // Get a line, and split it
+                tokenizer.tokenize(readLine(), record);
+
+                // If the input is valid, return
+                if (matches(record, types)) {
+                    return record.toArray();
+                }
+
+                // Warn the user
+                rejectAttempt(String.format("! Must be %d values: %s", types.length, expected));
+            }
+        } finally {
+            endExchange();
+        }
+    }
+
+    /**
+     * Check if every field of a record has the expected type
+     * 
+     * @param record Record
+     * @param types  Expected types
+     * @return Do all fields match?
+     */
+    private static boolean matches(TokenRecord record, Types[] types) {
+        if (record.size() != types.length) {
+            return false;
+        }
+        for (int i = 0; i < types.length; i++) {
+            if (!record.get(i).hasType(types[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Fill a form, asking for one field at a time. Each field is re-asked until
+     * its answer is valid, and every field shares the policy's attempt budget
+     * 
+     * @param plan Compiled form
+     * @return Filled form
+     */
+    public FormResult promptForm(FormPlan plan) {
+
+        beginExchange("promptForm");
+        try {
+            FormResult result = plan.newResult();
+            for (int i = 0; i < plan.size(); i++) {
+                FormField field = plan.getField(i);
+
+                // Get an answer until it is valid. The prompt is already rendered
+                while (true) {
+                    out.print(field.text);
+                    String warning = field.read(readLine(), result.values, result.objects);
+                    if (warning == null) {
+                        break;
+                    }
+                    rejectAttempt(warning);
+                }
+            }
+            return result;
+        } finally {
+            endExchange();
+        }
+    }
+
+    /**
+     * Build an object by asking for each of its members, using the member names
+     * as prompts. See {@link Parser#bind} for how classes are mapped
+     * 
+     * @param <R>  Class to build
+     * @param type Class to build
+     * @return New instance
+     * @throws IllegalArgumentException if the class can not be bound
+     */
+    public <R> R promptInto(Class<R> type) {
+        Binding binding = Binding.of(type);
+        return type.cast(binding.build(promptForm(binding.plan)));
     }
 
     /**
@@ -63,16 +483,24 @@ public class Prompt {
      */
     public String promptString(String prompt, boolean oneLine) {
 
-        // Get a token, and its string until the data is valid
-        while (true) {
+        beginExchange("promptString");
+        try {
+            // Get a token, and its string until the data is valid
+            while (true) {
 
-            // Get input
-            Token input = promptToken(String.format(((oneLine) ? "%s" : "%s%n"), prompt));
+                // Get input
+                Token input = promptToken(String.format(((oneLine) ? "%s" : "%s%n"), prompt));
 
-            // If the input is valid, return
-            if (input != null && input.hasType(Types.STRING) && input.getString().length() > 0) {
-                return input.getString();
+                // If the input is valid, return
+                if (input != null && input.hasType(Types.STRING) && input.getString().length() > 0) {
+                    return input.getString();
+                }
+
+                // Count the empty answer
+                rejectAttempt(null);
             }
+        } finally {
+            endExchange();
         }
     }
 
@@ -95,38 +523,160 @@ public class Prompt {
      */
     public String promptMultiLineString(String prompt) {
 
-        // Print the user prompt
-        out.println(prompt);
+        // Collect everything in memory
+        StringBuilder totalInput = new StringBuilder();
+        try {
+            promptMultiLineString(prompt, totalInput, DEFAULT_TERMINATOR, 0);
+        } catch (IOException e) {
+            // StringBuilder never throws
+            throw new UncheckedIOException(e);
+        }
+
+        // Return the built string
+        return totalInput.toString();
+    }
 
-        // Print a message explaining how to use this
-        out.println("When finished, enter \".\" on a new line.");
+    /**
+     * Get a string spanning multiple lines from the user, and stream it straight
+     * to a Writer instead of holding it in memory. Each line is written followed
+     * by a "\n"
+     * 
+     * @param prompt     Prompt message
+     * @param sink       Where to write the lines. This is not closed
+     * @param terminator Line that ends the input (not written)
+     * @param maxChars   Maximum number of chars to write (0 for no limit)
+     * @return Number of chars written
+     * @throws IOException             if the sink fails
+     * @throws InputTooLargeException if the input goes over maxChars
+     */
+    public long promptMultiLineString(String prompt, Writer sink, String terminator, long maxChars)
+            throws IOException {
+        return promptMultiLineString(prompt, (Appendable) sink, terminator, maxChars);
+    }
 
-        // Handle line reading
-        StringBuilder totalInput = new StringBuilder();
-        while (true) {
+    /**
+     * Get a string spanning multiple lines from the user, and stream it straight
+     * to a file as UTF-8. The file is created, or overwritten
+     * 
+     * @param prompt     Prompt message
+     * @param file       File to write
+     * @param terminator Line that ends the input (not written)
+     * @param maxChars   Maximum number of chars to write (0 for no limit)
+     * @return Number of chars written
+     * @throws IOException             if the file can not be written
+     * @throws InputTooLargeException if the input goes over maxChars
+     */
+    public long promptMultiLineString(String prompt, Path file, String terminator, long maxChars)
+            throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            return promptMultiLineString(prompt, writer, terminator, maxChars);
+        }
+    }
 
-            // Get a line of input
-            Token input = promptToken("");
+    /**
+     * Get a string spanning multiple lines from the user, and stream it straight
+     * to a channel as UTF-8
+     * 
+     * @param prompt     Prompt message
+     * @param channel    Channel to write. This is not closed
+     * @param terminator Line that ends the input (not written)
+     * @param maxChars   Maximum number of chars to write (0 for no limit)
+     * @return Number of chars written
+     * @throws IOException             if the channel fails
+     * @throws InputTooLargeException if the input goes over maxChars
+     */
+    public long promptMultiLineString(String prompt, WritableByteChannel channel, String terminator, long maxChars)
+            throws IOException {
+
+        // Encode through a buffered writer, and flush it without closing the channel
+        Writer writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), -1));
+        long written = promptMultiLineString(prompt, writer, terminator, maxChars);
+        writer.flush();
+        return written;
+    }
 
-            // Handle the line type
-            if (input.hasType(Types.STRING)) {
+    /**
+     * Read lines into a sink until the terminator is found. Lines are compared to
+     * the terminator as-is, and are never run through the Parser. The limit is
+     * enforced while each line is read, so a line that goes over it is never
+     * buffered in full. After going over it, the rest of the input is dropped,
+     * up to the terminator (or the end of the input, or the deadline)
+     * 
+     * @param prompt     Prompt message
+     * @param sink       Where to write the lines
+     * @param terminator Line that ends the input
+     * @param maxChars   Maximum number of chars to write (0 for no limit)
+     * @return Number of chars written
+     * @throws IOException if the sink fails
+     */
+    private long promptMultiLineString(String prompt, Appendable sink, String terminator, long maxChars)
+            throws IOException {
+
+        beginExchange("promptMultiLineString");
+        try {
+            // Print the user prompt
+            out.println(prompt);
+
+            // Print a message explaining how to use this
+            out.printf("When finished, enter \"%s\" on a new line.%n", terminator);
+
+            // Handle line reading
+            long written = 0;
+            while (true) {
+
+                // Get a line of input. With a limit, only read as much of it as
+                // could still fit (or could be the terminator)
+                out.print("> ");
+                String line;
+                try {
+                    line = readLine((maxChars > 0) ? Math.max(maxChars - written, terminator.length() + 1) : 0);
+                } catch (InputTooLargeException e) {
+                    throw overflow(terminator, maxChars);
+                }
 
                 // Check if this is the last line
-                if (input.getString().equals(".")) {
+                if (line.equals(terminator)) {
                     break;
                 }
 
-                // Add the line to the total input
-                totalInput.append(input.getString());
-            }
+                // Enforce the size limit before anything is written
+                written += line.length() + 1;
+                if (maxChars > 0 && written > maxChars) {
+                    throw overflow(terminator, maxChars);
+                }
 
-            // Move to next line
-            totalInput.append("\n");
+                // Add the line to the total input, and move to next line
+                sink.append(line);
+                sink.append('\n');
+            }
 
+            return written;
+        } finally {
+            endExchange();
         }
+    }
 
-        // Return the built string
-        return totalInput.toString();
+    /**
+     * Drop the rest of a multi-line input that went over its limit, up to and
+     * including the terminator, so the next prompt does not read it as an answer
+     * 
+     * @param terminator Line that ends the input
+     * @param maxChars   Limit that was hit
+     * @return Exception to throw
+     */
+    private InputTooLargeException overflow(String terminator, long maxChars) {
+        while (true) {
+            try {
+                if (readLine(terminator.length() + 1).equals(terminator)) {
+                    break;
+                }
+            } catch (InputTooLargeException e) {
+                // Too long to be the terminator. The rest of it was skipped
+            } catch (EndOfInputException | PromptTimeoutException e) {
+                break;
+            }
+        }
+        return new InputTooLargeException(maxChars);
     }
 
     /**
@@ -137,7 +687,13 @@ public class Prompt {
      * @return User-supplied character
      */
     public char promptCharacter(String prompt, boolean oneLine) {
-        return promptString(prompt, oneLine).charAt(0);
+
+        beginExchange("promptCharacter");
+        try {
+            return promptString(prompt, oneLine).charAt(0);
+        } finally {
+            endExchange();
+        }
     }
 
     /**
@@ -158,36 +714,45 @@ public class Prompt {
      * @return User-supplied character
      */
     public char promptCharacterSelection(String prompt, char... allowedChars) {
+        return promptCharacterSelection(prompt, ChoiceSet.ofCharacters(allowedChars));
+    }
 
-        // Build the allowed chars list into a nice string
-        StringBuilder allowedCharsString = new StringBuilder();
-
-        for (int i = 0; i < allowedChars.length; i++) {
-
-            // Add char to list
-            allowedCharsString.append(allowedChars[i]);
+    /**
+     * Prompt the user to pick one of the allowed characters. A ChoiceSet can be
+     * built once, and re-used for many prompts
+     * 
+     * @param prompt  Prompt message
+     * @param choices Allowed characters
+     * @return User-supplied character
+     */
+    public char promptCharacterSelection(String prompt, ChoiceSet choices) {
 
-            // If not the last char, add a comma
-            if (i < allowedChars.length - 1) {
-                allowedCharsString.append(",");
-            }
+        // Ensure the choices are characters
+        if (!choices.isCharacterSet()) {
+            throw new IllegalArgumentException("ChoiceSet must hold characters");
         }
 
-        // Get a char until an allowed char is found
-        while (true) {
+        // The choices text is already rendered
+        String fullPrompt = prompt + System.lineSeparator() + choices.getDescription();
+
+        beginExchange("promptCharacterSelection");
+        try {
+            // Get a char until an allowed char is found
+            while (true) {
 
-            // Get input
-            char input = promptCharacter(String.format("%s%none of [%s] ", allowedCharsString.toString()), true);
+                // Get input
+                char input = promptCharacter(fullPrompt, true);
 
-            // Check if the input is valid
-            for (char c : allowedChars) {
-                if (input == c) {
+                // Check if the input is valid
+                if (choices.contains(input)) {
                     return input;
                 }
-            }
 
-            // Handle no valid input
-            out.println("! Invalid selection");
+                // Handle no valid input
+                rejectAttempt("! Invalid selection");
+            }
+        } finally {
+            endExchange();
         }
     }
 
@@ -201,19 +766,26 @@ public class Prompt {
      */
     public int promptInteger(String prompt, boolean oneLine) {
 
-        // Get a token, and its value until the data is valid
-        while (true) {
+        beginExchange("promptInteger");
+        try {
+            // Get a token, and its value until the data is valid
+            while (true) {
 
-            // Get input
-            Token input = promptToken(String.format(((oneLine) ? "%s" : "%s%n"), prompt));
+                // Get input
+                Token input = promptNumber(String.format(((oneLine) ? "%s" : "%s%n"), prompt));
 
-            // If the input is valid, return
-            if (input != null && input.hasType(Types.INTEGER) && input.getInteger() != null) {
-                return input.getInteger();
-            }
+                // If the input is valid, return. Longs and BigIntegers would be
+                // truncated
+                if (input != null && input.hasType(Types.INTEGER) && input.getInteger() != null
+                        && input.getPrimaryType() != Types.LONG && input.getPrimaryType() != Types.BIG_INTEGER) {
+                    return input.getInteger();
+                }
 
-            // Warn the user
-            out.println("! Must be an integer");
+                // Warn the user
+                rejectAttempt("! Must be an integer");
+            }
+        } finally {
+            endExchange();
         }
     }
 
@@ -228,6 +800,225 @@ public class Prompt {
         return promptInteger(prompt, false);
     }
 
+    /**
+     * Prompt a long from the user (they can enter decimal, binary, or
+     * hexadecimal)
+     * 
+     * @param prompt  Prompt message
+     * @param oneLine Should this be printed on a single line?
+     * @return User-supplied long
+     */
+    public long promptLong(String prompt, boolean oneLine) {
+
+        beginExchange("promptLong");
+        try {
+            // Get a token, and its value until the data is valid
+            while (true) {
+
+                // Get input
+                Token input = promptNumber(String.format(((oneLine) ? "%s" : "%s%n"), prompt));
+
+                // If the input is valid, return. BigIntegers would be truncated
+                if (input != null && input.hasType(Types.LONG) && input.getLong() != null
+                        && input.getPrimaryType() != Types.BIG_INTEGER) {
+                    return input.getLong();
+                }
+
+                // Warn the user
+                rejectAttempt("! Must be a long");
+            }
+        } finally {
+            endExchange();
+        }
+    }
+
+    /**
+     * Prompt a long from the user (they can enter decimal, binary, or
+     * hexadecimal)
+     * 
+     * @param prompt Prompt message
+     * @return User-supplied long
+     */
+    public long promptLong(String prompt) {
+        return promptLong(prompt, false);
+    }
+
+    /**
+     * Prompt an integer of any size from the user (they can enter decimal,
+     * binary, or hexadecimal)
+     * 
+     * @param prompt  Prompt message
+     * @param oneLine Should this be printed on a single line?
+     * @return User-supplied integer
+     */
+    public BigInteger promptBigInteger(String prompt, boolean oneLine) {
+
+        beginExchange("promptBigInteger");
+        try {
+            // Get a token, and its value until the data is valid
+            while (true) {
+
+                // Get input
+                Token input = promptToken(String.format(((oneLine) ? "%s" : "%s%n"), prompt));
+
+                // If the input is a whole number, return
+                if (input != null && (input.getPrimaryType() == Types.INTEGER || input.getPrimaryType() == Types.LONG
+                        || input.getPrimaryType() == Types.BIG_INTEGER)) {
+                    return input.getBigInteger();
+                }
+
+                // Warn the user
+                rejectAttempt("! Must be an integer");
+            }
+        } finally {
+            endExchange();
+        }
+    }
+
+    /**
+     * Prompt an integer of any size from the user (they can enter decimal,
+     * binary, or hexadecimal)
+     * 
+     * @param prompt Prompt message
+     * @return User-supplied integer
+     */
+    public BigInteger promptBigInteger(String prompt) {
+        return promptBigInteger(prompt, false);
+    }
+
+    /**
+     * Prompt an exact decimal from the user. Unlike {@link #promptDouble}, no
+     * digits are lost
+     * 
+     * @param prompt  Prompt message
+     * @param oneLine Should this be printed on a single line?
+     * @return User-supplied decimal
+     */
+    public BigDecimal promptBigDecimal(String prompt, boolean oneLine) {
+
+        beginExchange("promptBigDecimal");
+        try {
+            // Get a token, and its value until the data is valid
+            while (true) {
+
+                // Get input
+                Token input = promptToken(String.format(((oneLine) ? "%s" : "%s%n"), prompt));
+
+                // If the input is valid, return
+                if (input != null && input.hasType(Types.BIG_DECIMAL) && input.getBigDecimal() != null) {
+                    return input.getBigDecimal();
+                }
+
+                // Warn the user
+                rejectAttempt("! Must be a decimal");
+            }
+        } finally {
+            endExchange();
+        }
+    }
+
+    /**
+     * Prompt an exact decimal from the user. Unlike {@link #promptDouble}, no
+     * digits are lost
+     * 
+     * @param prompt Prompt message
+     * @return User-supplied decimal
+     */
+    public BigDecimal promptBigDecimal(String prompt) {
+        return promptBigDecimal(prompt, false);
+    }
+
+    /**
+     * Prompt an ISO-8601 date ("2024-01-31") from the user. This works whether
+     * or not {@link Parser#setParseTimes} is on
+     * 
+     * @param prompt  Prompt message
+     * @param oneLine Should this be printed on a single line?
+     * @return User-supplied date
+     */
+    public LocalDate promptDate(String prompt, boolean oneLine) {
+
+        beginExchange("promptDate");
+        try {
+            // Get a time, until the data is valid
+            while (true) {
+
+                // If the input is valid, return
+                Token input = promptTime(String.format(((oneLine) ? "%s" : "%s%n"), prompt));
+                if (input != null && input.getPrimaryType() == Types.DATE) {
+                    return input.getLocalDate();
+                }
+
+                // Warn the user
+                rejectAttempt("! Must be a date (yyyy-mm-dd)");
+            }
+        } finally {
+            endExchange();
+        }
+    }
+
+    /**
+     * Prompt an ISO-8601 date ("2024-01-31") from the user
+     * 
+     * @param prompt Prompt message
+     * @return User-supplied date
+     */
+    public LocalDate promptDate(String prompt) {
+        return promptDate(prompt, false);
+    }
+
+    /**
+     * Prompt an ISO-8601 timestamp ("2024-01-31T12:00:00Z") from the user. A
+     * plain date means its midnight, in UTC. This works whether or not
+     * {@link Parser#setParseTimes} is on
+     * 
+     * @param prompt  Prompt message
+     * @param oneLine Should this be printed on a single line?
+     * @return User-supplied instant
+     */
+    public Instant promptInstant(String prompt, boolean oneLine) {
+
+        beginExchange("promptInstant");
+        try {
+            // Get a time, until the data is valid
+            while (true) {
+
+                // If the input is valid, return
+                Token input = promptTime(String.format(((oneLine) ? "%s" : "%s%n"), prompt));
+                if (input != null && input.getInstant() != null) {
+                    return input.getInstant();
+                }
+
+                // Warn the user
+                rejectAttempt("! Must be a timestamp (yyyy-mm-ddThh:mm:ssZ)");
+            }
+        } finally {
+            endExchange();
+        }
+    }
+
+    /**
+     * Prompt an ISO-8601 timestamp ("2024-01-31T12:00:00Z") from the user
+     * 
+     * @param prompt Prompt message
+     * @return User-supplied instant
+     */
+    public Instant promptInstant(String prompt) {
+        return promptInstant(prompt, false);
+    }
+
+    /**
+     * Print a prompt, and parse the answer as a date or timestamp
+     * 
+     * @param prompt Prompt message
+     * @return DATE or TIMESTAMP Token, or null if the answer is neither
+     */
+    private Token promptTime(String prompt) {
+        out.print(prompt);
+        out.print("> ");
+        return Parser.parseTime(readLine());
+    }
+
     /**
      * Prompt the user to select one of multiple allowed integers
      * 
@@ -236,36 +1027,45 @@ public class Prompt {
      * @return User-supplied integer
      */
     public int promptIntegerSelection(String prompt, int... allowedInts) {
+        return promptIntegerSelection(prompt, ChoiceSet.ofIntegers(allowedInts));
+    }
 
-        // Build the allowed ints list into a nice string
-        StringBuilder allowedIntsString = new StringBuilder();
-
-        for (int i = 0; i < allowedInts.length; i++) {
-
-            // Add int to list
-            allowedIntsString.append(allowedInts[i]);
+    /**
+     * Prompt the user to select one of multiple allowed integers. A ChoiceSet can
+     * be built once, and re-used for many prompts
+     * 
+     * @param prompt  Prompt message
+     * @param choices Allowed integers for the user to pick
+     * @return User-supplied integer
+     */
+    public int promptIntegerSelection(String prompt, ChoiceSet choices) {
 
-            // If not the last int, add a comma
-            if (i < allowedInts.length - 1) {
-                allowedIntsString.append(",");
-            }
+        // Ensure the choices are integers
+        if (choices.isCharacterSet()) {
+            throw new IllegalArgumentException("ChoiceSet must hold integers");
         }
 
-        // Get an int until an allowed int is found
-        while (true) {
+        // The choices text is already rendered
+        String fullPrompt = prompt + System.lineSeparator() + choices.getDescription();
+
+        beginExchange("promptIntegerSelection");
+        try {
+            // Get an int until an allowed int is found
+            while (true) {
 
-            // Get input
-            int input = promptInteger(String.format("%s%none of [%s] ", prompt, allowedIntsString.toString()), true);
+                // Get input
+                int input = promptInteger(fullPrompt, true);
 
-            // Check if the input is valid
-            for (int i : allowedInts) {
-                if (input == i) {
+                // Check if the input is valid
+                if (choices.contains(input)) {
                     return input;
                 }
-            }
 
-            // Handle no valid input
-            out.println("! Invalid selection");
+                // Handle no valid input
+                rejectAttempt("! Invalid selection");
+            }
+        } finally {
+            endExchange();
         }
     }
 
@@ -280,24 +1080,75 @@ public class Prompt {
      */
     public int promptIntegerRangeSelection(String prompt, int min, int max) {
 
-        // Get an int until an allowed int is found
-        while (true) {
+        beginExchange("promptIntegerRangeSelection");
+        try {
+            // Get an int until an allowed int is found
+            while (true) {
 
-            // Get input
-            int input = promptInteger(String.format("%s%nselect [%d...%d] ", prompt, min, max), true);
+                // Get input
+                int input = promptInteger(String.format("%s%nselect [%d...%d] ", prompt, min, max), true);
 
-            // Check if the input is valid
-            if (min <= input && input <= max) {
-                return input;
+                // Check if the input is valid
+                if (min <= input && input <= max) {
+                    return input;
+                }
+
+                // Handle no valid input
+                rejectAttempt("! Invalid selection");
             }
+        } finally {
+            endExchange();
+        }
+    }
+
+    /**
+     * Prompt the user to pick a constant of an enum. They can enter its name
+     * (case-insensitive), any prefix of its name no other constant shares, or
+     * its index. The enum's {@link EnumIndex} is built once, and re-used
+     * 
+     * @param <E>   Enum type
+     * @param title Title of the list
+     * @param type  Enum class
+     * @return The selected constant
+     */
+    public <E extends Enum<E>> E promptEnum(String title, Class<E> type) {
+        EnumIndex<E> index = EnumIndex.of(type);
+        String prompt = String.format("%s:%n%s> ", title, index.getDescription());
+
+        beginExchange("promptEnum");
+        try {
+            // Get a line until it picks a single constant
+            while (true) {
+                out.print(prompt);
+                String line = readLine();
+                int ordinal = index.match(line);
+                if (ordinal >= 0) {
+                    return index.get(ordinal);
+                }
 
-            // Handle no valid input
-            out.println("! Invalid selection");
+                // Handle no valid input
+                rejectAttempt((ordinal == EnumIndex.AMBIGUOUS) ? "! Did you mean " + index.getCandidates(line).trim()
+                        : "! Invalid selection");
+            }
+        } finally {
+            endExchange();
         }
     }
 
     /**
-     * Prompt the user to pick from a list of items
+     * Prompt the user to pick a constant of an enum, titled with the enum's name
+     * 
+     * @param <E>  Enum type
+     * @param type Enum class
+     * @return The selected constant
+     */
+    public <E extends Enum<E>> E promptEnum(Class<E> type) {
+        return promptEnum(type.getSimpleName(), type);
+    }
+
+    /**
+     * Prompt the user to pick from a list of items. For very large lists, use
+     * {@link #promptPagedList(String, int, String...)}
      * 
      * @param title   Title of the list
      * @param options Options
@@ -317,8 +1168,133 @@ public class Prompt {
             prompt.append(String.format("  %d: %s%n", i, options[i]));
         }
 
-        // Prompt for a range, and select the matching array element
-        return options[promptIntegerRangeSelection(prompt.toString(), 0, options.length - 1)];
+        beginExchange("promptList");
+        try {
+            // Prompt for a range, and select the matching array element
+            return options[promptIntegerRangeSelection(prompt.toString(), 0, options.length - 1)];
+        } finally {
+            endExchange();
+        }
+    }
+
+    /**
+     * Prompt the user to pick from a large list of items. Only one page of the
+     * list is shown at a time. The user can enter an item's index to select it,
+     * enter "+" (or nothing) and "-" to change pages, or enter any other text to
+     * search the list (prefix with "/" to search for a number)
+     * 
+     * @param title    Title of the list
+     * @param pageSize Number of items to show at once
+     * @param options  Options
+     * @return The selected array element
+     */
+    public String promptPagedList(String title, int pageSize, String... options) {
+        return promptPagedList(title, pageSize, new OptionIndex(options));
+    }
+
+    /**
+     * Prompt the user to pick from a large, pre-indexed list of items. Building
+     * the index once, and re-using it for every prompt, keeps each prompt fast no
+     * matter how large the list is. See
+     * {@link #promptPagedList(String, int, String...)} for usage
+     * 
+     * @param title    Title of the list
+     * @param pageSize Number of items to show at once
+     * @param options  Indexed options
+     * @return The selected option
+     * @throws IllegalArgumentException if the page size is less than 1
+     */
+    public String promptPagedList(String title, int pageSize, OptionIndex options) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+
+        // One extra slot is used to check if there is a next page
+        int[] results = new int[pageSize + 1];
+        String term = "";
+        int page = 0;
+
+        beginExchange("promptPagedList");
+        try {
+            // Show pages until an option is picked
+            while (true) {
+
+                // Find the options for this page
+                int found = options.search(term, page * pageSize, results);
+
+                // Print the page
+                if (term.isEmpty()) {
+                    out.printf("%s (page %d):%n", title, page + 1);
+                } else {
+                    out.printf("%s matching \"%s\" (page %d):%n", title, term, page + 1);
+                }
+                for (int i = 0; i < found && i < pageSize; i++) {
+                    out.printf("  %d: %s%n", results[i], options.get(results[i]));
+                }
+                if (found == 0) {
+                    out.println("  (no matches)");
+                }
+                out.println("enter an index, text to search, + or - to change pages");
+                out.print("> ");
+
+                // Get input
+                String line = readLine().trim();
+
+                // Handle paging
+                if (line.isEmpty() || line.equals("+")) {
+                    if (found > pageSize) {
+                        page++;
+                    }
+                    continue;
+                }
+                if (line.equals("-")) {
+                    page = Math.max(0, page - 1);
+                    continue;
+                }
+
+                // Handle a forced search
+                if (line.startsWith("/")) {
+                    term = line.substring(1);
+                    page = 0;
+                    continue;
+                }
+
+                // Handle a selection. Only plain digits are indexes, so words like "ff"
+                // are searched for
+                if (isDigits(line)) {
+                    int selection = (line.length() <= 9) ? Integer.parseInt(line) : -1;
+                    if (0 <= selection && selection < options.size()) {
+                        return options.get(selection);
+                    }
+
+                    // Handle no valid input
+                    rejectAttempt("! Invalid selection");
+                    continue;
+                }
+
+                // Anything else is a search
+                term = line;
+                page = 0;
+            }
+        } finally {
+            endExchange();
+        }
+    }
+
+    /**
+     * Check if a line is made only of ASCII digits
+     * 
+     * @param line Line
+     * @return Is all digits?
+     */
+    private static boolean isDigits(String line) {
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return !line.isEmpty();
     }
 
     /**
@@ -330,19 +1306,24 @@ public class Prompt {
      */
     public double promptDouble(String prompt, boolean oneLine) {
 
-        // Get a token, and its value until the data is valid
-        while (true) {
+        beginExchange("promptDouble");
+        try {
+            // Get a token, and its value until the data is valid
+            while (true) {
 
-            // Get input
-            Token input = promptToken(String.format(((oneLine) ? "%s" : "%s%n"), prompt));
+                // Get input
+                Token input = promptNumber(String.format(((oneLine) ? "%s" : "%s%n"), prompt));
 
-            // If the input is valid, return
-            if (input != null && input.hasType(Types.DOUBLE) && input.getDouble() != null) {
-                return input.getDouble();
-            }
+                // If the input is valid, return
+                if (input != null && input.hasType(Types.DOUBLE) && input.getDouble() != null) {
+                    return input.getDouble();
+                }
 
-            // Warn the user
-            out.println("! Must be a number");
+                // Warn the user
+                rejectAttempt("! Must be a number");
+            }
+        } finally {
+            endExchange();
         }
     }
 
@@ -366,19 +1347,24 @@ public class Prompt {
      */
     public float promptFloat(String prompt, boolean oneLine) {
 
-        // Get a token, and its value until the data is valid
-        while (true) {
+        beginExchange("promptFloat");
+        try {
+            // Get a token, and its value until the data is valid
+            while (true) {
 
-            // Get input
-            Token input = promptToken(String.format(((oneLine) ? "%s" : "%s%n"), prompt));
+                // Get input
+                Token input = promptNumber(String.format(((oneLine) ? "%s" : "%s%n"), prompt));
 
-            // If the input is valid, return
-            if (input != null && input.hasType(Types.FLOAT) && input.getFloat() != null) {
-                return input.getFloat();
-            }
+                // If the input is valid, return
+                if (input != null && input.hasType(Types.FLOAT) && input.getFloat() != null) {
+                    return input.getFloat();
+                }
 
-            // Warn the user
-            out.println("! Must be a number");
+                // Warn the user
+                rejectAttempt("! Must be a number");
+            }
+        } finally {
+            endExchange();
         }
     }
 
@@ -403,19 +1389,24 @@ public class Prompt {
      */
     public boolean promptBoolean(String prompt, boolean oneLine) {
 
-        // Get a token, and its value until the data is valid
-        while (true) {
+        beginExchange("promptBoolean");
+        try {
+            // Get a token, and its value until the data is valid
+            while (true) {
 
-            // Get input
-            Token input = promptToken(String.format(((oneLine) ? "%s" : "%s%n"), prompt));
+                // Get input
+                Token input = promptToken(String.format(((oneLine) ? "%s" : "%s%n"), prompt));
 
-            // If the input is valid, return
-            if (input != null && input.hasType(Types.BOOLEAN) && input.getBoolean() != null) {
-                return input.getBoolean();
-            }
+                // If the input is valid, return
+                if (input != null && input.hasType(Types.BOOLEAN) && input.getBoolean() != null) {
+                    return input.getBoolean();
+                }
 
-            // Warn the user
-            out.println("! Must be a boolean");
+                // Warn the user
+                rejectAttempt("! Must be a boolean");
+            }
+        } finally {
+            endExchange();
         }
     }
 
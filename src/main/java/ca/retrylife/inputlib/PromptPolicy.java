@@ -0,0 +1,112 @@
+package ca.retrylife.inputlib;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A PromptPolicy limits how long a Prompt will wait for, and how many times it
+ * will re-ask for, a valid answer. Policies are immutable, and can be set for a
+ * whole Prompt, or for a single call with {@link Prompt#withPolicy}
+ */
+public class PromptPolicy {
+
+    /**
+     * A policy with no limits. Prompts will wait forever, and re-ask forever
+     */
+    public static final PromptPolicy UNLIMITED = new PromptPolicy(0, 0, TimeUnit.MILLISECONDS);
+
+    // Limits (0 means no limit)
+    private final int maxAttempts;
+    private final long readTimeoutMillis;
+
+    /**
+     * Create a PromptPolicy
+     * 
+     * @param maxAttempts Maximum number of answers to accept before giving up (0
+     *                    for no limit)
+     * @param readTimeout Maximum time to wait for each line of input (0 for no
+     *                    limit)
+     * @param unit        Unit of readTimeout
+     */
+    public PromptPolicy(int maxAttempts, long readTimeout, TimeUnit unit) {
+
+        // Ensure the limits make sense
+        if (maxAttempts < 0 || readTimeout < 0) {
+            throw new IllegalArgumentException("Policy limits must not be negative");
+        }
+
+        this.maxAttempts = maxAttempts;
+        this.readTimeoutMillis = unit.toMillis(readTimeout);
+    }
+
+    /**
+     * Create a PromptPolicy with no read deadline
+     * 
+     * @param maxAttempts Maximum number of answers to accept before giving up (0
+     *                    for no limit)
+     */
+    public PromptPolicy(int maxAttempts) {
+        this(maxAttempts, 0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Get the maximum number of answers to accept before giving up
+     * 
+     * @return Attempt limit, or 0 for no limit
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Get the maximum time to wait for each line of input
+     * 
+     * @return Deadline in milliseconds, or 0 for no limit
+     */
+    public long getReadTimeoutMillis() {
+        return readTimeoutMillis;
+    }
+
+    /**
+     * Check if this policy limits the number of attempts
+     * 
+     * @return Has attempt limit?
+     */
+    public boolean hasAttemptLimit() {
+        return maxAttempts > 0;
+    }
+
+    /**
+     * Check if this policy has a read deadline
+     * 
+     * @return Has read deadline?
+     */
+    public boolean hasReadTimeout() {
+        return readTimeoutMillis > 0;
+    }
+
+    /**
+     * Get a copy of this policy with a different attempt limit
+     * 
+     * @param maxAttempts Maximum number of answers (0 for no limit)
+     * @return New policy
+     */
+    public PromptPolicy withMaxAttempts(int maxAttempts) {
+        return new PromptPolicy(maxAttempts, readTimeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Get a copy of this policy with a different read deadline
+     * 
+     * @param readTimeout Maximum time to wait for each line (0 for no limit)
+     * @param unit        Unit of readTimeout
+     * @return New policy
+     */
+    public PromptPolicy withReadTimeout(long readTimeout, TimeUnit unit) {
+        return new PromptPolicy(maxAttempts, readTimeout, unit);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PromptPolicy<attempts: %d, timeout: %dms>", maxAttempts, readTimeoutMillis);
+    }
+}
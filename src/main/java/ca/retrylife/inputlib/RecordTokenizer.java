@@ -0,0 +1,243 @@
+package ca.retrylife.inputlib;
+
+import ca.retrylife.inputlib.types.Token;
+
+/**
+ * A RecordTokenizer splits a line into fields, and parses each field with
+ * {@link Parser#parseToToken}. For example, "3 4.5 yes" becomes an Integer, a
+ * Double, and a Boolean.
+ *
+ * Fields can be wrapped in double quotes to include delimiters, and a doubled
+ * quote inside a quoted field stands for a single quote. Quoted fields are
+ * always Strings. A RecordTokenizer has no per-line state, so one instance can
+ * be shared between threads.
+ */
+public class RecordTokenizer {
+
+    /**
+     * Splits on runs of spaces and tabs
+     */
+    public static final RecordTokenizer WHITESPACE = new RecordTokenizer(" \t", true);
+
+    // Quote character
+    private static final char QUOTE = '"';
+
+    // ASCII delimiters, as a 128 bit set
+    private final long asciiLow;
+    private final long asciiHigh;
+
+    // Every delimiter (used for non-ASCII chars)
+    private final String delimiters;
+
+    // Should runs of delimiters count as one?
+    private final boolean collapse;
+
+    /**
+     * Create a RecordTokenizer
+     * 
+     * @param delimiters Every char that separates fields
+     * @param collapse   Should runs of delimiters count as one? (true for
+     *                   whitespace, false for formats like CSV where empty
+     *                   fields matter)
+     */
+    public RecordTokenizer(String delimiters, boolean collapse) {
+        if (delimiters.isEmpty()) {
+            throw new IllegalArgumentException("At least one delimiter is required");
+        }
+        if (delimiters.indexOf(QUOTE) >= 0) {
+            throw new IllegalArgumentException("The quote char can not be a delimiter");
+        }
+
+        // Build the ASCII set
+        long low = 0;
+        long high = 0;
+        for (int i = 0; i < delimiters.length(); i++) {
+            char c = delimiters.charAt(i);
+            if (c < 64) {
+                low |= 1L << c;
+            } else if (c < 128) {
+                high |= 1L << (c - 64);
+            }
+        }
+
+        this.asciiLow = low;
+        this.asciiHigh = high;
+        this.delimiters = delimiters;
+        this.collapse = collapse;
+    }
+
+    /**
+     * Check if a char is a delimiter. ASCII chars are a single bit test
+     * 
+     * @param c Char
+     * @return Is a delimiter?
+     */
+    private boolean isDelimiter(char c) {
+        if (c < 64) {
+            return (asciiLow & (1L << c)) != 0;
+        } else if (c < 128) {
+            return (asciiHigh & (1L << (c - 64))) != 0;
+        }
+        return delimiters.indexOf(c) >= 0;
+    }
+
+    /**
+     * Receives the raw text of each field, as a line is split
+     */
+    interface FieldSink {
+
+        /**
+         * Take a field
+         * 
+         * @param text   Field text, with any quotes removed
+         * @param quoted Was the field quoted?
+         */
+        void field(String text, boolean quoted);
+    }
+
+    /**
+     * Split a line into fields, and parse each one
+     * 
+     * @param line Line
+     * @param out  Where to put the fields. Its old contents are replaced
+     * @return Number of fields
+     */
+    public int tokenize(String line, TokenRecord out) {
+        out.clear();
+        split(line, out.sink);
+        return out.size();
+    }
+
+    /**
+     * Split a line into fields, without parsing them
+     * 
+     * @param line Line
+     * @param out  Where to send each field
+     */
+    void split(String line, FieldSink out) {
+        int length = line.length();
+        int i = 0;
+
+        // When collapsing, leading delimiters are ignored
+        if (collapse) {
+            while (i < length && isDelimiter(line.charAt(i))) {
+                i++;
+            }
+            if (i == length) {
+                return;
+            }
+        }
+
+        // Read a field at a time
+        while (true) {
+            if (i < length && line.charAt(i) == QUOTE) {
+                i = readQuoted(line, i + 1, out);
+            } else {
+
+                // Scan to the next delimiter
+                int start = i;
+                while (i < length && !isDelimiter(line.charAt(i))) {
+                    i++;
+                }
+                out.field(line.substring(start, i), false);
+            }
+
+            // Handle the end of the line
+            if (i >= length) {
+                return;
+            }
+
+            // Skip the delimiter (or the run of delimiters)
+            i++;
+            if (collapse) {
+                while (i < length && isDelimiter(line.charAt(i))) {
+                    i++;
+                }
+                if (i == length) {
+                    return;
+                }
+            } else if (i == length) {
+
+                // A trailing delimiter ends with an empty field
+                out.field("", false);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Split a line into fields, and parse each one
+     * 
+     * @param line Line
+     * @return Field tokens
+     */
+    public Token[] tokenize(String line) {
+        TokenRecord record = new TokenRecord();
+        tokenize(line, record);
+        return record.toArray();
+    }
+
+    /**
+     * Parse a field the way a RecordTokenizer does. A field that looks like a number but does not fit
+     * one (such as "1.2.3", or an int that overflows) is kept as a String, so one
+     * bad field can not fail a whole line
+     * 
+     * @param field Field text
+     * @return Field token
+     */
+    public static Token parseField(String field) {
+        try {
+            return Parser.parseToToken(field);
+        } catch (NumberFormatException e) {
+            return new Token(field);
+        }
+    }
+
+    /**
+     * Read a quoted field
+     * 
+     * @param line  Line
+     * @param start Index just after the opening quote
+     * @param out   Where to put the field
+     * @return Index just after the field
+     */
+    private int readQuoted(String line, int start, FieldSink out) {
+        StringBuilder field = null;
+        int i = start;
+        int runStart = start;
+        while (i < line.length()) {
+            int quote = line.indexOf(QUOTE, i);
+
+            // An unclosed quote runs to the end of the line
+            if (quote < 0) {
+                break;
+            }
+
+            // A doubled quote is a literal quote
+            if (quote + 1 < line.length() && line.charAt(quote + 1) == QUOTE) {
+                if (field == null) {
+                    field = new StringBuilder();
+                }
+                field.append(line, runStart, quote + 1);
+                i = quote + 2;
+                runStart = i;
+                continue;
+            }
+
+            // Closing quote. Anything between it and the next delimiter is kept
+            String value = (field == null) ? line.substring(runStart, quote)
+                    : field.append(line, runStart, quote).toString();
+            int end = quote + 1;
+            while (end < line.length() && !isDelimiter(line.charAt(end))) {
+                end++;
+            }
+            out.field(value + line.substring(quote + 1, end), true);
+            return end;
+        }
+
+        // Handle the unclosed quote
+        String value = (field == null) ? line.substring(runStart) : field.append(line, runStart, line.length()).toString();
+        out.field(value, true);
+        return line.length();
+    }
+}
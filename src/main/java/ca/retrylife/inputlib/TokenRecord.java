@@ -0,0 +1,78 @@
+package ca.retrylife.inputlib;
+
+import java.util.Arrays;
+
+import ca.retrylife.inputlib.types.Token;
+
+/**
+ * A TokenRecord holds the fields of one tokenized line. It is meant to be
+ * re-used: every call to {@link RecordTokenizer#tokenize} replaces its
+ * contents, and its storage only grows when a line has more fields than any
+ * line before it
+ */
+public class TokenRecord {
+
+    // Fields
+    private Token[] tokens = new Token[8];
+    private int size = 0;
+
+    // Parses split fields into this record. Quoted fields are always Strings
+    final RecordTokenizer.FieldSink sink = (text, quoted) -> add(
+            (quoted) ? new Token(text) : RecordTokenizer.parseField(text));
+
+    /**
+     * Get the number of fields
+     * 
+     * @return Field count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get a field
+     * 
+     * @param index Field index
+     * @return Field token
+     */
+    public Token get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(String.format("Field %d of %d", index, size));
+        }
+        return tokens[index];
+    }
+
+    /**
+     * Copy the fields into a new array
+     * 
+     * @return Field tokens
+     */
+    public Token[] toArray() {
+        return Arrays.copyOf(tokens, size);
+    }
+
+    /**
+     * Remove every field
+     */
+    void clear() {
+        Arrays.fill(tokens, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Add a field
+     * 
+     * @param token Field token
+     */
+    void add(Token token) {
+        if (size == tokens.length) {
+            tokens = Arrays.copyOf(tokens, size * 2);
+        }
+        tokens[size++] = token;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TokenRecord%s", Arrays.toString(toArray()));
+    }
+}
@@ -0,0 +1,19 @@
+package ca.retrylife.inputlib.exceptions;
+
+/**
+ * Thrown when the input stream ends before the user has supplied a valid
+ * answer (for example, when piped input runs out)
+ */
+public class EndOfInputException extends PromptException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Create an EndOfInputException
+     * 
+     * @param cause Underlying cause
+     */
+    public EndOfInputException(Throwable cause) {
+        super("Input ended before an answer was read", cause);
+    }
+}
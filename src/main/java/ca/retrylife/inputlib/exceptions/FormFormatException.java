@@ -0,0 +1,33 @@
+package ca.retrylife.inputlib.exceptions;
+
+/**
+ * Thrown when a line can not fill a form, such as when a value does not fit its
+ * field's type or constraints
+ */
+public class FormFormatException extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 1L;
+
+    // Name of the bad field
+    private final String field;
+
+    /**
+     * Create a FormFormatException
+     * 
+     * @param field   Name of the bad field
+     * @param message What went wrong
+     */
+    public FormFormatException(String field, String message) {
+        super(String.format("Field \"%s\": %s", field, message));
+        this.field = field;
+    }
+
+    /**
+     * Get the name of the bad field
+     * 
+     * @return Field name
+     */
+    public String getField() {
+        return field;
+    }
+}
@@ -0,0 +1,31 @@
+package ca.retrylife.inputlib.exceptions;
+
+/**
+ * Thrown when a multi-line input grows past the size limit it was given
+ */
+public class InputTooLargeException extends PromptException {
+
+    private static final long serialVersionUID = 1L;
+
+    // Limit that was hit
+    private final long maxChars;
+
+    /**
+     * Create an InputTooLargeException
+     * 
+     * @param maxChars Size limit in chars
+     */
+    public InputTooLargeException(long maxChars) {
+        super(String.format("Input is larger than the limit of %d chars", maxChars));
+        this.maxChars = maxChars;
+    }
+
+    /**
+     * Get the size limit that was hit
+     * 
+     * @return Limit in chars
+     */
+    public long getMaxChars() {
+        return maxChars;
+    }
+}
@@ -0,0 +1,29 @@
+package ca.retrylife.inputlib.exceptions;
+
+/**
+ * Base class for every error a Prompt can raise instead of returning a value.
+ * Catch this to handle all prompt failures in one place.
+ */
+public class PromptException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Create a PromptException
+     * 
+     * @param message Error message
+     */
+    public PromptException(String message) {
+        super(message);
+    }
+
+    /**
+     * Create a PromptException
+     * 
+     * @param message Error message
+     * @param cause   Underlying cause
+     */
+    public PromptException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,32 @@
+package ca.retrylife.inputlib.exceptions;
+
+/**
+ * Thrown when the user does not supply a line of input before the read
+ * deadline set by the Prompt's policy
+ */
+public class PromptTimeoutException extends PromptException {
+
+    private static final long serialVersionUID = 1L;
+
+    // Deadline that was missed
+    private final long timeoutMillis;
+
+    /**
+     * Create a PromptTimeoutException
+     * 
+     * @param timeoutMillis Read deadline in milliseconds
+     */
+    public PromptTimeoutException(long timeoutMillis) {
+        super(String.format("No input was read within %dms", timeoutMillis));
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Get the read deadline that was missed
+     * 
+     * @return Deadline in milliseconds
+     */
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+}
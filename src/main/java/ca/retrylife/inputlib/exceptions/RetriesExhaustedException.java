@@ -0,0 +1,32 @@
+package ca.retrylife.inputlib.exceptions;
+
+/**
+ * Thrown when the user has supplied too many invalid answers to a single
+ * prompt
+ */
+public class RetriesExhaustedException extends PromptException {
+
+    private static final long serialVersionUID = 1L;
+
+    // Number of rejected answers
+    private final int attempts;
+
+    /**
+     * Create a RetriesExhaustedException
+     * 
+     * @param attempts Number of invalid answers that were given
+     */
+    public RetriesExhaustedException(int attempts) {
+        super(String.format("No valid answer was given after %d attempts", attempts));
+        this.attempts = attempts;
+    }
+
+    /**
+     * Get the number of invalid answers that were given
+     * 
+     * @return Attempt count
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+}
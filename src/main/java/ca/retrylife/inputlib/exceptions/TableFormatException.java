@@ -0,0 +1,21 @@
+package ca.retrylife.inputlib.exceptions;
+
+import java.io.IOException;
+
+/**
+ * Thrown when delimited data can not be loaded into a table, such as when a
+ * value does not fit its column's type
+ */
+public class TableFormatException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Create a TableFormatException
+     * 
+     * @param message What went wrong, and where
+     */
+    public TableFormatException(String message) {
+        super(message);
+    }
+}
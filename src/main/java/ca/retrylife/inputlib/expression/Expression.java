@@ -0,0 +1,207 @@
+package ca.retrylife.inputlib.expression;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An Expression is a compiled arithmetic expression, like "4*1024" or
+ * "sqrt(2)/2". Compiling is done once, and evaluating a compiled Expression
+ * walks a small tree without allocating anything. Expressions are immutable,
+ * so one can be evaluated from any number of threads.
+ *
+ * Expressions support:
+ * <ul>
+ * <li>Numbers in any of {@link ca.retrylife.inputlib.Parser}'s formats
+ * ("0x10", "0b101", "1_000", "2.5f"), plus exponents ("1.5e3")</li>
+ * <li>The operators + - * / % ^ (power), and parentheses</li>
+ * <li>The constants pi and e</li>
+ * <li>The functions abs, sqrt, cbrt, exp, ln, log10, log2, sin, cos, tan,
+ * asin, acos, atan, floor, ceil, round, min, max, pow, and hypot</li>
+ * </ul>
+ *
+ * Everything is evaluated as a double, so integers past 2^53 lose precision.
+ */
+public final class Expression {
+
+    // Compiled expressions, by source text. The cache is cleared when it fills
+    // up, so a stream of unique inputs can not grow it forever
+    private static final int CACHE_SIZE = 1024;
+    private static final ConcurrentHashMap<String, Expression> CACHE = new ConcurrentHashMap<>();
+
+    // Node kinds
+    static final byte CONSTANT = 0;
+    static final byte ADD = 1;
+    static final byte SUBTRACT = 2;
+    static final byte MULTIPLY = 3;
+    static final byte DIVIDE = 4;
+    static final byte MODULO = 5;
+    static final byte POWER = 6;
+    static final byte NEGATE = 7;
+    static final byte ABS = 8;
+    static final byte SQRT = 9;
+    static final byte CBRT = 10;
+    static final byte EXP = 11;
+    static final byte LN = 12;
+    static final byte LOG10 = 13;
+    static final byte LOG2 = 14;
+    static final byte SIN = 15;
+    static final byte COS = 16;
+    static final byte TAN = 17;
+    static final byte ASIN = 18;
+    static final byte ACOS = 19;
+    static final byte ATAN = 20;
+    static final byte FLOOR = 21;
+    static final byte CEIL = 22;
+    static final byte ROUND = 23;
+    static final byte MIN = 24;
+    static final byte MAX = 25;
+    static final byte HYPOT = 26;
+
+    // Source text
+    private final String source;
+
+    // The tree, as parallel arrays. Each node has a kind, up to two children
+    // (as node indexes), and a value for constants
+    private final byte[] kinds;
+    private final int[] left;
+    private final int[] right;
+    private final double[] values;
+    private final int root;
+
+    /**
+     * Create an Expression
+     *
+     * @param source Source text
+     * @param kinds  Node kinds
+     * @param left   First child of each node
+     * @param right  Second child of each node
+     * @param values Value of each constant node
+     * @param root   Root node
+     */
+    Expression(String source, byte[] kinds, int[] left, int[] right, double[] values, int root) {
+        this.source = source;
+        this.kinds = kinds;
+        this.left = left;
+        this.right = right;
+        this.values = values;
+        this.root = root;
+    }
+
+    /**
+     * Compile an expression. Expressions that were compiled recently come from
+     * a cache, and are not parsed again
+     *
+     * @param source Source text
+     * @return Compiled expression
+     * @throws NumberFormatException if the text is not a valid expression
+     */
+    public static Expression compile(String source) {
+        Expression expression = CACHE.get(source);
+        if (expression == null) {
+            expression = new ExpressionCompiler(source).compile();
+            if (CACHE.size() >= CACHE_SIZE) {
+                CACHE.clear();
+            }
+            CACHE.put(source, expression);
+        }
+        return expression;
+    }
+
+    /**
+     * Evaluate the expression
+     *
+     * @return Value
+     */
+    public double evaluate() {
+        return evaluate(root);
+    }
+
+    /**
+     * Evaluate one node of the tree
+     *
+     * @param node Node index
+     * @return Value
+     */
+    private double evaluate(int node) {
+        switch (kinds[node]) {
+            case CONSTANT:
+                return values[node];
+            case ADD:
+                return evaluate(left[node]) + evaluate(right[node]);
+            case SUBTRACT:
+                return evaluate(left[node]) - evaluate(right[node]);
+            case MULTIPLY:
+                return evaluate(left[node]) * evaluate(right[node]);
+            case DIVIDE:
+                return evaluate(left[node]) / evaluate(right[node]);
+            case MODULO:
+                return evaluate(left[node]) % evaluate(right[node]);
+            case POWER:
+                return Math.pow(evaluate(left[node]), evaluate(right[node]));
+            case NEGATE:
+                return -evaluate(left[node]);
+            case ABS:
+                return Math.abs(evaluate(left[node]));
+            case SQRT:
+                return Math.sqrt(evaluate(left[node]));
+            case CBRT:
+                return Math.cbrt(evaluate(left[node]));
+            case EXP:
+                return Math.exp(evaluate(left[node]));
+            case LN:
+                return Math.log(evaluate(left[node]));
+            case LOG10:
+                return Math.log10(evaluate(left[node]));
+            case LOG2:
+                return Math.log(evaluate(left[node])) / Math.log(2);
+            case SIN:
+                return Math.sin(evaluate(left[node]));
+            case COS:
+                return Math.cos(evaluate(left[node]));
+            case TAN:
+                return Math.tan(evaluate(left[node]));
+            case ASIN:
+                return Math.asin(evaluate(left[node]));
+            case ACOS:
+                return Math.acos(evaluate(left[node]));
+            case ATAN:
+                return Math.atan(evaluate(left[node]));
+            case FLOOR:
+                return Math.floor(evaluate(left[node]));
+            case CEIL:
+                return Math.ceil(evaluate(left[node]));
+            case ROUND:
+                return Math.rint(evaluate(left[node]));
+            case MIN:
+                return Math.min(evaluate(left[node]), evaluate(right[node]));
+            case MAX:
+                return Math.max(evaluate(left[node]), evaluate(right[node]));
+            case HYPOT:
+                return Math.hypot(evaluate(left[node]), evaluate(right[node]));
+            default:
+                throw new IllegalStateException("Unknown node kind: " + kinds[node]);
+        }
+    }
+
+    /**
+     * Get the number of nodes in the tree
+     *
+     * @return Node count
+     */
+    public int size() {
+        return kinds.length;
+    }
+
+    /**
+     * Get the text this was compiled from
+     *
+     * @return Source text
+     */
+    public String getSource() {
+        return source;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Expression<%s>", source);
+    }
+}
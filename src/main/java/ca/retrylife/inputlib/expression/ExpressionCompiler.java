@@ -0,0 +1,396 @@
+package ca.retrylife.inputlib.expression;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+import ca.retrylife.inputlib.Parser;
+
+/**
+ * Compiles the text of an {@link Expression} into its tree, by recursive
+ * descent. The grammar, from lowest to highest precedence, is:
+ *
+ * <pre>
+ * sum     = product (("+" | "-") product)*
+ * product = unary (("*" | "/" | "%") unary)*
+ * unary   = ("+" | "-") unary | power
+ * power   = primary ("^" unary)?
+ * primary = number | name | name "(" sum ("," sum)* ")" | "(" sum ")"
+ * </pre>
+ *
+ * So "^" is right-associative, and binds tighter than a leading minus
+ * ("-2^2" is -4).
+ */
+class ExpressionCompiler {
+
+    // Functions, by name. Each maps to its node kind and argument count
+    private static final HashMap<String, byte[]> FUNCTIONS = new HashMap<>();
+
+    static {
+        addFunction("abs", Expression.ABS, 1);
+        addFunction("sqrt", Expression.SQRT, 1);
+        addFunction("cbrt", Expression.CBRT, 1);
+        addFunction("exp", Expression.EXP, 1);
+        addFunction("ln", Expression.LN, 1);
+        addFunction("log10", Expression.LOG10, 1);
+        addFunction("log2", Expression.LOG2, 1);
+        addFunction("sin", Expression.SIN, 1);
+        addFunction("cos", Expression.COS, 1);
+        addFunction("tan", Expression.TAN, 1);
+        addFunction("asin", Expression.ASIN, 1);
+        addFunction("acos", Expression.ACOS, 1);
+        addFunction("atan", Expression.ATAN, 1);
+        addFunction("floor", Expression.FLOOR, 1);
+        addFunction("ceil", Expression.CEIL, 1);
+        addFunction("round", Expression.ROUND, 1);
+        addFunction("min", Expression.MIN, 2);
+        addFunction("max", Expression.MAX, 2);
+        addFunction("pow", Expression.POWER, 2);
+        addFunction("hypot", Expression.HYPOT, 2);
+    }
+
+    // Deepest tree, and deepest nesting, allowed. Compiling and evaluating
+    // both recurse once per level
+    private static final int MAX_DEPTH = 512;
+
+    // Source text, and the read position in it
+    private final String source;
+    private int position = 0;
+    private int nesting = 0;
+
+    // The tree being built
+    private byte[] kinds = new byte[8];
+    private int[] left = new int[8];
+    private int[] right = new int[8];
+    private double[] values = new double[8];
+    private int[] depths = new int[8];
+    private int size = 0;
+
+    /**
+     * Create an ExpressionCompiler
+     *
+     * @param source Source text
+     */
+    ExpressionCompiler(String source) {
+        this.source = source;
+    }
+
+    /**
+     * Register a function
+     *
+     * @param name  Name
+     * @param kind  Node kind
+     * @param arity Argument count
+     */
+    private static void addFunction(String name, byte kind, int arity) {
+        FUNCTIONS.put(name, new byte[] { kind, (byte) arity });
+    }
+
+    /**
+     * Compile the whole source
+     *
+     * @return Expression
+     * @throws NumberFormatException if the text is not a valid expression
+     */
+    Expression compile() {
+        int root = sum();
+        skipSpaces();
+        if (position < source.length()) {
+            throw error("Unexpected \"" + source.charAt(position) + "\"");
+        }
+        return new Expression(source, Arrays.copyOf(kinds, size), Arrays.copyOf(left, size),
+                Arrays.copyOf(right, size), Arrays.copyOf(values, size), root);
+    }
+
+    /**
+     * Read a sum or difference
+     *
+     * @return Node index
+     */
+    private int sum() {
+        nest();
+        int node = product();
+        while (true) {
+            if (accept('+')) {
+                node = add(Expression.ADD, node, product(), 0);
+            } else if (accept('-')) {
+                node = add(Expression.SUBTRACT, node, product(), 0);
+            } else {
+                nesting--;
+                return node;
+            }
+        }
+    }
+
+    /**
+     * Read a product, quotient, or remainder
+     *
+     * @return Node index
+     */
+    private int product() {
+        int node = unary();
+        while (true) {
+            if (accept('*')) {
+                node = add(Expression.MULTIPLY, node, unary(), 0);
+            } else if (accept('/')) {
+                node = add(Expression.DIVIDE, node, unary(), 0);
+            } else if (accept('%')) {
+                node = add(Expression.MODULO, node, unary(), 0);
+            } else {
+                return node;
+            }
+        }
+    }
+
+    /**
+     * Read a signed value
+     *
+     * @return Node index
+     */
+    private int unary() {
+        if (accept('-')) {
+            nest();
+            int node = add(Expression.NEGATE, unary(), -1, 0);
+            nesting--;
+            return node;
+        }
+        if (accept('+')) {
+            nest();
+            int node = unary();
+            nesting--;
+            return node;
+        }
+        return power();
+    }
+
+    /**
+     * Go one level deeper into the grammar
+     */
+    private void nest() {
+        if (++nesting > MAX_DEPTH) {
+            throw error("Expression is too deeply nested");
+        }
+    }
+
+    /**
+     * Read a power
+     *
+     * @return Node index
+     */
+    private int power() {
+        int base = primary();
+        if (accept('^')) {
+            nest();
+            int node = add(Expression.POWER, base, unary(), 0);
+            nesting--;
+            return node;
+        }
+        return base;
+    }
+
+    /**
+     * Read a number, constant, function call, or bracketed expression
+     *
+     * @return Node index
+     */
+    private int primary() {
+        skipSpaces();
+        if (position >= source.length()) {
+            throw error("Unexpected end");
+        }
+        char c = source.charAt(position);
+
+        // Brackets
+        if (c == '(') {
+            position++;
+            int node = sum();
+            expect(')');
+            return node;
+        }
+
+        // Numbers
+        if (isDigit(c) || c == '.') {
+            return add(Expression.CONSTANT, -1, -1, number());
+        }
+
+        // Names
+        if (Character.isLetter(c)) {
+            int start = position;
+            while (position < source.length() && Character.isLetterOrDigit(source.charAt(position))) {
+                position++;
+            }
+            String name = source.substring(start, position).toLowerCase();
+
+            // Constants
+            if (name.equals("pi")) {
+                return add(Expression.CONSTANT, -1, -1, Math.PI);
+            }
+            if (name.equals("e")) {
+                return add(Expression.CONSTANT, -1, -1, Math.E);
+            }
+
+            // Functions
+            byte[] function = FUNCTIONS.get(name);
+            if (function == null) {
+                throw error("Unknown name \"" + name + "\"");
+            }
+            expect('(');
+            int first = sum();
+            int second = -1;
+            if (function[1] == 2) {
+                expect(',');
+                second = sum();
+            }
+            expect(')');
+            return add(function[0], first, second, 0);
+        }
+
+        throw error("Unexpected \"" + c + "\"");
+    }
+
+    /**
+     * Read a number literal. Hex and binary literals are read by the Parser,
+     * and decimals by Double.parseDouble
+     *
+     * @return Value
+     */
+    private double number() {
+        int start = position;
+        char next = (position + 1 < source.length()) ? Character.toLowerCase(source.charAt(position + 1)) : 0;
+
+        // Hex and binary
+        if (source.charAt(position) == '0' && (next == 'x' || next == 'b')) {
+            int radix = (next == 'x') ? 16 : 2;
+            position += 2;
+            while (position < source.length()
+                    && (Character.digit(source.charAt(position), radix) >= 0 || source.charAt(position) == '_')) {
+                position++;
+            }
+            String literal = source.substring(start, position).replace("_", "");
+            try {
+                return Parser.parseBigInteger(literal).doubleValue();
+            } catch (NumberFormatException e) {
+                position = start;
+                throw error("Invalid number \"" + literal + "\"");
+            }
+        }
+
+        // Digits, a fraction, and an exponent
+        while (position < source.length() && (isDigit(source.charAt(position)) || source.charAt(position) == '_'
+                || source.charAt(position) == '.')) {
+            position++;
+        }
+        if (position < source.length() && Character.toLowerCase(source.charAt(position)) == 'e') {
+            int mark = position++;
+            if (position < source.length() && (source.charAt(position) == '+' || source.charAt(position) == '-')) {
+                position++;
+            }
+            if (position < source.length() && isDigit(source.charAt(position))) {
+                while (position < source.length() && isDigit(source.charAt(position))) {
+                    position++;
+                }
+            } else {
+                // Not an exponent after all
+                position = mark;
+            }
+        }
+        String literal = source.substring(start, position).replace("_", "");
+
+        // Float suffix
+        if (position < source.length() && Character.toLowerCase(source.charAt(position)) == 'f') {
+            position++;
+        }
+        try {
+            return Double.parseDouble(literal);
+        } catch (NumberFormatException e) {
+            position = start;
+            throw error("Invalid number \"" + literal + "\"");
+        }
+    }
+
+    /**
+     * Check for an ASCII digit
+     *
+     * @param c Char
+     * @return Is a digit?
+     */
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Skip spaces
+     */
+    private void skipSpaces() {
+        while (position < source.length() && Character.isWhitespace(source.charAt(position))) {
+            position++;
+        }
+    }
+
+    /**
+     * Read a char if it is next
+     *
+     * @param c Char
+     * @return Was it next?
+     */
+    private boolean accept(char c) {
+        skipSpaces();
+        if (position < source.length() && source.charAt(position) == c) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Read a char that must be next
+     *
+     * @param c Char
+     */
+    private void expect(char c) {
+        if (!accept(c)) {
+            throw error("Expected \"" + c + "\"");
+        }
+    }
+
+    /**
+     * Add a node to the tree
+     *
+     * @param kind   Node kind
+     * @param first  First child
+     * @param second Second child
+     * @param value  Constant value
+     * @return Node index
+     */
+    private int add(byte kind, int first, int second, double value) {
+        if (size == kinds.length) {
+            kinds = Arrays.copyOf(kinds, size * 2);
+            left = Arrays.copyOf(left, size * 2);
+            right = Arrays.copyOf(right, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+            depths = Arrays.copyOf(depths, size * 2);
+        }
+
+        // Keep the tree shallow enough to evaluate
+        int depth = 1 + Math.max((first < 0) ? 0 : depths[first], (second < 0) ? 0 : depths[second]);
+        if (depth > MAX_DEPTH) {
+            throw error("Expression is too deeply nested");
+        }
+        depths[size] = depth;
+        kinds[size] = kind;
+        left[size] = first;
+        right[size] = second;
+        values[size] = value;
+        return size++;
+    }
+
+    /**
+     * Build an error for the current position
+     *
+     * @param message Problem
+     * @return Exception
+     */
+    private NumberFormatException error(String message) {
+        return new NumberFormatException(
+                String.format("%s at position %d in expression \"%s\"", message, position, source));
+    }
+}
@@ -0,0 +1,98 @@
+package ca.retrylife.inputlib.journal;
+
+import java.time.Instant;
+
+import ca.retrylife.inputlib.types.IsoTime;
+import ca.retrylife.inputlib.types.Types;
+
+/**
+ * One answer recorded in a {@link SessionJournal}
+ */
+public final class JournalEntry {
+
+    // When the answer was read, and how long it was waited for
+    private final long epochNanos;
+    private final long waitNanos;
+
+    // What was read, and by which prompt method
+    private final String method;
+    private final Types type;
+    private final String answer;
+
+    /**
+     * Create a JournalEntry
+     *
+     * @param epochNanos Nanoseconds since 1970-01-01T00:00Z
+     * @param waitNanos  Time spent waiting for the answer
+     * @param method     Prompt method that read it
+     * @param type       Type the answer parses as
+     * @param answer     Answer line
+     */
+    JournalEntry(long epochNanos, long waitNanos, String method, Types type, String answer) {
+        this.epochNanos = epochNanos;
+        this.waitNanos = waitNanos;
+        this.method = method;
+        this.type = type;
+        this.answer = answer;
+    }
+
+    /**
+     * Get when the answer was read
+     *
+     * @return Timestamp
+     */
+    public Instant getTimestamp() {
+        return IsoTime.toInstant(epochNanos);
+    }
+
+    /**
+     * Get when the answer was read, without building an Instant
+     *
+     * @return Nanoseconds since 1970-01-01T00:00Z
+     */
+    public long getEpochNanos() {
+        return epochNanos;
+    }
+
+    /**
+     * Get how long the prompt waited for the answer
+     *
+     * @return Wait time in nanoseconds
+     */
+    public long getWaitNanos() {
+        return waitNanos;
+    }
+
+    /**
+     * Get the name of the prompt method that read the answer
+     *
+     * @return Method name
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * Get the type the answer parses as
+     *
+     * @return Type
+     */
+    public Types getType() {
+        return type;
+    }
+
+    /**
+     * Get the answer, as typed
+     *
+     * @return Answer line
+     */
+    public String getAnswer() {
+        return answer;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("JournalEntry<%s, %s, %s, \"%s\">", IsoTime.formatTimestamp(epochNanos), method,
+                type.getName(), answer);
+    }
+}
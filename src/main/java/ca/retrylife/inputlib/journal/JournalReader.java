@@ -0,0 +1,302 @@
+package ca.retrylife.inputlib.journal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.zip.CRC32;
+
+import ca.retrylife.inputlib.Prompt;
+import ca.retrylife.inputlib.types.Types;
+
+/**
+ * A JournalReader reads the records of a {@link SessionJournal}. Entries can be
+ * iterated, or the recorded answers can be fed back through a Prompt with
+ * {@link #replay}, which reads them straight from the mapped file as fast as
+ * the Prompt asks for them.
+ *
+ * A reader sees the records that were in the file when it was opened, up to
+ * the first one that is cut short or fails its checksum (as a crash can
+ * leave). Journals up to 2 GiB can be read.
+ */
+public final class JournalReader implements Iterable<JournalEntry> {
+
+    // First record offset
+    private static final int HEADER_END = SessionJournal.HEADER_BYTES;
+
+    // Types, by ordinal
+    private static final Types[] TYPES = Types.values();
+
+    // Records, mapped read-only. The limit is the end of the last whole record
+    private final ByteBuffer records;
+
+    // Number of records
+    private final int count;
+
+    /**
+     * Create a JournalReader
+     *
+     * @param records Mapped file, limited to its records
+     * @param count   Number of records
+     */
+    private JournalReader(ByteBuffer records, int count) {
+        this.records = records;
+        this.count = count;
+    }
+
+    /**
+     * Open a journal for reading
+     *
+     * @param file Journal file
+     * @return JournalReader
+     * @throws IOException if the file can not be read, or is not a journal
+     */
+    public static JournalReader open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer map = map(channel);
+            CRC32 crc = new CRC32();
+            int end = HEADER_END;
+            int count = 0;
+            for (int next = nextRecord(map, end, crc); next > 0; next = nextRecord(map, end, crc)) {
+                end = next;
+                count++;
+            }
+            map.limit(end);
+            return new JournalReader(map, count);
+        }
+    }
+
+    /**
+     * Map a journal file, and check its header
+     *
+     * @param channel File
+     * @return Read-only map of the whole file
+     * @throws IOException if the file is not a journal
+     */
+    private static MappedByteBuffer map(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Journals larger than 2 GiB can not be read");
+        }
+        MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        if (size < HEADER_END || map.getInt(0) != SessionJournal.MAGIC) {
+            throw new IOException("Not a session journal");
+        }
+        if (map.getInt(4) != SessionJournal.VERSION) {
+            throw new IOException(String.format("Unsupported journal version %d", map.getInt(4)));
+        }
+        return map;
+    }
+
+    /**
+     * Find the end of the records of a journal that is about to be appended to
+     *
+     * @param channel File
+     * @return Offset just after the last whole record
+     * @throws IOException if the file is not a journal
+     */
+    static long findEnd(FileChannel channel) throws IOException {
+        MappedByteBuffer map = map(channel);
+        CRC32 crc = new CRC32();
+        int end = HEADER_END;
+        for (int next = nextRecord(map, end, crc); next > 0; next = nextRecord(map, end, crc)) {
+            end = next;
+        }
+        return end;
+    }
+
+    /**
+     * Find where the record after a position ends
+     *
+     * @param map    Mapped file
+     * @param offset Start of the record
+     * @param crc    Checksum to use
+     * @return End of the record, or -1 if there is no valid record there
+     */
+    private static int nextRecord(ByteBuffer map, int offset, CRC32 crc) {
+        if (offset + 4 > map.limit()) {
+            return -1;
+        }
+        int length = map.getInt(offset);
+        long end = (long) offset + 4 + length;
+        if (length < SessionJournal.RECORD_HEADER_BYTES - 4 || end > map.limit()
+                || (map.get(offset + 25) & 0xFF) > length - (SessionJournal.RECORD_HEADER_BYTES - 4)
+                || (map.get(offset + 24) & 0xFF) >= TYPES.length) {
+            return -1;
+        }
+
+        // The length can reach the disk without the body
+        crc.reset();
+        if (SessionJournal.checksum(crc, map, offset, length) != map.getInt(offset + 4)) {
+            return -1;
+        }
+        return (int) end;
+    }
+
+    /**
+     * Get the number of records
+     *
+     * @return Record count
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Iterate over the records, in the order they were written
+     *
+     * @return Iterator
+     */
+    @Override
+    public Iterator<JournalEntry> iterator() {
+        return new Iterator<JournalEntry>() {
+            private int offset = HEADER_END;
+
+            @Override
+            public boolean hasNext() {
+                return offset < records.limit();
+            }
+
+            @Override
+            public JournalEntry next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int length = records.getInt(offset);
+                int methodLength = records.get(offset + 25) & 0xFF;
+                int methodStart = offset + SessionJournal.RECORD_HEADER_BYTES;
+                int answerStart = methodStart + methodLength;
+                int end = offset + 4 + length;
+                JournalEntry entry = new JournalEntry(records.getLong(offset + 8), records.getLong(offset + 16),
+                        decode(methodStart, answerStart), TYPES[records.get(offset + 24)],
+                        decode(answerStart, end));
+                offset = end;
+                return entry;
+            }
+        };
+    }
+
+    /**
+     * Decode part of the records as UTF-8
+     *
+     * @param start Start offset
+     * @param end   End offset
+     * @return Text
+     */
+    private String decode(int start, int end) {
+        ByteBuffer slice = records.duplicate();
+        slice.limit(end).position(start);
+        return StandardCharsets.UTF_8.decode(slice).toString();
+    }
+
+    /**
+     * Get the recorded answers as input, one line per answer
+     *
+     * @return Input stream
+     */
+    public InputStream asInputStream() {
+        return new AnswerStream(records.duplicate());
+    }
+
+    /**
+     * Build a Prompt that answers with the recorded answers, in order. Once they
+     * run out, prompts throw an
+     * {@link ca.retrylife.inputlib.exceptions.EndOfInputException}
+     *
+     * @param out Where the prompts are printed
+     * @return Prompt
+     */
+    public Prompt replay(PrintStream out) {
+        return new Prompt(asInputStream(), out);
+    }
+
+    /**
+     * Streams the answer bytes of each record, followed by a line break,
+     * straight from the mapped file
+     */
+    private static class AnswerStream extends InputStream {
+
+        // Records
+        private final ByteBuffer records;
+
+        // Next record, and the unread part of the current answer
+        private int next = HEADER_END;
+        private int position = 0;
+        private int end = 0;
+
+        // Is the line break after the current answer still unread?
+        private boolean lineBreak = false;
+
+        /**
+         * Create an AnswerStream
+         *
+         * @param records Records
+         */
+        AnswerStream(ByteBuffer records) {
+            this.records = records;
+        }
+
+        /**
+         * Move to the next answer, if the current one is used up
+         *
+         * @return Is there anything left to read?
+         */
+        private boolean advance() {
+            if (position < end || lineBreak) {
+                return true;
+            }
+            if (next >= records.limit()) {
+                return false;
+            }
+            int length = records.getInt(next);
+            position = next + SessionJournal.RECORD_HEADER_BYTES + (records.get(next + 25) & 0xFF);
+            end = next + 4 + length;
+            next = end;
+            lineBreak = true;
+            return true;
+        }
+
+        @Override
+        public int read() {
+            if (!advance()) {
+                return -1;
+            }
+            if (position < end) {
+                return records.get(position++) & 0xFF;
+            }
+            lineBreak = false;
+            return '\n';
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            int read = 0;
+            while (read < len && advance()) {
+
+                // Copy a run of answer bytes
+                int run = Math.min(len - read, end - position);
+                if (run > 0) {
+                    ByteBuffer slice = records.duplicate();
+                    slice.position(position);
+                    slice.get(b, off + read, run);
+                    position += run;
+                    read += run;
+                } else {
+                    b[off + read++] = '\n';
+                    lineBreak = false;
+                }
+            }
+            return (read == 0) ? -1 : read;
+        }
+    }
+}
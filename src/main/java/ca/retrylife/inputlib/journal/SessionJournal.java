@@ -0,0 +1,358 @@
+package ca.retrylife.inputlib.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.zip.CRC32;
+
+import ca.retrylife.inputlib.Parser;
+
+/**
+ * A SessionJournal records every answer a {@link ca.retrylife.inputlib.Prompt}
+ * reads into a compact, append-only binary file. Attach one with
+ * {@link ca.retrylife.inputlib.Prompt#withJournal}, and read it back with a
+ * {@link JournalReader}.
+ *
+ * Records are written straight into a memory-mapped segment of the file, so
+ * recording an answer is a few memory writes. Flushing to disk is a group
+ * commit: a background thread forces the dirty segment at a fixed interval,
+ * covering every record written since the last flush. A crash can lose at
+ * most one interval of answers. The pages of a mapped file reach the disk in
+ * no particular order, so a crash can also leave a record's length without its
+ * body. Each record carries a CRC32 of its body, and readers stop at the first
+ * record that fails it.
+ *
+ * The file layout is a header, then one record per answer:
+ *
+ * <pre>
+ * header: int magic ("ILJ1"), int version
+ * record: int length (of the rest), int CRC32 (of the body that follows),
+ *         long epoch nanos, long wait nanos, byte type ordinal,
+ *         byte method length, method (ASCII), answer (UTF-8)
+ * </pre>
+ *
+ * A length of 0 marks the end of the records. Mapping past the end of the file
+ * fills it with zeros, so the end is always marked. Journals are thread safe.
+ */
+public final class SessionJournal implements Closeable {
+
+    // File header
+    static final int MAGIC = 0x494C4A31;
+    static final int VERSION = 2;
+    static final int HEADER_BYTES = 8;
+
+    // Bytes before a record's method name, and before the checksummed body
+    static final int RECORD_HEADER_BYTES = 4 + 4 + 8 + 8 + 1 + 1;
+    static final int BODY_START = 8;
+
+    // Default size of each mapped segment
+    private static final long DEFAULT_SEGMENT_BYTES = 1 << 20;
+
+    // Default time between group commits
+    private static final long DEFAULT_FLUSH_MILLIS = 100;
+
+    // File
+    private final FileChannel channel;
+    private final long segmentBytes;
+
+    // Current segment, and where it starts in the file
+    private volatile MappedByteBuffer segment;
+    private long segmentStart;
+
+    // Number of bytes of records written
+    private long size;
+
+    // Checksum of the record being written
+    private final CRC32 checksum = new CRC32();
+
+    // Wall clock, read from the monotonic clock
+    private final long baseEpochNanos;
+    private final long baseNanoTime;
+
+    // Group commit
+    private final Thread flusher;
+    private volatile boolean dirty = false;
+    private volatile boolean closed = false;
+
+    /**
+     * Create a SessionJournal. Use {@link #open}
+     *
+     * @param channel      File
+     * @param segmentBytes Size of each mapped segment
+     * @param flushMillis  Time between group commits
+     * @throws IOException if the file is not a journal
+     */
+    private SessionJournal(FileChannel channel, long segmentBytes, long flushMillis) throws IOException {
+        this.channel = channel;
+        this.segmentBytes = segmentBytes;
+
+        // Write the header of a new journal, or find the end of an old one
+        if (channel.size() == 0) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION);
+            header.flip();
+            channel.write(header, 0);
+            this.size = HEADER_BYTES;
+        } else {
+            this.size = JournalReader.findEnd(channel);
+        }
+        map(size, 0);
+
+        // Read the wall clock once
+        Instant now = Instant.now();
+        this.baseEpochNanos = now.getEpochSecond() * 1_000_000_000L + now.getNano();
+        this.baseNanoTime = System.nanoTime();
+
+        // Start the group commit thread
+        this.flusher = new Thread(() -> flushLoop(flushMillis), "inputlib-journal");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Open a journal, creating it if needed. New records are added after any
+     * already in the file
+     *
+     * @param file Journal file
+     * @return SessionJournal
+     * @throws IOException if the file can not be opened, or is not a journal
+     */
+    public static SessionJournal open(Path file) throws IOException {
+        return open(file, DEFAULT_FLUSH_MILLIS);
+    }
+
+    /**
+     * Open a journal, creating it if needed
+     *
+     * @param file        Journal file
+     * @param flushMillis Time between group commits
+     * @return SessionJournal
+     * @throws IOException if the file can not be opened, or is not a journal
+     */
+    public static SessionJournal open(Path file, long flushMillis) throws IOException {
+        if (flushMillis <= 0) {
+            throw new IllegalArgumentException("The flush interval must be positive");
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            return new SessionJournal(channel, DEFAULT_SEGMENT_BYTES, flushMillis);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Map the segment holding a position
+     *
+     * @param start  File position the segment starts at
+     * @param needed Bytes that must fit in it
+     * @throws IOException if the segment can not be mapped
+     */
+    private void map(long start, int needed) throws IOException {
+        MappedByteBuffer old = segment;
+        if (old != null) {
+            old.force();
+        }
+        segmentStart = start;
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, start, Math.max(segmentBytes, needed));
+    }
+
+    /**
+     * Record an answer
+     *
+     * @param method    Prompt method that read it
+     * @param answer    Answer line
+     * @param waitNanos Time spent waiting for it
+     * @throws IllegalStateException if the journal is closed
+     * @throws UncheckedIOException  if the file can not grow
+     */
+    public synchronized void record(String method, String answer, long waitNanos) {
+        if (closed) {
+            throw new IllegalStateException("The journal is closed");
+        }
+
+        // Size the record. Method names are short ASCII identifiers
+        int methodLength = Math.min(method.length(), 255);
+        int answerLength = utf8Length(answer);
+        int length = RECORD_HEADER_BYTES - 4 + methodLength + answerLength;
+
+        // Move to a new segment if the record does not fit
+        int offset = (int) (size - segmentStart);
+        if (offset + 4 + length > segment.capacity()) {
+            try {
+                map(size, 4 + length);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            offset = 0;
+        }
+
+        // Body first, then its checksum and the length
+        MappedByteBuffer out = segment;
+        int i = offset + BODY_START;
+        out.putLong(i, baseEpochNanos + (System.nanoTime() - baseNanoTime));
+        out.putLong(i + 8, waitNanos);
+        out.put(i + 16, (byte) Parser.classify(answer).ordinal());
+        out.put(i + 17, (byte) methodLength);
+        i += 18;
+        for (int c = 0; c < methodLength; c++) {
+            out.put(i++, (byte) method.charAt(c));
+        }
+        putUtf8(out, i, answer);
+        out.putInt(offset + 4, checksum(out, offset, length));
+        out.putInt(offset, length);
+
+        size += 4 + length;
+        dirty = true;
+    }
+
+    /**
+     * Compute the checksum of a record's body
+     *
+     * @param records Buffer holding the record
+     * @param offset  Start of the record
+     * @param length  Record length (of everything after the length)
+     * @return CRC32
+     */
+    private int checksum(ByteBuffer records, int offset, int length) {
+        checksum.reset();
+        return checksum(checksum, records, offset, length);
+    }
+
+    /**
+     * Compute the checksum of a record's body
+     *
+     * @param crc     Checksum to use (already reset)
+     * @param records Buffer holding the record
+     * @param offset  Start of the record
+     * @param length  Record length (of everything after the length)
+     * @return CRC32
+     */
+    static int checksum(CRC32 crc, ByteBuffer records, int offset, int length) {
+        ByteBuffer body = records.duplicate();
+        body.limit(offset + 4 + length).position(offset + BODY_START);
+        crc.update(body);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Count the UTF-8 bytes of a String. Unpaired surrogates become '?'
+     *
+     * @param s String
+     * @return Byte count
+     */
+    static int utf8Length(String s) {
+        int bytes = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                bytes += 1;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length()
+                    && Character.isLowSurrogate(s.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += (Character.isSurrogate(c)) ? 1 : 3;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Write a String as UTF-8, without building a byte[]
+     *
+     * @param out    Buffer
+     * @param offset Where to start writing
+     * @param s      String
+     */
+    private static void putUtf8(ByteBuffer out, int offset, String s) {
+        int i = offset;
+        for (int j = 0; j < s.length(); j++) {
+            char c = s.charAt(j);
+            if (c < 0x80) {
+                out.put(i++, (byte) c);
+            } else if (c < 0x800) {
+                out.put(i++, (byte) (0xC0 | (c >> 6)));
+                out.put(i++, (byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && j + 1 < s.length()
+                    && Character.isLowSurrogate(s.charAt(j + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++j));
+                out.put(i++, (byte) (0xF0 | (cp >> 18)));
+                out.put(i++, (byte) (0x80 | ((cp >> 12) & 0x3F)));
+                out.put(i++, (byte) (0x80 | ((cp >> 6) & 0x3F)));
+                out.put(i++, (byte) (0x80 | (cp & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                out.put(i++, (byte) '?');
+            } else {
+                out.put(i++, (byte) (0xE0 | (c >> 12)));
+                out.put(i++, (byte) (0x80 | ((c >> 6) & 0x3F)));
+                out.put(i++, (byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    /**
+     * Force every record written so far to disk, without waiting for the next
+     * group commit
+     */
+    public void flush() {
+        dirty = false;
+        segment.force();
+    }
+
+    /**
+     * Flush at a fixed interval, until the journal is closed
+     *
+     * @param flushMillis Time between flushes
+     */
+    private void flushLoop(long flushMillis) {
+        while (!closed) {
+            try {
+                Thread.sleep(flushMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (dirty && !closed) {
+                flush();
+            }
+        }
+    }
+
+    /**
+     * Get the number of bytes in the journal
+     *
+     * @return Size
+     */
+    public synchronized long size() {
+        return size;
+    }
+
+    /**
+     * Flush, and close the journal. The file is trimmed to its records
+     *
+     * @throws IOException if the file can not be trimmed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        flusher.interrupt();
+        segment.force();
+        try {
+            channel.truncate(size);
+        } finally {
+            channel.close();
+        }
+    }
+}
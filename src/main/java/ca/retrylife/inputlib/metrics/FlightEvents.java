@@ -0,0 +1,47 @@
+package ca.retrylife.inputlib.metrics;
+
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+
+/**
+ * FlightEvents tells the library's hooks whether its Flight Recorder events
+ * are wanted. Hooks check this before creating an event or reading the clock,
+ * so a disabled event costs nothing but the check, even while other events are
+ * being recorded (for example, under a continuous recording).
+ *
+ * Until the flight recorder starts, the check is a single static flag. After
+ * that, it reads the enabled state of the event's cached {@link EventType},
+ * which is true only while a running recording has the event enabled.
+ */
+public final class FlightEvents {
+
+    private FlightEvents() {
+    }
+
+    /**
+     * Check if "inputlib.Parse" events are being recorded
+     *
+     * @return Is enabled?
+     */
+    public static boolean parseEnabled() {
+        return FlightRecorder.isInitialized() && EventTypes.PARSE.isEnabled();
+    }
+
+    /**
+     * Check if "inputlib.Prompt" events are being recorded
+     *
+     * @return Is enabled?
+     */
+    public static boolean promptEnabled() {
+        return FlightRecorder.isInitialized() && EventTypes.PROMPT.isEnabled();
+    }
+
+    /**
+     * The event types. This is a separate class so the events are only
+     * registered once the flight recorder is running
+     */
+    private static class EventTypes {
+        static final EventType PARSE = EventType.getEventType(ParseEvent.class);
+        static final EventType PROMPT = EventType.getEventType(PromptEvent.class);
+    }
+}
@@ -0,0 +1,115 @@
+package ca.retrylife.inputlib.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free, log-linear latency histogram (in the style of HdrHistogram).
+ * Every power of two is split into 32 equal buckets, so recorded values are kept
+ * to within about 3% of their real value, and the whole range of a long fits in
+ * under 2000 buckets. Recording is a single atomic increment
+ */
+public class LatencyHistogram {
+
+    // Each power of two is split into 2^SUB_BITS buckets
+    private static final int SUB_BITS = 5;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int BUCKETS = SUB_COUNT + (63 - SUB_BITS) * SUB_COUNT;
+
+    // Bucket counts
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /**
+     * Record a value
+     * 
+     * @param value Value (negative values are recorded as 0)
+     */
+    public void record(long value) {
+        counts.getAndIncrement(indexFor(Math.max(0, value)));
+    }
+
+    /**
+     * Get the total number of recorded values
+     * 
+     * @return Count
+     */
+    public long getCount() {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Get an approximate percentile of the recorded values
+     * 
+     * @param percentile Percentile (0 to 100)
+     * @return Value at that percentile, or 0 if nothing is recorded
+     */
+    public long getPercentile(double percentile) {
+
+        // Find the rank to look for
+        long total = getCount();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * (percentile / 100.0)));
+
+        // Walk the buckets until the rank is reached
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return valueFor(i);
+            }
+        }
+        return valueFor(BUCKETS - 1);
+    }
+
+    /**
+     * Clear every recorded value
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+    }
+
+    /**
+     * Get the bucket for a value
+     * 
+     * @param value Non-negative value
+     * @return Bucket index
+     */
+    static int indexFor(long value) {
+
+        // Small values get their own bucket
+        if (value < SUB_COUNT) {
+            return (int) value;
+        }
+
+        // Larger values are bucketed by power of two, then by their next bits
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int mantissa = (int) (value >>> (exponent - SUB_BITS)) - SUB_COUNT;
+        return SUB_COUNT + (exponent - SUB_BITS) * SUB_COUNT + mantissa;
+    }
+
+    /**
+     * Get the middle of the range of values a bucket holds
+     * 
+     * @param index Bucket index
+     * @return Value
+     */
+    static long valueFor(int index) {
+
+        // Small values are exact
+        if (index < SUB_COUNT) {
+            return index;
+        }
+
+        // Rebuild the lowest value in the bucket, and add half its width
+        int shift = (index - SUB_COUNT) / SUB_COUNT;
+        long mantissa = SUB_COUNT + (index - SUB_COUNT) % SUB_COUNT;
+        return (mantissa << shift) + ((1L << shift) >> 1);
+    }
+}
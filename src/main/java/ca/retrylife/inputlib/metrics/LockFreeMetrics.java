@@ -0,0 +1,140 @@
+package ca.retrylife.inputlib.metrics;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import ca.retrylife.inputlib.types.Types;
+
+/**
+ * A MetricsSink that keeps everything in memory, using striped counters
+ * (LongAdder) and {@link LatencyHistogram}s, so many threads can record at once
+ * without contending on a lock.
+ * 
+ * <pre>
+ * LockFreeMetrics metrics = new LockFreeMetrics();
+ * Metrics.install(metrics);
+ * </pre>
+ */
+public class LockFreeMetrics implements MetricsSink {
+
+    // Parser stats
+    private final LongAdder[] parsedTypes;
+    private final LatencyHistogram parseLatency = new LatencyHistogram();
+
+    // Prompt stats, by method name
+    private final ConcurrentHashMap<String, PromptStats> prompts = new ConcurrentHashMap<>();
+
+    /**
+     * Create a LockFreeMetrics
+     */
+    public LockFreeMetrics() {
+        this.parsedTypes = new LongAdder[Types.values().length];
+        for (int i = 0; i < parsedTypes.length; i++) {
+            parsedTypes[i] = new LongAdder();
+        }
+    }
+
+    @Override
+    public void parsed(Types type, long nanos) {
+        parsedTypes[type.ordinal()].increment();
+        parseLatency.record(nanos);
+    }
+
+    @Override
+    public void attemptRejected(String method) {
+        statsFor(method).rejected.increment();
+    }
+
+    @Override
+    public void promptCompleted(String method, int rejectedAttempts, long waitNanos, long totalNanos) {
+        PromptStats stats = statsFor(method);
+        stats.completed.increment();
+        stats.waitLatency.record(waitNanos);
+        stats.processingLatency.record(totalNanos - waitNanos);
+    }
+
+    /**
+     * Get the stats for a prompt method, creating them if needed
+     * 
+     * @param method Method name
+     * @return Stats
+     */
+    private PromptStats statsFor(String method) {
+        PromptStats stats = prompts.get(method);
+        if (stats == null) {
+            stats = prompts.computeIfAbsent(method, (k) -> new PromptStats());
+        }
+        return stats;
+    }
+
+    /**
+     * Get the number of inputs the Parser has classified as a type
+     * 
+     * @param type Type
+     * @return Count
+     */
+    public long getParseCount(Types type) {
+        return parsedTypes[type.ordinal()].sum();
+    }
+
+    /**
+     * Get the distribution of Parser latencies, in nanoseconds
+     * 
+     * @return Histogram
+     */
+    public LatencyHistogram getParseLatency() {
+        return parseLatency;
+    }
+
+    /**
+     * Get the number of times a prompt method has returned, or failed
+     * 
+     * @param method Method name (for example "promptInteger")
+     * @return Count
+     */
+    public long getPromptCount(String method) {
+        return statsFor(method).completed.sum();
+    }
+
+    /**
+     * Get the number of answers a prompt method has rejected
+     * 
+     * @param method Method name (for example "promptInteger")
+     * @return Count
+     */
+    public long getRejectedAttempts(String method) {
+        return statsFor(method).rejected.sum();
+    }
+
+    /**
+     * Get the distribution of time users spent answering a prompt method, in
+     * nanoseconds
+     * 
+     * @param method Method name (for example "promptInteger")
+     * @return Histogram
+     */
+    public LatencyHistogram getWaitLatency(String method) {
+        return statsFor(method).waitLatency;
+    }
+
+    /**
+     * Get the distribution of time a prompt method spent not waiting for the
+     * user, in nanoseconds
+     * 
+     * @param method Method name (for example "promptInteger")
+     * @return Histogram
+     */
+    public LatencyHistogram getProcessingLatency(String method) {
+        return statsFor(method).processingLatency;
+    }
+
+    /**
+     * Stats for one prompt method
+     */
+    private static class PromptStats {
+        final LongAdder completed = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final LatencyHistogram waitLatency = new LatencyHistogram();
+        final LatencyHistogram processingLatency = new LatencyHistogram();
+    }
+}
@@ -0,0 +1,122 @@
+package ca.retrylife.inputlib.metrics;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MutableCallSite;
+
+import ca.retrylife.inputlib.types.Types;
+
+/**
+ * Metrics holds the installed {@link MetricsSink}. Every hook in the library is
+ * guarded by {@link #enabled()}.
+ * 
+ * The guard reads a static final MutableCallSite. Compiled code inlines the
+ * call site's current target, and is thrown away when the target changes, so
+ * while no sink is installed the guard folds to false and the guarded code is
+ * removed. Installing or removing a sink deoptimizes the guarded code, so this
+ * should be done rarely (for example, at startup). The call site is built when
+ * the first hook runs
+ */
+public class Metrics {
+
+    // The installed sink
+    private static volatile MetricsSink sink = null;
+
+    private Metrics() {
+    }
+
+    /**
+     * Install a sink. This replaces any previously installed sink
+     * 
+     * @param newSink Sink
+     */
+    public static synchronized void install(MetricsSink newSink) {
+        if (newSink == null) {
+            throw new NullPointerException("Use Metrics.uninstall() to remove a sink");
+        }
+        sink = newSink;
+        Switch.set(true);
+    }
+
+    /**
+     * Remove the installed sink, if any
+     */
+    public static synchronized void uninstall() {
+        Switch.set(false);
+        sink = null;
+    }
+
+    /**
+     * Check if a sink is installed. Hooks must check this before calling
+     * {@link #sink()}
+     * 
+     * @return Is enabled?
+     */
+    public static boolean enabled() {
+        return Switch.get();
+    }
+
+    /**
+     * Get the installed sink. If a sink is being uninstalled on another thread,
+     * this can be a no-op sink
+     * 
+     * @return Sink
+     */
+    public static MetricsSink sink() {
+        MetricsSink current = sink;
+        return (current != null) ? current : NoopSink.INSTANCE;
+    }
+
+    /**
+     * The enabled flag, as a JIT constant. This is a separate class so it is only
+     * loaded once a hook runs, or a sink is installed
+     */
+    private static class Switch {
+
+        // Is a sink installed?
+        private static final MutableCallSite SITE = new MutableCallSite(MethodHandles.constant(boolean.class, false));
+        private static final MethodHandle INVOKER = SITE.dynamicInvoker();
+
+        /**
+         * Read the flag
+         * 
+         * @return Is enabled?
+         */
+        static boolean get() {
+            try {
+                return (boolean) INVOKER.invokeExact();
+            } catch (Throwable t) {
+                throw new AssertionError(t);
+            }
+        }
+
+        /**
+         * Swap the flag, and make sure every thread sees the change
+         * 
+         * @param enabled Is enabled?
+         */
+        static void set(boolean enabled) {
+            SITE.setTarget(MethodHandles.constant(boolean.class, enabled));
+            MutableCallSite.syncAll(new MutableCallSite[] { SITE });
+        }
+    }
+
+    /**
+     * A sink that ignores everything. Used while a sink is being uninstalled
+     */
+    private static class NoopSink implements MetricsSink {
+        static final NoopSink INSTANCE = new NoopSink();
+
+        @Override
+        public void parsed(Types type, long nanos) {
+        }
+
+        @Override
+        public void attemptRejected(String method) {
+        }
+
+        @Override
+        public void promptCompleted(String method, int rejectedAttempts, long waitNanos, long totalNanos) {
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package ca.retrylife.inputlib.metrics;
+
+import ca.retrylife.inputlib.types.Types;
+
+/**
+ * A MetricsSink receives measurements from the Parser and from every Prompt.
+ * Install one with {@link Metrics#install}. Implementations are called from
+ * whichever thread is parsing or prompting, so they must be thread-safe, and
+ * should be fast.
+ * 
+ * See {@link LockFreeMetrics} for a ready-made implementation
+ */
+public interface MetricsSink {
+
+    /**
+     * Called after {@link ca.retrylife.inputlib.Parser#parseToToken} classifies an
+     * input
+     * 
+     * @param type  Detected type
+     * @param nanos Time spent parsing
+     */
+    void parsed(Types type, long nanos);
+
+    /**
+     * Called each time a prompt rejects an answer and asks again
+     * 
+     * @param method Name of the outermost prompt method (for example
+     *               "promptInteger")
+     */
+    void attemptRejected(String method);
+
+    /**
+     * Called when a prompt method returns, or fails
+     * 
+     * @param method           Name of the prompt method
+     * @param rejectedAttempts Number of answers that were rejected
+     * @param waitNanos        Time spent waiting for the user to enter lines
+     * @param totalNanos       Total time spent in the prompt
+     */
+    void promptCompleted(String method, int rejectedAttempts, long waitNanos, long totalNanos);
+}
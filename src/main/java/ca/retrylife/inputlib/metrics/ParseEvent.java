@@ -0,0 +1,28 @@
+package ca.retrylife.inputlib.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event emitted by
+ * {@link ca.retrylife.inputlib.Parser#parseToToken}. Enable "inputlib.Parse"
+ * in a recording to collect it
+ */
+@Name("inputlib.Parse")
+@Label("Parse")
+@Category("InputLib")
+@Description("An input string was classified and parsed into a Token")
+@StackTrace(false)
+public class ParseEvent extends Event {
+
+    @Label("Input Length")
+    public int inputLength;
+
+    @Label("Type")
+    @Description("Type the input was detected as")
+    public String type;
+}
@@ -0,0 +1,38 @@
+package ca.retrylife.inputlib.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Java Flight Recorder event emitted when a prompt method returns, or fails.
+ * Nested calls are reported once, under the outermost method. Enable
+ * "inputlib.Prompt" in a recording to collect it
+ */
+@Name("inputlib.Prompt")
+@Label("Prompt")
+@Category("InputLib")
+@Description("A prompt asked the user for input")
+public class PromptEvent extends Event {
+
+    @Label("Method")
+    @Description("Prompt method that was called")
+    public String method;
+
+    @Label("Attempts")
+    @Description("Number of answers asked for, including rejected ones")
+    public int attempts;
+
+    @Label("Read Wait Time")
+    @Description("Time spent waiting for the user to enter lines")
+    @Timespan(Timespan.NANOSECONDS)
+    public long readWait;
+
+    @Label("Processing Time")
+    @Description("Time spent in the prompt, not counting read wait time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long processing;
+}
@@ -0,0 +1,22 @@
+package ca.retrylife.inputlib.pipeline;
+
+import ca.retrylife.inputlib.types.Token;
+
+/**
+ * The convert stage of a {@link TokenPipeline}. It is called on the pipeline's
+ * own thread, once per line, in the order the lines were published.
+ */
+@FunctionalInterface
+public interface TokenHandler {
+
+    /**
+     * Handle a parsed line. Lines that were ready at the same time are handed
+     * over as one batch, so work such as flushing a buffer can wait for the end
+     * of the batch
+     *
+     * @param token      Token for the line
+     * @param sequence   Position of the line, counting from 0
+     * @param endOfBatch Is this the last line ready for now?
+     */
+    void onToken(Token token, long sequence, boolean endOfBatch);
+}
@@ -0,0 +1,402 @@
+package ca.retrylife.inputlib.pipeline;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import ca.retrylife.inputlib.RecordTokenizer;
+import ca.retrylife.inputlib.types.Token;
+
+/**
+ * A TokenPipeline splits reading, parsing, and converting lines across
+ * threads. The caller reads lines and {@link #publish}es them. Parser threads
+ * turn each line into a Token with {@link RecordTokenizer#parseField}, so a
+ * line that looks like a number but is not one (such as "1.2.3") becomes a
+ * String, and a single convert thread hands the Tokens to a
+ * {@link TokenHandler}, in order.
+ *
+ * The stages share one preallocated ring of slots, each holding a line and its
+ * Token, which are re-used as the ring wraps around. Nothing is locked or
+ * queued. Each stage publishes a sequence number (how far it has got), and
+ * waits on the sequence of the stage before it. With several parser threads,
+ * each takes every Nth line. A stage that falls behind catches up by
+ * processing every ready slot before publishing its sequence once, so the
+ * slower a stage is, the larger its batches get. When the ring is full, the
+ * producer waits for the convert thread.
+ *
+ * There must be a single producer: {@link #publish} is not thread-safe.
+ *
+ * <pre>
+ * try (TokenPipeline pipeline = new TokenPipeline((token, sequence, endOfBatch) -&gt; handle(token))) {
+ *     for (String line = in.readLine(); line != null; line = in.readLine()) {
+ *         pipeline.publish(line);
+ *     }
+ * }
+ * </pre>
+ */
+public final class TokenPipeline implements AutoCloseable {
+
+    // Defaults
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final int DEFAULT_PARSERS = 1;
+
+    // Longs between sequences, so each has its own cache line (or pair of them)
+    private static final int PAD = 16;
+
+    // Where each sequence lives in the sequence array
+    private static final int CURSOR = PAD;
+    private static final int CONVERTED = 2 * PAD;
+    private static final int PARSED = 3 * PAD;
+
+    // Slots, and the mask that maps a sequence to one
+    private final Slot[] slots;
+    private final int mask;
+
+    // Published, converted, and one parsed sequence per parser thread. Each is
+    // the last sequence that stage has finished
+    private final AtomicLongArray sequences;
+    private final int parsers;
+
+    // Stage threads
+    private final WaitStrategy waitStrategy;
+    private final TokenHandler handler;
+    private final Thread[] threads;
+
+    // Producer state. Only written by the producer
+    private long next = 0;
+    private volatile long maxQueueDepth = 0;
+    private volatile long producerWaits = 0;
+    private volatile long startNanos = 0;
+
+    // Convert stage stats. Only written by the convert thread
+    private volatile long batches = 0;
+    private volatile long lastConvertedNanos = 0;
+
+    // Shutdown, and the first error thrown by the handler
+    private volatile boolean closed = false;
+    private volatile Throwable failure = null;
+
+    /**
+     * A reusable holder for one line and its Token
+     */
+    private static final class Slot {
+        String line;
+        Token token;
+    }
+
+    /**
+     * Create a TokenPipeline with one parser thread, and room for 1024 lines
+     *
+     * @param handler Convert stage
+     */
+    public TokenPipeline(TokenHandler handler) {
+        this(handler, DEFAULT_CAPACITY, DEFAULT_PARSERS, WaitStrategy.YIELD);
+    }
+
+    /**
+     * Create a TokenPipeline
+     *
+     * @param handler      Convert stage
+     * @param capacity     Number of slots. Must be a power of two
+     * @param parsers      Number of parser threads
+     * @param waitStrategy How idle threads wait
+     */
+    public TokenPipeline(TokenHandler handler, int capacity, int parsers, WaitStrategy waitStrategy) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException(String.format("Capacity must be a power of two, not %d", capacity));
+        }
+        if (parsers < 1) {
+            throw new IllegalArgumentException("There must be at least one parser thread");
+        }
+        this.handler = Objects.requireNonNull(handler, "Handler can not be null");
+        this.waitStrategy = Objects.requireNonNull(waitStrategy, "Wait strategy can not be null");
+        this.parsers = parsers;
+
+        // Preallocate every slot
+        this.slots = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot();
+        }
+        this.mask = capacity - 1;
+
+        // Nothing is done yet. Parser w takes sequences w, w + N, w + 2N, ...
+        this.sequences = new AtomicLongArray(PARSED + (parsers + 1) * PAD);
+        sequences.set(CURSOR, -1);
+        sequences.set(CONVERTED, -1);
+        for (int w = 0; w < parsers; w++) {
+            sequences.set(PARSED + w * PAD, w - parsers);
+        }
+
+        // Start the stages
+        this.threads = new Thread[parsers + 1];
+        for (int w = 0; w < parsers; w++) {
+            int worker = w;
+            threads[w] = new Thread(() -> parseLoop(worker), "inputlib-parse-" + w);
+        }
+        threads[parsers] = new Thread(this::convertLoop, "inputlib-convert");
+        for (Thread thread : threads) {
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Add a line to the pipeline. This waits if the ring is full
+     *
+     * @param line Line
+     * @throws IllegalStateException if the pipeline is closed, or the handler failed
+     */
+    public void publish(String line) {
+        Objects.requireNonNull(line, "Line can not be null");
+        checkState();
+        if (next == 0) {
+            startNanos = System.nanoTime();
+        }
+
+        // Wait for the slot to be free, meaning it has been converted
+        long sequence = next;
+        long wrapPoint = sequence - slots.length;
+        long converted = sequences.getAcquire(CONVERTED);
+        if (wrapPoint > converted) {
+            producerWaits++;
+            int counter = 0;
+            do {
+                counter = waitStrategy.idle(counter);
+                checkState();
+                converted = sequences.getAcquire(CONVERTED);
+            } while (wrapPoint > converted);
+        }
+
+        // Fill the slot, then publish it
+        slots[(int) sequence & mask].line = line;
+        sequences.setRelease(CURSOR, sequence);
+        next = sequence + 1;
+
+        // Track how far behind the convert stage is
+        long depth = sequence - converted;
+        if (depth > maxQueueDepth) {
+            maxQueueDepth = depth;
+        }
+    }
+
+    /**
+     * Wait until every published line has been handed to the handler
+     *
+     * @throws IllegalStateException if the handler failed
+     */
+    public void flush() {
+        int counter = 0;
+        while (sequences.getAcquire(CONVERTED) < next - 1) {
+            if (failure != null) {
+                break;
+            }
+            counter = waitStrategy.idle(counter);
+        }
+        checkFailure();
+    }
+
+    /**
+     * Parse every Nth slot, as they are published
+     *
+     * @param worker Parser index
+     */
+    private void parseLoop(int worker) {
+        int parsed = PARSED + worker * PAD;
+        long sequence = worker;
+        int counter = 0;
+        while (true) {
+
+            // Wait for a line. Once closed, the cursor no longer moves
+            boolean ending = closed;
+            long available = sequences.getAcquire(CURSOR);
+            if (sequence > available) {
+                if (ending) {
+                    return;
+                }
+                counter = waitStrategy.idle(counter);
+                continue;
+            }
+            counter = 0;
+
+            // Parse every ready line, then publish once
+            long last = sequence;
+            while (sequence <= available) {
+                Slot slot = slots[(int) sequence & mask];
+                slot.token = RecordTokenizer.parseField(slot.line);
+                last = sequence;
+                sequence += parsers;
+            }
+            sequences.setRelease(parsed, last);
+        }
+    }
+
+    /**
+     * Hand parsed slots to the handler, in order
+     */
+    private void convertLoop() {
+        long sequence = 0;
+        int counter = 0;
+        while (true) {
+
+            // Every sequence before a parser's next one is parsed
+            boolean ending = closed;
+            long available = sequences.getAcquire(CURSOR);
+            for (int w = 0; w < parsers; w++) {
+                available = Math.min(available, sequences.getAcquire(PARSED + w * PAD) + parsers - 1);
+            }
+            if (sequence > available) {
+                if (ending && sequence > sequences.getAcquire(CURSOR)) {
+                    return;
+                }
+                counter = waitStrategy.idle(counter);
+                continue;
+            }
+            counter = 0;
+
+            // Convert the run of ready slots, then free them all at once. After a
+            // failure, slots are only freed, so the producer never blocks
+            for (; sequence <= available; sequence++) {
+                Slot slot = slots[(int) sequence & mask];
+                if (failure == null) {
+                    try {
+                        handler.onToken(slot.token, sequence, sequence == available);
+                    } catch (RuntimeException | Error e) {
+                        fail(e);
+                    }
+                }
+                slot.line = null;
+                slot.token = null;
+            }
+            batches++;
+            lastConvertedNanos = System.nanoTime();
+            sequences.setRelease(CONVERTED, available);
+        }
+    }
+
+    /**
+     * Record the first error thrown by the handler
+     *
+     * @param error Error
+     */
+    private synchronized void fail(Throwable error) {
+        if (failure == null) {
+            failure = error;
+        }
+    }
+
+    /**
+     * Make sure lines can be published
+     */
+    private void checkState() {
+        if (closed) {
+            throw new IllegalStateException("The pipeline is closed");
+        }
+        checkFailure();
+    }
+
+    /**
+     * Re-throw the first error thrown by the handler
+     */
+    private void checkFailure() {
+        Throwable error = failure;
+        if (error != null) {
+            throw new IllegalStateException("The pipeline handler failed: " + error, error);
+        }
+    }
+
+    /**
+     * Get the number of lines published
+     *
+     * @return Count
+     */
+    public long getPublished() {
+        return sequences.getAcquire(CURSOR) + 1;
+    }
+
+    /**
+     * Get the number of lines handed to the handler
+     *
+     * @return Count
+     */
+    public long getConverted() {
+        return sequences.getAcquire(CONVERTED) + 1;
+    }
+
+    /**
+     * Get the number of lines published, but not yet converted
+     *
+     * @return Queue depth
+     */
+    public long getQueueDepth() {
+        long converted = getConverted();
+        return Math.max(0, getPublished() - converted);
+    }
+
+    /**
+     * Get the largest queue depth seen when a line was published. This reaching
+     * the capacity means the convert stage is the bottleneck
+     *
+     * @return Queue depth
+     */
+    public long getMaxQueueDepth() {
+        return maxQueueDepth;
+    }
+
+    /**
+     * Get the number of times the producer found the ring full
+     *
+     * @return Count
+     */
+    public long getProducerWaits() {
+        return producerWaits;
+    }
+
+    /**
+     * Get the average number of lines the convert stage handled at once
+     *
+     * @return Lines per batch
+     */
+    public double getAverageBatchSize() {
+        long count = batches;
+        return (count == 0) ? 0 : (double) getConverted() / count;
+    }
+
+    /**
+     * Get the rate lines were converted at, from the first publish to the last
+     * conversion
+     *
+     * @return Lines per second
+     */
+    public double getThroughput() {
+        long elapsed = lastConvertedNanos - startNanos;
+        return (elapsed <= 0) ? 0 : getConverted() * 1e9 / elapsed;
+    }
+
+    /**
+     * Finish every published line, and stop the stage threads
+     *
+     * @throws IllegalStateException if the handler failed
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        // Wait for the stages to drain
+        boolean interrupted = false;
+        for (Thread thread : threads) {
+            while (thread.isAlive()) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        checkFailure();
+    }
+}
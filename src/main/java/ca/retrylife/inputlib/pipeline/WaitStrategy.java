@@ -0,0 +1,74 @@
+package ca.retrylife.inputlib.pipeline;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * How the threads of a {@link TokenPipeline} wait when they have nothing to do
+ * (or, for the producer, when the ring is full). Nothing is ever signalled, so
+ * a waiting thread notices new work on its own, and the strategy trades idle
+ * CPU use for how soon it does.
+ */
+public enum WaitStrategy {
+
+    /**
+     * Spin on the CPU. Lowest latency, but each waiting thread keeps a core busy.
+     * Only use this when every pipeline thread, and the producer, has a core to
+     * itself, or spinning threads will starve the ones doing the work
+     */
+    BUSY_SPIN {
+        @Override
+        int idle(int counter) {
+            Thread.onSpinWait();
+            return counter;
+        }
+    },
+
+    /**
+     * Spin briefly, then give the CPU to other threads between checks
+     */
+    YIELD {
+        @Override
+        int idle(int counter) {
+            if (counter < SPIN_TRIES) {
+                Thread.onSpinWait();
+                return counter + 1;
+            }
+            Thread.yield();
+            return counter;
+        }
+    },
+
+    /**
+     * Spin, then yield, then sleep for short periods. Uses the least CPU while
+     * idle, but can add tens of microseconds of latency after a quiet period
+     */
+    PARK {
+        @Override
+        int idle(int counter) {
+            if (counter < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else if (counter < SPIN_TRIES + YIELD_TRIES) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(PARK_NANOS);
+                return counter;
+            }
+            return counter + 1;
+        }
+    };
+
+    // Steps before backing off further
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+
+    // Length of each sleep
+    private static final long PARK_NANOS = 10_000;
+
+    /**
+     * Wait once
+     *
+     * @param counter Number of waits since there was last work (0 at first)
+     * @return Counter for the next wait
+     */
+    abstract int idle(int counter);
+}
@@ -0,0 +1,423 @@
+package ca.retrylife.inputlib.schema;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import ca.retrylife.inputlib.Parser;
+import ca.retrylife.inputlib.RecordTokenizer;
+import ca.retrylife.inputlib.types.Token;
+import ca.retrylife.inputlib.types.Types;
+
+/**
+ * A ColumnProfile is what a {@link SchemaInferrer} knows about one column: how
+ * many values of each type it has seen, how many were missing, the numeric
+ * range, and (optionally) a uniform random sample of its values.
+ * 
+ * The column's type is the narrowest type every value fits in. Types form a
+ * small lattice:
+ * 
+ * <pre>
+ * INTEGER -&gt; LONG -&gt; DOUBLE -&gt; BIG_DECIMAL -&gt; STRING
+ * INTEGER -&gt; FLOAT -&gt; DOUBLE
+ * LONG -&gt; BIG_INTEGER -&gt; BIG_DECIMAL
+ * DATE -&gt; TIMESTAMP -&gt; STRING
+ * CHARACTER -&gt; STRING
+ * BOOLEAN -&gt; STRING
+ * </pre>
+ * 
+ * Profiles only grow by counting, so two profiles of different parts of the
+ * same data can be merged into the profile of the whole.
+ */
+public class ColumnProfile {
+
+    // Values seen, by primary type
+    private final long[] typeCounts = new long[Types.values().length];
+
+    // Empty or absent values
+    private long missing = 0;
+
+    // Numeric range
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+
+    // Reservoir sample of the non-missing values
+    private final Token[] samples;
+    private long sampled = 0;
+
+    /**
+     * Create a ColumnProfile
+     * 
+     * @param sampleSize Number of values to sample (0 for none)
+     */
+    ColumnProfile(int sampleSize) {
+        this.samples = new Token[sampleSize];
+    }
+
+    /**
+     * Count a value
+     * 
+     * @param token  Value
+     * @param random Source of randomness for sampling
+     */
+    void add(Token token, SplittableRandom random) {
+
+        // Empty fields are missing values
+        Types type = token.getPrimaryType();
+        if (type == Types.STRING && token.getString().isEmpty()) {
+            missing++;
+            return;
+        }
+
+        // Count the value, and maybe keep it
+        count(type, isNumber(type) ? token.getDouble() : Double.NaN);
+        int slot = sampleSlot(random);
+        if (slot >= 0) {
+            samples[slot] = token;
+        }
+    }
+
+    /**
+     * Count a value without parsing it into a Token. Only sampled values become
+     * Tokens, which makes this much cheaper for large inputs
+     * 
+     * @param field  Field text
+     * @param random Source of randomness for sampling
+     */
+    void add(String field, SplittableRandom random) {
+
+        // Empty fields are missing values
+        if (field.isEmpty()) {
+            missing++;
+            return;
+        }
+
+        // Classify, and read numbers for the range. A number that does not fit
+        // its type is a String, just like in a RecordTokenizer
+        Types type = Parser.classify(field);
+        double value = Double.NaN;
+        try {
+            switch (type) {
+                case INTEGER:
+                    value = Parser.parseInteger(field);
+                    break;
+                case LONG:
+                    value = Parser.parseLong(field);
+                    break;
+                case BIG_INTEGER:
+                    value = Parser.parseBigInteger(field).doubleValue();
+                    break;
+                case BIG_DECIMAL:
+                    value = Parser.parseBigDecimal(field).doubleValue();
+                    break;
+                case FLOAT:
+                    value = Parser.parseFloat(field);
+                    break;
+                case DOUBLE:
+                    value = Parser.parseDouble(field);
+                    break;
+                default:
+                    break;
+            }
+        } catch (NumberFormatException e) {
+            type = Types.STRING;
+        }
+
+        // Count the value, and maybe keep it
+        count(type, value);
+        int slot = sampleSlot(random);
+        if (slot >= 0) {
+            samples[slot] = RecordTokenizer.parseField(field);
+        }
+    }
+
+    /**
+     * Count a non-missing value
+     * 
+     * @param type  Primary type
+     * @param value Numeric value (NaN if not a number)
+     */
+    private void count(Types type, double value) {
+        typeCounts[type.ordinal()]++;
+
+        // Track the range
+        if (isNumber(type)) {
+            if (!(value >= min)) {
+                min = value;
+            }
+            if (!(value <= max)) {
+                max = value;
+            }
+        }
+    }
+
+    /**
+     * Reservoir sampling (Algorithm R). Every value has an equal chance of being
+     * kept
+     * 
+     * @param random Source of randomness
+     * @return Sample slot to put the value in, or -1 to drop it
+     */
+    private int sampleSlot(SplittableRandom random) {
+        if (samples.length == 0) {
+            return -1;
+        }
+        sampled++;
+        if (sampled <= samples.length) {
+            return (int) sampled - 1;
+        }
+        long slot = random.nextLong(sampled);
+        return (slot < samples.length) ? (int) slot : -1;
+    }
+
+    /**
+     * Check if a type is a number type
+     * 
+     * @param type Type
+     * @return Is a number?
+     */
+    private static boolean isNumber(Types type) {
+        return numericRank(type) >= 0;
+    }
+
+    /**
+     * Count missing values
+     * 
+     * @param count Number of missing values
+     */
+    void addMissing(long count) {
+        missing += count;
+    }
+
+    /**
+     * Fold another profile of the same column into this one
+     * 
+     * @param other  Other profile
+     * @param random Source of randomness for sampling
+     */
+    void merge(ColumnProfile other, SplittableRandom random) {
+        for (int i = 0; i < typeCounts.length; i++) {
+            typeCounts[i] += other.typeCounts[i];
+        }
+        missing += other.missing;
+
+        // A profile that saw no numbers has no range to add
+        if (!Double.isNaN(other.min) && !(other.min >= min)) {
+            min = other.min;
+        }
+        if (!Double.isNaN(other.max) && !(other.max <= max)) {
+            max = other.max;
+        }
+        mergeSamples(other, random);
+    }
+
+    /**
+     * Merge two reservoirs. Each slot is drawn from one side with a chance
+     * proportional to how many values that side still stands for, so the result
+     * is still a uniform sample of both
+     * 
+     * @param other  Other profile
+     * @param random Source of randomness
+     */
+    private void mergeSamples(ColumnProfile other, SplittableRandom random) {
+        if (samples.length == 0 || other.sampled == 0) {
+            return;
+        }
+
+        // Shuffled copies of both reservoirs
+        Token[] mine = shuffled(samples, (int) Math.min(sampled, samples.length), random);
+        Token[] theirs = shuffled(other.samples, (int) Math.min(other.sampled, other.samples.length), random);
+
+        // Draw without replacement
+        long mineLeft = sampled;
+        long theirsLeft = other.sampled;
+        int mineNext = 0;
+        int theirsNext = 0;
+        int filled = 0;
+        while (filled < samples.length && (mineNext < mine.length || theirsNext < theirs.length)) {
+            boolean takeMine = theirsNext == theirs.length
+                    || (mineNext < mine.length && random.nextLong(mineLeft + theirsLeft) < mineLeft);
+            if (takeMine) {
+                samples[filled++] = mine[mineNext++];
+                mineLeft--;
+            } else {
+                samples[filled++] = theirs[theirsNext++];
+                theirsLeft--;
+            }
+        }
+        Arrays.fill(samples, filled, samples.length, null);
+        sampled += other.sampled;
+    }
+
+    /**
+     * Get a shuffled copy of the start of an array
+     * 
+     * @param values Values
+     * @param count  Number of values to copy
+     * @param random Source of randomness
+     * @return Shuffled copy
+     */
+    private static Token[] shuffled(Token[] values, int count, SplittableRandom random) {
+        Token[] copy = Arrays.copyOf(values, count);
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Token t = copy[i];
+            copy[i] = copy[j];
+            copy[j] = t;
+        }
+        return copy;
+    }
+
+    /**
+     * Get the narrowest type that two types both fit in
+     * 
+     * @param a Type
+     * @param b Type
+     * @return Lowest common type in the lattice
+     */
+    public static Types join(Types a, Types b) {
+        if (a == b) {
+            return a;
+        }
+
+        // Numbers widen to the wider number
+        int rankA = numericRank(a);
+        int rankB = numericRank(b);
+        if (rankA >= 0 && rankB >= 0) {
+
+            // A BigInteger and a fraction only both fit in a BigDecimal
+            if ((a == Types.BIG_INTEGER && isFraction(b)) || (b == Types.BIG_INTEGER && isFraction(a))) {
+                return Types.BIG_DECIMAL;
+            }
+
+            // A Float would drop most of a Long's digits
+            if ((a == Types.LONG && b == Types.FLOAT) || (a == Types.FLOAT && b == Types.LONG)) {
+                return Types.DOUBLE;
+            }
+            return (rankA > rankB) ? a : b;
+        }
+
+        // Dates are midnight timestamps
+        if ((a == Types.DATE && b == Types.TIMESTAMP) || (a == Types.TIMESTAMP && b == Types.DATE)) {
+            return Types.TIMESTAMP;
+        }
+
+        // Anything else can only meet at String
+        return Types.STRING;
+    }
+
+    /**
+     * Check if a type is a Float or a Double
+     * 
+     * @param type Type
+     * @return Is a fraction?
+     */
+    private static boolean isFraction(Types type) {
+        return type == Types.FLOAT || type == Types.DOUBLE;
+    }
+
+    /**
+     * Get a number type's place in the lattice
+     * 
+     * @param type Type
+     * @return Rank, or -1 if not a number type
+     */
+    private static int numericRank(Types type) {
+        switch (type) {
+            case INTEGER:
+                return 0;
+            case LONG:
+                return 1;
+            case FLOAT:
+                return 2;
+            case DOUBLE:
+                return 3;
+            case BIG_INTEGER:
+                return 4;
+            case BIG_DECIMAL:
+                return 5;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Get the narrowest type that every value fits in. A column with no values is
+     * a String column
+     * 
+     * @return Column type
+     */
+    public Types getType() {
+        Types type = null;
+        for (Types t : Types.values()) {
+            if (typeCounts[t.ordinal()] > 0) {
+                type = (type == null) ? t : join(type, t);
+            }
+        }
+        return (type == null) ? Types.STRING : type;
+    }
+
+    /**
+     * Get the number of values seen with a specific primary type
+     * 
+     * @param type Type
+     * @return Value count
+     */
+    public long getTypeCount(Types type) {
+        return typeCounts[type.ordinal()];
+    }
+
+    /**
+     * Get the number of non-missing values
+     * 
+     * @return Value count
+     */
+    public long getCount() {
+        long count = 0;
+        for (long c : typeCounts) {
+            count += c;
+        }
+        return count;
+    }
+
+    /**
+     * Get the number of missing values (empty fields, or rows too short to have
+     * this column)
+     * 
+     * @return Missing count
+     */
+    public long getMissingCount() {
+        return missing;
+    }
+
+    /**
+     * Get the smallest numeric value
+     * 
+     * @return Minimum, or NaN if no numbers were seen
+     */
+    public double getMin() {
+        return min;
+    }
+
+    /**
+     * Get the largest numeric value
+     * 
+     * @return Maximum, or NaN if no numbers were seen
+     */
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * Get a uniform random sample of the column's values
+     * 
+     * @return Sampled values (at most the sample size)
+     */
+    public Token[] getSamples() {
+        return Arrays.copyOf(samples, (int) Math.min(sampled, samples.length));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ColumnProfile<%s, %d values, %d missing>", getType().getName(), getCount(), missing);
+    }
+}
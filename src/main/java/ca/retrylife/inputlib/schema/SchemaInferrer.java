@@ -0,0 +1,235 @@
+package ca.retrylife.inputlib.schema;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+
+import ca.retrylife.inputlib.RecordTokenizer;
+import ca.retrylife.inputlib.TokenRecord;
+import ca.retrylife.inputlib.types.Types;
+
+/**
+ * A SchemaInferrer reads delimited lines, and works out the type of each column
+ * using the same rules as {@link ca.retrylife.inputlib.Parser}. Only a
+ * {@link ColumnProfile} per column is kept, so memory use does not depend on the
+ * size of the input.
+ * 
+ * A SchemaInferrer is not thread-safe. To use several threads, give each one
+ * its own SchemaInferrer and {@link #merge} them at the end, or use
+ * {@link #collector} with a parallel stream:
+ * 
+ * <pre>
+ * try (Stream&lt;String&gt; lines = Files.lines(path)) {
+ *     Types[] schema = lines.parallel().collect(SchemaInferrer.collector(tokenizer, 0)).getSchema();
+ * }
+ * </pre>
+ */
+public class SchemaInferrer {
+
+    // Settings
+    private final RecordTokenizer tokenizer;
+    private final int sampleSize;
+    private final SplittableRandom random;
+
+    // Re-used for every line
+    private final TokenRecord record = new TokenRecord();
+
+    // State
+    private final ArrayList<ColumnProfile> columns = new ArrayList<>();
+    private long rows = 0;
+
+    /**
+     * Create a SchemaInferrer
+     * 
+     * @param tokenizer  How to split lines into fields
+     * @param sampleSize Number of values to sample from each column (0 for none)
+     */
+    public SchemaInferrer(RecordTokenizer tokenizer, int sampleSize) {
+        this(tokenizer, sampleSize, new SplittableRandom());
+    }
+
+    /**
+     * Create a SchemaInferrer with repeatable sampling
+     * 
+     * @param tokenizer  How to split lines into fields
+     * @param sampleSize Number of values to sample from each column (0 for none)
+     * @param seed       Sampling seed
+     */
+    public SchemaInferrer(RecordTokenizer tokenizer, int sampleSize, long seed) {
+        this(tokenizer, sampleSize, new SplittableRandom(seed));
+    }
+
+    /**
+     * Create a SchemaInferrer
+     * 
+     * @param tokenizer  How to split lines into fields
+     * @param sampleSize Number of values to sample from each column
+     * @param random     Source of randomness for sampling
+     */
+    private SchemaInferrer(RecordTokenizer tokenizer, int sampleSize, SplittableRandom random) {
+        if (sampleSize < 0) {
+            throw new IllegalArgumentException("Sample size can not be negative");
+        }
+        this.tokenizer = tokenizer;
+        this.sampleSize = sampleSize;
+        this.random = random;
+    }
+
+    /**
+     * Infer the schema of a whole file, using every core
+     * 
+     * @param file       File
+     * @param charset    File encoding
+     * @param tokenizer  How to split lines into fields
+     * @param sampleSize Number of values to sample from each column (0 for none)
+     * @return SchemaInferrer holding the result
+     * @throws IOException if the file can not be read
+     */
+    public static SchemaInferrer infer(Path file, Charset charset, RecordTokenizer tokenizer, int sampleSize)
+            throws IOException {
+        try (Stream<String> lines = Files.lines(file, charset)) {
+            return lines.parallel().collect(collector(tokenizer, sampleSize));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Get a Collector that infers the schema of a stream of lines. With a
+     * parallel stream, each thread fills its own SchemaInferrer, and they are
+     * merged at the end
+     * 
+     * @param tokenizer  How to split lines into fields
+     * @param sampleSize Number of values to sample from each column (0 for none)
+     * @return Collector
+     */
+    public static Collector<String, ?, SchemaInferrer> collector(RecordTokenizer tokenizer, int sampleSize) {
+        return Collector.of(() -> new SchemaInferrer(tokenizer, sampleSize), SchemaInferrer::accept,
+                SchemaInferrer::merge);
+    }
+
+    /**
+     * Read a line
+     * 
+     * @param line Line
+     */
+    public void accept(String line) {
+        tokenizer.tokenize(line, record);
+        accept(record);
+    }
+
+    /**
+     * Read a line that has already been split into fields
+     * 
+     * @param record Fields
+     */
+    public void accept(TokenRecord record) {
+        int fields = record.size();
+        addColumns(fields);
+
+        // Count every field, and every column this row is too short for
+        for (int i = 0; i < columns.size(); i++) {
+            if (i < fields) {
+                columns.get(i).add(record.get(i), random);
+            } else {
+                columns.get(i).addMissing(1);
+            }
+        }
+        rows++;
+    }
+
+    /**
+     * Read a line that has already been split into fields, without parsing
+     * every field into a Token. This is the fastest way to profile large inputs
+     * 
+     * @param fields Field text
+     * @param count  Number of fields
+     */
+    public void accept(String[] fields, int count) {
+        addColumns(count);
+
+        // Count every field, and every column this row is too short for
+        for (int i = 0; i < columns.size(); i++) {
+            if (i < count) {
+                columns.get(i).add(fields[i], random);
+            } else {
+                columns.get(i).addMissing(1);
+            }
+        }
+        rows++;
+    }
+
+    /**
+     * Add columns until there are enough for a row. Every earlier row was
+     * missing them
+     * 
+     * @param count Number of columns needed
+     */
+    private void addColumns(int count) {
+        while (columns.size() < count) {
+            ColumnProfile column = new ColumnProfile(sampleSize);
+            column.addMissing(rows);
+            columns.add(column);
+        }
+    }
+
+    /**
+     * Fold the results of another SchemaInferrer into this one. The other
+     * SchemaInferrer should not be used afterwards
+     * 
+     * @param other Other SchemaInferrer (covering different rows of the same
+     *              data)
+     * @return This SchemaInferrer
+     */
+    public SchemaInferrer merge(SchemaInferrer other) {
+
+        // Pad whichever side is narrower
+        addColumns(other.columns.size());
+        for (int i = 0; i < columns.size(); i++) {
+            if (i < other.columns.size()) {
+                columns.get(i).merge(other.columns.get(i), random);
+            } else {
+                columns.get(i).addMissing(other.rows);
+            }
+        }
+        rows += other.rows;
+        return this;
+    }
+
+    /**
+     * Get the number of lines read
+     * 
+     * @return Row count
+     */
+    public long getRowCount() {
+        return rows;
+    }
+
+    /**
+     * Get the profile of every column
+     * 
+     * @return Column profiles
+     */
+    public ColumnProfile[] getColumns() {
+        return columns.toArray(new ColumnProfile[0]);
+    }
+
+    /**
+     * Get the inferred type of every column
+     * 
+     * @return Column types
+     */
+    public Types[] getSchema() {
+        Types[] schema = new Types[columns.size()];
+        for (int i = 0; i < schema.length; i++) {
+            schema[i] = columns.get(i).getType();
+        }
+        return schema;
+    }
+}
@@ -0,0 +1,174 @@
+package ca.retrylife.inputlib.selection;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * A ChoiceSet is a pre-compiled set of allowed characters or integers, used by
+ * {@link ca.retrylife.inputlib.Prompt#promptCharacterSelection} and
+ * {@link ca.retrylife.inputlib.Prompt#promptIntegerSelection}. The set, and its
+ * "one of [...]" text, are built once, so a ChoiceSet can be re-used by any
+ * number of prompts without re-building anything. Checking a value is O(1).
+ */
+public class ChoiceSet {
+
+    // Marks an empty slot in the integer table
+    private static final int EMPTY = Integer.MIN_VALUE;
+
+    // Character choices (null for an integer set)
+    private final BitSet chars;
+
+    // Integer choices (null for a character set). This is an open-addressing
+    // table, so EMPTY itself is tracked separately
+    private final int[] ints;
+    private final boolean hasEmpty;
+
+    // Pre-rendered text
+    private final String description;
+
+    /**
+     * Create a ChoiceSet
+     *
+     * @param chars       Character choices
+     * @param ints        Integer choices
+     * @param hasEmpty    Does the integer set contain EMPTY
+     * @param description Pre-rendered text
+     */
+    private ChoiceSet(BitSet chars, int[] ints, boolean hasEmpty, String description) {
+        this.chars = chars;
+        this.ints = ints;
+        this.hasEmpty = hasEmpty;
+        this.description = description;
+    }
+
+    /**
+     * Compile a set of allowed characters
+     *
+     * @param allowedChars Allowed characters
+     * @return ChoiceSet
+     */
+    public static ChoiceSet ofCharacters(char... allowedChars) {
+        BitSet chars = new BitSet();
+        for (char c : allowedChars) {
+            chars.set(c);
+        }
+
+        // Build the allowed chars list into a nice string
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < allowedChars.length; i++) {
+            text.append((i == 0) ? "" : ",").append(allowedChars[i]);
+        }
+
+        return new ChoiceSet(chars, null, false, String.format("one of [%s] ", text));
+    }
+
+    /**
+     * Compile a set of allowed integers
+     *
+     * @param allowedInts Allowed integers
+     * @return ChoiceSet
+     */
+    public static ChoiceSet ofIntegers(int... allowedInts) {
+
+        // Size the table to a power of two, at most half full
+        int capacity = Integer.highestOneBit(Math.max(2, allowedInts.length) * 2 - 1) << 1;
+        int[] table = new int[capacity];
+        Arrays.fill(table, EMPTY);
+
+        // Fill the table
+        boolean hasEmpty = false;
+        for (int value : allowedInts) {
+            if (value == EMPTY) {
+                hasEmpty = true;
+                continue;
+            }
+            int slot = hash(value) & (capacity - 1);
+            while (table[slot] != EMPTY && table[slot] != value) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            table[slot] = value;
+        }
+
+        // Build the allowed ints list into a nice string
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < allowedInts.length; i++) {
+            text.append((i == 0) ? "" : ",").append(allowedInts[i]);
+        }
+
+        return new ChoiceSet(null, table, hasEmpty, String.format("one of [%s] ", text));
+    }
+
+    /**
+     * Spread an int's bits so nearby values land in different slots
+     *
+     * @param value Value
+     * @return Hash
+     */
+    private static int hash(int value) {
+        int h = value * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Check if this is a set of characters
+     *
+     * @return Is a character set?
+     */
+    public boolean isCharacterSet() {
+        return chars != null;
+    }
+
+    /**
+     * Check if a character is allowed
+     *
+     * @param c Character
+     * @return Is allowed?
+     */
+    public boolean contains(char c) {
+        if (chars == null) {
+            throw new IllegalStateException("This ChoiceSet does not hold characters");
+        }
+        return chars.get(c);
+    }
+
+    /**
+     * Check if an integer is allowed
+     *
+     * @param value Integer
+     * @return Is allowed?
+     */
+    public boolean contains(int value) {
+        if (ints == null) {
+            throw new IllegalStateException("This ChoiceSet does not hold integers");
+        }
+
+        // Handle the value that marks empty slots
+        if (value == EMPTY) {
+            return hasEmpty;
+        }
+
+        // Probe the table
+        int slot = hash(value) & (ints.length - 1);
+        while (ints[slot] != EMPTY) {
+            if (ints[slot] == value) {
+                return true;
+            }
+            slot = (slot + 1) & (ints.length - 1);
+        }
+        return false;
+    }
+
+    /**
+     * Get the pre-rendered "one of [...]" text shown to the user
+     *
+     * @return Description
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ChoiceSet<%s>", description.trim());
+    }
+}
@@ -0,0 +1,305 @@
+package ca.retrylife.inputlib.selection;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * An EnumIndex matches typed text to the constants of an enum, used by
+ * {@link ca.retrylife.inputlib.Prompt#promptEnum}. A constant can be picked by
+ * its name (case-insensitive), by any prefix of its name that no other constant
+ * shares, or by its index. One index is built per enum, and cached, so matching
+ * never allocates.
+ *
+ * The names are held in a trie. Children are laid out in sorted order, so the
+ * constants under any trie node are a contiguous run of the sorted names, and
+ * the node only stores where that run starts and ends.
+ */
+public final class EnumIndex<E extends Enum<E>> {
+
+    /**
+     * Returned by {@link #match} when nothing matches
+     */
+    public static final int NO_MATCH = -1;
+
+    /**
+     * Returned by {@link #match} when a prefix matches several constants
+     */
+    public static final int AMBIGUOUS = -2;
+
+    // Indexes, built on first use
+    private static final ClassValue<EnumIndex<?>> CACHE = new ClassValue<EnumIndex<?>>() {
+        @Override
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        protected EnumIndex<?> computeValue(Class<?> type) {
+            return new EnumIndex(type);
+        }
+    };
+
+    // Constants, their names, and their ordinals sorted by lowercase name
+    private final E[] constants;
+    private final String[] names;
+    private final int[] sorted;
+
+    // Trie nodes. Each node's edges are edgeStart[node] to edgeEnd[node], and
+    // its constants are sorted[low[node]] to sorted[high[node] - 1]. The first
+    // ends[node] of those are names that end at the node
+    private final int[] edgeStart;
+    private final int[] edgeEnd;
+    private final char[] edgeChars;
+    private final int[] edgeTargets;
+    private final int[] low;
+    private final int[] high;
+    private final int[] ends;
+    private int nodeCount = 0;
+    private int edgeCount = 0;
+
+    // Pre-rendered option list
+    private final String description;
+
+    /**
+     * Get the EnumIndex for an enum
+     *
+     * @param <E>  Enum type
+     * @param type Enum class
+     * @return EnumIndex
+     */
+    @SuppressWarnings("unchecked")
+    public static <E extends Enum<E>> EnumIndex<E> of(Class<E> type) {
+        return (EnumIndex<E>) CACHE.get(type);
+    }
+
+    /**
+     * Build an EnumIndex. Use {@link #of}
+     *
+     * @param type Enum class
+     */
+    private EnumIndex(Class<E> type) {
+        this.constants = type.getEnumConstants();
+        if (constants == null) {
+            throw new IllegalArgumentException(type.getName() + " is not an enum");
+        }
+        this.names = new String[constants.length];
+        String[] lower = new String[constants.length];
+        int chars = 0;
+        for (int i = 0; i < constants.length; i++) {
+            names[i] = constants[i].name();
+            lower[i] = names[i].toLowerCase(Locale.ROOT);
+            chars += names[i].length();
+        }
+
+        // Sort by lowercase name
+        Integer[] boxed = new Integer[constants.length];
+        for (int i = 0; i < boxed.length; i++) {
+            boxed[i] = i;
+        }
+        Arrays.sort(boxed, (a, b) -> lower[a].compareTo(lower[b]));
+        this.sorted = new int[boxed.length];
+        for (int i = 0; i < boxed.length; i++) {
+            sorted[i] = boxed[i];
+        }
+
+        // Build the trie. There is at most one node per char, plus the root
+        this.edgeStart = new int[chars + 1];
+        this.edgeEnd = new int[chars + 1];
+        this.edgeChars = new char[chars];
+        this.edgeTargets = new int[chars];
+        this.low = new int[chars + 1];
+        this.high = new int[chars + 1];
+        this.ends = new int[chars + 1];
+        build(lower, 0, sorted.length, 0);
+
+        // Build the options list into a nice string
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < names.length; i++) {
+            text.append(String.format("  %d: %s%n", i, names[i]));
+        }
+        this.description = text.toString();
+    }
+
+    /**
+     * Build the trie node for a run of sorted names that share a prefix. Every
+     * edge of a node is added before any of its children, so they stay together
+     *
+     * @param lower  Lowercase names
+     * @param from   Start of the run
+     * @param to     End of the run
+     * @param depth  Length of the shared prefix
+     * @return Node index
+     */
+    private int build(String[] lower, int from, int to, int depth) {
+        int node = nodeCount++;
+        low[node] = from;
+        high[node] = to;
+
+        // Names that end here sort first
+        int i = from;
+        while (i < to && lower[sorted[i]].length() == depth) {
+            i++;
+        }
+        ends[node] = i - from;
+
+        // Add an edge per distinct next char
+        int first = edgeCount;
+        for (int j = i; j < to; j++) {
+            char c = lower[sorted[j]].charAt(depth);
+            if (j == i || c != lower[sorted[j - 1]].charAt(depth)) {
+                edgeChars[edgeCount++] = c;
+            }
+        }
+        int last = edgeCount;
+        edgeStart[node] = first;
+        edgeEnd[node] = last;
+
+        // Build each child over its run
+        int start = i;
+        for (int edge = first; edge < last; edge++) {
+            int end = start;
+            while (end < to && lower[sorted[end]].charAt(depth) == edgeChars[edge]) {
+                end++;
+            }
+            edgeTargets[edge] = build(lower, start, end, depth + 1);
+            start = end;
+        }
+        return node;
+    }
+
+    /**
+     * Get the number of constants
+     *
+     * @return Constant count
+     */
+    public int size() {
+        return constants.length;
+    }
+
+    /**
+     * Get a constant
+     *
+     * @param ordinal Constant ordinal
+     * @return Constant
+     */
+    public E get(int ordinal) {
+        return constants[ordinal];
+    }
+
+    /**
+     * Get the pre-rendered list of constants, one "index: NAME" per line
+     *
+     * @return Description
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Match text to a constant. Surrounding whitespace is ignored
+     *
+     * @param text Name, unique prefix, or index
+     * @return Constant ordinal, {@link #NO_MATCH}, or {@link #AMBIGUOUS}
+     */
+    public int match(CharSequence text) {
+        int start = 0;
+        int end = text.length();
+        while (start < end && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        if (start == end) {
+            return NO_MATCH;
+        }
+
+        // Indexes
+        int index = 0;
+        int i = start;
+        while (i < end && text.charAt(i) >= '0' && text.charAt(i) <= '9' && index < constants.length) {
+            index = index * 10 + (text.charAt(i++) - '0');
+        }
+        if (i == end) {
+            return (index < constants.length) ? index : NO_MATCH;
+        }
+
+        // Walk the trie
+        int node = find(text, start, end);
+        if (node < 0) {
+            return NO_MATCH;
+        }
+
+        // A whole name wins over longer names it is a prefix of. Names that only
+        // differ by case need the case to match too
+        if (ends[node] == 1) {
+            return sorted[low[node]];
+        }
+        for (int j = low[node]; j < low[node] + ends[node]; j++) {
+            if (equals(names[sorted[j]], text, start, end)) {
+                return sorted[j];
+            }
+        }
+        return (ends[node] == 0 && high[node] - low[node] == 1) ? sorted[low[node]] : AMBIGUOUS;
+    }
+
+    /**
+     * Check if part of some text is exactly a name
+     *
+     * @param name  Name
+     * @param text  Text
+     * @param start Start of the part
+     * @param end   End of the part
+     * @return Is equal?
+     */
+    private static boolean equals(String name, CharSequence text, int start, int end) {
+        if (name.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) != text.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Find the trie node for a prefix
+     *
+     * @param text  Text
+     * @param start Start of the prefix
+     * @param end   End of the prefix
+     * @return Node index, or -1 if no name has this prefix
+     */
+    private int find(CharSequence text, int start, int end) {
+        int node = 0;
+        for (int i = start; i < end; i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            int edge = edgeStart[node];
+            while (edge < edgeEnd[node] && edgeChars[edge] != c) {
+                edge++;
+            }
+            if (edge == edgeEnd[node]) {
+                return -1;
+            }
+            node = edgeTargets[edge];
+        }
+        return node;
+    }
+
+    /**
+     * Get the names of every constant a prefix could mean, like
+     * "one of [GREEN,GREY] "
+     *
+     * @param text Prefix
+     * @return Candidates
+     */
+    public String getCandidates(CharSequence text) {
+        String prefix = text.toString().trim();
+        int node = find(prefix, 0, prefix.length());
+        StringBuilder out = new StringBuilder();
+        if (node >= 0) {
+            for (int i = low[node]; i < high[node]; i++) {
+                out.append((i == low[node]) ? "" : ",").append(names[sorted[i]]);
+            }
+        }
+        return String.format("one of [%s] ", out);
+    }
+}
@@ -0,0 +1,247 @@
+package ca.retrylife.inputlib.selection;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+
+/**
+ * An OptionIndex is a pre-built search index over a (possibly very large) list
+ * of options, used by {@link ca.retrylife.inputlib.Prompt#promptPagedList}.
+ * Building it is O(total option length). Prefix matches are found, and skipped
+ * over for paging, with two binary searches. Substring matches are only looked
+ * for among the options containing the term's rarest gram, and the search stops
+ * as soon as the results are full. This makes most searches far cheaper than a
+ * scan, but their cost still grows with the number of options sharing that
+ * gram, and with how many substring matches are skipped. A term whose grams are
+ * in most options, but that few options contain, can check most of the list.
+ *
+ * Searches are case-insensitive. Options that start with the search term are
+ * returned first (in alphabetical order), followed by options that contain it
+ * (in list order).
+ */
+public class OptionIndex {
+
+    // Size of the grams used for substring search
+    private static final int GRAM = 3;
+
+    // Options, and their lowercase forms
+    private final String[] options;
+    private final String[] lowerOptions;
+
+    // Option indexes, sorted by lowercase option (for prefix search)
+    private final int[] sorted;
+
+    // Posting lists. Each gram maps to the (ascending) indexes of every option
+    // containing it. Grams shorter than GRAM are indexed too, so short search
+    // terms can still use the index
+    private final HashMap<String, int[]> postings;
+
+    /**
+     * Build an OptionIndex
+     *
+     * @param options Options
+     */
+    public OptionIndex(String... options) {
+        this.options = options.clone();
+        this.lowerOptions = new String[options.length];
+        for (int i = 0; i < options.length; i++) {
+            lowerOptions[i] = options[i].toLowerCase(Locale.ROOT);
+        }
+
+        // Sort for prefix search
+        Integer[] boxed = new Integer[options.length];
+        for (int i = 0; i < boxed.length; i++) {
+            boxed[i] = i;
+        }
+        Arrays.sort(boxed, (a, b) -> lowerOptions[a].compareTo(lowerOptions[b]));
+        this.sorted = new int[boxed.length];
+        for (int i = 0; i < boxed.length; i++) {
+            sorted[i] = boxed[i];
+        }
+
+        // Collect every gram of every option
+        HashMap<String, IntList> builders = new HashMap<>();
+        for (int i = 0; i < lowerOptions.length; i++) {
+            String lower = lowerOptions[i];
+            for (int len = 1; len <= GRAM; len++) {
+                for (int start = 0; start + len <= lower.length(); start++) {
+                    builders.computeIfAbsent(lower.substring(start, start + len), (k) -> new IntList()).addOnce(i);
+                }
+            }
+        }
+
+        // Freeze the posting lists
+        this.postings = new HashMap<>(builders.size() * 2);
+        builders.forEach((gram, list) -> postings.put(gram, list.toArray()));
+    }
+
+    /**
+     * Get the number of options
+     *
+     * @return Option count
+     */
+    public int size() {
+        return options.length;
+    }
+
+    /**
+     * Get an option
+     *
+     * @param index Option index
+     * @return Option
+     */
+    public String get(int index) {
+        return options[index];
+    }
+
+    /**
+     * Search for options matching a term
+     *
+     * @param term    Search term (case-insensitive)
+     * @param skip    Number of matches to skip (for paging)
+     * @param results Where to write the indexes of matching options. At most
+     *                results.length matches are found
+     * @return Number of matches written to results
+     */
+    public int search(String term, int skip, int[] results) {
+        String lower = term.toLowerCase(Locale.ROOT);
+        int found = 0;
+        int toSkip = skip;
+
+        // An empty term matches everything, in list order
+        if (lower.isEmpty()) {
+            for (int i = skip; i < options.length && found < results.length; i++) {
+                results[found++] = i;
+            }
+            return found;
+        }
+
+        // Prefix matches are a contiguous run of the sorted options, so skipping
+        // into them is free
+        int start = lowerBound(lower);
+        int end = prefixEnd(lower, start);
+        int prefixSkip = Math.min(skip, end - start);
+        toSkip -= prefixSkip;
+        for (int i = start + prefixSkip; i < end && found < results.length; i++) {
+            results[found++] = sorted[i];
+        }
+        if (found == results.length) {
+            return found;
+        }
+
+        // Substring matches come from the rarest gram in the term, and are then
+        // checked against the whole term
+        int[] candidates = rarestPosting(lower);
+        for (int i = 0; i < candidates.length && found < results.length; i++) {
+            String option = lowerOptions[candidates[i]];
+            if (option.startsWith(lower) || !option.contains(lower)) {
+                continue;
+            }
+            if (toSkip > 0) {
+                toSkip--;
+            } else {
+                results[found++] = candidates[i];
+            }
+        }
+
+        return found;
+    }
+
+    /**
+     * Find the first sorted position whose option is not less than a term
+     *
+     * @param lower Lowercase term
+     * @return Position in the sorted array
+     */
+    private int lowerBound(String lower) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (lowerOptions[sorted[mid]].compareTo(lower) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Find the sorted position just after the run of options starting with a
+     * term. Every option before the run sorts below the term, and every option
+     * after it sorts above it
+     *
+     * @param lower Lowercase term
+     * @param start Start of the run
+     * @return End of the run (exclusive)
+     */
+    private int prefixEnd(String lower, int start) {
+        int low = start;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (lowerOptions[sorted[mid]].startsWith(lower)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Get the shortest posting list of any gram in a term
+     *
+     * @param lower Lowercase term
+     * @return Candidate option indexes (empty if any gram is missing)
+     */
+    private int[] rarestPosting(String lower) {
+        int len = Math.min(GRAM, lower.length());
+        int[] best = null;
+        for (int start = 0; start + len <= lower.length(); start++) {
+            int[] posting = postings.get(lower.substring(start, start + len));
+
+            // If any gram is missing, nothing can match
+            if (posting == null) {
+                return new int[0];
+            }
+            if (best == null || posting.length < best.length) {
+                best = posting;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * A growable list of ascending ints
+     */
+    private static class IntList {
+        private int[] data = new int[4];
+        private int size = 0;
+
+        /**
+         * Add a value, unless it was the last value added
+         *
+         * @param value Value
+         */
+        void addOnce(int value) {
+            if (size > 0 && data[size - 1] == value) {
+                return;
+            }
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = value;
+        }
+
+        /**
+         * Get a right-sized copy of the list
+         *
+         * @return Values
+         */
+        int[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+}
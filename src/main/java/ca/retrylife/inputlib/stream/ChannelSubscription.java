@@ -0,0 +1,255 @@
+package ca.retrylife.inputlib.stream;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import ca.retrylife.inputlib.types.Token;
+
+/**
+ * The subscription behind {@link TokenPublisher} and
+ * {@link TokenBatchPublisher}. The channel is only read while there is unmet
+ * demand, so a slow subscriber pauses reading instead of filling a buffer. At
+ * most one chunk's worth of Tokens is ever held.
+ * 
+ * Signals are delivered by a single drain loop on the executor, so they are
+ * always serial, and a subscriber calling request() from onNext() does not
+ * recurse.
+ * 
+ * @param <T> Item type (Token, or Token[] for batches)
+ */
+class ChannelSubscription<T> implements Flow.Subscription, Runnable {
+
+    // Where items go
+    private final Flow.Subscriber<? super T> subscriber;
+
+    // Source
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final PushParser parser;
+    private final ArrayDeque<Token> parsed = new ArrayDeque<>();
+    private boolean endOfInput = false;
+
+    // Tokens per item (0 for single Tokens)
+    private final int batchSize;
+
+    // Where the drain loop runs, and whether it should be shut down at the end
+    private final Executor executor;
+    private final boolean ownsExecutor;
+
+    // Demand, and drain loop state
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile boolean cancelled = false;
+    private volatile Throwable invalidRequest = null;
+    private boolean terminated = false;
+
+    /**
+     * Create a ChannelSubscription
+     * 
+     * @param subscriber   Where items go
+     * @param channel      Source
+     * @param chunkSize    Bytes per read
+     * @param batchSize    Tokens per item (0 for single Tokens)
+     * @param executor     Where the drain loop runs
+     * @param ownsExecutor Should the executor be shut down at the end?
+     */
+    ChannelSubscription(Flow.Subscriber<? super T> subscriber, ReadableByteChannel channel, int chunkSize,
+            int batchSize, Executor executor, boolean ownsExecutor) {
+        this.subscriber = subscriber;
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(chunkSize);
+        this.parser = new PushParser(parsed::add);
+        this.batchSize = batchSize;
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    @Override
+    public void request(long n) {
+        if (n <= 0) {
+            // Rule 3.9
+            invalidRequest = new IllegalArgumentException(
+                    String.format("Demand must be positive, but %d was requested", n));
+        } else {
+            // Rule 3.17. Demand is capped at Long.MAX_VALUE, which means unbounded
+            requested.getAndAccumulate(n, (current, add) -> {
+                long sum = current + add;
+                return (sum < 0) ? Long.MAX_VALUE : sum;
+            });
+        }
+        schedule();
+    }
+
+    @Override
+    public void cancel() {
+        cancelled = true;
+        schedule();
+    }
+
+    /**
+     * Run the drain loop, unless it is already running
+     */
+    void schedule() {
+        if (pending.getAndIncrement() == 0) {
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                // Rule 3.6. Once terminated, requests are no-ops, and an owned
+                // executor is already shut down
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        int missed = 1;
+        while (true) {
+            if (!terminated) {
+                drain();
+            }
+            missed = pending.addAndGet(-missed);
+            if (missed == 0) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Deliver as many items as there is demand for
+     */
+    private void drain() {
+        try {
+            long demand = requested.get();
+            long delivered = 0;
+
+            while (true) {
+                if (checkTerminated()) {
+                    return;
+                }
+
+                // Stop at the end of the input, even without demand
+                if (parsed.isEmpty() && endOfInput) {
+                    terminate(null);
+                    return;
+                }
+                if (delivered == demand) {
+                    break;
+                }
+
+                // Read until there is an item, or the input ends
+                T item = nextItem();
+                if (item == null) {
+                    continue;
+                }
+                subscriber.onNext(item);
+                delivered++;
+            }
+
+            // Unbounded demand is never used up
+            if (delivered > 0 && demand != Long.MAX_VALUE) {
+                requested.addAndGet(-delivered);
+            }
+        } catch (IOException e) {
+            terminate(e);
+        } catch (RuntimeException e) {
+            // Rule 2.13. A subscriber that throws is treated as cancelled
+            cancelled = true;
+            checkTerminated();
+        }
+    }
+
+    /**
+     * Handle cancellation and invalid requests
+     * 
+     * @return Has the subscription ended?
+     */
+    private boolean checkTerminated() {
+        if (cancelled) {
+            terminated = true;
+            close();
+            return true;
+        }
+        if (invalidRequest != null) {
+            terminate(invalidRequest);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Get the next item, reading a chunk if needed
+     * 
+     * @return Item, or null if more must be read first
+     * @throws IOException if the channel can not be read
+     */
+    @SuppressWarnings("unchecked")
+    private T nextItem() throws IOException {
+
+        // Read if there are not enough Tokens for an item
+        int needed = (batchSize == 0) ? 1 : batchSize;
+        if (parsed.size() < needed && !endOfInput) {
+            buffer.clear();
+            if (channel.read(buffer) < 0) {
+                parser.finish();
+                endOfInput = true;
+            } else {
+                buffer.flip();
+                parser.push(buffer);
+            }
+            return null;
+        }
+        if (parsed.isEmpty()) {
+            return null;
+        }
+
+        // Single Tokens
+        if (batchSize == 0) {
+            return (T) parsed.poll();
+        }
+
+        // A batch is only short at the end of the input
+        Token[] batch = new Token[Math.min(batchSize, parsed.size())];
+        for (int i = 0; i < batch.length; i++) {
+            batch[i] = parsed.poll();
+        }
+        return (T) batch;
+    }
+
+    /**
+     * Send a terminal signal, and release the channel
+     * 
+     * @param error Error (null to complete)
+     */
+    private void terminate(Throwable error) {
+        terminated = true;
+        close();
+        if (error == null) {
+            subscriber.onComplete();
+        } else {
+            subscriber.onError(error);
+        }
+    }
+
+    /**
+     * Close the channel and executor
+     */
+    private void close() {
+        parsed.clear();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Nothing more can be read either way
+        }
+        if (ownsExecutor) {
+            ((ExecutorService) executor).shutdown();
+        }
+    }
+}
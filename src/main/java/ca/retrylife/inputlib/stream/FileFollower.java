@@ -0,0 +1,349 @@
+package ca.retrylife.inputlib.stream;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import ca.retrylife.inputlib.types.Token;
+
+/**
+ * A FileFollower parses a file while it is still being written, like
+ * {@code tail -f}. Each read starts where the last one stopped, so only newly
+ * appended bytes are read, through a single re-used buffer, and handed to a
+ * {@link PushParser}. A Token is emitted as soon as its line ends. A line that
+ * is still being written is carried over until the rest of it arrives.
+ *
+ * {@link #follow} waits for changes with a {@link WatchService} on the file's
+ * directory. The wait always has a timeout, so the file is also polled: every
+ * poll that finds nothing doubles the timeout (up to a limit), and new data
+ * resets it. This keeps following cheap on file systems whose watch service is
+ * slow, or missing.
+ *
+ * If the file is replaced (rotated), the rest of the old file is read, its last
+ * line is finished, and the new file is read from its start. If the file
+ * shrinks (truncated), its last line is finished, and it is read again from its
+ * start. Rotation is spotted with the file system's file key, where there is
+ * one. If the file is missing, the follower waits for it to appear.
+ *
+ * <pre>
+ * FileFollower follower = new FileFollower(Path.of("app.log"), (token) -&gt; handle(token));
+ * new Thread(() -&gt; follower.follow()).start();
+ * // ...
+ * follower.close();
+ * </pre>
+ */
+public class FileFollower implements Closeable {
+
+    // Bounds of the polling interval
+    private static final long MIN_POLL_MILLIS = 10;
+    private static final long DEFAULT_MAX_POLL_MILLIS = 1000;
+
+    // File, and where its Tokens go
+    private final Path file;
+    private final Path name;
+    private final Consumer<Token> callback;
+    private final PushParser parser;
+
+    // Re-used for every read
+    private final ByteBuffer buffer;
+
+    // Longest wait between polls
+    private final long maxPollMillis;
+
+    // Open file, and its identity (null if the file system has none)
+    private FileChannel channel;
+    private Object fileKey;
+
+    // Bytes handed to the parser, and the end of the last whole line
+    private long position;
+    private long offset;
+
+    // Tokens emitted
+    private long emitted = 0;
+
+    // Change notifications (null if the file system has none)
+    private final WatchService watcher;
+
+    private volatile boolean closed = false;
+
+    /**
+     * Create a FileFollower that reads the file from its start. The file does not
+     * need to exist yet
+     *
+     * @param file     File
+     * @param callback Called with each Token, as soon as its line ends
+     */
+    public FileFollower(Path file, Consumer<Token> callback) {
+        this(file, callback, 0, TokenPublisher.DEFAULT_CHUNK_SIZE, DEFAULT_MAX_POLL_MILLIS);
+    }
+
+    /**
+     * Create a FileFollower
+     *
+     * @param file          File
+     * @param callback      Called with each Token, as soon as its line ends
+     * @param offset        Where to start reading. Use a value from
+     *                      {@link #getOffset} to resume where another follower
+     *                      stopped. An offset past the end of the file is
+     *                      treated as a truncation
+     * @param chunkSize     Bytes per read
+     * @param maxPollMillis Longest wait between polls
+     */
+    public FileFollower(Path file, Consumer<Token> callback, long offset, int chunkSize, long maxPollMillis) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be at least one byte");
+        }
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset can not be negative");
+        }
+        if (maxPollMillis < MIN_POLL_MILLIS) {
+            throw new IllegalArgumentException(
+                    String.format("The polling interval must be at least %dms", MIN_POLL_MILLIS));
+        }
+        this.file = file.toAbsolutePath();
+        this.name = this.file.getFileName();
+        this.callback = Objects.requireNonNull(callback, "Callback can not be null");
+        this.parser = new PushParser(this::emit);
+        this.buffer = ByteBuffer.allocate(chunkSize);
+        this.maxPollMillis = maxPollMillis;
+        this.position = offset;
+        this.offset = offset;
+        this.watcher = watch(this.file.getParent());
+    }
+
+    /**
+     * Watch a directory for changes
+     *
+     * @param directory Directory
+     * @return Watch service, or null if the directory can not be watched
+     */
+    private static WatchService watch(Path directory) {
+        WatchService service = null;
+        try {
+            service = directory.getFileSystem().newWatchService();
+            directory.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+            return service;
+        } catch (IOException | UnsupportedOperationException e) {
+
+            // Fall back to polling alone
+            if (service != null) {
+                try {
+                    service.close();
+                } catch (IOException ignored) {
+                    // Never used
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Hand a Token to the callback
+     *
+     * @param token Token
+     */
+    private void emit(Token token) {
+        emitted++;
+        callback.accept(token);
+    }
+
+    /**
+     * Read everything appended since the last poll, without waiting. Does
+     * nothing once the follower is closed
+     *
+     * @return Number of Tokens emitted
+     * @throws IOException if the file can not be read
+     */
+    public synchronized long poll() throws IOException {
+        if (closed) {
+            return 0;
+        }
+        long before = emitted;
+
+        // Look at whatever is at the path now. It can briefly be missing while
+        // being rotated
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            attributes = null;
+        }
+
+        if (channel != null && attributes != null) {
+            if (fileKey != null && !fileKey.equals(attributes.fileKey())) {
+
+                // Rotated. Finish the old file, then move to the new one
+                drain();
+                parser.finish();
+                channel.close();
+                channel = null;
+                position = 0;
+                offset = 0;
+            } else if (attributes.size() < position) {
+
+                // Truncated. Start over
+                parser.finish();
+                position = 0;
+                offset = 0;
+            }
+        }
+
+        // Open the file once it exists
+        if (channel == null) {
+            if (attributes == null) {
+                return 0;
+            }
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            fileKey = attributes.fileKey();
+            if (position > channel.size()) {
+                position = 0;
+                offset = 0;
+            }
+        }
+
+        drain();
+        return emitted - before;
+    }
+
+    /**
+     * Read the open file to its end
+     *
+     * @throws IOException if the file can not be read
+     */
+    private void drain() throws IOException {
+        while (true) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                return;
+            }
+            buffer.flip();
+
+            // Remember where the last whole line in this chunk ends
+            for (int i = buffer.limit() - 1; i >= 0; i--) {
+                byte b = buffer.get(i);
+                if (b == '\n' || b == '\r') {
+                    offset = position + i + 1;
+                    break;
+                }
+            }
+            position += read;
+            parser.push(buffer);
+        }
+    }
+
+    /**
+     * Follow the file until the follower is closed. This blocks the calling
+     * thread
+     *
+     * @throws IOException          if the file can not be read
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public void follow() throws IOException, InterruptedException {
+        long interval = MIN_POLL_MILLIS;
+        while (!closed) {
+
+            // Poll often while data is arriving, and back off while it is not
+            long start = position();
+            poll();
+            interval = (position() != start) ? MIN_POLL_MILLIS : Math.min(interval * 2, maxPollMillis);
+            await(interval);
+        }
+    }
+
+    /**
+     * Get the number of bytes handed to the parser
+     *
+     * @return Position
+     */
+    private synchronized long position() {
+        return position;
+    }
+
+    /**
+     * Wait for the file to change, or for a timeout
+     *
+     * @param millis Timeout
+     * @throws InterruptedException if the thread is interrupted
+     */
+    private void await(long millis) throws InterruptedException {
+        if (watcher == null) {
+            Thread.sleep(millis);
+            return;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        while (!closed) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            WatchKey key;
+            try {
+                key = watcher.poll(remaining, TimeUnit.NANOSECONDS);
+            } catch (ClosedWatchServiceException e) {
+                return;
+            }
+            if (key == null) {
+                return;
+            }
+
+            // Other files in the directory do not count
+            boolean changed = false;
+            for (WatchEvent<?> event : key.pollEvents()) {
+                changed |= event.kind() == StandardWatchEventKinds.OVERFLOW || name.equals(event.context());
+            }
+            key.reset();
+            if (changed) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Get the offset just after the last whole line read. A follower started
+     * there continues with the next line
+     *
+     * @return Byte offset
+     */
+    public synchronized long getOffset() {
+        return offset;
+    }
+
+    /**
+     * Stop following, and close the file. A line without a line break is not
+     * emitted
+     *
+     * @throws IOException if the file can not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+
+        // Wake up a follow() that is waiting
+        if (watcher != null) {
+            watcher.close();
+        }
+
+        synchronized (this) {
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package ca.retrylife.inputlib.stream;
+
+import java.util.Objects;
+import java.util.concurrent.Flow;
+
+import ca.retrylife.inputlib.RecordTokenizer;
+import ca.retrylife.inputlib.types.Token;
+
+/**
+ * A LineTokenProcessor turns a stream of lines into a stream of Tokens, one per
+ * line, parsed with the same rules as {@link ca.retrylife.inputlib.Parser}.
+ * Nothing is buffered: each request from downstream is passed straight
+ * upstream, and each line is parsed and passed on as it arrives, on the
+ * upstream's thread. It serves a single subscriber.
+ *
+ * Every terminal signal, from upstream or from an invalid request, goes through
+ * one path, so the subscriber gets at most one. Upstream signals that arrive
+ * after that are dropped. Signals to the subscriber never overlap: a terminal
+ * signal that arrives while a Token is being passed on is held, and sent by
+ * the emitting thread once the subscriber's onNext returns.
+ */
+public class LineTokenProcessor implements Flow.Processor<String, Token> {
+
+    // Guards the fields below
+    private final Object lock = new Object();
+
+    // Upstream subscription (null until subscribed)
+    private Flow.Subscription upstream;
+
+    // Downstream subscriber (null until subscribed), and whether its
+    // onSubscribe has returned
+    private Flow.Subscriber<? super Token> downstream;
+    private boolean ready = false;
+
+    // Demand from downstream that arrived before the upstream subscription
+    private long pendingDemand = 0;
+    private boolean pendingCancel = false;
+
+    // The terminal error (null to complete), kept until it can be sent
+    private Throwable error = null;
+
+    // Has a terminal signal been accepted? Only set under the lock, but also
+    // read without it by requests
+    private volatile boolean terminated = false;
+
+    // Is a thread inside the subscriber's onNext?
+    private boolean emitting = false;
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super Token> subscriber) {
+
+        // Rule 1.9
+        Objects.requireNonNull(subscriber, "Subscriber can not be null");
+
+        synchronized (lock) {
+            if (downstream != null) {
+                subscriber.onSubscribe(new Downstream(null));
+                subscriber.onError(new IllegalStateException("This processor only supports one subscriber"));
+                return;
+            }
+            downstream = subscriber;
+        }
+        subscriber.onSubscribe(new Downstream(subscriber));
+
+        // Deliver a terminal signal that arrived early. Rule 1.9 means it can
+        // not be sent before onSubscribe returns. If a Token is being passed on,
+        // the emitting thread sends it instead
+        Throwable earlyError;
+        boolean deliver;
+        synchronized (lock) {
+            ready = true;
+            earlyError = error;
+            deliver = terminated && !emitting;
+        }
+        if (deliver) {
+            signalTerminal(subscriber, earlyError);
+        }
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        Objects.requireNonNull(subscription, "Subscription can not be null");
+
+        long demand;
+        boolean cancel;
+        synchronized (lock) {
+
+            // Rule 2.5. Only one upstream at a time
+            if (upstream != null) {
+                subscription.cancel();
+                return;
+            }
+            upstream = subscription;
+            demand = pendingDemand;
+            cancel = pendingCancel;
+            pendingDemand = 0;
+        }
+
+        // Pass on anything downstream already asked for
+        if (cancel) {
+            subscription.cancel();
+        } else if (demand > 0) {
+            subscription.request(demand);
+        }
+    }
+
+    @Override
+    public void onNext(String line) {
+        Objects.requireNonNull(line, "Line can not be null");
+        Token token = RecordTokenizer.parseField(line);
+
+        // Rule 1.3. Nothing follows a terminal signal, and nothing overlaps it
+        Flow.Subscriber<? super Token> subscriber;
+        synchronized (lock) {
+            if (terminated) {
+                return;
+            }
+            emitting = true;
+            subscriber = downstream;
+        }
+        try {
+            subscriber.onNext(token);
+        } finally {
+
+            // Send a terminal signal that arrived in the meantime
+            Throwable held;
+            boolean deliver;
+            synchronized (lock) {
+                emitting = false;
+                held = error;
+                deliver = terminated && ready;
+            }
+            if (deliver) {
+                signalTerminal(subscriber, held);
+            }
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        Objects.requireNonNull(throwable, "Error can not be null");
+        terminate(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        terminate(null);
+    }
+
+    /**
+     * Send a terminal signal downstream, unless one has already been accepted.
+     * If the subscriber is not ready yet, it is sent once onSubscribe returns,
+     * and if a Token is being passed on, it is sent once onNext returns
+     *
+     * @param throwable Error, or null to complete
+     */
+    private void terminate(Throwable throwable) {
+        Flow.Subscriber<? super Token> subscriber;
+        synchronized (lock) {
+            if (terminated) {
+                return;
+            }
+            terminated = true;
+            error = throwable;
+            if (!ready || emitting) {
+                return;
+            }
+            subscriber = downstream;
+        }
+        signalTerminal(subscriber, throwable);
+    }
+
+    /**
+     * Send the terminal signal. Callers make sure this happens once
+     *
+     * @param subscriber Subscriber
+     * @param throwable  Error, or null to complete
+     */
+    private static void signalTerminal(Flow.Subscriber<? super Token> subscriber, Throwable throwable) {
+        if (throwable != null) {
+            subscriber.onError(throwable);
+        } else {
+            subscriber.onComplete();
+        }
+    }
+
+    /**
+     * The subscription handed downstream. Requests and cancels go upstream
+     */
+    private class Downstream implements Flow.Subscription {
+
+        // Subscriber (null for a rejected one)
+        private final Flow.Subscriber<? super Token> subscriber;
+
+        /**
+         * Create a Downstream
+         * 
+         * @param subscriber Subscriber (null for a rejected one)
+         */
+        Downstream(Flow.Subscriber<? super Token> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+
+            // Rule 3.6
+            if (subscriber == null || terminated) {
+                return;
+            }
+
+            // Rule 3.9. The error replaces any later signal from upstream
+            if (n <= 0) {
+                cancel();
+                terminate(new IllegalArgumentException(
+                        String.format("Demand must be positive, but %d was requested", n)));
+                return;
+            }
+
+            Flow.Subscription up;
+            synchronized (lock) {
+                up = upstream;
+                if (up == null) {
+                    pendingDemand = (pendingDemand + n < 0) ? Long.MAX_VALUE : pendingDemand + n;
+                    return;
+                }
+            }
+            up.request(n);
+        }
+
+        @Override
+        public void cancel() {
+            if (subscriber == null) {
+                return;
+            }
+            Flow.Subscription up;
+            synchronized (lock) {
+                up = upstream;
+                if (up == null) {
+                    pendingCancel = true;
+                    return;
+                }
+            }
+            up.cancel();
+        }
+    }
+}
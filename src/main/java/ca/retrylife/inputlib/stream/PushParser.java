@@ -0,0 +1,472 @@
+package ca.retrylife.inputlib.stream;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+import ca.retrylife.inputlib.Parser;
+import ca.retrylife.inputlib.types.IsoTime;
+import ca.retrylife.inputlib.types.Token;
+import ca.retrylife.inputlib.types.Types;
+
+/**
+ * A PushParser turns UTF-8 bytes into Tokens, one per line, as the bytes
+ * arrive. Chunks can be any size, and can split a line (or a multi-byte char)
+ * anywhere. Each Token is handed to a callback as soon as its line ends.
+ * 
+ * Lines are classified with the same rules as {@link Parser#parseToToken}, but
+ * the work is done byte by byte as the chunks arrive, instead of after the
+ * whole line is seen. Integers are accumulated as their digits arrive, so they
+ * never become a String. The bytes of a chunk are only read, never copied: a
+ * line that fits in one chunk is decoded straight from it, and a line that
+ * crosses chunks has its chars carried over instead. Only integers too large
+ * for a long are re-read from their text, as BigIntegers. Numbers that do not
+ * fit their type (such as "1.2.3") become Strings, like in a
+ * {@link ca.retrylife.inputlib.RecordTokenizer}.
+ * 
+ * Lines end with LF, CR, or CRLF. A PushParser is not thread-safe.
+ * 
+ * <pre>
+ * PushParser parser = new PushParser((token) -&gt; handle(token));
+ * while (channel.read(buffer) &gt;= 0) {
+ *     buffer.flip();
+ *     parser.push(buffer);
+ *     buffer.clear();
+ * }
+ * parser.finish();
+ * </pre>
+ */
+public class PushParser {
+
+    // Char used for malformed UTF-8
+    private static final int REPLACEMENT = 0xFFFD;
+
+    // Where tokens go
+    private final Consumer<Token> callback;
+
+    // UTF-8 decoder state. A partial sequence can be left over from the last
+    // chunk
+    private int codePoint = 0;
+    private int needed = 0;
+    private int sequenceBytes = 0;
+    private int minimum = 0;
+
+    // Skip an LF that directly follows a CR
+    private boolean afterCr = false;
+
+    // Line state. These mirror the flags in Parser.classify
+    private int length;
+    private char first;
+    private boolean hasSpace;
+    private boolean isNumber;
+    private boolean isHex;
+    private boolean isBinary;
+    private boolean isFloat;
+    private boolean isDouble;
+
+    // Digits after the first non-zero one, to spot BigDecimals
+    private int significant;
+
+    // Integer accumulators for each possible base, holding the negated value (so
+    // Long.MIN_VALUE fits). Hex and binary skip their two-char prefix, and "_"
+    // separators are skipped. Every char after an "x" counts as part of a
+    // number, so a hex value can have a sign. Digits after the prefix are
+    // counted for both hex and binary
+    private long decimal;
+    private long hex;
+    private long binary;
+    private boolean decimalValid;
+    private boolean hexValid;
+    private boolean binaryValid;
+    private boolean hexNegative;
+    private int hexDigits;
+
+    // Chars of a line that started in an earlier chunk
+    private final StringBuilder carry = new StringBuilder();
+    private boolean spanning = false;
+
+    /**
+     * Create a PushParser
+     * 
+     * @param callback Called with each Token, as soon as its line ends
+     */
+    public PushParser(Consumer<Token> callback) {
+        this.callback = callback;
+        resetLine();
+    }
+
+    /**
+     * Parse a chunk of bytes. Every remaining byte is read, and the buffer's
+     * position is moved to its limit. The buffer is not kept, so it can be
+     * re-used as soon as this returns
+     * 
+     * @param chunk Bytes
+     */
+    public void push(ByteBuffer chunk) {
+        int end = chunk.limit();
+        int lineStart = chunk.position();
+
+        for (int i = chunk.position(); i < end; i++) {
+            int b = chunk.get(i) & 0xFF;
+
+            // Handle line breaks
+            if (b == '\n' || b == '\r') {
+                if (b == '\n' && afterCr) {
+                    afterCr = false;
+                    lineStart = i + 1;
+                    continue;
+                }
+                endSequence();
+                emit(chunk, lineStart, i);
+                afterCr = (b == '\r');
+                lineStart = i + 1;
+                continue;
+            }
+            afterCr = false;
+
+            // Decode UTF-8
+            decode(b);
+        }
+
+        // Carry the chars of an unfinished line
+        if (lineStart < end && !spanning) {
+            int complete = end - ((needed > 0) ? sequenceBytes : 0);
+            if (complete > lineStart) {
+                carry.append(decodeText(chunk, lineStart, complete));
+            }
+            spanning = true;
+        }
+        chunk.position(end);
+    }
+
+    /**
+     * End the input. A final line without a line break is emitted
+     */
+    public void finish() {
+        endSequence();
+        if (spanning || length > 0) {
+            emit(null, 0, 0);
+        }
+        afterCr = false;
+    }
+
+    /**
+     * Feed one byte to the UTF-8 decoder
+     * 
+     * @param b Byte
+     */
+    private void decode(int b) {
+        if (needed > 0) {
+
+            // Continue a sequence
+            if ((b & 0xC0) == 0x80) {
+                codePoint = (codePoint << 6) | (b & 0x3F);
+                sequenceBytes++;
+                if (--needed == 0) {
+                    boolean valid = codePoint >= minimum && codePoint <= Character.MAX_CODE_POINT
+                            && !(codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE);
+                    acceptCodePoint((valid) ? codePoint : REPLACEMENT);
+                }
+                return;
+            }
+
+            // A broken sequence is replaced, and this byte starts over
+            needed = 0;
+            acceptCodePoint(REPLACEMENT);
+        }
+
+        // Start a sequence
+        if (b < 0x80) {
+            acceptCodePoint(b);
+        } else if ((b & 0xE0) == 0xC0) {
+            startSequence(b & 0x1F, 1, 0x80);
+        } else if ((b & 0xF0) == 0xE0) {
+            startSequence(b & 0x0F, 2, 0x800);
+        } else if ((b & 0xF8) == 0xF0) {
+            startSequence(b & 0x07, 3, 0x10000);
+        } else {
+            acceptCodePoint(REPLACEMENT);
+        }
+    }
+
+    /**
+     * Replace a multi-byte sequence cut off by the end of its line, so the next
+     * line starts with a clean decoder
+     */
+    private void endSequence() {
+        if (needed > 0) {
+            acceptCodePoint(REPLACEMENT);
+            needed = 0;
+            sequenceBytes = 0;
+        }
+    }
+
+    /**
+     * Start a multi-byte UTF-8 sequence
+     * 
+     * @param bits    Bits from the lead byte
+     * @param needed  Continuation bytes still needed
+     * @param minimum Smallest code point this length may encode
+     */
+    private void startSequence(int bits, int needed, int minimum) {
+        this.codePoint = bits;
+        this.needed = needed;
+        this.minimum = minimum;
+        this.sequenceBytes = 1;
+    }
+
+    /**
+     * Update the line state with a decoded char
+     * 
+     * @param cp Code point
+     */
+    private void acceptCodePoint(int cp) {
+        if (spanning) {
+            carry.appendCodePoint(cp);
+        }
+
+        // Chars outside the BMP are two surrogates, which are never digits
+        if (cp >= Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+            if (!isHex) {
+                isNumber = false;
+            }
+            decimalValid = false;
+            hexValid = false;
+            binaryValid = false;
+            length += 2;
+            return;
+        }
+
+        char c = (char) cp;
+        char lower = Character.toLowerCase(c);
+        if (length == 0) {
+            first = c;
+        }
+
+        // Same checks as Parser.classify
+        if (c == ' ') {
+            hasSpace = true;
+        }
+        if (!isHex && !Character.isDigit(c) && lower != '_' && lower != 'f' && lower != 'x' && lower != 'b'
+                && lower != '.') {
+            isNumber = false;
+        }
+        if (lower == 'f') {
+            isFloat = true;
+        }
+        if (lower == '.') {
+            isDouble = true;
+        }
+        if (Character.isDigit(c) && (significant > 0 || c != '0')) {
+            significant++;
+        }
+        if (lower == 'x') {
+            isHex = true;
+        }
+        if (lower == 'b') {
+            isBinary = true;
+        }
+
+        // Accumulate the digits, the way Long.parseLong would
+        decimal = accumulate(decimal, c, 10, decimalValid);
+        decimalValid = decimal <= 0;
+        if (length == 2 && (c == '-' || c == '+')) {
+            hexNegative = (c == '-');
+            binaryValid = false;
+        } else if (length >= 2) {
+            hex = accumulate(hex, c, 16, hexValid);
+            hexValid = hex <= 0;
+            if (c != '_') {
+                hexDigits++;
+            }
+            binary = accumulate(binary, c, 2, binaryValid);
+            binaryValid = binary <= 0;
+        }
+        length++;
+    }
+
+    /**
+     * Add a digit to a negated accumulator, checking for overflow
+     * 
+     * @param value Negated value so far
+     * @param c     Char
+     * @param radix Base
+     * @param valid Is the value still valid?
+     * @return New negated value, or 1 if it is not a valid long
+     */
+    private static long accumulate(long value, char c, int radix, boolean valid) {
+        if (!valid) {
+            return 1;
+        }
+        if (c == '_') {
+            return value;
+        }
+        int digit = Character.digit(c, radix);
+        if (digit < 0 || value < Long.MIN_VALUE / radix) {
+            return 1;
+        }
+        value *= radix;
+        return (value < Long.MIN_VALUE + digit) ? 1 : value - digit;
+    }
+
+    /**
+     * Finish a line, and hand its Token to the callback
+     * 
+     * @param chunk     Chunk holding the end of the line (null at the end of the
+     *                  input)
+     * @param lineStart Start of the line in the chunk
+     * @param lineEnd   End of the line in the chunk
+     */
+    private void emit(ByteBuffer chunk, int lineStart, int lineEnd) {
+        Token token = finishLine(chunk, lineStart, lineEnd);
+        resetLine();
+        callback.accept(token);
+    }
+
+    /**
+     * Build the Token for the current line
+     * 
+     * @param chunk     Chunk holding the end of the line
+     * @param lineStart Start of the line in the chunk
+     * @param lineEnd   End of the line in the chunk
+     * @return Token
+     */
+    private Token finishLine(ByteBuffer chunk, int lineStart, int lineEnd) {
+
+        // Empty lines and lines with spaces are Strings
+        if (length == 0 || hasSpace) {
+            return new Token(text(chunk, lineStart, lineEnd));
+        }
+
+        // Single chars that look like part of a number are Strings
+        if (length == 1) {
+            char lower = Character.toLowerCase(first);
+            if (lower == '_' || lower == 'x' || lower == 'b' || lower == '.') {
+                return new Token(text(chunk, lineStart, lineEnd));
+            }
+        }
+
+        // Words
+        if (!isNumber) {
+            String text = text(chunk, lineStart, lineEnd);
+            if (Parser.VALID_BOOLEANS_MAP.containsKey(text)) {
+                return new Token(Parser.parseBoolean(text));
+            }
+            if (Parser.isParsingTimes() && length >= IsoTime.DATE_LENGTH) {
+                Token time = Parser.parseTime(text);
+                if (time != null) {
+                    return time;
+                }
+            }
+            return (length == 1) ? new Token(first) : new Token(text);
+        }
+
+        // Numbers
+        if (isFloat && !isHex) {
+            String text = text(chunk, lineStart, lineEnd);
+            try {
+                return new Token(Parser.parseFloat(text));
+            } catch (NumberFormatException e) {
+                return new Token(text);
+            }
+        } else if (isDouble) {
+            String text = text(chunk, lineStart, lineEnd);
+            try {
+                if (significant > Parser.DOUBLE_DIGITS) {
+                    return new Token(Types.BIG_DECIMAL, Parser.parseBigDecimal(text));
+                }
+                return new Token(Parser.parseDouble(text));
+            } catch (NumberFormatException e) {
+                return new Token(text);
+            }
+        }
+
+        // Integers already have their value. Only a negative value can be
+        // Long.MIN_VALUE
+        long negated;
+        boolean valid;
+        boolean negative = false;
+        if (isHex) {
+            negated = hex;
+            negative = hexNegative;
+            valid = hexValid && hexDigits > 0;
+        } else if (isBinary) {
+            negated = binary;
+            valid = binaryValid && hexDigits > 0;
+        } else {
+            negated = decimal;
+            valid = decimalValid;
+        }
+        if (!valid || (!negative && negated == Long.MIN_VALUE)) {
+
+            // Too large for a long, or not a number at all
+            String text = text(chunk, lineStart, lineEnd);
+            try {
+                return new Token(Types.BIG_INTEGER, Parser.parseBigInteger(text));
+            } catch (NumberFormatException e) {
+                return new Token(text);
+            }
+        }
+
+        // Promote to a Long only if an int would overflow
+        long value = (negative) ? negated : -negated;
+        if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+            return new Token((int) value);
+        }
+        return new Token(value);
+    }
+
+    /**
+     * Get the text of the current line
+     * 
+     * @param chunk     Chunk holding the end of the line
+     * @param lineStart Start of the line in the chunk
+     * @param lineEnd   End of the line in the chunk
+     * @return Text
+     */
+    private String text(ByteBuffer chunk, int lineStart, int lineEnd) {
+        return (spanning) ? carry.toString() : decodeText(chunk, lineStart, lineEnd);
+    }
+
+    /**
+     * Decode part of a chunk, without copying its bytes
+     * 
+     * @param chunk Chunk
+     * @param start Start index
+     * @param end   End index
+     * @return Text
+     */
+    private static String decodeText(ByteBuffer chunk, int start, int end) {
+        if (chunk.hasArray()) {
+            return new String(chunk.array(), chunk.arrayOffset() + start, end - start, StandardCharsets.UTF_8);
+        }
+        ByteBuffer view = chunk.duplicate();
+        view.limit(end).position(start);
+        return StandardCharsets.UTF_8.decode(view).toString();
+    }
+
+    /**
+     * Reset the line state
+     */
+    private void resetLine() {
+        length = 0;
+        first = 0;
+        hasSpace = false;
+        isNumber = true;
+        isHex = false;
+        isBinary = false;
+        isFloat = false;
+        isDouble = false;
+        significant = 0;
+        decimal = 0;
+        hex = 0;
+        binary = 0;
+        decimalValid = true;
+        hexValid = true;
+        binaryValid = true;
+        hexNegative = false;
+        hexDigits = 0;
+        carry.setLength(0);
+        spanning = false;
+    }
+}
@@ -0,0 +1,67 @@
+package ca.retrylife.inputlib.stream;
+
+import java.nio.channels.ReadableByteChannel;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import ca.retrylife.inputlib.types.Token;
+
+/**
+ * A TokenBatchPublisher works like a {@link TokenPublisher}, but publishes
+ * arrays of Tokens. Each request(1) is one array of up to batchSize Tokens, so
+ * the cost of signalling is shared by the whole batch. Only the last array can
+ * be shorter than batchSize.
+ */
+public class TokenBatchPublisher implements Flow.Publisher<Token[]> {
+
+    // Source
+    private final ReadableByteChannel channel;
+    private final int chunkSize;
+
+    // Tokens per array
+    private final int batchSize;
+
+    // Where reads and signals happen (null for a private thread)
+    private final Executor executor;
+
+    // A channel can only be read once
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    /**
+     * Create a TokenBatchPublisher that reads on its own thread
+     * 
+     * @param channel   Source
+     * @param batchSize Tokens per array
+     */
+    public TokenBatchPublisher(ReadableByteChannel channel, int batchSize) {
+        this(channel, batchSize, null, TokenPublisher.DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Create a TokenBatchPublisher
+     * 
+     * @param channel   Source
+     * @param batchSize Tokens per array
+     * @param executor  Where reads and signals happen. Reads can block, so this
+     *                  should not be a pool meant for short tasks
+     * @param chunkSize Bytes per read
+     */
+    public TokenBatchPublisher(ReadableByteChannel channel, int batchSize, Executor executor, int chunkSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least one Token");
+        }
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be at least one byte");
+        }
+        this.channel = channel;
+        this.batchSize = batchSize;
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super Token[]> subscriber) {
+        TokenPublisher.subscribe(subscriber, channel, chunkSize, batchSize, executor, subscribed);
+    }
+}
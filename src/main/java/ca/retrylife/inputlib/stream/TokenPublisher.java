@@ -0,0 +1,112 @@
+package ca.retrylife.inputlib.stream;
+
+import java.nio.channels.ReadableByteChannel;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import ca.retrylife.inputlib.types.Token;
+
+/**
+ * A TokenPublisher reads UTF-8 lines from a channel, and publishes one Token
+ * per line to a single {@link Flow.Subscriber}. The channel is only read while
+ * the subscriber has outstanding demand, so backpressure reaches all the way to
+ * the source. Lines are parsed by a {@link PushParser}.
+ * 
+ * The channel is closed when the stream completes, fails, or is cancelled. For
+ * many Tokens per signal, see {@link TokenBatchPublisher}.
+ */
+public class TokenPublisher implements Flow.Publisher<Token> {
+
+    // Default bytes per read
+    static final int DEFAULT_CHUNK_SIZE = 8192;
+
+    // Source
+    private final ReadableByteChannel channel;
+    private final int chunkSize;
+
+    // Where reads and signals happen (null for a private thread)
+    private final Executor executor;
+
+    // A channel can only be read once
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    /**
+     * Create a TokenPublisher that reads on its own thread
+     * 
+     * @param channel Source
+     */
+    public TokenPublisher(ReadableByteChannel channel) {
+        this(channel, null, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Create a TokenPublisher
+     * 
+     * @param channel   Source
+     * @param executor  Where reads and signals happen. Reads can block, so this
+     *                  should not be a pool meant for short tasks, such as the
+     *                  common ForkJoinPool
+     * @param chunkSize Bytes per read
+     */
+    public TokenPublisher(ReadableByteChannel channel, Executor executor, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be at least one byte");
+        }
+        this.channel = channel;
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super Token> subscriber) {
+        subscribe(subscriber, channel, chunkSize, 0, executor, subscribed);
+    }
+
+    /**
+     * Start a subscription. Shared with {@link TokenBatchPublisher}
+     * 
+     * @param <T>        Item type
+     * @param subscriber Subscriber
+     * @param channel    Source
+     * @param chunkSize  Bytes per read
+     * @param batchSize  Tokens per item (0 for single Tokens)
+     * @param executor   Where reads and signals happen (null for a private thread)
+     * @param subscribed Has this publisher been subscribed to?
+     */
+    static <T> void subscribe(Flow.Subscriber<? super T> subscriber, ReadableByteChannel channel, int chunkSize,
+            int batchSize, Executor executor, AtomicBoolean subscribed) {
+
+        // Rule 1.9
+        Objects.requireNonNull(subscriber, "Subscriber can not be null");
+
+        // A channel can only be read by one subscriber
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("This publisher only supports one subscriber"));
+            return;
+        }
+
+        // Reads get their own thread, unless an executor was given
+        boolean ownsExecutor = executor == null;
+        Executor runOn = (ownsExecutor) ? Executors.newSingleThreadExecutor((r) -> {
+            Thread t = new Thread(r, "inputlib-publisher");
+            t.setDaemon(true);
+            return t;
+        }) : executor;
+
+        ChannelSubscription<T> subscription = new ChannelSubscription<>(subscriber, channel, chunkSize, batchSize,
+                runOn, ownsExecutor);
+        subscriber.onSubscribe(subscription);
+    }
+}
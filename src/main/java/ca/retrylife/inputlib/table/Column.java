@@ -0,0 +1,253 @@
+package ca.retrylife.inputlib.table;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.BitSet;
+
+import ca.retrylife.inputlib.types.BigNumber;
+import ca.retrylife.inputlib.types.IsoTime;
+import ca.retrylife.inputlib.types.Types;
+
+/**
+ * A Column is one column of a {@link Table}. Values are stored in a primitive
+ * array matching the column's type, so a column of a million ints is a single
+ * int[]. BigInteger and BigDecimal values are kept as their digits, and dates
+ * and timestamps as longs, so their objects are only built when they are read.
+ */
+public class Column {
+
+    // Column type
+    private final Types type;
+
+    // Number of values
+    private final int size;
+
+    // Values. Only the array matching the type is set
+    private final int[] ints;
+    private final long[] longs;
+    private final float[] floats;
+    private final double[] doubles;
+    private final boolean[] booleans;
+    private final char[] chars;
+    private final String[] strings;
+    private final BigNumber[] bigs;
+
+    // Empty values
+    private final BitSet missing;
+
+    /**
+     * Create a Column
+     * 
+     * @param builder Builder holding the values
+     */
+    Column(ColumnBuilder builder) {
+        this.type = builder.type;
+        this.size = builder.size;
+        this.ints = builder.ints;
+        this.longs = builder.longs;
+        this.floats = builder.floats;
+        this.doubles = builder.doubles;
+        this.booleans = builder.booleans;
+        this.chars = builder.chars;
+        this.strings = builder.strings;
+        this.bigs = builder.bigs;
+        this.missing = builder.missing;
+    }
+
+    /**
+     * Get the column type
+     * 
+     * @return Type
+     */
+    public Types getType() {
+        return type;
+    }
+
+    /**
+     * Get the number of values
+     * 
+     * @return Value count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Check if a value was empty. Empty values read as 0, false, '\0', or null
+     * 
+     * @param row Row index
+     * @return Is missing?
+     */
+    public boolean isMissing(int row) {
+        checkRow(row);
+        return missing.get(row);
+    }
+
+    /**
+     * Get an Integer column's value
+     * 
+     * @param row Row index
+     * @return Value
+     */
+    public int getInteger(int row) {
+        checkAccess(row, Types.INTEGER);
+        return ints[row];
+    }
+
+    /**
+     * Get a Long column's value
+     * 
+     * @param row Row index
+     * @return Value
+     */
+    public long getLong(int row) {
+        checkAccess(row, Types.LONG);
+        return longs[row];
+    }
+
+    /**
+     * Get a Float column's value
+     * 
+     * @param row Row index
+     * @return Value
+     */
+    public float getFloat(int row) {
+        checkAccess(row, Types.FLOAT);
+        return floats[row];
+    }
+
+    /**
+     * Get a Double column's value
+     * 
+     * @param row Row index
+     * @return Value
+     */
+    public double getDouble(int row) {
+        checkAccess(row, Types.DOUBLE);
+        return doubles[row];
+    }
+
+    /**
+     * Get a Boolean column's value
+     * 
+     * @param row Row index
+     * @return Value
+     */
+    public boolean getBoolean(int row) {
+        checkAccess(row, Types.BOOLEAN);
+        return booleans[row];
+    }
+
+    /**
+     * Get a Character column's value
+     * 
+     * @param row Row index
+     * @return Value
+     */
+    public char getCharacter(int row) {
+        checkAccess(row, Types.CHARACTER);
+        return chars[row];
+    }
+
+    /**
+     * Get a String column's value
+     * 
+     * @param row Row index
+     * @return Value (null if missing)
+     */
+    public String getString(int row) {
+        checkAccess(row, Types.STRING);
+        return strings[row];
+    }
+
+    /**
+     * Get a BigInteger column's value
+     * 
+     * @param row Row index
+     * @return Value (null if missing)
+     */
+    public BigInteger getBigInteger(int row) {
+        checkAccess(row, Types.BIG_INTEGER);
+        return (bigs[row] == null) ? null : bigs[row].toBigInteger();
+    }
+
+    /**
+     * Get a BigDecimal column's value
+     * 
+     * @param row Row index
+     * @return Value (null if missing)
+     */
+    public BigDecimal getBigDecimal(int row) {
+        checkAccess(row, Types.BIG_DECIMAL);
+        return (bigs[row] == null) ? null : bigs[row].toBigDecimal();
+    }
+
+    /**
+     * Get a Date column's value
+     * 
+     * @param row Row index
+     * @return Value (null if missing)
+     */
+    public LocalDate getLocalDate(int row) {
+        checkAccess(row, Types.DATE);
+        return (missing.get(row)) ? null : IsoTime.toLocalDate(longs[row]);
+    }
+
+    /**
+     * Get a Timestamp column's value
+     * 
+     * @param row Row index
+     * @return Value (null if missing)
+     */
+    public Instant getInstant(int row) {
+        checkAccess(row, Types.TIMESTAMP);
+        return (missing.get(row)) ? null : IsoTime.toInstant(longs[row]);
+    }
+
+    /**
+     * Get a Date or Timestamp column's value, as days or nanoseconds since
+     * 1970-01-01, without building an object
+     * 
+     * @param row Row index
+     * @return Value
+     */
+    public long getEpochValue(int row) {
+        if (type != Types.DATE) {
+            checkAccess(row, Types.TIMESTAMP);
+        }
+        checkRow(row);
+        return longs[row];
+    }
+
+    /**
+     * Make sure a row exists, and the column has the requested type
+     * 
+     * @param row  Row index
+     * @param type Requested type
+     */
+    private void checkAccess(int row, Types type) {
+        if (this.type != type) {
+            throw new IllegalStateException(
+                    String.format("This column holds %s values, not %s", this.type.getName(), type.getName()));
+        }
+        checkRow(row);
+    }
+
+    /**
+     * Make sure a row exists
+     * 
+     * @param row Row index
+     */
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException(String.format("Row %d of %d", row, size));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Column<%s, %d values>", type.getName(), size);
+    }
+}
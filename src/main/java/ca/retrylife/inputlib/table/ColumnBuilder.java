@@ -0,0 +1,345 @@
+package ca.retrylife.inputlib.table;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import ca.retrylife.inputlib.Parser;
+import ca.retrylife.inputlib.types.BigNumber;
+import ca.retrylife.inputlib.types.IsoTime;
+import ca.retrylife.inputlib.types.Types;
+
+/**
+ * Collects the values of one column into a growable primitive array. Fields are
+ * classified with {@link Parser#classify}, and converted straight to primitives,
+ * so no Token is built per value
+ */
+class ColumnBuilder {
+
+    // Column type
+    final Types type;
+
+    // Number of values
+    int size = 0;
+
+    // Values. Only the array matching the type is set
+    int[] ints;
+    long[] longs;
+    float[] floats;
+    double[] doubles;
+    boolean[] booleans;
+    char[] chars;
+    String[] strings;
+    BigNumber[] bigs;
+
+    // Empty values
+    final BitSet missing = new BitSet();
+
+    /**
+     * Create a ColumnBuilder
+     * 
+     * @param type     Column type
+     * @param capacity Starting capacity
+     */
+    ColumnBuilder(Types type, int capacity) {
+        this.type = type;
+        capacity = Math.max(capacity, 16);
+        switch (type) {
+            case INTEGER:
+                ints = new int[capacity];
+                break;
+            case LONG:
+            case DATE:
+            case TIMESTAMP:
+                longs = new long[capacity];
+                break;
+            case FLOAT:
+                floats = new float[capacity];
+                break;
+            case DOUBLE:
+                doubles = new double[capacity];
+                break;
+            case BOOLEAN:
+                booleans = new boolean[capacity];
+                break;
+            case CHARACTER:
+                chars = new char[capacity];
+                break;
+            case BIG_INTEGER:
+            case BIG_DECIMAL:
+                bigs = new BigNumber[capacity];
+                break;
+            default:
+                strings = new String[capacity];
+                break;
+        }
+    }
+
+    /**
+     * Add a value
+     * 
+     * @param field Field text
+     * @return Did the value fit the column's type?
+     */
+    boolean add(String field) {
+        ensureCapacity(size + 1);
+
+        // Empty fields are missing values
+        if (field.isEmpty()) {
+            missing.set(size++);
+            return true;
+        }
+
+        try {
+            switch (type) {
+                case STRING:
+                    strings[size] = field;
+                    break;
+                case CHARACTER:
+                    if (field.length() != 1) {
+                        return false;
+                    }
+                    chars[size] = field.charAt(0);
+                    break;
+                case BOOLEAN:
+                    if (Parser.classify(field) != Types.BOOLEAN) {
+                        return false;
+                    }
+                    booleans[size] = Parser.parseBoolean(field);
+                    break;
+                case INTEGER:
+                    if (Parser.classify(field) != Types.INTEGER) {
+                        return false;
+                    }
+                    ints[size] = Parser.parseInteger(field);
+                    break;
+                case LONG:
+                    switch (Parser.classify(field)) {
+                        case INTEGER:
+                        case LONG:
+                            longs[size] = Parser.parseLong(field);
+                            break;
+                        default:
+                            return false;
+                    }
+                    break;
+                case FLOAT:
+                    switch (Parser.classify(field)) {
+                        case INTEGER:
+                        case LONG:
+                            floats[size] = Parser.parseLong(field);
+                            break;
+                        case FLOAT:
+                            floats[size] = Parser.parseFloat(field);
+                            break;
+                        default:
+                            return false;
+                    }
+                    break;
+                case DOUBLE:
+                    switch (Parser.classify(field)) {
+                        case INTEGER:
+                        case LONG:
+                            doubles[size] = Parser.parseLong(field);
+                            break;
+                        case FLOAT:
+                            doubles[size] = Parser.parseFloat(field);
+                            break;
+                        case DOUBLE:
+                        case BIG_DECIMAL:
+                            doubles[size] = Parser.parseDouble(field);
+                            break;
+                        default:
+                            return false;
+                    }
+                    break;
+                case DATE:
+
+                    // Dates are read even when the Parser does not recognize them
+                    long day = IsoTime.parseDate(field);
+                    if (day == IsoTime.INVALID) {
+                        return false;
+                    }
+                    longs[size] = day;
+                    break;
+                case TIMESTAMP:
+                    long nanos = IsoTime.parseTimestamp(field);
+                    if (nanos == IsoTime.INVALID) {
+                        day = IsoTime.parseDate(field);
+                        nanos = (day == IsoTime.INVALID) ? IsoTime.INVALID : IsoTime.dateToTimestamp(day);
+                    }
+                    if (nanos == IsoTime.INVALID) {
+                        return false;
+                    }
+                    longs[size] = nanos;
+                    break;
+                case BIG_INTEGER:
+                    switch (Parser.classify(field)) {
+                        case INTEGER:
+                        case LONG:
+                        case BIG_INTEGER:
+                            bigs[size] = Parser.parseBigInteger(field);
+                            break;
+                        default:
+                            return false;
+                    }
+                    break;
+                case BIG_DECIMAL:
+                    switch (Parser.classify(field)) {
+                        case INTEGER:
+                        case LONG:
+                        case BIG_INTEGER:
+                            bigs[size] = Parser.parseBigInteger(field);
+                            break;
+                        case FLOAT:
+                        case DOUBLE:
+                        case BIG_DECIMAL:
+                            bigs[size] = Parser.parseBigDecimal(field);
+                            break;
+                        default:
+                            return false;
+                    }
+                    break;
+            }
+        } catch (NumberFormatException e) {
+            return false;
+        }
+
+        size++;
+        return true;
+    }
+
+    /**
+     * Add a missing value
+     */
+    void addMissing() {
+        ensureCapacity(size + 1);
+        missing.set(size++);
+    }
+
+    /**
+     * Add every value of another builder of the same type
+     * 
+     * @param other Other builder
+     */
+    void append(ColumnBuilder other) {
+        ensureCapacity(size + other.size);
+        switch (type) {
+            case INTEGER:
+                System.arraycopy(other.ints, 0, ints, size, other.size);
+                break;
+            case LONG:
+            case DATE:
+            case TIMESTAMP:
+                System.arraycopy(other.longs, 0, longs, size, other.size);
+                break;
+            case FLOAT:
+                System.arraycopy(other.floats, 0, floats, size, other.size);
+                break;
+            case DOUBLE:
+                System.arraycopy(other.doubles, 0, doubles, size, other.size);
+                break;
+            case BOOLEAN:
+                System.arraycopy(other.booleans, 0, booleans, size, other.size);
+                break;
+            case CHARACTER:
+                System.arraycopy(other.chars, 0, chars, size, other.size);
+                break;
+            case BIG_INTEGER:
+            case BIG_DECIMAL:
+                System.arraycopy(other.bigs, 0, bigs, size, other.size);
+                break;
+            default:
+                System.arraycopy(other.strings, 0, strings, size, other.size);
+                break;
+        }
+        for (int i = other.missing.nextSetBit(0); i >= 0; i = other.missing.nextSetBit(i + 1)) {
+            missing.set(size + i);
+        }
+        size += other.size;
+    }
+
+    /**
+     * Grow the value array if needed
+     * 
+     * @param needed Required capacity
+     */
+    private void ensureCapacity(int needed) {
+        int capacity = capacity();
+        if (needed <= capacity) {
+            return;
+        }
+        if (needed < 0) {
+            throw new IllegalStateException("A column can not hold more than Integer.MAX_VALUE values");
+        }
+
+        // Double, without going past the largest possible array
+        int grown = (int) Math.min(Integer.MAX_VALUE - 8, Math.max((long) capacity * 2, needed));
+        switch (type) {
+            case INTEGER:
+                ints = Arrays.copyOf(ints, grown);
+                break;
+            case LONG:
+            case DATE:
+            case TIMESTAMP:
+                longs = Arrays.copyOf(longs, grown);
+                break;
+            case FLOAT:
+                floats = Arrays.copyOf(floats, grown);
+                break;
+            case DOUBLE:
+                doubles = Arrays.copyOf(doubles, grown);
+                break;
+            case BOOLEAN:
+                booleans = Arrays.copyOf(booleans, grown);
+                break;
+            case CHARACTER:
+                chars = Arrays.copyOf(chars, grown);
+                break;
+            case BIG_INTEGER:
+            case BIG_DECIMAL:
+                bigs = Arrays.copyOf(bigs, grown);
+                break;
+            default:
+                strings = Arrays.copyOf(strings, grown);
+                break;
+        }
+    }
+
+    /**
+     * Get the length of the value array
+     * 
+     * @return Capacity
+     */
+    private int capacity() {
+        switch (type) {
+            case INTEGER:
+                return ints.length;
+            case LONG:
+            case DATE:
+            case TIMESTAMP:
+                return longs.length;
+            case FLOAT:
+                return floats.length;
+            case DOUBLE:
+                return doubles.length;
+            case BOOLEAN:
+                return booleans.length;
+            case CHARACTER:
+                return chars.length;
+            case BIG_INTEGER:
+            case BIG_DECIMAL:
+                return bigs.length;
+            default:
+                return strings.length;
+        }
+    }
+
+    /**
+     * Freeze into a Column
+     * 
+     * @return Column
+     */
+    Column build() {
+        return new Column(this);
+    }
+}
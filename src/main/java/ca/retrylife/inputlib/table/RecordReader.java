@@ -0,0 +1,244 @@
+package ca.retrylife.inputlib.table;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+import ca.retrylife.inputlib.exceptions.TableFormatException;
+
+/**
+ * Reads RFC 4180 records from a Reader. Fields are separated by a delimiter,
+ * records end with LF or CRLF, and a field wrapped in double quotes can hold
+ * delimiters, line breaks, and doubled quotes. Blank lines are skipped.
+ * 
+ * Unquoted fields are cut straight out of the read buffer, so most fields cost
+ * one String and no copying through a builder.
+ */
+class RecordReader {
+
+    // Quote character
+    private static final char QUOTE = '"';
+
+    // Source
+    private final Reader in;
+    private final char delimiter;
+
+    // Read buffer
+    private final char[] buffer = new char[64 * 1024];
+    private int position = 0;
+    private int limit = 0;
+
+    // Used for fields that span buffer refills, or contain quotes
+    private final StringBuilder spill = new StringBuilder();
+
+    // Current record
+    private String[] fields = new String[16];
+    private int count = 0;
+
+    // Records read so far
+    private long records = 0;
+
+    /**
+     * Create a RecordReader
+     * 
+     * @param in        Source
+     * @param delimiter Field delimiter
+     */
+    RecordReader(Reader in, char delimiter) {
+        if (delimiter == QUOTE || delimiter == '\r' || delimiter == '\n') {
+            throw new IllegalArgumentException("The delimiter can not be a quote or a line break");
+        }
+        this.in = in;
+        this.delimiter = delimiter;
+    }
+
+    /**
+     * Read the next record
+     * 
+     * @return False once the input has ended
+     * @throws IOException if the input can not be read, or has an unclosed quote
+     */
+    boolean next() throws IOException {
+        count = 0;
+
+        // Skip blank lines
+        while (true) {
+            int c = peek();
+            if (c < 0) {
+                return false;
+            } else if (c == '\n' || c == '\r') {
+                position++;
+            } else {
+                break;
+            }
+        }
+
+        // Read fields until the end of the record
+        while (true) {
+            add((peek() == QUOTE) ? readQuoted() : readPlain());
+
+            int c = peek();
+            if (c == delimiter) {
+                position++;
+                continue;
+            }
+
+            // Handle the record terminator
+            if (c == '\r') {
+                position++;
+                if (peek() == '\n') {
+                    position++;
+                }
+            } else if (c == '\n') {
+                position++;
+            }
+            records++;
+            return true;
+        }
+    }
+
+    /**
+     * Get the number of fields in the current record
+     * 
+     * @return Field count
+     */
+    int count() {
+        return count;
+    }
+
+    /**
+     * Get a field of the current record
+     * 
+     * @param index Field index
+     * @return Field text
+     */
+    String field(int index) {
+        return fields[index];
+    }
+
+    /**
+     * Get the number of records read so far
+     * 
+     * @return Record count
+     */
+    long records() {
+        return records;
+    }
+
+    /**
+     * Add a field to the current record
+     * 
+     * @param field Field text
+     */
+    private void add(String field) {
+        if (count == fields.length) {
+            fields = Arrays.copyOf(fields, count * 2);
+        }
+        fields[count++] = field;
+    }
+
+    /**
+     * Read an unquoted field, up to the next delimiter or line break
+     * 
+     * @return Field text
+     * @throws IOException if the input can not be read
+     */
+    private String readPlain() throws IOException {
+        int start = position;
+        while (true) {
+
+            // Move what has been scanned so far aside before refilling
+            if (position == limit) {
+                spill.append(buffer, start, position - start);
+                boolean more = fill();
+                start = position;
+                if (!more) {
+                    break;
+                }
+                continue;
+            }
+
+            char c = buffer[position];
+            if (c == delimiter || c == '\n' || c == '\r') {
+                break;
+            }
+            position++;
+        }
+
+        // Fast path. The whole field was in the buffer
+        if (spill.length() == 0) {
+            return new String(buffer, start, position - start);
+        }
+        spill.append(buffer, start, position - start);
+        String field = spill.toString();
+        spill.setLength(0);
+        return field;
+    }
+
+    /**
+     * Read a quoted field. Anything between the closing quote and the next
+     * delimiter is kept as well
+     * 
+     * @return Field text
+     * @throws IOException if the input can not be read, or the quote is never
+     *                     closed
+     */
+    private String readQuoted() throws IOException {
+        position++;
+        while (true) {
+            int c = peek();
+            if (c < 0) {
+                throw new TableFormatException(String.format("Record %d has an unclosed quote", records + 1));
+            }
+            position++;
+
+            // A doubled quote is a literal quote, anything else closes the field
+            if (c == QUOTE) {
+                if (peek() != QUOTE) {
+                    break;
+                }
+                position++;
+            }
+            spill.append((char) c);
+        }
+
+        // Keep any trailing text
+        String quoted = spill.toString();
+        spill.setLength(0);
+        String rest = readPlain();
+        return (rest.isEmpty()) ? quoted : quoted + rest;
+    }
+
+    /**
+     * Look at the next char without consuming it
+     * 
+     * @return Next char, or -1 at the end of the input
+     * @throws IOException if the input can not be read
+     */
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    /**
+     * Refill the buffer
+     * 
+     * @return False at the end of the input
+     * @throws IOException if the input can not be read
+     */
+    private boolean fill() throws IOException {
+        int read;
+        do {
+            read = in.read(buffer, 0, buffer.length);
+        } while (read == 0);
+        if (read < 0) {
+            position = limit = 0;
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+}
@@ -0,0 +1,86 @@
+package ca.retrylife.inputlib.table;
+
+/**
+ * A Table is a set of typed, equal-length {@link Column}s, loaded by a
+ * {@link TableReader}
+ */
+public class Table {
+
+    // Columns, and their names
+    private final String[] names;
+    private final Column[] columns;
+
+    // Number of rows
+    private final int rows;
+
+    /**
+     * Create a Table
+     * 
+     * @param names   Column names
+     * @param columns Columns
+     * @param rows    Number of rows
+     */
+    Table(String[] names, Column[] columns, int rows) {
+        this.names = names;
+        this.columns = columns;
+        this.rows = rows;
+    }
+
+    /**
+     * Get the number of rows
+     * 
+     * @return Row count
+     */
+    public int getRowCount() {
+        return rows;
+    }
+
+    /**
+     * Get the number of columns
+     * 
+     * @return Column count
+     */
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    /**
+     * Get the name of every column. Without a header row, columns are named
+     * "column0", "column1", and so on
+     * 
+     * @return Column names
+     */
+    public String[] getColumnNames() {
+        return names.clone();
+    }
+
+    /**
+     * Get a column
+     * 
+     * @param index Column index
+     * @return Column
+     */
+    public Column getColumn(int index) {
+        return columns[index];
+    }
+
+    /**
+     * Get a column by name
+     * 
+     * @param name Column name
+     * @return Column
+     */
+    public Column getColumn(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return columns[i];
+            }
+        }
+        throw new IllegalArgumentException(String.format("No column named \"%s\"", name));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Table<%d columns, %d rows>", columns.length, rows);
+    }
+}
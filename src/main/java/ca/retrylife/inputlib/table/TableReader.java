@@ -0,0 +1,561 @@
+package ca.retrylife.inputlib.table;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import ca.retrylife.inputlib.RecordTokenizer;
+import ca.retrylife.inputlib.exceptions.TableFormatException;
+import ca.retrylife.inputlib.schema.SchemaInferrer;
+import ca.retrylife.inputlib.types.Types;
+
+/**
+ * A TableReader loads delimited text (CSV, TSV, and the like) into a
+ * {@link Table} of typed columns. Values are classified with the same rules as
+ * {@link ca.retrylife.inputlib.Parser}, so hex and binary ints, "_" separators,
+ * the "f" suffix, and the boolean words all work. Quoting follows RFC 4180.
+ * 
+ * Without a schema, column types are inferred with a
+ * {@link ca.retrylife.inputlib.schema.SchemaInferrer}. Files are split into
+ * chunks that are parsed in parallel on every core. Like
+ * {@link ca.retrylife.inputlib.PromptPolicy}, a TableReader is immutable, and
+ * the with* methods return a changed copy.
+ * 
+ * <pre>
+ * Table table = TableReader.csv().withHeader(true).read(path, StandardCharsets.UTF_8);
+ * </pre>
+ */
+public class TableReader {
+
+    // Default chunk size for parallel reads
+    private static final long DEFAULT_CHUNK_BYTES = 16 * 1024 * 1024;
+
+    // Default number of rows used to infer a schema from a Reader
+    private static final int DEFAULT_INFERENCE_ROWS = 1000;
+
+    // Where the chunk splitter is within a field. These follow RecordReader,
+    // which only treats a quote as special at the start of a field
+    private static final int FIELD_START = 0;
+    private static final int PLAIN = 1;
+    private static final int QUOTED = 2;
+    private static final int AFTER_QUOTE = 3;
+
+    // Settings
+    private final char delimiter;
+    private final boolean header;
+    private final Types[] schema;
+    private final int inferenceRows;
+    private final long chunkBytes;
+
+    /**
+     * Create a TableReader
+     * 
+     * @param delimiter     Field delimiter
+     * @param header        Is the first record a header?
+     * @param schema        Column types (null to infer them)
+     * @param inferenceRows Rows used to infer a schema from a Reader
+     * @param chunkBytes    Target chunk size for parallel reads
+     */
+    private TableReader(char delimiter, boolean header, Types[] schema, int inferenceRows, long chunkBytes) {
+        this.delimiter = delimiter;
+        this.header = header;
+        this.schema = schema;
+        this.inferenceRows = inferenceRows;
+        this.chunkBytes = chunkBytes;
+    }
+
+    /**
+     * Get a TableReader for comma separated values
+     * 
+     * @return TableReader
+     */
+    public static TableReader csv() {
+        return delimited(',');
+    }
+
+    /**
+     * Get a TableReader for tab separated values
+     * 
+     * @return TableReader
+     */
+    public static TableReader tsv() {
+        return delimited('\t');
+    }
+
+    /**
+     * Get a TableReader for values separated by any char
+     * 
+     * @param delimiter Field delimiter
+     * @return TableReader
+     */
+    public static TableReader delimited(char delimiter) {
+        if (delimiter == '"' || delimiter == '\r' || delimiter == '\n') {
+            throw new IllegalArgumentException("The delimiter can not be a quote or a line break");
+        }
+        return new TableReader(delimiter, false, null, DEFAULT_INFERENCE_ROWS, DEFAULT_CHUNK_BYTES);
+    }
+
+    /**
+     * Get a copy of this TableReader that treats the first record as column names
+     * 
+     * @param header Is the first record a header?
+     * @return New TableReader
+     */
+    public TableReader withHeader(boolean header) {
+        return new TableReader(delimiter, header, schema, inferenceRows, chunkBytes);
+    }
+
+    /**
+     * Get a copy of this TableReader with fixed column types. A value that does
+     * not fit its column's type is an error. Supplying a schema also skips the
+     * inference pass
+     * 
+     * @param schema Column types (no arguments to infer them)
+     * @return New TableReader
+     */
+    public TableReader withSchema(Types... schema) {
+        return new TableReader(delimiter, header, (schema.length == 0) ? null : schema.clone(), inferenceRows,
+                chunkBytes);
+    }
+
+    /**
+     * Get a copy of this TableReader that infers a Reader's schema from a
+     * different number of leading rows. Files are always inferred from every row
+     * 
+     * @param inferenceRows Number of rows
+     * @return New TableReader
+     */
+    public TableReader withInferenceRows(int inferenceRows) {
+        if (inferenceRows < 1) {
+            throw new IllegalArgumentException("At least one row is needed to infer a schema");
+        }
+        return new TableReader(delimiter, header, schema, inferenceRows, chunkBytes);
+    }
+
+    /**
+     * Get a copy of this TableReader that splits files into chunks of a different
+     * size
+     * 
+     * @param chunkBytes Target chunk size in bytes
+     * @return New TableReader
+     */
+    public TableReader withChunkSize(long chunkBytes) {
+        if (chunkBytes < 1 || chunkBytes > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Chunk size must be between 1 byte and 2GB");
+        }
+        return new TableReader(delimiter, header, schema, inferenceRows, chunkBytes);
+    }
+
+    /**
+     * Read a table from a stream, on the calling thread. Without a schema, the
+     * types are inferred from the leading rows
+     * 
+     * @param in Source
+     * @return Table
+     * @throws IOException if the input can not be read, or does not fit the
+     *                     schema
+     */
+    public Table read(Reader in) throws IOException {
+        RecordReader records = new RecordReader(in, delimiter);
+
+        // Read the header
+        String[] names = (header && records.next()) ? fieldsOf(records) : new String[0];
+
+        // Use the schema, or infer one from the leading rows
+        Types[] types = schema;
+        List<String[]> leading = new ArrayList<>();
+        if (types == null) {
+            SchemaInferrer inferrer = newInferrer();
+            while (leading.size() < inferenceRows && records.next()) {
+                String[] fields = fieldsOf(records);
+                leading.add(fields);
+                inferrer.accept(fields, fields.length);
+            }
+            types = inferrer.getSchema();
+        }
+        types = padSchema(types, names.length);
+
+        // Fill the columns
+        ColumnBuilder[] builders = newBuilders(types, 1024);
+        long row = (header) ? 1 : 0;
+        for (String[] fields : leading) {
+            addRecord(builders, fields, fields.length, ++row, 0);
+        }
+        String[] fields = new String[types.length];
+        while (records.next()) {
+            int count = copyFields(records, fields, ++row, 0);
+            addRecord(builders, fields, count, row, 0);
+        }
+
+        return buildTable(names, builders);
+    }
+
+    /**
+     * Read a table from a file. The file is split into chunks, and the chunks
+     * are parsed in parallel. Without a schema, every row is read once to infer
+     * the types (also in parallel), and then again to load them
+     * 
+     * @param file    File
+     * @param charset File encoding (must be ASCII compatible, such as UTF-8)
+     * @return Table
+     * @throws IOException if the file can not be read, or does not fit the schema
+     */
+    public Table read(Path file, Charset charset) throws IOException {
+        long[] bounds = findChunks(file);
+        int chunks = bounds.length - 1;
+
+        try {
+
+            // Read the header
+            String[] names = new String[0];
+            if (header && chunks > 0) {
+                RecordReader records = new RecordReader(new StringReader(readChunk(file, charset, bounds, 0)),
+                        delimiter);
+                if (records.next()) {
+                    names = fieldsOf(records);
+                }
+            }
+
+            // Use the schema, or infer one from every chunk
+            Types[] types = schema;
+            if (types == null) {
+                types = IntStream.range(0, chunks).parallel().mapToObj((i) -> inferChunk(file, charset, bounds, i))
+                        .reduce(SchemaInferrer::merge).map(SchemaInferrer::getSchema).orElse(new Types[0]);
+            }
+            Types[] columnTypes = padSchema(types, names.length);
+
+            // Parse every chunk
+            ColumnBuilder[][] parts = IntStream.range(0, chunks).parallel()
+                    .mapToObj((i) -> loadChunk(file, charset, bounds, i, columnTypes)).toArray(ColumnBuilder[][]::new);
+
+            // Stitch the chunks together
+            ColumnBuilder[] builders = newBuilders(columnTypes, totalRows(parts));
+            for (ColumnBuilder[] part : parts) {
+                for (int c = 0; c < builders.length; c++) {
+                    builders[c].append(part[c]);
+                }
+            }
+            return buildTable(names, builders);
+
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Split a file into chunks that each end at the end of a record. Quotes are
+     * tracked the same way {@link RecordReader} does, so a line break inside a
+     * quoted field never ends a chunk, and a stray quote inside an unquoted field
+     * does not start one. This is a single sequential pass over the bytes, which
+     * is much cheaper than parsing. A delimiter outside ASCII can not be spotted
+     * byte by byte, so with one the file is a single chunk
+     * 
+     * @param file File
+     * @return Chunk boundaries (chunk i is bounds[i] to bounds[i + 1])
+     * @throws IOException if the file can not be read
+     */
+    private long[] findChunks(Path file) throws IOException {
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1024 * 1024);
+            long offset = 0;
+            long target = chunkBytes;
+            int state = FIELD_START;
+
+            // Only scan when there is more than one chunk
+            while (size > target && delimiter < 0x80 && channel.read(buffer) > 0) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    int b = buffer.get();
+                    offset++;
+
+                    // Quotes, delimiters, and line breaks are single bytes in
+                    // every ASCII compatible charset, so bytes can be checked
+                    // directly
+                    if (state == QUOTED) {
+                        if (b == '"') {
+                            state = AFTER_QUOTE;
+                        }
+                    } else if (b == '"' && state != PLAIN) {
+
+                        // Opens a quoted field, or is a doubled quote inside one
+                        state = QUOTED;
+                    } else if (b == delimiter) {
+                        state = FIELD_START;
+                    } else if (b == '\n' || b == '\r') {
+                        state = FIELD_START;
+                        if (b == '\n' && offset >= target) {
+                            bounds.add(offset);
+                            target = offset + chunkBytes;
+                        }
+                    } else {
+                        state = PLAIN;
+                    }
+                }
+                buffer.clear();
+            }
+
+            if (bounds.get(bounds.size() - 1) < size) {
+                bounds.add(size);
+            }
+        }
+
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Read and decode a chunk
+     * 
+     * @param file    File
+     * @param charset File encoding
+     * @param bounds  Chunk boundaries
+     * @param chunk   Chunk index
+     * @return Chunk text
+     */
+    private static String readChunk(Path file, Charset charset, long[] bounds, int chunk) {
+        ByteBuffer bytes = ByteBuffer.allocate((int) (bounds[chunk + 1] - bounds[chunk]));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long position = bounds[chunk];
+            while (bytes.hasRemaining()) {
+                int read = channel.read(bytes, position);
+                if (read < 0) {
+                    break;
+                }
+                position += read;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new String(bytes.array(), 0, bytes.position(), charset);
+    }
+
+    /**
+     * Infer the schema of one chunk
+     * 
+     * @param file    File
+     * @param charset File encoding
+     * @param bounds  Chunk boundaries
+     * @param chunk   Chunk index
+     * @return Partial result
+     */
+    private SchemaInferrer inferChunk(Path file, Charset charset, long[] bounds, int chunk) {
+        SchemaInferrer inferrer = newInferrer();
+        try {
+            RecordReader records = new RecordReader(new StringReader(readChunk(file, charset, bounds, chunk)),
+                    delimiter);
+            if (header && chunk == 0) {
+                records.next();
+            }
+            String[] fields = new String[16];
+            while (records.next()) {
+                if (fields.length < records.count()) {
+                    fields = new String[records.count()];
+                }
+                for (int i = 0; i < records.count(); i++) {
+                    fields[i] = records.field(i);
+                }
+                inferrer.accept(fields, records.count());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return inferrer;
+    }
+
+    /**
+     * Parse one chunk into columns
+     * 
+     * @param file    File
+     * @param charset File encoding
+     * @param bounds  Chunk boundaries
+     * @param chunk   Chunk index
+     * @param types   Column types
+     * @return Column builders
+     */
+    private ColumnBuilder[] loadChunk(Path file, Charset charset, long[] bounds, int chunk, Types[] types) {
+        ColumnBuilder[] builders = newBuilders(types, 1024);
+        try {
+            RecordReader records = new RecordReader(new StringReader(readChunk(file, charset, bounds, chunk)),
+                    delimiter);
+            if (header && chunk == 0) {
+                records.next();
+            }
+            String[] fields = new String[types.length];
+            long row = (header && chunk == 0) ? 1 : 0;
+            while (records.next()) {
+                int count = copyFields(records, fields, ++row, bounds[chunk]);
+                addRecord(builders, fields, count, row, bounds[chunk]);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return builders;
+    }
+
+    /**
+     * Create a SchemaInferrer for this format
+     * 
+     * @return SchemaInferrer
+     */
+    private SchemaInferrer newInferrer() {
+        return new SchemaInferrer(new RecordTokenizer(String.valueOf(delimiter), false), 0);
+    }
+
+    /**
+     * Copy the current record's fields
+     * 
+     * @param records Record source
+     * @return Fields
+     */
+    private static String[] fieldsOf(RecordReader records) {
+        String[] fields = new String[records.count()];
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = records.field(i);
+        }
+        return fields;
+    }
+
+    /**
+     * Copy the current record's fields into a fixed-width array
+     * 
+     * @param records Record source
+     * @param fields  Where to put the fields
+     * @param row     Row number (for errors)
+     * @param offset  Byte offset of the chunk (for errors)
+     * @return Number of fields
+     * @throws TableFormatException if the record has too many fields
+     */
+    private static int copyFields(RecordReader records, String[] fields, long row, long offset)
+            throws TableFormatException {
+        if (records.count() > fields.length) {
+            throw new TableFormatException(String.format("%s has %d fields, but the table only has %d columns",
+                    describeRow(row, offset), records.count(), fields.length));
+        }
+        for (int i = 0; i < records.count(); i++) {
+            fields[i] = records.field(i);
+        }
+        return records.count();
+    }
+
+    /**
+     * Add a record to the columns. Short records are padded with missing values
+     * 
+     * @param builders Column builders
+     * @param fields   Fields
+     * @param count    Number of fields
+     * @param row      Row number (for errors)
+     * @param offset   Byte offset of the chunk (for errors)
+     * @throws TableFormatException if a value does not fit its column
+     */
+    private static void addRecord(ColumnBuilder[] builders, String[] fields, int count, long row, long offset)
+            throws TableFormatException {
+        if (count > builders.length) {
+            throw new TableFormatException(String.format("%s has %d fields, but the table only has %d columns",
+                    describeRow(row, offset), count, builders.length));
+        }
+        for (int c = 0; c < builders.length; c++) {
+            if (c >= count) {
+                builders[c].addMissing();
+            } else if (!builders[c].add(fields[c])) {
+                throw new TableFormatException(String.format("%s, column %d: \"%s\" is not a valid %s",
+                        describeRow(row, offset), c, fields[c], builders[c].type.getName()));
+            }
+        }
+    }
+
+    /**
+     * Describe where a row is, for errors
+     * 
+     * @param row    Row number in its chunk
+     * @param offset Byte offset of the chunk
+     * @return Description
+     */
+    private static String describeRow(long row, long offset) {
+        return (offset == 0) ? String.format("Record %d", row)
+                : String.format("Record %d after byte %d", row, offset);
+    }
+
+    /**
+     * Pad a schema with String columns, so every named column has a type
+     * 
+     * @param types   Column types
+     * @param columns Number of named columns
+     * @return Column types
+     */
+    private static Types[] padSchema(Types[] types, int columns) {
+        if (types.length >= columns) {
+            return types;
+        }
+        Types[] widened = new Types[columns];
+        for (int i = 0; i < columns; i++) {
+            widened[i] = (i < types.length) ? types[i] : Types.STRING;
+        }
+        return widened;
+    }
+
+    /**
+     * Create a builder for every column
+     * 
+     * @param types    Column types
+     * @param capacity Starting capacity
+     * @return Column builders
+     */
+    private static ColumnBuilder[] newBuilders(Types[] types, int capacity) {
+        ColumnBuilder[] builders = new ColumnBuilder[types.length];
+        for (int i = 0; i < builders.length; i++) {
+            builders[i] = new ColumnBuilder(types[i], capacity);
+        }
+        return builders;
+    }
+
+    /**
+     * Count the rows of every chunk
+     * 
+     * @param parts Column builders of every chunk
+     * @return Row count
+     */
+    private static int totalRows(ColumnBuilder[][] parts) {
+        long rows = 0;
+        for (ColumnBuilder[] part : parts) {
+            rows += (part.length == 0) ? 0 : part[0].size;
+        }
+        if (rows > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("A table can not hold more than Integer.MAX_VALUE rows");
+        }
+        return (int) rows;
+    }
+
+    /**
+     * Freeze the columns into a Table
+     * 
+     * @param header   Column names from the header
+     * @param builders Column builders
+     * @return Table
+     */
+    private static Table buildTable(String[] header, ColumnBuilder[] builders) {
+        String[] names = new String[builders.length];
+        Column[] columns = new Column[builders.length];
+        for (int i = 0; i < builders.length; i++) {
+            names[i] = (i < header.length) ? header[i] : "column" + i;
+            columns[i] = builders[i].build();
+        }
+        return new Table(names, columns, (columns.length == 0) ? 0 : columns[0].size());
+    }
+}
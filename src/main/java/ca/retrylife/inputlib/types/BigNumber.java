@@ -0,0 +1,332 @@
+package ca.retrylife.inputlib.types;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * A BigNumber is the value of a {@link Types#BIG_INTEGER} or
+ * {@link Types#BIG_DECIMAL} Token. It only holds the validated digit span of
+ * the text it was parsed from, and a scale. The BigInteger or BigDecimal is
+ * built the first time it is asked for, so classifying and converting a value
+ * never allocates one.
+ *
+ * The low 64 bits of the value are collected while the digits are validated.
+ * If the value fits in a long, they are the whole value, and are used instead
+ * of building a BigInteger or BigDecimal at all.
+ *
+ * Conversions to primitives follow Java's casts: a big integer keeps its low
+ * bits (like a long cast to an int), and a big decimal is truncated toward zero
+ * and clamped (like a double cast to an int).
+ */
+public final class BigNumber extends Number {
+    private static final long serialVersionUID = 1L;
+
+    // Source text, and the digit span in it
+    private final String text;
+    private final int start;
+    private final int end;
+    private final int radix;
+
+    // Digits after the decimal point (0 for integers)
+    private final int scale;
+    private final boolean decimal;
+    private final boolean negative;
+    private final boolean zero;
+
+    // Unscaled value, mod 2^64. Exact if compact
+    private final long low;
+    private final boolean compact;
+
+    // Integer part of a decimal, clamped to a long
+    private final long whole;
+
+    // Built on first use
+    private transient BigInteger bigInteger;
+    private transient BigDecimal bigDecimal;
+
+    /**
+     * Create a BigNumber. Use {@link #parse} or {@link #of}
+     */
+    private BigNumber(String text, int start, int end, int radix, int scale, boolean decimal, boolean negative,
+            boolean zero, long low, boolean compact, long whole) {
+        this.text = text;
+        this.start = start;
+        this.end = end;
+        this.radix = radix;
+        this.scale = scale;
+        this.decimal = decimal;
+        this.negative = negative;
+        this.zero = zero;
+        this.low = low;
+        this.compact = compact;
+        this.whole = whole;
+    }
+
+    /**
+     * Validate part of a String as a number, in a single pass. The span may
+     * start with a sign. Decimals may have one decimal point, and underscores
+     * between digits
+     *
+     * @param text    Source text
+     * @param start   Start of the span (after any prefix)
+     * @param end     End of the span
+     * @param radix   Base (decimals must be base 10)
+     * @param decimal Is this a decimal?
+     * @return BigNumber
+     * @throws NumberFormatException if the span is not a valid number
+     */
+    public static BigNumber parse(String text, int start, int end, int radix, boolean decimal) {
+        int i = start;
+
+        // Sign
+        boolean negative = false;
+        if (i < end && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            negative = text.charAt(i) == '-';
+            i++;
+        }
+        int digitsStart = i;
+
+        // Digits
+        int digits = 0;
+        int scale = -1;
+        boolean zero = true;
+        boolean compact = true;
+        boolean clamped = false;
+        long low = 0;
+        long whole = 0;
+        long limit = Long.MAX_VALUE / radix;
+        for (; i < end; i++) {
+            char c = text.charAt(i);
+
+            // Separators
+            if (c == '_') {
+                continue;
+            }
+            if (decimal && c == '.' && scale < 0) {
+                scale = 0;
+                continue;
+            }
+
+            int digit = Character.digit(c, radix);
+            if (digit < 0) {
+                throw new NumberFormatException(String.format("For input string: \"%s\"", text));
+            }
+            digits++;
+            zero &= digit == 0;
+
+            // The low bits wrap. Compact is cleared once they stop being the
+            // whole value
+            if (compact && (low > limit || low * radix > Long.MAX_VALUE - digit)) {
+                compact = false;
+            }
+            low = low * radix + digit;
+
+            // Track the integer part separately
+            if (scale < 0) {
+                if (!clamped && (whole > limit || whole * radix > Long.MAX_VALUE - digit)) {
+                    clamped = true;
+                }
+                whole = (clamped) ? Long.MAX_VALUE : whole * radix + digit;
+            } else {
+                scale++;
+            }
+        }
+        if (digits == 0) {
+            throw new NumberFormatException(String.format("For input string: \"%s\"", text));
+        }
+
+        // Apply the sign
+        if (negative) {
+            low = -low;
+            whole = (clamped) ? Long.MIN_VALUE : -whole;
+        }
+        return new BigNumber(text, digitsStart, end, radix, Math.max(scale, 0), decimal, negative, zero, low,
+                compact, whole);
+    }
+
+    /**
+     * Wrap a Number. BigIntegers and BigDecimals are kept, so they are never
+     * rebuilt
+     *
+     * @param value BigNumber, BigInteger, or BigDecimal
+     * @return BigNumber
+     */
+    public static BigNumber of(Number value) {
+        if (value instanceof BigNumber) {
+            return (BigNumber) value;
+        }
+        if (value instanceof BigInteger) {
+            String text = value.toString();
+            BigNumber number = parse(text, 0, text.length(), 10, false);
+            number.bigInteger = (BigInteger) value;
+            return number;
+        }
+        if (value instanceof BigDecimal) {
+            String text = ((BigDecimal) value).toPlainString();
+            BigNumber number = parse(text, 0, text.length(), 10, true);
+            if (number.scale == ((BigDecimal) value).scale()) {
+                number.bigDecimal = (BigDecimal) value;
+            }
+            return number;
+        }
+        throw new IllegalArgumentException("Not a big number: " + value.getClass().getName());
+    }
+
+    /**
+     * Check if this is a decimal
+     *
+     * @return Is a decimal?
+     */
+    public boolean isDecimal() {
+        return decimal;
+    }
+
+    /**
+     * Check if the unscaled value fits in a long
+     *
+     * @return Is compact?
+     */
+    public boolean isCompact() {
+        return compact;
+    }
+
+    /**
+     * Get the number of digits after the decimal point
+     *
+     * @return Scale
+     */
+    public int scale() {
+        return scale;
+    }
+
+    /**
+     * Get the sign of the value
+     *
+     * @return -1, 0, or 1
+     */
+    public int signum() {
+        return (zero) ? 0 : ((negative) ? -1 : 1);
+    }
+
+    /**
+     * Get the value as a BigInteger, building it if needed. Decimals are
+     * truncated toward zero
+     *
+     * @return BigInteger
+     */
+    public BigInteger toBigInteger() {
+        BigInteger value = bigInteger;
+        if (value == null) {
+            if (decimal) {
+                value = toBigDecimal().toBigInteger();
+            } else if (compact) {
+                value = BigInteger.valueOf(low);
+            } else {
+                value = new BigInteger(digits(), radix);
+                value = (negative) ? value.negate() : value;
+            }
+            bigInteger = value;
+        }
+        return value;
+    }
+
+    /**
+     * Get the value as a BigDecimal, building it if needed
+     *
+     * @return BigDecimal
+     */
+    public BigDecimal toBigDecimal() {
+        BigDecimal value = bigDecimal;
+        if (value == null) {
+            if (compact) {
+                value = BigDecimal.valueOf(low, scale);
+            } else if (decimal) {
+                BigInteger unscaled = new BigInteger(digits(), radix);
+                value = new BigDecimal((negative) ? unscaled.negate() : unscaled, scale);
+            } else {
+                value = new BigDecimal(toBigInteger());
+            }
+            bigDecimal = value;
+        }
+        return value;
+    }
+
+    /**
+     * Get the digits of the unscaled value, without a sign, separators, or a
+     * decimal point
+     *
+     * @return ASCII digits
+     */
+    private String digits() {
+        StringBuilder out = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            int digit = Character.digit(text.charAt(i), radix);
+            if (digit >= 0) {
+                out.append(Character.forDigit(digit, radix));
+            }
+        }
+        return out.toString();
+    }
+
+    @Override
+    public int intValue() {
+        return (decimal) ? (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, whole)) : (int) low;
+    }
+
+    @Override
+    public long longValue() {
+        return (decimal) ? whole : low;
+    }
+
+    @Override
+    public float floatValue() {
+        if (compact && !decimal) {
+            return (float) low;
+        }
+        return (radix == 10) ? Float.parseFloat(toString()) : toBigInteger().floatValue();
+    }
+
+    @Override
+    public double doubleValue() {
+        if (compact && !decimal) {
+            return (double) low;
+        }
+        return (radix == 10) ? Double.parseDouble(toString()) : toBigInteger().doubleValue();
+    }
+
+    @Override
+    public String toString() {
+
+        // Other bases need the real value
+        if (radix != 10) {
+            return toBigInteger().toString();
+        }
+
+        // Drop leading zeros, keeping one before the decimal point
+        String digits = digits();
+        int skip = 0;
+        while (skip < digits.length() - scale - 1 && digits.charAt(skip) == '0') {
+            skip++;
+        }
+
+        // Write the value back out in plain form
+        StringBuilder out = new StringBuilder(digits.length() + 2);
+        if (negative && !zero) {
+            out.append('-');
+        }
+        int point = digits.length() - scale;
+        if (point <= 0) {
+            out.append("0.");
+            for (int i = point; i < 0; i++) {
+                out.append('0');
+            }
+            out.append(digits);
+        } else {
+            out.append(digits, skip, point);
+            if (scale > 0) {
+                out.append('.').append(digits, point, digits.length());
+            }
+        }
+        return out.toString();
+    }
+}
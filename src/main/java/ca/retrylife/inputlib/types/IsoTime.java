@@ -0,0 +1,354 @@
+package ca.retrylife.inputlib.types;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Hand-rolled parsing and printing for the fixed ISO-8601 layouts used by
+ * {@link Types#DATE} and {@link Types#TIMESTAMP}. Values are plain longs: days
+ * since 1970-01-01 for dates, and nanoseconds since 1970-01-01T00:00Z for
+ * timestamps. Parsing does not allocate, and an Instant or LocalDate is only
+ * built by {@link #toInstant} and {@link #toLocalDate}.
+ *
+ * Accepted layouts are:
+ *
+ * <pre>
+ * yyyy-mm-dd
+ * yyyy-mm-ddThh:mm[:ss[.fffffffff]][Z|+hh:mm|-hh:mm]
+ * </pre>
+ *
+ * A timestamp without an offset is read as UTC. Timestamps must fall between
+ * the years 1677 and 2262, which is what fits in a long of nanoseconds.
+ */
+public final class IsoTime {
+
+    // Returned for text that is not a valid date or timestamp
+    public static final long INVALID = Long.MIN_VALUE;
+
+    // Length of "yyyy-mm-dd"
+    public static final int DATE_LENGTH = 10;
+
+    // Unit sizes
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final long SECONDS_PER_DAY = 86_400L;
+    private static final long NANOS_PER_DAY = NANOS_PER_SECOND * SECONDS_PER_DAY;
+
+    // Largest whole second that fits in a long of nanoseconds
+    private static final long MAX_SECONDS = Long.MAX_VALUE / NANOS_PER_SECOND;
+
+    private IsoTime() {
+    }
+
+    /**
+     * Parse a "yyyy-mm-dd" date
+     *
+     * @param text Text
+     * @return Days since 1970-01-01, or {@link #INVALID}
+     */
+    public static long parseDate(String text) {
+        if (text.length() != DATE_LENGTH) {
+            return INVALID;
+        }
+        return parseDatePart(text);
+    }
+
+    /**
+     * Parse a timestamp. A plain date is not a timestamp
+     *
+     * @param text Text
+     * @return Nanoseconds since 1970-01-01T00:00Z, or {@link #INVALID}
+     */
+    public static long parseTimestamp(String text) {
+        int length = text.length();
+        if (length < 16 || text.charAt(10) != 'T' || text.charAt(13) != ':') {
+            return INVALID;
+        }
+
+        // Date, hours, and minutes
+        long day = parseDatePart(text);
+        int hour = twoDigits(text, 11);
+        int minute = twoDigits(text, 14);
+        if (day == INVALID || hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+            return INVALID;
+        }
+
+        // Seconds, and their fraction
+        int i = 16;
+        int second = 0;
+        long nanos = 0;
+        if (i < length && text.charAt(i) == ':') {
+            second = twoDigits(text, i + 1);
+            if (second < 0 || second > 59) {
+                return INVALID;
+            }
+            i += 3;
+            if (i < length && text.charAt(i) == '.') {
+                int digits = 0;
+                for (i++; i < length && isDigit(text.charAt(i)); i++) {
+                    if (++digits > 9) {
+                        return INVALID;
+                    }
+                    nanos = nanos * 10 + (text.charAt(i) - '0');
+                }
+                if (digits == 0) {
+                    return INVALID;
+                }
+                for (; digits < 9; digits++) {
+                    nanos *= 10;
+                }
+            }
+        }
+
+        // Offset
+        int offsetSeconds = 0;
+        if (i < length) {
+            char sign = text.charAt(i);
+            if (sign == 'Z' && i + 1 == length) {
+                i++;
+            } else if ((sign == '+' || sign == '-') && i + 6 == length && text.charAt(i + 3) == ':') {
+                int offsetHours = twoDigits(text, i + 1);
+                int offsetMinutes = twoDigits(text, i + 4);
+                if (offsetHours < 0 || offsetHours > 18 || offsetMinutes < 0 || offsetMinutes > 59) {
+                    return INVALID;
+                }
+                offsetSeconds = (offsetHours * 3600 + offsetMinutes * 60) * ((sign == '-') ? -1 : 1);
+            } else {
+                return INVALID;
+            }
+        }
+
+        // Keep to what fits in a long of nanoseconds
+        long seconds = day * SECONDS_PER_DAY + hour * 3600 + minute * 60 + second - offsetSeconds;
+        if (seconds >= MAX_SECONDS || seconds <= -MAX_SECONDS) {
+            return INVALID;
+        }
+        return seconds * NANOS_PER_SECOND + nanos;
+    }
+
+    /**
+     * Parse the "yyyy-mm-dd" at the start of some text
+     *
+     * @param text Text, at least 10 chars long
+     * @return Days since 1970-01-01, or {@link #INVALID}
+     */
+    private static long parseDatePart(String text) {
+        if (text.charAt(4) != '-' || text.charAt(7) != '-') {
+            return INVALID;
+        }
+        int high = twoDigits(text, 0);
+        int low = twoDigits(text, 2);
+        int month = twoDigits(text, 5);
+        int day = twoDigits(text, 8);
+        if (high < 0 || low < 0 || month < 1 || month > 12 || day < 1) {
+            return INVALID;
+        }
+        int year = high * 100 + low;
+        if (day > daysInMonth(year, month)) {
+            return INVALID;
+        }
+        return epochDay(year, month, day);
+    }
+
+    /**
+     * Read two ASCII digits
+     *
+     * @param text  Text
+     * @param start Index of the first digit
+     * @return Value, or -1 if they are not two digits
+     */
+    private static int twoDigits(String text, int start) {
+        if (start + 2 > text.length()) {
+            return -1;
+        }
+        char tens = text.charAt(start);
+        char ones = text.charAt(start + 1);
+        if (!isDigit(tens) || !isDigit(ones)) {
+            return -1;
+        }
+        return (tens - '0') * 10 + (ones - '0');
+    }
+
+    /**
+     * Check for an ASCII digit. ISO-8601 does not allow other digits
+     *
+     * @param c Char
+     * @return Is a digit?
+     */
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Get the number of days in a month
+     *
+     * @param year  Year
+     * @param month Month (1-12)
+     * @return Days
+     */
+    private static int daysInMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leap = (year % 4 == 0) && (year % 100 != 0 || year % 400 == 0);
+                return (leap) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * Count the days from 1970-01-01 to a date in the proleptic Gregorian
+     * calendar. The calendar repeats every 400 years (146097 days), and
+     * counting from March puts the leap day at the end of the year
+     *
+     * @param year  Year
+     * @param month Month (1-12)
+     * @param day   Day of the month
+     * @return Days since 1970-01-01
+     */
+    private static long epochDay(long year, int month, int day) {
+        year -= (month <= 2) ? 1 : 0;
+        long era = Math.floorDiv(year, 400);
+        long yearOfEra = year - era * 400;
+        long dayOfYear = (153 * (month + ((month > 2) ? -3 : 9)) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    /**
+     * Print a date as "yyyy-mm-dd"
+     *
+     * @param epochDay Days since 1970-01-01
+     * @return Text
+     */
+    public static String formatDate(long epochDay) {
+        StringBuilder out = new StringBuilder(DATE_LENGTH);
+        if (!appendDate(out, epochDay)) {
+            // Years without four digits need a sign
+            return LocalDate.ofEpochDay(epochDay).toString();
+        }
+        return out.toString();
+    }
+
+    /**
+     * Print a timestamp like {@link Instant#toString}, as UTC with the fraction
+     * in groups of three digits
+     *
+     * @param epochNanos Nanoseconds since 1970-01-01T00:00Z
+     * @return Text
+     */
+    public static String formatTimestamp(long epochNanos) {
+        long day = Math.floorDiv(epochNanos, NANOS_PER_DAY);
+        long nanoOfDay = Math.floorMod(epochNanos, NANOS_PER_DAY);
+        StringBuilder out = new StringBuilder(30);
+        appendDate(out, day);
+
+        // Time
+        long secondOfDay = nanoOfDay / NANOS_PER_SECOND;
+        out.append('T');
+        appendTwoDigits(out, (int) (secondOfDay / 3600));
+        out.append(':');
+        appendTwoDigits(out, (int) (secondOfDay / 60 % 60));
+        out.append(':');
+        appendTwoDigits(out, (int) (secondOfDay % 60));
+
+        // Fraction
+        int nanos = (int) (nanoOfDay % NANOS_PER_SECOND);
+        if (nanos > 0) {
+            int digits = (nanos % 1_000_000 == 0) ? 3 : ((nanos % 1_000 == 0) ? 6 : 9);
+            String fraction = Integer.toString(nanos + 1_000_000_000);
+            out.append('.').append(fraction, 1, 1 + digits);
+        }
+        return out.append('Z').toString();
+    }
+
+    /**
+     * Write a date as "yyyy-mm-dd". This walks back from days to a date, the
+     * reverse of {@link #epochDay}
+     *
+     * @param out      Where to write
+     * @param epochDay Days since 1970-01-01
+     * @return Did the year have four digits?
+     */
+    private static boolean appendDate(StringBuilder out, long epochDay) {
+        long shifted = epochDay + 719468;
+        long era = Math.floorDiv(shifted, 146097);
+        long dayOfEra = shifted - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * shiftedMonth + 2) / 5 + 1);
+        int month = (int) ((shiftedMonth < 10) ? shiftedMonth + 3 : shiftedMonth - 9);
+        long year = yearOfEra + era * 400 + ((month <= 2) ? 1 : 0);
+        if (year < 0 || year > 9999) {
+            return false;
+        }
+
+        appendTwoDigits(out, (int) (year / 100));
+        appendTwoDigits(out, (int) (year % 100));
+        out.append('-');
+        appendTwoDigits(out, month);
+        out.append('-');
+        appendTwoDigits(out, day);
+        return true;
+    }
+
+    /**
+     * Write a number as two digits
+     *
+     * @param out   Where to write
+     * @param value Value (0-99)
+     */
+    private static void appendTwoDigits(StringBuilder out, int value) {
+        out.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+
+    /**
+     * Convert a date to the timestamp of its midnight, in UTC
+     *
+     * @param epochDay Days since 1970-01-01
+     * @return Nanoseconds since 1970-01-01T00:00Z, or {@link #INVALID} if it
+     *         does not fit
+     */
+    public static long dateToTimestamp(long epochDay) {
+        if (epochDay >= Long.MAX_VALUE / NANOS_PER_DAY || epochDay <= Long.MIN_VALUE / NANOS_PER_DAY) {
+            return INVALID;
+        }
+        return epochDay * NANOS_PER_DAY;
+    }
+
+    /**
+     * Convert a timestamp to its date, in UTC
+     *
+     * @param epochNanos Nanoseconds since 1970-01-01T00:00Z
+     * @return Days since 1970-01-01
+     */
+    public static long timestampToDate(long epochNanos) {
+        return Math.floorDiv(epochNanos, NANOS_PER_DAY);
+    }
+
+    /**
+     * Build an Instant
+     *
+     * @param epochNanos Nanoseconds since 1970-01-01T00:00Z
+     * @return Instant
+     */
+    public static Instant toInstant(long epochNanos) {
+        return Instant.ofEpochSecond(Math.floorDiv(epochNanos, NANOS_PER_SECOND),
+                Math.floorMod(epochNanos, NANOS_PER_SECOND));
+    }
+
+    /**
+     * Build a LocalDate
+     *
+     * @param epochDay Days since 1970-01-01
+     * @return LocalDate
+     */
+    public static LocalDate toLocalDate(long epochDay) {
+        return LocalDate.ofEpochDay(epochDay);
+    }
+}
@@ -1,5 +1,10 @@
 package ca.retrylife.inputlib.types;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
@@ -19,6 +24,7 @@ public class Token {
     private final @Nullable Double _double;
     private final @Nullable Float _float;
     private final @Nullable Boolean _bool;
+    private final @Nullable Long _long;
 
     /**
      * Create a Token from a String
@@ -74,6 +80,33 @@ public class Token {
         this(Types.BOOLEAN, b);
     }
 
+    /**
+     * Create a Token from a Long
+     * 
+     * @param l Long value
+     */
+    public Token(Long l) {
+        this(Types.LONG, l);
+    }
+
+    /**
+     * Create a Token from a BigInteger
+     * 
+     * @param b BigInteger value
+     */
+    public Token(BigInteger b) {
+        this(Types.BIG_INTEGER, BigNumber.of(b));
+    }
+
+    /**
+     * Create a Token from a BigDecimal
+     * 
+     * @param b BigDecimal value
+     */
+    public Token(BigDecimal b) {
+        this(Types.BIG_DECIMAL, BigNumber.of(b));
+    }
+
     /**
      * Create a Token
      * 
@@ -127,6 +160,13 @@ public class Token {
         } else {
             this._bool = null;
         }
+
+        // Long
+        if (parsedType.canConvertTo(Types.LONG)) {
+            this._long = parsedType.toLong(value);
+        } else {
+            this._long = null;
+        }
     }
 
     /**
@@ -202,6 +242,55 @@ public class Token {
         return _bool;
     }
 
+    /**
+     * Get the token's value as a Long (Nullable)
+     * 
+     * @return Long or null
+     */
+    public @Nullable Long getLong() {
+        return _long;
+    }
+
+    /**
+     * Get the token's value as a BigInteger (Nullable). Unlike the other
+     * getters, the value is only built when this is called
+     * 
+     * @return BigInteger or null
+     */
+    public @Nullable BigInteger getBigInteger() {
+        return (primaryType.canConvertTo(Types.BIG_INTEGER)) ? primaryType.toBigInteger(raw) : null;
+    }
+
+    /**
+     * Get the token's value as a BigDecimal (Nullable). Unlike the other
+     * getters, the value is only built when this is called
+     * 
+     * @return BigDecimal or null
+     */
+    public @Nullable BigDecimal getBigDecimal() {
+        return (primaryType.canConvertTo(Types.BIG_DECIMAL)) ? primaryType.toBigDecimal(raw) : null;
+    }
+
+    /**
+     * Get the token's value as a LocalDate (Nullable). The value is only built
+     * when this is called
+     * 
+     * @return LocalDate or null
+     */
+    public @Nullable LocalDate getLocalDate() {
+        return (primaryType.canConvertTo(Types.DATE)) ? primaryType.toLocalDate(raw) : null;
+    }
+
+    /**
+     * Get the token's value as an Instant (Nullable). The value is only built
+     * when this is called
+     * 
+     * @return Instant or null
+     */
+    public @Nullable Instant getInstant() {
+        return (primaryType.canConvertTo(Types.TIMESTAMP)) ? primaryType.toInstant(raw) : null;
+    }
+
     @Override
     public String toString() {
         return String.format("Token<prim: %s, val: %s>", this.primaryType, this.raw);
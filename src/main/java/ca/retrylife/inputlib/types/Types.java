@@ -1,6 +1,9 @@
 package ca.retrylife.inputlib.types;
 
-import java.util.HashMap;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.function.Function;
 
 /**
@@ -27,237 +30,29 @@ public enum Types {
     FLOAT("Float", Float.class),
 
     // Boolean type
-    BOOLEAN("Boolean", Boolean.class);
+    BOOLEAN("Boolean", Boolean.class),
 
-    // Configure all the conversions
-    static {
+    // Long type
+    LONG("Long", Long.class),
 
-        // String -> Character
-        STRING.addConversion(CHARACTER, (s) -> {
+    // Arbitrary-precision integer type. Values are held as a BigNumber
+    BIG_INTEGER("BigInteger", BigInteger.class),
 
-            // Ensure the string exists
-            if (s != null && ((String) s).length() > 0) {
+    // Arbitrary-precision decimal type. Values are held as a BigNumber
+    BIG_DECIMAL("BigDecimal", BigDecimal.class),
 
-                // Return the first char
-                return ((String) s).charAt(0);
-            } else {
+    // ISO-8601 date type. Values are held as a Long of days since 1970-01-01
+    DATE("Date", LocalDate.class),
 
-                // Return nothing
-                return null;
-            }
-        });
-
-        // String -> Boolean
-        STRING.addConversion(BOOLEAN, (s) -> {
-
-            // Return true if the string exists
-            return s != null && ((String) s).length() > 0;
-        });
-
-        // Character -> String
-        CHARACTER.addConversion(STRING, (c) -> {
-
-            // Make sure C is not null
-            if (c != null) {
-                return c.toString();
-            } else {
-                return null;
-            }
-        });
-
-        // Character -> Integer
-        CHARACTER.addConversion(INTEGER, (c) -> {
-
-            // Make sure C is not null
-            if (c != null) {
-
-                // Cast the char up to an int
-                return (Integer) (int) ((Character) c).charValue();
-            } else {
-                return null;
-            }
-        });
-
-        // Character -> Double
-        CHARACTER.addConversion(DOUBLE, (c) -> {
-
-            // Make sure C is not null
-            if (c != null) {
-
-                // Cast the char up to a double
-                return (Double) (double) (int) ((Character) c).charValue();
-            } else {
-                return null;
-            }
-        });
-
-        // Character -> Float
-        CHARACTER.addConversion(FLOAT, (c) -> {
-
-            // Make sure C is not null
-            if (c != null) {
-
-                // Cast the char up to a float
-                return (Float) (float) (int) ((Character) c).charValue();
-            } else {
-                return null;
-            }
-        });
-
-        // Character -> Boolean
-        CHARACTER.addConversion(BOOLEAN, (c) -> {
-            return c != null && Character.isDefined((Character) c) && !((Character) c).equals('0');
-        });
-
-        // Integer -> String
-        INTEGER.addConversion(STRING, (i) -> {
-            return i.toString();
-        });
-
-        // Integer -> Character
-        INTEGER.addConversion(CHARACTER, (i) -> {
-
-            // Make sure I is not null
-            if (i != null) {
-
-                // Cast the int to a char
-                return (Character) (char) ((Integer) i).intValue();
-            } else {
-                return null;
-            }
-        });
-
-        // Integer -> Double
-        INTEGER.addConversion(DOUBLE, (i) -> {
-            return (Double) ((Integer) i).doubleValue();
-        });
-
-        // Integer -> Float
-        INTEGER.addConversion(FLOAT, (i) -> {
-            return (Float) ((Integer) i).floatValue();
-        });
-
-        // Integer -> Boolean
-        INTEGER.addConversion(BOOLEAN, (i) -> {
-            return i != null && ((Integer) i) != 0;
-        });
-
-        // Double -> String
-        DOUBLE.addConversion(STRING, (d) -> {
-            return d.toString();
-        });
-
-        // Double -> Character
-        DOUBLE.addConversion(CHARACTER, (d) -> {
-
-            // Make sure D is not null
-            if (d != null) {
-
-                // Cast the double to a character
-                return (Character) (char) ((Double) d).intValue();
-            } else {
-                return null;
-            }
-        });
-
-        // Double -> Integer
-        DOUBLE.addConversion(INTEGER, (d) -> {
-            return (Integer) ((Double) d).intValue();
-        });
-
-        // Double -> Float
-        DOUBLE.addConversion(FLOAT, (d) -> {
-            return (Float) ((Double) d).floatValue();
-        });
-
-        // Double -> Boolean
-        DOUBLE.addConversion(BOOLEAN, (d) -> {
-            return d != null && !((Double) d).isNaN() && !((Double) d).equals(0.0);
-        });
-
-        // Float -> String
-        FLOAT.addConversion(STRING, (f) -> {
-            return f.toString();
-        });
-
-        // Float -> Character
-        FLOAT.addConversion(CHARACTER, (f) -> {
-
-            // Make sure F is not null
-            if (f != null) {
-
-                // Cast the float to a character
-                return (Character) (char) ((Float) f).intValue();
-            } else {
-                return null;
-            }
-        });
-
-        // Float -> Integer
-        FLOAT.addConversion(INTEGER, (f) -> {
-            return (Integer) ((Float) f).intValue();
-        });
-
-        // Float -> Double
-        FLOAT.addConversion(DOUBLE, (f) -> {
-            return (Double) ((Float) f).doubleValue();
-        });
-
-        // Float -> Boolean
-        FLOAT.addConversion(BOOLEAN, (f) -> {
-            return f != null && !((Float) f).isNaN() && !((Float) f).equals(0.0f);
-        });
-
-        // Boolean -> String
-        BOOLEAN.addConversion(STRING, (b) -> {
-            return b.toString();
-        });
-
-        // Boolean -> Character
-        BOOLEAN.addConversion(CHARACTER, (b) -> {
-
-            // Handle B's state
-            if (b != null && ((Boolean) b)) {
-                return 'T';
-            } else {
-                return 'f';
-            }
-        });
-
-        // Boolean -> Int
-        BOOLEAN.addConversion(INTEGER, (b) -> {
-            // Handle B's state
-            if (b != null && ((Boolean) b)) {
-                return 1;
-            } else {
-                return 0;
-            }
-        });
-
-        // Boolean -> Double
-        BOOLEAN.addConversion(DOUBLE, (b) -> {
-
-            // Use pre-defined conversions to handle this
-            return INTEGER.toDouble(BOOLEAN.toInteger(b));
-        });
-
-        // Boolean -> Float
-        BOOLEAN.addConversion(FLOAT, (b) -> {
-
-            // Use pre-defined conversions to handle this
-            return INTEGER.toFloat(BOOLEAN.toInteger(b));
-        });
-
-    }
+    // ISO-8601 timestamp type. Values are held as a Long of nanoseconds since
+    // 1970-01-01T00:00Z
+    TIMESTAMP("Timestamp", Instant.class);
 
     // Data about self
     private final String name;
     public final String ID;
     private final Class clazz;
 
-    // Converter map
-    private HashMap<Types, Function<Object, Object>> converterMap;
-
     /**
      * Create a type
      * 
@@ -268,17 +63,6 @@ public enum Types {
         this.name = name;
         this.ID = this.name;
         this.clazz = clazz;
-        this.converterMap = new HashMap<>();
-    }
-
-    /**
-     * Add a conversion for the type
-     * 
-     * @param t         Type to convert to
-     * @param converter Function to handle conversion
-     */
-    private void addConversion(Types t, Function<Object, Object> converter) {
-        this.converterMap.put(t, converter);
     }
 
     /**
@@ -288,7 +72,7 @@ public enum Types {
      * @return Is this type the same?
      */
     public boolean isType(Types t) {
-        return getName().equals(t.getName());
+        return this == t;
     }
 
     /**
@@ -307,17 +91,36 @@ public enum Types {
      * @return Can be converted?
      */
     public boolean canConvertTo(Types t) {
-        return this.converterMap.containsKey(t) || isType(t);
+        if (isType(t)) {
+            return true;
+        }
+
+        // Strings can only become Characters and Booleans. Dates and timestamps
+        // can only become Strings, Longs, and each other. Everything else can
+        // become anything but a date or timestamp
+        switch (this) {
+            case STRING:
+                return t == CHARACTER || t == BOOLEAN;
+            case DATE:
+            case TIMESTAMP:
+                return t == STRING || t == LONG || t == DATE || t == TIMESTAMP;
+            default:
+                return t != DATE && t != TIMESTAMP;
+        }
     }
 
     /**
-     * Get the internal converter for a specific type
+     * Get the internal converter for a specific type. Converters are built on
+     * request, so keeping the result is cheaper than asking again
      * 
      * @param t Type to convert to
-     * @return Converter
+     * @return Converter, or null if there is no conversion (or t is this type)
      */
     public Function<Object, Object> getConverterFor(Types t) {
-        return this.converterMap.get(t);
+        if (isType(t) || !canConvertTo(t)) {
+            return null;
+        }
+        return (value) -> convert(this, t, value);
     }
 
     /**
@@ -332,7 +135,7 @@ public enum Types {
             return (String) value;
         } else if (canConvertTo(STRING)) {
             // Handle using a converter
-            return (String) getConverterFor(STRING).apply(value);
+            return (String) convert(this, STRING, value);
         } else {
             // Handle an impossible conversion
             throw new RuntimeException(
@@ -352,7 +155,7 @@ public enum Types {
             return (Character) value;
         } else if (canConvertTo(CHARACTER)) {
             // Handle using a converter
-            return (Character) getConverterFor(CHARACTER).apply(value);
+            return (Character) convert(this, CHARACTER, value);
         } else {
             // Handle an impossible conversion
             throw new RuntimeException(
@@ -372,7 +175,7 @@ public enum Types {
             return (Integer) value;
         } else if (canConvertTo(INTEGER)) {
             // Handle using a converter
-            return (Integer) getConverterFor(INTEGER).apply(value);
+            return (Integer) convert(this, INTEGER, value);
         } else {
             // Handle an impossible conversion
             throw new RuntimeException(
@@ -392,7 +195,7 @@ public enum Types {
             return (Double) value;
         } else if (canConvertTo(DOUBLE)) {
             // Handle using a converter
-            return (Double) getConverterFor(DOUBLE).apply(value);
+            return (Double) convert(this, DOUBLE, value);
         } else {
             // Handle an impossible conversion
             throw new RuntimeException(
@@ -412,7 +215,7 @@ public enum Types {
             return (Float) value;
         } else if (canConvertTo(FLOAT)) {
             // Handle using a converter
-            return (Float) getConverterFor(FLOAT).apply(value);
+            return (Float) convert(this, FLOAT, value);
         } else {
             // Handle an impossible conversion
             throw new RuntimeException(
@@ -432,11 +235,499 @@ public enum Types {
             return (Boolean) value;
         } else if (canConvertTo(BOOLEAN)) {
             // Handle using a converter
-            return (Boolean) getConverterFor(BOOLEAN).apply(value);
+            return (Boolean) convert(this, BOOLEAN, value);
         } else {
             // Handle an impossible conversion
             throw new RuntimeException(
                     String.format("Type %s cannot convert directly to type %s", getName(), BOOLEAN.getName()));
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Convert a value of this type to a Long
+     * 
+     * @param value Value of this type
+     * @return Long for that value
+     */
+    public Long toLong(Object value) {
+        if (isType(LONG)) {
+            // Handle conversion to self
+            return (Long) value;
+        } else if (canConvertTo(LONG)) {
+            // Handle using a converter
+            return (Long) convert(this, LONG, value);
+        } else {
+            // Handle an impossible conversion
+            throw new RuntimeException(
+                    String.format("Type %s cannot convert directly to type %s", getName(), LONG.getName()));
+        }
+    }
+
+    /**
+     * Convert a value of this type to a BigInteger. Decimal values are truncated
+     * toward zero
+     * 
+     * @param value Value of this type
+     * @return BigInteger for that value (null for NaN and infinite values)
+     */
+    public BigInteger toBigInteger(Object value) {
+        if (isType(BIG_INTEGER)) {
+            // Handle conversion to self
+            return BigNumber.of((Number) value).toBigInteger();
+        } else if (canConvertTo(BIG_INTEGER)) {
+            // Handle using a converter
+            return (BigInteger) convert(this, BIG_INTEGER, value);
+        } else {
+            // Handle an impossible conversion
+            throw new RuntimeException(
+                    String.format("Type %s cannot convert directly to type %s", getName(), BIG_INTEGER.getName()));
+        }
+    }
+
+    /**
+     * Convert a value of this type to a BigDecimal
+     * 
+     * @param value Value of this type
+     * @return BigDecimal for that value (null for NaN and infinite values)
+     */
+    public BigDecimal toBigDecimal(Object value) {
+        if (isType(BIG_DECIMAL)) {
+            // Handle conversion to self
+            return BigNumber.of((Number) value).toBigDecimal();
+        } else if (canConvertTo(BIG_DECIMAL)) {
+            // Handle using a converter
+            return (BigDecimal) convert(this, BIG_DECIMAL, value);
+        } else {
+            // Handle an impossible conversion
+            throw new RuntimeException(
+                    String.format("Type %s cannot convert directly to type %s", getName(), BIG_DECIMAL.getName()));
+        }
+    }
+
+    /**
+     * Convert a value of this type to a LocalDate. Timestamps are read in UTC
+     * 
+     * @param value Value of this type
+     * @return LocalDate for that value
+     */
+    public LocalDate toLocalDate(Object value) {
+        if (isType(DATE)) {
+            // Handle conversion to self
+            return IsoTime.toLocalDate((Long) value);
+        } else if (canConvertTo(DATE)) {
+            // Handle using a converter
+            return IsoTime.toLocalDate((Long) convert(this, DATE, value));
+        } else {
+            // Handle an impossible conversion
+            throw new RuntimeException(
+                    String.format("Type %s cannot convert directly to type %s", getName(), DATE.getName()));
+        }
+    }
+
+    /**
+     * Convert a value of this type to an Instant. Dates become their midnight,
+     * in UTC
+     * 
+     * @param value Value of this type
+     * @return Instant for that value (null if it does not fit)
+     */
+    public Instant toInstant(Object value) {
+        if (isType(TIMESTAMP)) {
+            // Handle conversion to self
+            return IsoTime.toInstant((Long) value);
+        } else if (canConvertTo(TIMESTAMP)) {
+            // Handle using a converter
+            Long nanos = (Long) convert(this, TIMESTAMP, value);
+            return (nanos == null) ? null : IsoTime.toInstant(nanos);
+        } else {
+            // Handle an impossible conversion
+            throw new RuntimeException(
+                    String.format("Type %s cannot convert directly to type %s", getName(), TIMESTAMP.getName()));
+        }
+    }
+
+    /**
+     * Convert a value between two types. Conversions are plain code instead of
+     * a table of lambdas, so loading this class does no work
+     * 
+     * @param from  Type of the value
+     * @param to    Type to convert to (must not be the same as from)
+     * @param value Value
+     * @return Converted value
+     */
+    private static Object convert(Types from, Types to, Object value) {
+        switch (from) {
+            case STRING:
+                return convertString((String) value, to);
+            case CHARACTER:
+                return convertCharacter((Character) value, to);
+            case INTEGER:
+                return convertInteger((Integer) value, to);
+            case DOUBLE:
+                return convertDouble((Double) value, to);
+            case FLOAT:
+                return convertFloat((Float) value, to);
+            case BOOLEAN:
+                return convertBoolean((Boolean) value, to);
+            case LONG:
+                return convertLong((Long) value, to);
+            case BIG_INTEGER:
+            case BIG_DECIMAL:
+                return convertBig(BigNumber.of((Number) value), to);
+            case DATE:
+                return convertDate((Long) value, to);
+            case TIMESTAMP:
+                return convertTimestamp((Long) value, to);
+            default:
+                throw new IllegalStateException("Unknown type: " + from);
+        }
+    }
+
+    /**
+     * Convert a String to another type
+     * 
+     * @param s  Value
+     * @param to Type to convert to
+     * @return Converted value
+     */
+    private static Object convertString(String s, Types to) {
+        switch (to) {
+            case CHARACTER:
+
+                // Ensure the string exists
+                if (s != null && s.length() > 0) {
+
+                    // Return the first char
+                    return s.charAt(0);
+                } else {
+
+                    // Return nothing
+                    return null;
+                }
+            case BOOLEAN:
+
+                // Return true if the string exists
+                return s != null && s.length() > 0;
+            default:
+                throw new IllegalStateException(unsupported(STRING, to));
+        }
+    }
+
+    /**
+     * Convert a Character to another type
+     * 
+     * @param c  Value
+     * @param to Type to convert to
+     * @return Converted value
+     */
+    private static Object convertCharacter(Character c, Types to) {
+
+        // Make sure C is not null
+        if (c == null) {
+            return (to == BOOLEAN) ? Boolean.FALSE : null;
+        }
+
+        switch (to) {
+            case STRING:
+                return c.toString();
+            case INTEGER:
+
+                // Cast the char up to an int
+                return (Integer) (int) c.charValue();
+            case DOUBLE:
+
+                // Cast the char up to a double
+                return (Double) (double) (int) c.charValue();
+            case FLOAT:
+
+                // Cast the char up to a float
+                return (Float) (float) (int) c.charValue();
+            case LONG:
+
+                // Cast the char up to a long
+                return (Long) (long) c.charValue();
+            case BIG_INTEGER:
+                return BigInteger.valueOf(c.charValue());
+            case BIG_DECIMAL:
+                return BigDecimal.valueOf(c.charValue());
+            case BOOLEAN:
+                return Character.isDefined(c) && !c.equals('0');
+            default:
+                throw new IllegalStateException(unsupported(CHARACTER, to));
+        }
+    }
+
+    /**
+     * Convert an Integer to another type
+     * 
+     * @param i  Value
+     * @param to Type to convert to
+     * @return Converted value
+     */
+    private static Object convertInteger(Integer i, Types to) {
+        switch (to) {
+            case STRING:
+                return i.toString();
+            case CHARACTER:
+
+                // Make sure I is not null
+                if (i != null) {
+
+                    // Cast the int to a char
+                    return (Character) (char) i.intValue();
+                } else {
+                    return null;
+                }
+            case DOUBLE:
+                return (Double) i.doubleValue();
+            case FLOAT:
+                return (Float) i.floatValue();
+            case LONG:
+                return (Long) i.longValue();
+            case BIG_INTEGER:
+                return BigInteger.valueOf(i);
+            case BIG_DECIMAL:
+                return BigDecimal.valueOf(i);
+            case BOOLEAN:
+                return i != null && i != 0;
+            default:
+                throw new IllegalStateException(unsupported(INTEGER, to));
+        }
+    }
+
+    /**
+     * Convert a Double to another type
+     * 
+     * @param d  Value
+     * @param to Type to convert to
+     * @return Converted value
+     */
+    private static Object convertDouble(Double d, Types to) {
+        switch (to) {
+            case STRING:
+                return d.toString();
+            case CHARACTER:
+
+                // Make sure D is not null
+                if (d != null) {
+
+                    // Cast the double to a character
+                    return (Character) (char) d.intValue();
+                } else {
+                    return null;
+                }
+            case INTEGER:
+                return (Integer) d.intValue();
+            case FLOAT:
+                return (Float) d.floatValue();
+            case LONG:
+                return (Long) d.longValue();
+            case BIG_INTEGER:
+                return (Double.isFinite(d)) ? BigDecimal.valueOf(d).toBigInteger() : null;
+            case BIG_DECIMAL:
+                return (Double.isFinite(d)) ? BigDecimal.valueOf(d) : null;
+            case BOOLEAN:
+                return d != null && !d.isNaN() && !d.equals(0.0);
+            default:
+                throw new IllegalStateException(unsupported(DOUBLE, to));
+        }
+    }
+
+    /**
+     * Convert a Float to another type
+     * 
+     * @param f  Value
+     * @param to Type to convert to
+     * @return Converted value
+     */
+    private static Object convertFloat(Float f, Types to) {
+        switch (to) {
+            case STRING:
+                return f.toString();
+            case CHARACTER:
+
+                // Make sure F is not null
+                if (f != null) {
+
+                    // Cast the float to a character
+                    return (Character) (char) f.intValue();
+                } else {
+                    return null;
+                }
+            case INTEGER:
+                return (Integer) f.intValue();
+            case DOUBLE:
+                return (Double) f.doubleValue();
+            case LONG:
+                return (Long) f.longValue();
+            case BIG_INTEGER:
+                return (Float.isFinite(f)) ? new BigDecimal(f.toString()).toBigInteger() : null;
+            case BIG_DECIMAL:
+                return (Float.isFinite(f)) ? new BigDecimal(f.toString()) : null;
+            case BOOLEAN:
+                return f != null && !f.isNaN() && !f.equals(0.0f);
+            default:
+                throw new IllegalStateException(unsupported(FLOAT, to));
+        }
+    }
+
+    /**
+     * Convert a Boolean to another type
+     * 
+     * @param b  Value
+     * @param to Type to convert to
+     * @return Converted value
+     */
+    private static Object convertBoolean(Boolean b, Types to) {
+
+        // Handle B's state
+        boolean state = b != null && b;
+
+        switch (to) {
+            case STRING:
+                return b.toString();
+            case CHARACTER:
+                return (state) ? 'T' : 'f';
+            case INTEGER:
+                return (state) ? 1 : 0;
+            case DOUBLE:
+                return (state) ? 1.0 : 0.0;
+            case FLOAT:
+                return (state) ? 1.0f : 0.0f;
+            case LONG:
+                return (state) ? 1L : 0L;
+            case BIG_INTEGER:
+                return (state) ? BigInteger.ONE : BigInteger.ZERO;
+            case BIG_DECIMAL:
+                return (state) ? BigDecimal.ONE : BigDecimal.ZERO;
+            default:
+                throw new IllegalStateException(unsupported(BOOLEAN, to));
+        }
+    }
+
+    /**
+     * Convert a Long to another type. Narrowing follows Java casts, like the
+     * other conversions
+     * 
+     * @param l  Value
+     * @param to Type to convert to
+     * @return Converted value
+     */
+    private static Object convertLong(Long l, Types to) {
+        switch (to) {
+            case STRING:
+                return l.toString();
+            case CHARACTER:
+
+                // Make sure L is not null
+                if (l != null) {
+
+                    // Cast the long to a char
+                    return (Character) (char) l.longValue();
+                } else {
+                    return null;
+                }
+            case INTEGER:
+                return (Integer) l.intValue();
+            case DOUBLE:
+                return (Double) l.doubleValue();
+            case FLOAT:
+                return (Float) l.floatValue();
+            case BOOLEAN:
+                return l != null && l != 0L;
+            case BIG_INTEGER:
+                return BigInteger.valueOf(l);
+            case BIG_DECIMAL:
+                return BigDecimal.valueOf(l);
+            default:
+                throw new IllegalStateException(unsupported(LONG, to));
+        }
+    }
+
+    /**
+     * Convert a BigInteger or BigDecimal to another type. Only the conversions
+     * to BigInteger and BigDecimal build one, the rest work from the digits
+     * 
+     * @param n  Value
+     * @param to Type to convert to
+     * @return Converted value
+     */
+    private static Object convertBig(BigNumber n, Types to) {
+        switch (to) {
+            case STRING:
+                return n.toString();
+            case CHARACTER:
+
+                // Cast the value to a char, through an int
+                return (Character) (char) n.intValue();
+            case INTEGER:
+                return (Integer) n.intValue();
+            case LONG:
+                return (Long) n.longValue();
+            case DOUBLE:
+                return (Double) n.doubleValue();
+            case FLOAT:
+                return (Float) n.floatValue();
+            case BOOLEAN:
+                return n.signum() != 0;
+            case BIG_INTEGER:
+                return n.toBigInteger();
+            case BIG_DECIMAL:
+                return n.toBigDecimal();
+            default:
+                throw new IllegalStateException(unsupported((n.isDecimal()) ? BIG_DECIMAL : BIG_INTEGER, to));
+        }
+    }
+
+    /**
+     * Convert a date to another type
+     * 
+     * @param epochDay Days since 1970-01-01
+     * @param to       Type to convert to
+     * @return Converted value
+     */
+    private static Object convertDate(Long epochDay, Types to) {
+        switch (to) {
+            case STRING:
+                return IsoTime.formatDate(epochDay);
+            case LONG:
+                return epochDay;
+            case TIMESTAMP:
+                long nanos = IsoTime.dateToTimestamp(epochDay);
+                return (nanos == IsoTime.INVALID) ? null : (Long) nanos;
+            default:
+                throw new IllegalStateException(unsupported(DATE, to));
+        }
+    }
+
+    /**
+     * Convert a timestamp to another type
+     * 
+     * @param epochNanos Nanoseconds since 1970-01-01T00:00Z
+     * @param to         Type to convert to
+     * @return Converted value
+     */
+    private static Object convertTimestamp(Long epochNanos, Types to) {
+        switch (to) {
+            case STRING:
+                return IsoTime.formatTimestamp(epochNanos);
+            case LONG:
+                return epochNanos;
+            case DATE:
+                return (Long) IsoTime.timestampToDate(epochNanos);
+            default:
+                throw new IllegalStateException(unsupported(TIMESTAMP, to));
+        }
+    }
+
+    /**
+     * Build the message for a conversion that does not exist
+     * 
+     * @param from Type of the value
+     * @param to   Type to convert to
+     * @return Message
+     */
+    private static String unsupported(Types from, Types to) {
+        return String.format("Type %s cannot convert directly to type %s", from.getName(), to.getName());
+    }
+}
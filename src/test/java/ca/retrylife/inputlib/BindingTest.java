@@ -0,0 +1,134 @@
+package ca.retrylife.inputlib;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import org.junit.Test;
+
+import ca.retrylife.inputlib.exceptions.FormFormatException;
+
+public class BindingTest {
+
+    /**
+     * A plain class. Static, final, and transient fields are skipped
+     */
+    @BindOrder({ "id", "quantity", "price", "urgent", "grade", "customer", "serial", "day" })
+    static class Order {
+        static int created;
+        final String kind = "order";
+        transient String note;
+        int id;
+        Long quantity;
+        double price;
+        boolean urgent;
+        char grade;
+        String customer;
+        BigInteger serial;
+        LocalDate day;
+    }
+
+    /**
+     * A class filled in a different order than it is declared
+     */
+    @BindOrder({ "port", "host" })
+    static class Endpoint {
+        String host;
+        int port;
+    }
+
+    /**
+     * Classes whose order does not match their fields
+     */
+    @BindOrder({ "host" })
+    static class MissingField {
+        String host;
+        int port;
+    }
+
+    @BindOrder({ "host", "port", "host" })
+    static class RepeatedField {
+        String host;
+        int port;
+    }
+
+    /**
+     * A class with an unsupported field
+     */
+    static class Unsupported {
+        Object value;
+    }
+
+    /**
+     * A class without a no-argument constructor
+     */
+    static class NoDefault {
+        int value;
+
+        NoDefault(int value) {
+            this.value = value;
+        }
+    }
+
+    @Test
+    public void testBind() {
+        Order order = Parser.bind("7 0x10 2.5 yes B \"Jane Doe\" 123456789012345678901234567890 2024-02-29",
+                Order.class);
+
+        assertEquals(7, order.id);
+        assertEquals(16L, (long) order.quantity);
+        assertEquals(2.5, order.price, 0.0);
+        assertEquals(true, order.urgent);
+        assertEquals('B', order.grade);
+        assertEquals("Jane Doe", order.customer);
+        assertEquals(new BigInteger("123456789012345678901234567890"), order.serial);
+        assertEquals(LocalDate.of(2024, 2, 29), order.day);
+        assertNull(order.note);
+    }
+
+    @Test
+    public void testBindErrors() {
+
+        // Bad values, and classes that can not be bound
+        FormFormatException e = assertThrows(FormFormatException.class,
+                () -> Parser.bind("7 many 2.5 yes B x 1 2024-02-29", Order.class));
+        assertEquals("quantity", e.getField());
+        assertThrows(IllegalArgumentException.class, () -> Parser.bind("x", Unsupported.class));
+        assertThrows(IllegalArgumentException.class, () -> Parser.bind("1", NoDefault.class));
+    }
+
+    @Test
+    public void testBindOrder() {
+
+        // The annotation, not the declaration, sets the order
+        Endpoint endpoint = Parser.bind("443 example.com", Endpoint.class);
+        assertEquals("example.com", endpoint.host);
+        assertEquals(443, endpoint.port);
+
+        // Every bound field must be listed exactly once
+        assertThrows(IllegalArgumentException.class, () -> Parser.bind("x", MissingField.class));
+        assertThrows(IllegalArgumentException.class, () -> Parser.bind("x 1 y", RepeatedField.class));
+    }
+
+    @Test
+    public void testPromptInto() {
+
+        // One answer per field, re-asking for bad ones
+        Prompt p = new Prompt(
+                new ByteArrayInputStream("1\n2\n3.5\nmaybe\nno\nA\nBob\n9\n2024-01-01\n".getBytes(StandardCharsets.UTF_8)),
+                new PrintStream(new ByteArrayOutputStream()));
+
+        Order order = p.promptInto(Order.class);
+        assertEquals(1, order.id);
+        assertEquals(false, order.urgent);
+        assertEquals("Bob", order.customer);
+        assertEquals(LocalDate.of(2024, 1, 1), order.day);
+    }
+}
@@ -0,0 +1,123 @@
+package ca.retrylife.inputlib;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import org.junit.Test;
+
+import ca.retrylife.inputlib.exceptions.FormFormatException;
+import ca.retrylife.inputlib.exceptions.RetriesExhaustedException;
+import ca.retrylife.inputlib.selection.ChoiceSet;
+import ca.retrylife.inputlib.types.Types;
+
+public class FormTest {
+
+    // A server config form, used by most tests
+    private static final FormPlan SERVER = new Form()
+            .field("host", Types.STRING, "Server host").defaultValue("localhost")
+            .field("port", Types.INTEGER, "Server port").range(1, 65535).defaultValue("8080")
+            .field("mode", Types.CHARACTER, "Mode").choices(ChoiceSet.ofCharacters('r', 'w'))
+            .field("ratio", Types.DOUBLE, "Ratio").range(0.0, 1.0)
+            .field("verbose", Types.BOOLEAN, "Verbose").defaultValue("no")
+            .compile();
+
+    /**
+     * Build a Prompt that reads from a fixed string
+     *
+     * @param input  Input text
+     * @param policy Limits
+     * @return Prompt
+     */
+    private static Prompt promptFor(String input, PromptPolicy policy) {
+        return new Prompt(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)),
+                new PrintStream(new ByteArrayOutputStream()), policy);
+    }
+
+    @Test
+    public void testPrompt() {
+
+        // Defaults, then retries for out-of-range and disallowed answers
+        Prompt p = promptFor("\n70000\n\nx\nw\n1.5\n0.25\nyes\n", PromptPolicy.UNLIMITED);
+
+        FormResult result = p.promptForm(SERVER);
+        assertEquals("localhost", result.getString("host"));
+        assertEquals(8080, result.getInteger("port"));
+        assertEquals('w', result.getCharacter("mode"));
+        assertEquals(0.25, result.getDouble("ratio"), 0.0);
+        assertEquals(true, result.getBoolean(4));
+    }
+
+    @Test
+    public void testSharedBudget() {
+
+        // Bad answers to different fields count against one budget
+        Prompt p = promptFor("\n0\n\nx\nw\n", new PromptPolicy(2));
+
+        assertThrows(RetriesExhaustedException.class, () -> p.promptForm(SERVER));
+    }
+
+    @Test
+    public void testFill() {
+
+        // Missing trailing values take their defaults
+        FormResult result = SERVER.fill("example.com 0x1F90 r 0.5");
+        assertEquals("example.com", result.getString("host"));
+        assertEquals(8080, result.getInteger("port"));
+        assertEquals('r', result.getCharacter("mode"));
+        assertEquals(false, result.getBoolean("verbose"));
+
+        // Bad values name their field
+        FormFormatException e = assertThrows(FormFormatException.class, () -> SERVER.fill("a 0 r 0.5"));
+        assertEquals("port", e.getField());
+        e = assertThrows(FormFormatException.class, () -> SERVER.fill("a 1 r"));
+        assertEquals("ratio", e.getField());
+        assertThrows(FormFormatException.class, () -> SERVER.fill("a 1 r 0.5 yes extra"));
+    }
+
+    @Test
+    public void testFillDelimited() {
+
+        // Empty CSV fields take their defaults
+        FormPlan plan = new Form().delimitedBy(new RecordTokenizer(",", false))
+                .field("name", Types.STRING).choices("alpha", "beta")
+                .field("count", Types.LONG).defaultValue("5000000000")
+                .field("id", Types.BIG_INTEGER)
+                .field("day", Types.DATE)
+                .compile();
+
+        FormResult result = plan.fill("beta,,123456789012345678901234567890,2024-02-29");
+        assertEquals("beta", result.getString("name"));
+        assertEquals(5000000000L, result.getLong("count"));
+        assertEquals(new BigInteger("123456789012345678901234567890"), result.getBigInteger("id"));
+        assertEquals(LocalDate.of(2024, 2, 29), result.getLocalDate("day"));
+        assertThrows(FormFormatException.class, () -> plan.fill("gamma,1,1,2024-02-29"));
+    }
+
+    @Test
+    public void testCompileErrors() {
+
+        // Constraints must fit their field, and defaults must be valid
+        assertThrows(IllegalArgumentException.class, () -> new Form().field("a", Types.BOOLEAN).range(0, 1).compile());
+        assertThrows(IllegalArgumentException.class,
+                () -> new Form().field("a", Types.INTEGER).range(0.5, 1.5).compile());
+        assertThrows(IllegalArgumentException.class,
+                () -> new Form().field("a", Types.INTEGER).range(1, 10).defaultValue("11").compile());
+        assertThrows(IllegalArgumentException.class, () -> new Form().field("a", Types.STRING).field("a", Types.LONG));
+        assertThrows(IllegalStateException.class, () -> new Form().defaultValue("1"));
+    }
+
+    @Test
+    public void testWrongAccess() {
+        FormResult result = SERVER.fill("host 80 r 0");
+
+        assertThrows(IllegalStateException.class, () -> result.getLong("port"));
+        assertThrows(IllegalArgumentException.class, () -> result.getInteger("missing"));
+    }
+}
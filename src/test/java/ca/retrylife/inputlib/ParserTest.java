@@ -2,6 +2,11 @@ package ca.retrylife.inputlib;
 
 import static org.junit.Assert.assertEquals;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+
 import org.junit.Test;
 
 import ca.retrylife.inputlib.types.Token;
@@ -74,6 +79,17 @@ public class ParserTest {
         assertEquals("Value", (Integer) 255, t.getInteger());
     }
 
+    @Test
+    public void testHexIntegerWithBParsing() {
+
+        // Parse a token
+        Token t = Parser.parseToToken("0xfb");
+
+        // Make sure the primary type, and data are correct
+        assertEquals("Primary Type", Types.INTEGER, t.getPrimaryType());
+        assertEquals("Value", (Integer) 251, t.getInteger());
+    }
+
     @Test
     public void testBinIntegerParsing() {
 
@@ -85,6 +101,67 @@ public class ParserTest {
         assertEquals("Value", (Integer) 11, t.getInteger());
     }
 
+    @Test
+    public void testLongParsing() {
+
+        // Parse tokens that do not fit in an int
+        Token t = Parser.parseToToken("1700000000000");
+        Token hex = Parser.parseToToken("0xFFFFFFFFFF");
+
+        // Make sure the primary type, and data are correct
+        assertEquals("Primary Type", Types.LONG, t.getPrimaryType());
+        assertEquals("Value", (Long) 1700000000000L, t.getLong());
+        assertEquals("Primary Type", Types.LONG, hex.getPrimaryType());
+        assertEquals("Value", (Long) 0xFFFFFFFFFFL, hex.getLong());
+
+        // Values that fit stay Integers
+        assertEquals("Primary Type", Types.INTEGER, Parser.parseToToken("2147483647").getPrimaryType());
+        assertEquals("Primary Type", Types.INTEGER, Parser.classify("0x7FFFFFFF"));
+        assertEquals("Primary Type", Types.LONG, Parser.classify("2147483648"));
+    }
+
+    @Test
+    public void testBigParsing() {
+
+        // Too large for a long
+        Token t = Parser.parseToToken("0x10000000000000000");
+        assertEquals("Primary Type", Types.BIG_INTEGER, t.getPrimaryType());
+        assertEquals("Value", BigInteger.ONE.shiftLeft(64), t.getBigInteger());
+        assertEquals("Value", (Long) 0L, t.getLong());
+
+        // More digits than a double holds
+        Token d = Parser.parseToToken("1234567890.1234567");
+        assertEquals("Primary Type", Types.BIG_DECIMAL, d.getPrimaryType());
+        assertEquals("Value", new BigDecimal("1234567890.1234567"), d.getBigDecimal());
+
+        // Short decimals stay Doubles, and convert exactly
+        Token money = Parser.parseToToken("19.99");
+        assertEquals("Primary Type", Types.DOUBLE, money.getPrimaryType());
+        assertEquals("Value", new BigDecimal("19.99"), money.getBigDecimal());
+    }
+
+    @Test
+    public void testTimeParsing() {
+
+        // Dates are Strings until they are turned on
+        assertEquals("Primary Type", Types.STRING, Parser.parseToToken("2024-01-31").getPrimaryType());
+        Parser.setParseTimes(true);
+        try {
+            Token date = Parser.parseToToken("2024-01-31");
+            Token time = Parser.parseToToken("2024-01-31T12:00:00Z");
+
+            // Make sure the primary type, and data are correct
+            assertEquals("Primary Type", Types.DATE, date.getPrimaryType());
+            assertEquals("Value", LocalDate.of(2024, 1, 31), date.getLocalDate());
+            assertEquals("Primary Type", Types.TIMESTAMP, time.getPrimaryType());
+            assertEquals("Value", Instant.parse("2024-01-31T12:00:00Z"), time.getInstant());
+            assertEquals("Value", (Long) 1706702400000000000L, time.getLong());
+            assertEquals("Primary Type", Types.STRING, Parser.parseToToken("2024-13-01").getPrimaryType());
+        } finally {
+            Parser.setParseTimes(false);
+        }
+    }
+
     @Test
     public void testDoubleParsing() {
 
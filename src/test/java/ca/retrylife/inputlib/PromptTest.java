@@ -0,0 +1,342 @@
+package ca.retrylife.inputlib;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import ca.retrylife.inputlib.exceptions.EndOfInputException;
+import ca.retrylife.inputlib.exceptions.InputTooLargeException;
+import ca.retrylife.inputlib.exceptions.PromptTimeoutException;
+import ca.retrylife.inputlib.exceptions.RetriesExhaustedException;
+import ca.retrylife.inputlib.selection.ChoiceSet;
+import ca.retrylife.inputlib.types.Token;
+import ca.retrylife.inputlib.types.Types;
+
+public class PromptTest {
+
+    /**
+     * Build a Prompt that reads from a fixed string
+     *
+     * @param input  Input text
+     * @param policy Limits
+     * @return Prompt
+     */
+    private static Prompt promptFor(String input, PromptPolicy policy) {
+        return new Prompt(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)),
+                new PrintStream(new ByteArrayOutputStream()), policy);
+    }
+
+    @Test
+    public void testRetryUntilValid() {
+
+        // Garbage, then a valid int
+        Prompt p = promptFor("hello\nworld\n42\n", PromptPolicy.UNLIMITED);
+
+        assertEquals(42, p.promptInteger("int"));
+    }
+
+    @Test
+    public void testLong() {
+
+        // Too large for an int, but not for a long
+        Prompt p = promptFor("hello\n5000000000\n5000000000\n7\n", PromptPolicy.UNLIMITED);
+
+        assertEquals(5000000000L, p.promptLong("long"));
+        assertEquals(7, p.promptInteger("int"));
+    }
+
+    @Test
+    public void testExpressions() {
+
+        // Arithmetic is only read in expression mode. Whole results are integers
+        Prompt p = promptFor("4*1024\n1.5e3/60\n2^40\n10/4\n", PromptPolicy.UNLIMITED)
+                .withExpressions(true);
+
+        assertEquals(4096, p.promptInteger("int"));
+        assertEquals(25, p.promptInteger("int"));
+        assertEquals(1L << 40, p.promptLong("long"));
+        assertEquals(2.5, p.promptDouble("double"), 0.0);
+        assertThrows(EndOfInputException.class, () -> promptFor("2*3\n", PromptPolicy.UNLIMITED).promptInteger("int"));
+    }
+
+    @Test
+    public void testTimes() {
+
+        // A timestamp is not a date, but a date is a timestamp
+        Prompt p = promptFor("2024-01-31T12:00Z\n2024-01-31\n2024-01-31\n", PromptPolicy.UNLIMITED);
+
+        assertEquals(LocalDate.of(2024, 1, 31), p.promptDate("date"));
+        assertEquals(Instant.parse("2024-01-31T00:00:00Z"), p.promptInstant("instant"));
+    }
+
+    @Test
+    public void testEndOfInput() {
+
+        // Input runs out before a valid answer
+        Prompt p = promptFor("hello\n", PromptPolicy.UNLIMITED);
+
+        assertThrows(EndOfInputException.class, () -> p.promptInteger("int"));
+    }
+
+    @Test
+    public void testRetriesExhausted() {
+
+        // Three bad answers with a budget of three
+        Prompt p = promptFor("one\ntwo\nthree\n42\n", new PromptPolicy(3));
+
+        RetriesExhaustedException e = assertThrows(RetriesExhaustedException.class, () -> p.promptInteger("int"));
+        assertEquals(3, e.getAttempts());
+    }
+
+    @Test
+    public void testNestedPromptsShareBudget() {
+
+        // Out-of-range and non-integer answers both count against the same budget
+        Prompt p = promptFor("100\nhello\n5\n", new PromptPolicy(2));
+
+        assertThrows(RetriesExhaustedException.class, () -> p.promptIntegerRangeSelection("pick", 1, 10));
+    }
+
+    @Test
+    public void testPerCallPolicy() {
+
+        // The budget only applies to the call it was set for
+        Prompt p = promptFor("one\n7\n", PromptPolicy.UNLIMITED);
+
+        assertThrows(RetriesExhaustedException.class,
+                () -> p.withPolicy(new PromptPolicy(1)).promptInteger("int"));
+        assertEquals(7, p.promptInteger("int"));
+    }
+
+    @Test
+    public void testReadTimeout() throws Exception {
+
+        // Nothing is written to the pipe until after the deadline
+        PipedOutputStream writer = new PipedOutputStream();
+        Prompt p = new Prompt(new PipedInputStream(writer), new PrintStream(new ByteArrayOutputStream()),
+                new PromptPolicy(0, 50, TimeUnit.MILLISECONDS));
+
+        assertThrows(PromptTimeoutException.class, () -> p.promptInteger("int"));
+
+        // A late answer is not lost
+        writer.write("12\n".getBytes(StandardCharsets.UTF_8));
+        writer.flush();
+        assertEquals(12, p.withPolicy(PromptPolicy.UNLIMITED).promptInteger("int"));
+    }
+
+    @Test
+    public void testReadTimeoutSharedStream() throws Exception {
+
+        // Many Prompts over one stream time out, but only one thread reads it
+        PipedOutputStream writer = new PipedOutputStream();
+        PipedInputStream in = new PipedInputStream(writer);
+        PromptPolicy policy = new PromptPolicy(0, 20, TimeUnit.MILLISECONDS);
+        long before = readerThreads();
+        for (int i = 0; i < 10; i++) {
+            Prompt p = new Prompt(in, new PrintStream(new ByteArrayOutputStream()), policy);
+            assertThrows(PromptTimeoutException.class, () -> p.promptInteger("int"));
+        }
+        assertTrue(readerThreads() <= before + 1);
+
+        // The line goes to the next Prompt, not to an abandoned read
+        writer.write("12\n".getBytes(StandardCharsets.UTF_8));
+        writer.flush();
+        Prompt p = new Prompt(in, new PrintStream(new ByteArrayOutputStream()), PromptPolicy.UNLIMITED);
+        assertEquals(12, p.promptInteger("int"));
+    }
+
+    /**
+     * Count the live background reader threads
+     *
+     * @return Thread count
+     */
+    private static long readerThreads() {
+        return Thread.getAllStackTraces().keySet().stream().filter((t) -> t.getName().equals("inputlib-reader"))
+                .count();
+    }
+
+    @Test
+    public void testMultiLineString() {
+
+        // Lines are kept exactly as typed
+        Prompt p = promptFor("hello world\n0x10\n\n.\n", PromptPolicy.UNLIMITED);
+
+        assertEquals("hello world\n0x10\n\n", p.promptMultiLineString("text"));
+    }
+
+    @Test
+    public void testMultiLineStreaming() throws Exception {
+
+        // Stream into a writer with a custom terminator
+        Prompt p = promptFor("line one\nline two\nEOF\n", PromptPolicy.UNLIMITED);
+        StringWriter sink = new StringWriter();
+
+        assertEquals(18, p.promptMultiLineString("text", sink, "EOF", 0));
+        assertEquals("line one\nline two\n", sink.toString());
+    }
+
+    @Test
+    public void testMultiLineSizeLimit() {
+
+        // The second line goes over the limit
+        Prompt p = promptFor("12345\n12345\n.\n", PromptPolicy.UNLIMITED);
+
+        assertThrows(InputTooLargeException.class,
+                () -> p.promptMultiLineString("text", new StringWriter(), ".", 8));
+    }
+
+    @Test
+    public void testMultiLineSizeLimitWhileReading() {
+
+        // A line far longer than the limit is cut off at it, and skipped a piece
+        // at a time instead of being read into memory
+        byte[] tail = "\nmore\n.\n7\n".getBytes(StandardCharsets.UTF_8);
+        InputStream huge = new InputStream() {
+            private long position = 0;
+
+            @Override
+            public int read() {
+                long i = position++ - 5_000_000L;
+                return (i < 0) ? 'a' : (i < tail.length) ? tail[(int) i] : -1;
+            }
+        };
+        Prompt p = new Prompt(huge, new PrintStream(new ByteArrayOutputStream()), PromptPolicy.UNLIMITED);
+
+        InputTooLargeException e = assertThrows(InputTooLargeException.class,
+                () -> p.promptMultiLineString("text", new StringWriter(), ".", 100));
+        assertEquals(100, e.getMaxChars());
+
+        // The rest of the input, up to the terminator, was dropped
+        assertEquals(7, p.promptInteger("int"));
+    }
+
+    @Test
+    public void testMultiLineSizeLimitThenPrompt() {
+
+        // Lines after the one that went over the limit are not read as answers
+        Prompt p = promptFor("12345\n12345\n42\n.\n7\n", PromptPolicy.UNLIMITED);
+
+        assertThrows(InputTooLargeException.class,
+                () -> p.promptMultiLineString("text", new StringWriter(), ".", 8));
+        assertEquals(7, p.promptInteger("int"));
+    }
+
+    @Test
+    public void testPagedList() {
+
+        // Search, then pick a result by index
+        Prompt p = promptFor("grape\n9\n2\n", PromptPolicy.UNLIMITED);
+
+        assertEquals("Pineapple", p.promptPagedList("Fruit", 2, "Banana", "Apple", "Pineapple", "Grape"));
+    }
+
+    @Test
+    public void testPagedListHexLikeSearch() {
+
+        // Words that look like hex digits are searched for, not parsed
+        Prompt p = promptFor("ff\nbb\n1\n", PromptPolicy.UNLIMITED);
+
+        assertEquals("Jiffy", p.promptPagedList("Words", 2, "Abba", "Jiffy", "Cliff"));
+        assertThrows(IllegalArgumentException.class, () -> p.promptPagedList("Words", 0, "Abba"));
+    }
+
+    @Test
+    public void testEnum() {
+
+        // An unknown name, then an ambiguous prefix, then a unique one
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        Prompt p = new Prompt(new ByteArrayInputStream("purple\nb\nbo\n2\n".getBytes(StandardCharsets.UTF_8)),
+                new PrintStream(output), PromptPolicy.UNLIMITED);
+
+        assertEquals(Types.BOOLEAN, p.promptEnum(Types.class));
+        assertEquals(Types.INTEGER, p.promptEnum("Type", Types.class));
+        assertTrue(output.toString().contains("! Did you mean one of [BIG_DECIMAL,BIG_INTEGER,BOOLEAN]"));
+    }
+
+    @Test
+    public void testCharacterSelection() {
+
+        // The first answer is not allowed
+        Prompt p = promptFor("z\nb\n", PromptPolicy.UNLIMITED);
+
+        assertEquals('b', p.promptCharacterSelection("pick", 'a', 'b', 'c'));
+    }
+
+    @Test
+    public void testReusedChoiceSet() {
+
+        // One set serves several prompts
+        ChoiceSet choices = ChoiceSet.ofIntegers(1, 10, 100);
+        Prompt p = promptFor("5\n10\n100\n", PromptPolicy.UNLIMITED);
+
+        assertEquals(10, p.promptIntegerSelection("pick", choices));
+        assertEquals(100, p.promptIntegerSelection("pick", choices));
+    }
+
+    @Test
+    public void testRecord() {
+
+        // The first line has too few values, the second has a bad type
+        Prompt p = promptFor("3 4.5\n3 4.5 maybe\n3 4.5 yes\n", PromptPolicy.UNLIMITED);
+
+        Token[] record = p.promptRecord("values", Types.INTEGER, Types.DOUBLE, Types.BOOLEAN);
+        assertEquals(3, (int) record[0].getInteger());
+        assertEquals(4.5, record[1].getDouble(), 0.0);
+        assertEquals(true, record[2].getBoolean());
+    }
+
+    @Test
+    public void testSharedBetweenThreads() throws Exception {
+
+        // Every exchange is one bad answer, then a good one. With a budget of two
+        // attempts, a thread that was handed another thread's line would fail
+        int threads = 4;
+        int callsPerThread = 250;
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < threads * callsPerThread; i++) {
+            input.append("bad\n").append(i).append('\n');
+        }
+        Prompt p = promptFor(input.toString(), new PromptPolicy(2));
+
+        // Ask from every thread at once
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<Long>> sums = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            sums.add(pool.submit(() -> {
+                long sum = 0;
+                for (int i = 0; i < callsPerThread; i++) {
+                    sum += p.promptInteger("int");
+                }
+                return sum;
+            }));
+        }
+
+        // Every number must have been read exactly once
+        long total = 0;
+        for (Future<Long> sum : sums) {
+            total += sum.get(10, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+        long n = threads * callsPerThread;
+        assertEquals(n * (n - 1) / 2, total);
+    }
+}
@@ -0,0 +1,61 @@
+package ca.retrylife.inputlib;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import ca.retrylife.inputlib.types.Token;
+import ca.retrylife.inputlib.types.Types;
+
+public class RecordTokenizerTest {
+
+    @Test
+    public void testTypedFields() {
+
+        // Parse a line of mixed values
+        Token[] tokens = Parser.parseLine("  3\t4.5   yes ");
+
+        // Each value keeps its own type
+        assertEquals(3, tokens.length);
+        assertEquals(Types.INTEGER, tokens[0].getPrimaryType());
+        assertEquals(Types.DOUBLE, tokens[1].getPrimaryType());
+        assertEquals(Types.BOOLEAN, tokens[2].getPrimaryType());
+    }
+
+    @Test
+    public void testQuotedFields() {
+
+        // Quotes keep spaces, and a doubled quote is a literal quote
+        Token[] tokens = Parser.parseLine("\"hello world\" \"say \"\"hi\"\"\" \"42\"");
+
+        assertEquals(3, tokens.length);
+        assertEquals("hello world", tokens[0].getString());
+        assertEquals("say \"hi\"", tokens[1].getString());
+
+        // A quoted number is still a String
+        assertEquals(Types.STRING, tokens[2].getPrimaryType());
+    }
+
+    @Test
+    public void testEmptyFields() {
+
+        // Without collapsing, every comma starts a field
+        RecordTokenizer csv = new RecordTokenizer(",", false);
+        Token[] tokens = csv.tokenize("1,,x,");
+
+        assertEquals(4, tokens.length);
+        assertEquals("", tokens[1].getString());
+        assertEquals("", tokens[3].getString());
+    }
+
+    @Test
+    public void testReusedRecord() {
+
+        // The same record is refilled by each line
+        TokenRecord record = new TokenRecord();
+        assertEquals(12, Parser.parseLine("1 2 3 4 5 6 7 8 9 10 11 12", record));
+        assertEquals(1, Parser.parseLine("done", record));
+        assertEquals("done", record.get(0).getString());
+        assertEquals(0, Parser.parseLine("   ", record));
+    }
+}
@@ -0,0 +1,92 @@
+package ca.retrylife.inputlib.expression;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+
+import org.junit.Test;
+
+public class ExpressionTest {
+
+    /**
+     * Compile and evaluate an expression
+     *
+     * @param source Source text
+     * @return Value
+     */
+    private static double eval(String source) {
+        return Expression.compile(source).evaluate();
+    }
+
+    @Test
+    public void testArithmetic() {
+        assertEquals(4096.0, eval("4*1024"), 0.0);
+        assertEquals(25.0, eval("1.5e3/60"), 0.0);
+        assertEquals(14.0, eval("2 + 3 * 4"), 0.0);
+        assertEquals(20.0, eval("(2 + 3) * 4"), 0.0);
+        assertEquals(1.0, eval("7 % 3"), 0.0);
+    }
+
+    @Test
+    public void testNumberFormats() {
+
+        // Everything the Parser reads, plus exponents
+        assertEquals(18.0, eval("0x10+2"), 0.0);
+        assertEquals(5.0, eval("0b101"), 0.0);
+        assertEquals(1000.0, eval("1_000"), 0.0);
+        assertEquals(5.0, eval("2.5f*2"), 0.0);
+        assertEquals(0.5, eval(".5"), 0.0);
+    }
+
+    @Test
+    public void testPrecedence() {
+
+        // Power binds tighter than a leading minus, and is right-associative
+        assertEquals(-4.0, eval("-2^2"), 0.0);
+        assertEquals(512.0, eval("2^3^2"), 0.0);
+        assertEquals(0.25, eval("2^-2"), 0.0);
+        assertEquals(5.0, eval("3 - -2"), 0.0);
+    }
+
+    @Test
+    public void testFunctions() {
+        assertEquals(Math.sqrt(2) / 2, eval("sqrt(2)/2"), 0.0);
+        assertEquals(5.0, eval("hypot(3, 4)"), 0.0);
+        assertEquals(3.0, eval("max(min(3, 4), 2)"), 0.0);
+        assertEquals(10.0, eval("log2(1024)"), 1e-12);
+        assertEquals(-1.0, eval("cos(pi)"), 0.0);
+        assertEquals(1.0, eval("ln(e)"), 0.0);
+    }
+
+    @Test
+    public void testErrors() {
+        assertThrows(NumberFormatException.class, () -> eval(""));
+        assertThrows(NumberFormatException.class, () -> eval("1 +"));
+        assertThrows(NumberFormatException.class, () -> eval("(1"));
+        assertThrows(NumberFormatException.class, () -> eval("1 2"));
+        assertThrows(NumberFormatException.class, () -> eval("foo(1)"));
+        assertThrows(NumberFormatException.class, () -> eval("max(1)"));
+        assertThrows(NumberFormatException.class, () -> eval("1..2"));
+    }
+
+    @Test
+    public void testDepthLimit() {
+
+        // Deep input fails to compile, instead of overflowing the stack
+        StringBuilder deep = new StringBuilder();
+        for (int i = 0; i < 10_000; i++) {
+            deep.append('(');
+        }
+        assertThrows(NumberFormatException.class, () -> eval(deep.toString()));
+        assertThrows(NumberFormatException.class, () -> eval("1" + "+1".repeat(10_000)));
+    }
+
+    @Test
+    public void testCache() {
+
+        // The same text compiles once
+        Expression first = Expression.compile("1+2*3");
+        assertSame(first, Expression.compile("1+2*3"));
+        assertEquals(5, first.size());
+    }
+}
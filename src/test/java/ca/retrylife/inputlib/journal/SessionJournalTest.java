@@ -0,0 +1,163 @@
+package ca.retrylife.inputlib.journal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import ca.retrylife.inputlib.Prompt;
+import ca.retrylife.inputlib.exceptions.EndOfInputException;
+import ca.retrylife.inputlib.types.Types;
+
+public class SessionJournalTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Build a Prompt that reads from a fixed string
+     *
+     * @param input Input text
+     * @return Prompt
+     */
+    private static Prompt promptFor(String input) {
+        return new Prompt(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)),
+                new PrintStream(new ByteArrayOutputStream()));
+    }
+
+    @Test
+    public void testRecordAndRead() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("session.journal");
+
+        // A rejected answer is recorded too
+        try (SessionJournal journal = SessionJournal.open(file)) {
+            Prompt p = promptFor("hello\n42\nyes\n").withJournal(journal);
+            assertEquals(42, p.promptInteger("int"));
+            assertEquals(true, p.promptBoolean("bool"));
+
+            // Answers are stored as UTF-8
+            journal.record("promptString", "caf\u00e9 \ud83d\ude00", 0);
+        }
+
+        // Every answer comes back, with its method and type
+        List<JournalEntry> entries = new ArrayList<>();
+        JournalReader.open(file).forEach(entries::add);
+        assertEquals(4, entries.size());
+        assertEquals("hello", entries.get(0).getAnswer());
+        assertEquals("promptInteger", entries.get(0).getMethod());
+        assertEquals(Types.STRING, entries.get(0).getType());
+        assertEquals(Types.INTEGER, entries.get(1).getType());
+        assertEquals(Types.BOOLEAN, entries.get(2).getType());
+        assertEquals("caf\u00e9 \ud83d\ude00", entries.get(3).getAnswer());
+        assertTrue(entries.get(0).getEpochNanos() <= entries.get(3).getEpochNanos());
+    }
+
+    @Test
+    public void testAppendAcrossSegments() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("large.journal");
+
+        // Enough records to fill several segments, written in two sessions
+        String answer = "x".repeat(1000);
+        for (int session = 0; session < 2; session++) {
+            try (SessionJournal journal = SessionJournal.open(file, 5)) {
+                for (int i = 0; i < 1500; i++) {
+                    journal.record("promptString", answer + i, 0);
+                }
+            }
+        }
+
+        JournalReader reader = JournalReader.open(file);
+        assertEquals(3000, reader.size());
+        int i = 0;
+        for (JournalEntry entry : reader) {
+            assertEquals(answer + (i++ % 1500), entry.getAnswer());
+        }
+        assertEquals(Files.size(file), SessionJournal.open(file).size());
+    }
+
+    @Test
+    public void testReplay() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("replay.journal");
+        try (SessionJournal journal = SessionJournal.open(file)) {
+            Prompt p = promptFor("nope\n7\n\nhi\n2.5\n").withJournal(journal);
+            p.promptInteger("int");
+            p.promptString("text");
+            p.promptDouble("double");
+        }
+
+        // The same calls get the same answers, then the input ends
+        Prompt replay = JournalReader.open(file).replay(new PrintStream(new ByteArrayOutputStream()));
+        assertEquals(7, replay.promptInteger("int"));
+        assertEquals("hi", replay.promptString("text"));
+        assertEquals(2.5, replay.promptDouble("double"), 0.0);
+        assertThrows(EndOfInputException.class, () -> replay.promptString("more"));
+
+        // Bulk reads see the same lines
+        try (InputStream in = JournalReader.open(file).asInputStream()) {
+            assertEquals("nope\n7\n\nhi\n2.5\n", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testNotAJournal() throws IOException {
+        Path file = folder.newFile("other.txt").toPath();
+        Files.write(file, "hello world".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(IOException.class, () -> JournalReader.open(file));
+        assertThrows(IOException.class, () -> SessionJournal.open(file));
+    }
+
+    @Test
+    public void testDamagedRecords() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("damaged.journal");
+        try (SessionJournal journal = SessionJournal.open(file)) {
+            journal.record("promptString", "one", 0);
+            journal.record("promptString", "two", 0);
+            journal.record("promptString", "three", 0);
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        int second = SessionJournal.HEADER_BYTES + 4 + ByteBuffer.wrap(bytes).getInt(SessionJournal.HEADER_BYTES);
+
+        // A body that never reached the disk fails its checksum, so reading
+        // stops before it
+        byte[] lost = bytes.clone();
+        Arrays.fill(lost, second + SessionJournal.BODY_START, second + 4 + ByteBuffer.wrap(bytes).getInt(second),
+                (byte) 0);
+        Files.write(file, lost);
+        assertEquals(1, JournalReader.open(file).size());
+
+        // So does a bad type, instead of failing
+        byte[] badType = bytes.clone();
+        badType[second + 24] = (byte) 0x7F;
+        Files.write(file, badType);
+        List<JournalEntry> entries = new ArrayList<>();
+        JournalReader.open(file).forEach(entries::add);
+        assertEquals(1, entries.size());
+        assertEquals("one", entries.get(0).getAnswer());
+
+        // New records replace the damaged ones
+        try (SessionJournal journal = SessionJournal.open(file)) {
+            journal.record("promptString", "four", 0);
+        }
+        entries.clear();
+        JournalReader.open(file).forEach(entries::add);
+        assertEquals(2, entries.size());
+        assertEquals("four", entries.get(1).getAnswer());
+    }
+}
@@ -0,0 +1,78 @@
+package ca.retrylife.inputlib.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import ca.retrylife.inputlib.Parser;
+import ca.retrylife.inputlib.Prompt;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class FlightRecorderEventsTest {
+
+    @Test
+    public void testEnabledState() {
+
+        // A running recording only turns on the events it does not disable
+        try (Recording recording = new Recording()) {
+            recording.enable("inputlib.Prompt");
+            recording.disable("inputlib.Parse");
+            recording.start();
+            assertFalse(FlightEvents.parseEnabled());
+            assertTrue(FlightEvents.promptEnabled());
+            recording.stop();
+        }
+        assertFalse(FlightEvents.promptEnabled());
+    }
+
+    @Test
+    public void testEvents() throws Exception {
+
+        // Record some parsing and prompting
+        Path file = Files.createTempFile("inputlib", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("inputlib.Parse");
+            recording.enable("inputlib.Prompt");
+            recording.start();
+
+            Parser.parseToToken("0xff");
+            Prompt p = new Prompt(new ByteArrayInputStream("nope\n12\n".getBytes(StandardCharsets.UTF_8)),
+                    new PrintStream(new ByteArrayOutputStream()));
+            p.promptInteger("int");
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        // Read the events back
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Files.delete(file);
+        List<RecordedEvent> parses = events.stream()
+                .filter((e) -> e.getEventType().getName().equals("inputlib.Parse")).collect(Collectors.toList());
+        List<RecordedEvent> prompts = events.stream()
+                .filter((e) -> e.getEventType().getName().equals("inputlib.Prompt")).collect(Collectors.toList());
+
+        // One direct parse, and two from the prompt
+        assertEquals(3, parses.size());
+        assertEquals(4, parses.get(0).getInt("inputLength"));
+        assertEquals("Integer", parses.get(0).getString("type"));
+
+        // One prompt, which took two attempts
+        assertEquals(1, prompts.size());
+        assertEquals("promptInteger", prompts.get(0).getString("method"));
+        assertEquals(2, prompts.get(0).getInt("attempts"));
+    }
+}
@@ -0,0 +1,92 @@
+package ca.retrylife.inputlib.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.After;
+import org.junit.Test;
+
+import ca.retrylife.inputlib.Parser;
+import ca.retrylife.inputlib.Prompt;
+import ca.retrylife.inputlib.types.Types;
+
+public class LockFreeMetricsTest {
+
+    @After
+    public void cleanup() {
+        Metrics.uninstall();
+    }
+
+    @Test
+    public void testParserMetrics() {
+
+        // Nothing is recorded without a sink
+        LockFreeMetrics metrics = new LockFreeMetrics();
+        Parser.parseToToken("42");
+        assertFalse(Metrics.enabled());
+
+        // Install, and parse a few inputs
+        Metrics.install(metrics);
+        assertTrue(Metrics.enabled());
+        Parser.parseToToken("42");
+        Parser.parseToToken("0xff");
+        Parser.parseToToken("yes");
+        Parser.parseToToken("hello world");
+
+        // Check the type mix
+        assertEquals(2, metrics.getParseCount(Types.INTEGER));
+        assertEquals(1, metrics.getParseCount(Types.BOOLEAN));
+        assertEquals(1, metrics.getParseCount(Types.STRING));
+        assertEquals(0, metrics.getParseCount(Types.DOUBLE));
+        assertEquals(4, metrics.getParseLatency().getCount());
+    }
+
+    @Test
+    public void testPromptMetrics() {
+
+        // Two bad answers, then a good one
+        LockFreeMetrics metrics = new LockFreeMetrics();
+        Metrics.install(metrics);
+        Prompt p = new Prompt(new ByteArrayInputStream("one\n100\n5\n".getBytes(StandardCharsets.UTF_8)),
+                new PrintStream(new ByteArrayOutputStream()));
+        assertEquals(5, p.promptIntegerRangeSelection("pick", 1, 10));
+
+        // Nested calls are reported as the outermost method
+        assertEquals(1, metrics.getPromptCount("promptIntegerRangeSelection"));
+        assertEquals(2, metrics.getRejectedAttempts("promptIntegerRangeSelection"));
+        assertEquals(0, metrics.getPromptCount("promptInteger"));
+        assertEquals(1, metrics.getWaitLatency("promptIntegerRangeSelection").getCount());
+    }
+
+    @Test
+    public void testHistogram() {
+
+        // Record 1..1000
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+
+        // Percentiles are within the bucket precision
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500, histogram.getPercentile(50), 500 * 0.04);
+        assertEquals(990, histogram.getPercentile(99), 990 * 0.04);
+        assertEquals(1, histogram.getPercentile(0));
+    }
+
+    @Test
+    public void testHistogramBuckets() {
+
+        // Every bucket's value maps back to the same bucket
+        for (long value : new long[] { 0, 31, 32, 33, 1000, 123_456_789L, Long.MAX_VALUE }) {
+            int index = LatencyHistogram.indexFor(value);
+            assertEquals(index, LatencyHistogram.indexFor(LatencyHistogram.valueFor(index)));
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package ca.retrylife.inputlib.pipeline;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import ca.retrylife.inputlib.RecordTokenizer;
+import ca.retrylife.inputlib.types.Token;
+import ca.retrylife.inputlib.types.Types;
+
+public class TokenPipelineTest {
+
+    // Lines of every type
+    private static final String[] LINES = { "42", "0x1F", "2.5f", "1.25", "yes", "a", "hello world",
+            "9223372036854775808", "2024-01-02", "" };
+
+    @Test
+    public void testOrderAcrossThreads() {
+        for (WaitStrategy strategy : WaitStrategy.values()) {
+
+            // Spinning needs a core per thread: three parsers, the convert
+            // thread, and this one
+            if (strategy == WaitStrategy.BUSY_SPIN && Runtime.getRuntime().availableProcessors() < 5) {
+                continue;
+            }
+
+            // A small ring and several parsers, so the ring wraps many times
+            List<Token> tokens = new ArrayList<>();
+            List<Long> sequences = new ArrayList<>();
+            int[] batchEnds = { 0 };
+            TokenPipeline pipeline = new TokenPipeline((token, sequence, endOfBatch) -> {
+                tokens.add(token);
+                sequences.add(sequence);
+                batchEnds[0] += (endOfBatch) ? 1 : 0;
+            }, 8, 3, strategy);
+
+            int count = 10_000;
+            for (int i = 0; i < count; i++) {
+                pipeline.publish(LINES[i % LINES.length]);
+            }
+            pipeline.close();
+
+            // Every line arrives once, in order, parsed like a RecordTokenizer field
+            assertEquals(count, tokens.size());
+            for (int i = 0; i < count; i++) {
+                Token expected = RecordTokenizer.parseField(LINES[i % LINES.length]);
+                assertEquals(strategy.name(), expected.getPrimaryType(), tokens.get(i).getPrimaryType());
+                assertEquals(strategy.name(), expected.toString(), tokens.get(i).toString());
+                assertEquals(i, (long) sequences.get(i));
+            }
+            assertTrue(batchEnds[0] > 0);
+            assertTrue(pipeline.getMaxQueueDepth() <= 8);
+        }
+    }
+
+    @Test
+    public void testMetrics() {
+        long[] sum = { 0 };
+        TokenHandler handler = (token, sequence, endOfBatch) -> sum[0] += token.getInteger();
+        try (TokenPipeline pipeline = new TokenPipeline(handler)) {
+            assertEquals(0, pipeline.getPublished());
+            for (int i = 1; i <= 100; i++) {
+                pipeline.publish(Integer.toString(i));
+            }
+            pipeline.flush();
+
+            // Everything has been converted
+            assertEquals(5050, sum[0]);
+            assertEquals(100, pipeline.getPublished());
+            assertEquals(100, pipeline.getConverted());
+            assertEquals(0, pipeline.getQueueDepth());
+            assertTrue(pipeline.getMaxQueueDepth() >= 0);
+            assertTrue(pipeline.getAverageBatchSize() >= 1);
+            assertTrue(pipeline.getThroughput() > 0);
+        }
+    }
+
+    @Test
+    public void testMalformedLines() {
+
+        // Lines that look like numbers, but are not, become Strings
+        List<Token> tokens = new ArrayList<>();
+        try (TokenPipeline pipeline = new TokenPipeline((token, sequence, endOfBatch) -> tokens.add(token))) {
+            for (String line : new String[] { "hello", "1.2.3", "ff", "42" }) {
+                pipeline.publish(line);
+            }
+        }
+        assertEquals(4, tokens.size());
+        assertEquals(Types.STRING, tokens.get(1).getPrimaryType());
+        assertEquals("1.2.3", tokens.get(1).getString());
+        assertEquals("ff", tokens.get(2).getString());
+        assertEquals(Integer.valueOf(42), tokens.get(3).getInteger());
+    }
+
+    @Test
+    public void testHandlerFailure() {
+        TokenPipeline pipeline = new TokenPipeline((token, sequence, endOfBatch) -> {
+            throw new ArithmeticException("bad");
+        }, 4, 1, WaitStrategy.YIELD);
+
+        // The failure reaches the producer, even with a full ring
+        pipeline.publish("1");
+        assertThrows(IllegalStateException.class, () -> {
+            for (int i = 0; i < 100; i++) {
+                pipeline.publish("1");
+            }
+            pipeline.flush();
+        });
+        IllegalStateException e = assertThrows(IllegalStateException.class, pipeline::close);
+        assertTrue(e.getCause() instanceof ArithmeticException);
+        assertThrows(IllegalStateException.class, () -> pipeline.publish("1"));
+    }
+
+    @Test
+    public void testInvalidSettings() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new TokenPipeline((token, sequence, endOfBatch) -> {
+                }, 100, 1, WaitStrategy.YIELD));
+        assertThrows(IllegalArgumentException.class,
+                () -> new TokenPipeline((token, sequence, endOfBatch) -> {
+                }, 64, 0, WaitStrategy.YIELD));
+    }
+}
@@ -0,0 +1,124 @@
+package ca.retrylife.inputlib.schema;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import ca.retrylife.inputlib.RecordTokenizer;
+import ca.retrylife.inputlib.types.Token;
+import ca.retrylife.inputlib.types.Types;
+
+public class SchemaInferrerTest {
+
+    // Comma separated, keeping empty fields
+    private static final RecordTokenizer CSV = new RecordTokenizer(",", false);
+
+    @Test
+    public void testNarrowestCommonType() {
+        SchemaInferrer inferrer = new SchemaInferrer(CSV, 0);
+        inferrer.accept("1,1,1,yes,a,1,1.2.3");
+        inferrer.accept("2,2.5f,2.5,no,c,yes,4");
+
+        // Ints widen to floats and doubles, mixed kinds fall back to String, and a
+        // malformed number is a String
+        assertArrayEquals(new Types[] { Types.INTEGER, Types.FLOAT, Types.DOUBLE, Types.BOOLEAN, Types.CHARACTER,
+                Types.STRING, Types.STRING }, inferrer.getSchema());
+    }
+
+    @Test
+    public void testLongAndFloat() {
+        SchemaInferrer inferrer = new SchemaInferrer(CSV, 0);
+        inferrer.accept("1700000000001");
+        inferrer.accept("1.5f");
+
+        // A Float can not hold a Long's digits
+        assertEquals(Types.DOUBLE, inferrer.getSchema()[0]);
+        assertEquals(Types.DOUBLE, ColumnProfile.join(Types.FLOAT, Types.LONG));
+        assertEquals(Types.FLOAT, ColumnProfile.join(Types.INTEGER, Types.FLOAT));
+    }
+
+    @Test
+    public void testMissingAndRange() {
+        SchemaInferrer inferrer = new SchemaInferrer(CSV, 0);
+        inferrer.accept("5");
+        inferrer.accept(",x");
+        inferrer.accept("3,y");
+        inferrer.accept("12");
+
+        ColumnProfile[] columns = inferrer.getColumns();
+        assertEquals(2, columns.length);
+
+        // Empty fields are missing, and do not change the type
+        assertEquals(Types.INTEGER, columns[0].getType());
+        assertEquals(3, columns[0].getCount());
+        assertEquals(1, columns[0].getMissingCount());
+        assertEquals(3.0, columns[0].getMin(), 0.0);
+        assertEquals(12.0, columns[0].getMax(), 0.0);
+
+        // Rows too short for a column are missing too, even if they came first
+        assertEquals(2, columns[1].getMissingCount());
+        assertEquals(Double.NaN, columns[1].getMin(), 0.0);
+    }
+
+    @Test
+    public void testMergeMatchesSingleThread() {
+        SchemaInferrer whole = new SchemaInferrer(CSV, 0);
+        SchemaInferrer left = new SchemaInferrer(CSV, 0);
+        SchemaInferrer right = new SchemaInferrer(CSV, 0);
+        String[] lines = { "1,a", "2,b", "3.5,c,extra", "4,d" };
+        for (int i = 0; i < lines.length; i++) {
+            whole.accept(lines[i]);
+            ((i < 2) ? left : right).accept(lines[i]);
+        }
+
+        // Merging the halves gives the same answer as reading everything
+        left.merge(right);
+        assertArrayEquals(whole.getSchema(), left.getSchema());
+        assertEquals(whole.getRowCount(), left.getRowCount());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(whole.getColumns()[i].getMissingCount(), left.getColumns()[i].getMissingCount());
+        }
+    }
+
+    @Test
+    public void testMergeKeepsRange() {
+
+        // A part with no numbers does not clear the range, whichever side it is on
+        for (boolean numbersFirst : new boolean[] { true, false }) {
+            SchemaInferrer numbers = new SchemaInferrer(CSV, 0);
+            numbers.accept("5");
+            numbers.accept("9");
+            SchemaInferrer empty = new SchemaInferrer(CSV, 0);
+            empty.accept("");
+
+            SchemaInferrer merged = (numbersFirst) ? numbers : empty;
+            merged.merge((numbersFirst) ? empty : numbers);
+            ColumnProfile column = merged.getColumns()[0];
+            assertEquals(5.0, column.getMin(), 0.0);
+            assertEquals(9.0, column.getMax(), 0.0);
+            assertEquals(1, column.getMissingCount());
+        }
+    }
+
+    @Test
+    public void testParallelSampling() {
+
+        // A parallel stream merges partial results
+        SchemaInferrer inferrer = IntStream.range(0, 100000).parallel().mapToObj(Integer::toString)
+                .collect(SchemaInferrer.collector(CSV, 16));
+
+        ColumnProfile column = inferrer.getColumns()[0];
+        assertEquals(100000, column.getCount());
+        assertEquals(99999.0, column.getMax(), 0.0);
+
+        // The sample is full, and only holds real values
+        Token[] samples = column.getSamples();
+        assertEquals(16, samples.length);
+        for (Token sample : samples) {
+            assertEquals(Types.INTEGER, sample.getPrimaryType());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package ca.retrylife.inputlib.selection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class ChoiceSetTest {
+
+    @Test
+    public void testCharacters() {
+
+        // Build a set
+        ChoiceSet set = ChoiceSet.ofCharacters('a', 'b', 'c');
+
+        // Check membership
+        assertTrue(set.isCharacterSet());
+        assertTrue(set.contains('a'));
+        assertTrue(set.contains('c'));
+        assertFalse(set.contains('d'));
+        assertEquals("one of [a,b,c] ", set.getDescription());
+
+        // Characters can not be checked as integers
+        assertThrows(IllegalStateException.class, () -> set.contains(1));
+    }
+
+    @Test
+    public void testIntegers() {
+
+        // Build a set, including the value used for empty slots
+        ChoiceSet set = ChoiceSet.ofIntegers(1, 10, 100, -5, Integer.MIN_VALUE, 10);
+
+        // Check membership
+        assertFalse(set.isCharacterSet());
+        assertTrue(set.contains(1));
+        assertTrue(set.contains(100));
+        assertTrue(set.contains(-5));
+        assertTrue(set.contains(Integer.MIN_VALUE));
+        assertFalse(set.contains(2));
+        assertFalse(set.contains(Integer.MAX_VALUE));
+        assertEquals("one of [1,10,100,-5,-2147483648,10] ", set.getDescription());
+    }
+
+    @Test
+    public void testLargeIntegerSet() {
+
+        // Every even number below 100k
+        int[] values = new int[50_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i * 2;
+        }
+        ChoiceSet set = ChoiceSet.ofIntegers(values);
+
+        // Check membership
+        for (int i = 0; i < 100_000; i++) {
+            assertEquals(i % 2 == 0, set.contains(i));
+        }
+    }
+
+    @Test
+    public void testEmptySet() {
+        assertFalse(ChoiceSet.ofIntegers().contains(0));
+        assertFalse(ChoiceSet.ofCharacters().contains('a'));
+    }
+}
@@ -0,0 +1,70 @@
+package ca.retrylife.inputlib.selection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+public class EnumIndexTest {
+
+    // Enum used by most tests
+    private enum Color {
+        RED, GREEN, GREY, BLUE, BLUEBERRY
+    }
+
+    // Names that only differ by case
+    private enum Mixed {
+        VALUE, value, Other
+    }
+
+    // Index used by most tests
+    private static final EnumIndex<Color> COLORS = EnumIndex.of(Color.class);
+
+    @Test
+    public void testNames() {
+
+        // Case-insensitive, with surrounding whitespace ignored
+        assertEquals(Color.GREEN.ordinal(), COLORS.match("green"));
+        assertEquals(Color.GREY.ordinal(), COLORS.match("  Grey "));
+        assertEquals(EnumIndex.NO_MATCH, COLORS.match("purple"));
+        assertEquals(EnumIndex.NO_MATCH, COLORS.match(""));
+    }
+
+    @Test
+    public void testPrefixes() {
+
+        // Unique prefixes pick a constant, shared ones do not
+        assertEquals(Color.RED.ordinal(), COLORS.match("r"));
+        assertEquals(Color.GREEN.ordinal(), COLORS.match("gree"));
+        assertEquals(EnumIndex.AMBIGUOUS, COLORS.match("gr"));
+        assertEquals("one of [GREEN,GREY] ", COLORS.getCandidates("gr"));
+
+        // A whole name wins over a longer name it starts
+        assertEquals(Color.BLUE.ordinal(), COLORS.match("blue"));
+        assertEquals(Color.BLUEBERRY.ordinal(), COLORS.match("blueb"));
+    }
+
+    @Test
+    public void testIndexes() {
+        assertEquals(0, COLORS.match("0"));
+        assertEquals(4, COLORS.match("4"));
+        assertEquals(EnumIndex.NO_MATCH, COLORS.match("5"));
+        assertEquals(EnumIndex.NO_MATCH, COLORS.match("99999999999"));
+    }
+
+    @Test
+    public void testCaseCollisions() {
+
+        // Only an exact-case answer can pick between VALUE and value
+        EnumIndex<Mixed> index = EnumIndex.of(Mixed.class);
+        assertEquals(Mixed.VALUE.ordinal(), index.match("VALUE"));
+        assertEquals(Mixed.value.ordinal(), index.match("value"));
+        assertEquals(EnumIndex.AMBIGUOUS, index.match("Value"));
+        assertEquals(Mixed.Other.ordinal(), index.match("o"));
+    }
+
+    @Test
+    public void testCached() {
+        assertSame(COLORS, EnumIndex.of(Color.class));
+    }
+}
@@ -0,0 +1,79 @@
+package ca.retrylife.inputlib.selection;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class OptionIndexTest {
+
+    // Options used by every test
+    private static final OptionIndex INDEX = new OptionIndex("Banana", "Apple", "Pineapple", "Apricot", "Grape",
+            "Grapefruit");
+
+    /**
+     * Run a search, and get the matches
+     *
+     * @param term Search term
+     * @param skip Matches to skip
+     * @param max  Maximum matches
+     * @return Matching option indexes
+     */
+    private static int[] search(String term, int skip, int max) {
+        int[] results = new int[max];
+        return Arrays.copyOf(results, INDEX.search(term, skip, results));
+    }
+
+    @Test
+    public void testPrefixBeforeSubstring() {
+
+        // Apple and Apricot start with "ap", Pineapple and Grape only contain it
+        assertArrayEquals(new int[] { 1, 3, 2, 4, 5 }, search("ap", 0, 10));
+    }
+
+    @Test
+    public void testCaseInsensitive() {
+        assertArrayEquals(search("grape", 0, 10), search("GRAPE", 0, 10));
+    }
+
+    @Test
+    public void testPaging() {
+
+        // The second page picks up where the first left off
+        assertArrayEquals(new int[] { 1, 3 }, search("ap", 0, 2));
+        assertArrayEquals(new int[] { 2, 4 }, search("ap", 2, 2));
+
+        // Pages can start part way through either kind of match
+        assertArrayEquals(new int[] { 3, 2 }, search("ap", 1, 2));
+        assertArrayEquals(new int[] { 4, 5 }, search("ap", 3, 10));
+        assertEquals(0, search("ap", 5, 10).length);
+    }
+
+    @Test
+    public void testNoMatches() {
+        assertEquals(0, search("kiwi", 0, 10).length);
+    }
+
+    @Test
+    public void testLargeList() {
+
+        // Build a large list
+        String[] options = new String[50_000];
+        for (int i = 0; i < options.length; i++) {
+            options[i] = String.format("Catalog item %05d", i);
+        }
+        OptionIndex index = new OptionIndex(options);
+
+        // Search for a single item
+        int[] results = new int[10];
+        assertEquals(1, index.search("item 04242", 0, results));
+        assertEquals("Catalog item 04242", index.get(results[0]));
+
+        // Search for a common term
+        assertEquals(10, index.search("catalog", 0, results));
+        assertTrue(index.get(results[0]).startsWith("Catalog"));
+    }
+}
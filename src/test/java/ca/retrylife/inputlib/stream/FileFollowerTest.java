@@ -0,0 +1,154 @@
+package ca.retrylife.inputlib.stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import ca.retrylife.inputlib.types.Token;
+import ca.retrylife.inputlib.types.Types;
+
+public class FileFollowerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Append text to a file
+     *
+     * @param file File
+     * @param text Text
+     * @throws IOException if the file can not be written
+     */
+    private static void append(Path file, String text) throws IOException {
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Render Tokens as Strings
+     *
+     * @param tokens Tokens
+     * @return Strings
+     */
+    private static List<String> strings(List<Token> tokens) {
+        List<String> out = new ArrayList<>();
+        tokens.forEach((token) -> out.add(token.getString()));
+        tokens.clear();
+        return out;
+    }
+
+    @Test
+    public void testPartialLines() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("app.log");
+        List<Token> tokens = new ArrayList<>();
+
+        // Small chunks, so lines cross reads
+        try (FileFollower follower = new FileFollower(file, tokens::add, 0, 3, 100)) {
+
+            // Nothing to read until the file exists
+            assertEquals(0, follower.poll());
+
+            append(file, "42\nhel");
+            assertEquals(1, follower.poll());
+            assertEquals(Types.INTEGER, tokens.get(0).getPrimaryType());
+            assertEquals(List.of("42"), strings(tokens));
+            assertEquals(3, follower.getOffset());
+
+            // The partial line is finished by the next append
+            append(file, "lo world\r\n2.5\n");
+            assertEquals(2, follower.poll());
+            assertEquals(List.of("hello world", "2.5"), strings(tokens));
+            assertEquals(0, follower.poll());
+
+            // Resume from the last whole line
+            append(file, "true\n");
+            try (FileFollower resumed = new FileFollower(file, tokens::add, follower.getOffset(), 8192, 100)) {
+                assertEquals(1, resumed.poll());
+                assertEquals(Types.BOOLEAN, tokens.get(0).getPrimaryType());
+            }
+        }
+    }
+
+    @Test
+    public void testTruncation() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("app.log");
+        List<Token> tokens = new ArrayList<>();
+        append(file, "a\nb\npart");
+
+        try (FileFollower follower = new FileFollower(file, tokens::add)) {
+            follower.poll();
+            assertEquals(List.of("a", "b"), strings(tokens));
+
+            // The unfinished line ends with the old contents
+            Files.write(file, "c\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.TRUNCATE_EXISTING);
+            follower.poll();
+            assertEquals(List.of("part", "c"), strings(tokens));
+        }
+    }
+
+    @Test
+    public void testRotation() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("app.log");
+        Path rotated = folder.getRoot().toPath().resolve("app.log.1");
+        List<Token> tokens = new ArrayList<>();
+        append(file, "1\n2");
+
+        try (FileFollower follower = new FileFollower(file, tokens::add)) {
+            follower.poll();
+            assertEquals(List.of("1"), strings(tokens));
+
+            // The old file is still read until the new one appears
+            Files.move(file, rotated);
+            append(rotated, "3\n4");
+            assertEquals(1, follower.poll());
+            assertEquals(List.of("23"), strings(tokens));
+
+            // Then its last line is finished, and the new one is read
+            append(file, "5\n");
+            assertEquals(2, follower.poll());
+            assertEquals(List.of("4", "5"), strings(tokens));
+        }
+    }
+
+    @Test
+    public void testFollow() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("app.log");
+        BlockingQueue<Token> tokens = new LinkedBlockingQueue<>();
+        FileFollower follower = new FileFollower(file, tokens::add, 0, 8192, 50);
+
+        Thread thread = new Thread(() -> {
+            try {
+                follower.follow();
+            } catch (IOException | InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        thread.start();
+
+        // Lines are picked up as they are written
+        for (int i = 0; i < 5; i++) {
+            append(file, i + "\n");
+            Token token = tokens.poll(5, TimeUnit.SECONDS);
+            assertNotNull(token);
+            assertEquals(Integer.valueOf(i), token.getInteger());
+        }
+
+        follower.close();
+        thread.join(5000);
+        assertEquals(false, thread.isAlive());
+    }
+}
@@ -0,0 +1,121 @@
+package ca.retrylife.inputlib.stream;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import ca.retrylife.inputlib.RecordTokenizer;
+import ca.retrylife.inputlib.types.Token;
+
+public class PushParserTest {
+
+    // Lines covering every type, edge cases of each base, and multi-byte chars
+    private static final String[] LINES = { "42", "0x1F", "0x-80000000", "0x+5", "0xFFFFFFFF", "0b101", "0b",
+            "2147483648", "1700000000000", "0xFFFFFFFFFF", "0x-8000000000000000", "9223372036854775808", "1_000", "0x1_F", "0b1_0", "0x_", "0b_", "1_000_000_000_000_000_000_000",
+            "0x1FFFFFFFFFFFFFFFF", "1234567.123456789", "2.5f", "1_000.5", "1.2.3", "f", "5", "\u0663", "yes", "deny", "YES", "a", "x", ".", "", "hello world",
+            "h\u00e9llo", "\u65e5\u672c", "\ud83d\ude00", "1x", "0x1.5" };
+
+    /**
+     * Parse chunks, collecting every Token
+     * 
+     * @param chunks Chunks
+     * @return Tokens
+     */
+    private static List<Token> parse(List<ByteBuffer> chunks) {
+        List<Token> tokens = new ArrayList<>();
+        PushParser parser = new PushParser(tokens::add);
+        for (ByteBuffer chunk : chunks) {
+            parser.push(chunk);
+        }
+        parser.finish();
+        return tokens;
+    }
+
+    /**
+     * Check that Tokens match what the line-at-a-time Parser gives
+     * 
+     * @param tokens Tokens
+     */
+    private static void assertMatchesParser(List<Token> tokens) {
+        assertEquals(LINES.length, tokens.size());
+        for (int i = 0; i < LINES.length; i++) {
+            Token expected = RecordTokenizer.parseField(LINES[i]);
+            assertEquals(LINES[i], expected.getPrimaryType(), tokens.get(i).getPrimaryType());
+            assertEquals(LINES[i], expected.toString(), tokens.get(i).toString());
+        }
+    }
+
+    @Test
+    public void testEverySplitPoint() {
+
+        // Mixed line endings, and no final line break
+        byte[] bytes = String.join("\r\n", LINES).getBytes(StandardCharsets.UTF_8);
+
+        // Split in two at every byte, including inside multi-byte chars
+        for (int split = 0; split <= bytes.length; split++) {
+            List<ByteBuffer> chunks = new ArrayList<>();
+            chunks.add(ByteBuffer.wrap(bytes, 0, split));
+            chunks.add(ByteBuffer.wrap(bytes, split, bytes.length - split));
+            assertMatchesParser(parse(chunks));
+        }
+    }
+
+    @Test
+    public void testOneByteAtATime() {
+        byte[] bytes = (String.join("\n", LINES) + "\n").getBytes(StandardCharsets.UTF_8);
+
+        // Direct buffers take the non-array path
+        List<ByteBuffer> chunks = new ArrayList<>();
+        for (byte b : bytes) {
+            ByteBuffer chunk = ByteBuffer.allocateDirect(1);
+            chunk.put(b).flip();
+            chunks.add(chunk);
+        }
+        assertMatchesParser(parse(chunks));
+    }
+
+    @Test
+    public void testEmitsAsLinesEnd() {
+        List<Token> tokens = new ArrayList<>();
+        PushParser parser = new PushParser(tokens::add);
+
+        // Nothing is emitted until the line break arrives
+        parser.push(ByteBuffer.wrap("12".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(0, tokens.size());
+        parser.push(ByteBuffer.wrap("34\r".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(1, tokens.size());
+        assertEquals(1234, (int) tokens.get(0).getInteger());
+
+        // The LF of a CRLF split across chunks is not an empty line
+        parser.push(ByteBuffer.wrap("\n".getBytes(StandardCharsets.UTF_8)));
+        parser.finish();
+        assertEquals(1, tokens.size());
+    }
+
+    @Test
+    public void testTruncatedSequence() {
+
+        // A line break or the end of the input cuts off a three byte char. Only
+        // that char is replaced, and the lines after it are unaffected
+        byte[] bytes = { (byte) 0xE2, '\n', 'a', '\n', '5', '\n', (byte) 0xE2, (byte) 0x82 };
+        String[] expected = { "\ufffd", "a", "5", "\ufffd" };
+        for (int size = 1; size <= bytes.length; size++) {
+            List<ByteBuffer> chunks = new ArrayList<>();
+            for (int i = 0; i < bytes.length; i += size) {
+                chunks.add(ByteBuffer.wrap(bytes, i, Math.min(size, bytes.length - i)));
+            }
+            List<Token> tokens = parse(chunks);
+            assertEquals(expected.length, tokens.size());
+            for (int i = 0; i < expected.length; i++) {
+                Token token = RecordTokenizer.parseField(expected[i]);
+                assertEquals(token.getPrimaryType(), tokens.get(i).getPrimaryType());
+                assertEquals(token.toString(), tokens.get(i).toString());
+            }
+        }
+    }
+}
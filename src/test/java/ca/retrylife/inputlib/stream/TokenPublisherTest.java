@@ -0,0 +1,312 @@
+package ca.retrylife.inputlib.stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+import ca.retrylife.inputlib.types.Token;
+import ca.retrylife.inputlib.types.Types;
+
+/**
+ * Checks the Reactive Streams rules that apply to the publishers and the
+ * processor. Rule numbers follow the Reactive Streams specification
+ */
+public class TokenPublisherTest {
+
+    /**
+     * A channel over the lines "0" to "count - 1" that counts its reads
+     */
+    private static class CountingChannel implements ReadableByteChannel {
+        private final ByteBuffer data;
+        private int reads = 0;
+        private boolean open = true;
+
+        CountingChannel(int count) {
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < count; i++) {
+                text.append(i).append('\n');
+            }
+            data = ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int read(ByteBuffer dst) {
+            reads++;
+            if (!data.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(dst.remaining(), data.remaining());
+            ByteBuffer slice = data.slice();
+            slice.limit(n);
+            dst.put(slice);
+            data.position(data.position() + n);
+            return n;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void close() {
+            open = false;
+        }
+    }
+
+    /**
+     * A subscriber that records every signal, and checks they are serial
+     */
+    private static class Recorder<T> implements Flow.Subscriber<T> {
+        final List<T> items = new ArrayList<>();
+        final CountDownLatch done = new CountDownLatch(1);
+        final AtomicBoolean inSignal = new AtomicBoolean();
+        Flow.Subscription subscription;
+        int subscribes = 0;
+        int completes = 0;
+        Throwable error;
+        boolean overlapped = false;
+
+        private void enter() {
+            if (!inSignal.compareAndSet(false, true)) {
+                overlapped = true;
+            }
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            enter();
+            this.subscription = subscription;
+            subscribes++;
+            inSignal.set(false);
+        }
+
+        @Override
+        public void onNext(T item) {
+            enter();
+            items.add(item);
+            inSignal.set(false);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            enter();
+            error = throwable;
+            done.countDown();
+            inSignal.set(false);
+        }
+
+        @Override
+        public void onComplete() {
+            enter();
+            completes++;
+            done.countDown();
+            inSignal.set(false);
+        }
+    }
+
+    @Test
+    public void testDemandIsRespected() {
+
+        // Rule 1.1. One line per read, so reads show how far ahead the publisher got
+        CountingChannel channel = new CountingChannel(100);
+        Recorder<Token> recorder = new Recorder<>();
+        new TokenPublisher(channel, Runnable::run, 2).subscribe(recorder);
+
+        recorder.subscription.request(5);
+        assertEquals(5, recorder.items.size());
+        int reads = channel.reads;
+        assertTrue("Read too far ahead: " + reads, reads <= 6);
+
+        // Without demand, nothing more is read
+        assertEquals(reads, channel.reads);
+
+        // Rule 1.5 and 1.7. Everything arrives, then one onComplete
+        recorder.subscription.request(Long.MAX_VALUE);
+        assertEquals(100, recorder.items.size());
+        assertEquals(99, (int) recorder.items.get(99).getInteger());
+        assertEquals(1, recorder.completes);
+        assertFalse(channel.isOpen());
+    }
+
+    @Test
+    public void testNonPositiveRequest() {
+
+        // Rule 3.9
+        CountingChannel channel = new CountingChannel(10);
+        Recorder<Token> recorder = new Recorder<>();
+        new TokenPublisher(channel, Runnable::run, 64).subscribe(recorder);
+
+        recorder.subscription.request(0);
+        assertTrue(recorder.error instanceof IllegalArgumentException);
+        assertFalse(channel.isOpen());
+    }
+
+    @Test
+    public void testSecondSubscriberRejected() {
+
+        // Rule 1.9. The rejected subscriber still gets onSubscribe first
+        TokenPublisher publisher = new TokenPublisher(new CountingChannel(10), Runnable::run, 64);
+        publisher.subscribe(new Recorder<>());
+        Recorder<Token> second = new Recorder<>();
+        publisher.subscribe(second);
+
+        assertEquals(1, second.subscribes);
+        assertTrue(second.error instanceof IllegalStateException);
+    }
+
+    @Test
+    public void testCancel() {
+
+        // Rules 3.5 and 3.6. Cancelling stops signals and releases the channel
+        CountingChannel channel = new CountingChannel(10);
+        Recorder<Token> recorder = new Recorder<>();
+        new TokenPublisher(channel, Runnable::run, 64).subscribe(recorder);
+
+        recorder.subscription.request(2);
+        recorder.subscription.cancel();
+        recorder.subscription.request(5);
+
+        assertEquals(2, recorder.items.size());
+        assertEquals(0, recorder.completes);
+        assertFalse(channel.isOpen());
+    }
+
+    @Test
+    public void testBatches() {
+
+        // Each request is one array, and only the last one is short
+        Recorder<Token[]> recorder = new Recorder<>();
+        new TokenBatchPublisher(new CountingChannel(100), 8, Runnable::run, 16).subscribe(recorder);
+
+        recorder.subscription.request(3);
+        assertEquals(3, recorder.items.size());
+        recorder.subscription.request(Long.MAX_VALUE);
+        assertEquals(13, recorder.items.size());
+        assertEquals(4, recorder.items.get(12).length);
+        assertEquals(96, (int) recorder.items.get(12)[0].getInteger());
+    }
+
+    @Test
+    public void testOwnThread() throws Exception {
+
+        // Rule 1.3. Signals from the reader thread are serial
+        Recorder<Token> recorder = new Recorder<>();
+        new TokenPublisher(new CountingChannel(10000)).subscribe(recorder);
+        recorder.subscription.request(Long.MAX_VALUE);
+
+        assertTrue(recorder.done.await(10, TimeUnit.SECONDS));
+        assertEquals(10000, recorder.items.size());
+        assertFalse(recorder.overlapped);
+    }
+
+    @Test
+    public void testProcessor() {
+
+        // Demand passes straight through to the lines publisher
+        SubmissionPublisher<String> lines = new SubmissionPublisher<>(Runnable::run, 16);
+        LineTokenProcessor processor = new LineTokenProcessor();
+        Recorder<Token> recorder = new Recorder<>();
+        processor.subscribe(recorder);
+        lines.subscribe(processor);
+
+        recorder.subscription.request(2);
+        lines.submit("42");
+        lines.submit("yes");
+        lines.submit("hello world");
+        assertEquals(2, recorder.items.size());
+        assertEquals(Types.INTEGER, recorder.items.get(0).getPrimaryType());
+        assertEquals(Types.BOOLEAN, recorder.items.get(1).getPrimaryType());
+
+        recorder.subscription.request(1);
+        lines.close();
+        assertEquals(3, recorder.items.size());
+        assertEquals("hello world", recorder.items.get(2).getString());
+        assertEquals(1, recorder.completes);
+    }
+
+    @Test
+    public void testProcessorNonPositiveRequest() {
+
+        // Rules 1.3 and 3.9. The error is the only terminal signal, and nothing
+        // from upstream follows it
+        SubmissionPublisher<String> lines = new SubmissionPublisher<>(Runnable::run, 16);
+        LineTokenProcessor processor = new LineTokenProcessor();
+        Recorder<Token> recorder = new Recorder<>();
+        processor.subscribe(recorder);
+        lines.subscribe(processor);
+
+        recorder.subscription.request(-1);
+        assertTrue(recorder.error instanceof IllegalArgumentException);
+        processor.onNext("42");
+        processor.onComplete();
+        processor.onError(new IllegalStateException());
+        assertEquals(0, recorder.items.size());
+        assertEquals(0, recorder.completes);
+        assertTrue(recorder.error instanceof IllegalArgumentException);
+        assertFalse(recorder.overlapped);
+    }
+
+    @Test
+    public void testProcessorRequestDuringOnNext() throws Exception {
+
+        // Rule 1.3. An invalid request made while a Token is being passed on is
+        // only signalled once the subscriber's onNext returns
+        CountDownLatch inNext = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Recorder<Token> recorder = new Recorder<Token>() {
+            @Override
+            public void onNext(Token item) {
+                super.onNext(item);
+
+                // Stay inside onNext until the test lets go
+                inSignal.set(true);
+                inNext.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                inSignal.set(false);
+            }
+        };
+        LineTokenProcessor processor = new LineTokenProcessor();
+        processor.subscribe(recorder);
+        processor.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+        recorder.subscription.request(1);
+
+        Thread upstream = new Thread(() -> processor.onNext("42"));
+        upstream.start();
+        assertTrue(inNext.await(10, TimeUnit.SECONDS));
+        recorder.subscription.request(0);
+        assertNull(recorder.error);
+
+        release.countDown();
+        upstream.join();
+        assertTrue(recorder.error instanceof IllegalArgumentException);
+        assertEquals(1, recorder.items.size());
+        assertFalse(recorder.overlapped);
+    }
+}
@@ -0,0 +1,142 @@
+package ca.retrylife.inputlib.table;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import ca.retrylife.inputlib.exceptions.TableFormatException;
+import ca.retrylife.inputlib.types.Types;
+
+public class TableReaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testQuoting() throws Exception {
+
+        // Quoted fields can hold delimiters, line breaks, and doubled quotes
+        String csv = "name,note\r\n\"Smith, J\",\"line one\nline two\"\r\nplain,\"say \"\"hi\"\"\"\r\n";
+        Table table = TableReader.csv().withHeader(true).read(new StringReader(csv));
+
+        assertEquals(2, table.getRowCount());
+        assertArrayEquals(new String[] { "name", "note" }, table.getColumnNames());
+        assertEquals("Smith, J", table.getColumn("name").getString(0));
+        assertEquals("line one\nline two", table.getColumn("note").getString(0));
+        assertEquals("say \"hi\"", table.getColumn("note").getString(1));
+    }
+
+    @Test
+    public void testSeparators() throws Exception {
+
+        // "_" separators work in every number type, inferred or declared
+        String csv = "1_000,2_000_000_000_000,1_0.5,0x1_F\n2,3,4,5\n";
+        Table inferred = TableReader.csv().read(new StringReader(csv));
+        assertEquals(Types.INTEGER, inferred.getColumn(0).getType());
+        assertEquals(1000, inferred.getColumn(0).getInteger(0));
+        assertEquals(Types.LONG, inferred.getColumn(1).getType());
+        assertEquals(2_000_000_000_000L, inferred.getColumn(1).getLong(0));
+        assertEquals(10.5, inferred.getColumn(2).getDouble(0), 0.0);
+        assertEquals(31, inferred.getColumn(3).getInteger(0));
+
+        Table declared = TableReader.csv().withSchema(Types.INTEGER, Types.LONG, Types.DOUBLE, Types.FLOAT)
+                .read(new StringReader(csv));
+        assertEquals(1000, declared.getColumn(0).getInteger(0));
+        assertEquals(2_000_000_000_000L, declared.getColumn(1).getLong(0));
+        assertEquals(10.5, declared.getColumn(2).getDouble(0), 0.0);
+        assertEquals(31.0f, declared.getColumn(3).getFloat(0), 0.0f);
+    }
+
+    @Test
+    public void testInferredTypes() throws Exception {
+
+        // Parser rules apply to every cell
+        String tsv = "0x10\t1_000.5\t2.5f\tyes\tq\n0b11\t3\t1\tdeny\tr\n\t\t\t\t\n";
+        Table table = TableReader.tsv().read(new StringReader(tsv));
+
+        Column ints = table.getColumn(0);
+        assertEquals(Types.INTEGER, ints.getType());
+        assertEquals(16, ints.getInteger(0));
+        assertEquals(3, ints.getInteger(1));
+        assertTrue(ints.isMissing(2));
+
+        assertEquals(Types.DOUBLE, table.getColumn(1).getType());
+        assertEquals(1000.5, table.getColumn(1).getDouble(0), 0.0);
+        assertEquals(Types.FLOAT, table.getColumn(2).getType());
+        assertEquals(2.5f, table.getColumn(2).getFloat(0), 0.0f);
+        assertEquals(false, table.getColumn(3).getBoolean(1));
+        assertEquals('r', table.getColumn(4).getCharacter(1));
+    }
+
+    @Test
+    public void testSchemaMismatch() {
+
+        // A double does not fit an Integer column
+        TableReader reader = TableReader.csv().withSchema(Types.INTEGER, Types.STRING);
+
+        TableFormatException e = assertThrows(TableFormatException.class,
+                () -> reader.read(new StringReader("1,a\n2.5,b\n")));
+        assertTrue(e.getMessage().startsWith("Record 2, column 0"));
+    }
+
+    @Test
+    public void testParallelMatchesStreaming() throws Exception {
+
+        // Enough rows for many small chunks, with line breaks inside quotes
+        StringBuilder csv = new StringBuilder("id,label,ok\n");
+        for (int i = 0; i < 5000; i++) {
+            csv.append(i).append(",\"row\n").append(i).append("\",").append((i % 2 == 0) ? "yes" : "no").append('\n');
+        }
+        Path file = folder.newFile("rows.csv").toPath();
+        Files.write(file, csv.toString().getBytes(StandardCharsets.UTF_8));
+
+        TableReader reader = TableReader.csv().withHeader(true).withChunkSize(4096);
+        Table parallel = reader.read(file, StandardCharsets.UTF_8);
+        Table streaming = reader.read(new StringReader(csv.toString()));
+
+        assertEquals(5000, parallel.getRowCount());
+        assertEquals(streaming.getRowCount(), parallel.getRowCount());
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(i, parallel.getColumn("id").getInteger(i));
+            assertEquals("row\n" + i, parallel.getColumn("label").getString(i));
+            assertEquals(i % 2 == 0, parallel.getColumn("ok").getBoolean(i));
+        }
+    }
+
+    @Test
+    public void testStrayQuotes() throws Exception {
+
+        // A quote inside an unquoted field is plain text, so it must not throw
+        // off where the file is split. Doubled quotes and quoted line breaks
+        // come later
+        StringBuilder csv = new StringBuilder("5in\",1\n");
+        for (int i = 0; i < 100; i++) {
+            csv.append(i).append(",\"a \"\"b\"\"\nc\"\n");
+        }
+        csv.append("6ft\"2,2\n");
+        Path file = folder.newFile("quotes.csv").toPath();
+        Files.write(file, csv.toString().getBytes(StandardCharsets.UTF_8));
+
+        TableReader reader = TableReader.csv().withChunkSize(64);
+        Table parallel = reader.read(file, StandardCharsets.UTF_8);
+        Table streaming = reader.read(new StringReader(csv.toString()));
+
+        assertEquals(102, streaming.getRowCount());
+        assertEquals(102, parallel.getRowCount());
+        assertEquals("5in\"", parallel.getColumn(0).getString(0));
+        for (int i = 1; i <= 100; i++) {
+            assertEquals("a \"b\"\nc", parallel.getColumn(1).getString(i));
+        }
+        assertEquals("6ft\"2", parallel.getColumn(0).getString(101));
+    }
+}
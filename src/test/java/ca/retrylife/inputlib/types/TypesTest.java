@@ -5,6 +5,11 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+
 import org.junit.Test;
 
 public class TypesTest {
@@ -129,4 +134,89 @@ public class TypesTest {
         assertEquals(true, Types.BOOLEAN.toBoolean(true));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testLong() {
+
+        // Check convertibility
+        assertTrue("Long can be converted to a String", Types.LONG.canConvertTo(Types.STRING));
+        assertTrue("Long can be converted to a Character", Types.LONG.canConvertTo(Types.CHARACTER));
+        assertTrue("Long can be converted to a Integer", Types.LONG.canConvertTo(Types.INTEGER));
+        assertTrue("Long can be converted to a Double", Types.LONG.canConvertTo(Types.DOUBLE));
+        assertTrue("Long can be converted to a Float", Types.LONG.canConvertTo(Types.FLOAT));
+        assertTrue("Long can be converted to a Boolean", Types.LONG.canConvertTo(Types.BOOLEAN));
+        assertFalse("String can not be converted to a Long", Types.STRING.canConvertTo(Types.LONG));
+
+        // Check conversions
+        assertEquals("5000000000", Types.LONG.toString(5000000000L));
+        assertEquals((Character) (char) 100, Types.LONG.toCharacter(100L));
+        assertEquals((Integer) 705032704, Types.LONG.toInteger(5000000000L));
+        assertEquals((Double) 5.0E9, Types.LONG.toDouble(5000000000L));
+        assertEquals((Float) 5.0E9f, Types.LONG.toFloat(5000000000L));
+        assertEquals(true, Types.LONG.toBoolean(5000000000L));
+        assertEquals((Long) 100L, Types.INTEGER.toLong(100));
+        assertEquals((Long) 1L, Types.BOOLEAN.toLong(true));
+    }
+
+    @Test
+    public void testBigInteger() {
+        BigNumber big = BigNumber.parse("18446744073709551621", 0, 20, 10, false);
+
+        // Check convertibility
+        assertTrue("BigInteger can be converted to a Long", Types.BIG_INTEGER.canConvertTo(Types.LONG));
+        assertFalse("String can not be converted to a BigInteger", Types.STRING.canConvertTo(Types.BIG_INTEGER));
+
+        // Check conversions. Narrowing keeps the low bits, like a cast
+        assertFalse(big.isCompact());
+        assertEquals("18446744073709551621", Types.BIG_INTEGER.toString(big));
+        assertEquals((Long) 5L, Types.BIG_INTEGER.toLong(big));
+        assertEquals((Integer) 5, Types.BIG_INTEGER.toInteger(big));
+        assertEquals((Double) 1.8446744073709552E19, Types.BIG_INTEGER.toDouble(big));
+        assertEquals(true, Types.BIG_INTEGER.toBoolean(big));
+        assertEquals(new BigInteger("18446744073709551621"), Types.BIG_INTEGER.toBigInteger(big));
+        assertEquals(new BigDecimal("18446744073709551621"), Types.BIG_INTEGER.toBigDecimal(big));
+        assertEquals(BigInteger.valueOf(100), Types.INTEGER.toBigInteger(100));
+        assertEquals(BigInteger.valueOf(2), Types.DOUBLE.toBigInteger(2.9));
+    }
+
+    @Test
+    public void testBigDecimal() {
+        BigNumber big = BigNumber.parse("-12_345_678_901.000000000001", 0, 28, 10, true);
+
+        // Check conversions. Narrowing truncates and clamps, like a double cast
+        assertFalse(big.isCompact());
+        assertEquals(12, big.scale());
+        assertEquals("-12345678901.000000000001", Types.BIG_DECIMAL.toString(big));
+        assertEquals((Long) (-12345678901L), Types.BIG_DECIMAL.toLong(big));
+        assertEquals((Integer) Integer.MIN_VALUE, Types.BIG_DECIMAL.toInteger(big));
+        assertEquals(new BigDecimal("-12345678901.000000000001"), Types.BIG_DECIMAL.toBigDecimal(big));
+        assertEquals(new BigInteger("-12345678901"), Types.BIG_DECIMAL.toBigInteger(big));
+        assertEquals(new BigDecimal("0.1"), Types.DOUBLE.toBigDecimal(0.1));
+        assertEquals("0.05", BigNumber.parse(".05", 0, 3, 10, true).toString());
+    }
+
+    @Test
+    public void testTimes() {
+        long day = IsoTime.parseDate("2024-02-29");
+        long nanos = IsoTime.parseTimestamp("2024-02-29T23:30:00.25-01:00");
+
+        // Check convertibility
+        assertTrue("Date can be converted to a Long", Types.DATE.canConvertTo(Types.LONG));
+        assertFalse("Date can not be converted to a Integer", Types.DATE.canConvertTo(Types.INTEGER));
+        assertFalse("Long can not be converted to a Timestamp", Types.LONG.canConvertTo(Types.TIMESTAMP));
+
+        // Check conversions
+        assertEquals(LocalDate.of(2024, 2, 29).toEpochDay(), day);
+        assertEquals("2024-02-29", Types.DATE.toString(day));
+        assertEquals((Long) day, Types.DATE.toLong(day));
+        assertEquals("2024-03-01T00:30:00.250Z", Types.TIMESTAMP.toString(nanos));
+        assertEquals(Instant.parse("2024-03-01T00:30:00.250Z"), Types.TIMESTAMP.toInstant(nanos));
+        assertEquals(LocalDate.of(2024, 3, 1), Types.TIMESTAMP.toLocalDate(nanos));
+        assertEquals(Instant.parse("2024-02-29T00:00:00Z"), Types.DATE.toInstant(day));
+
+        // Invalid dates
+        assertEquals(IsoTime.INVALID, IsoTime.parseDate("2023-02-29"));
+        assertEquals(IsoTime.INVALID, IsoTime.parseTimestamp("2024-01-01T24:00"));
+        assertEquals(IsoTime.INVALID, IsoTime.parseTimestamp("2300-01-01T00:00Z"));
+    }
+
+}